@@ -0,0 +1,136 @@
+package edu.csupomona.cs.cs411.project1.bench;
+
+import edu.csupomona.cs.cs411.project1.trie.ConcurrentMultiTrie;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class represents benchmarks of a single {@link ConcurrentMultiTrie}
+ * shared by every benchmark thread. Throughput scaling is measured by running
+ * the same benchmark with increasing numbers of threads, e.g.,
+ * {@code -t 1}, {@code -t 2}, {@code -t 4}, and comparing the total
+ * throughput reported for each.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentTrieBenchmark {
+	/**
+	 * Sentinel used to mark the keys.
+	 */
+	private static final char SENTINEL = '$';
+
+	/**
+	 * Number of distinct keys.
+	 */
+	@Param({ "10000", "100000" })
+	public int numKeys;
+
+	/**
+	 * Keys looked up and inserted. Only the first half of them are inserted
+	 * during setup, so inserts find some keys and add others.
+	 */
+	private String[] keys;
+
+	/**
+	 * Trie shared by every thread.
+	 */
+	private ConcurrentMultiTrie trie;
+
+	/**
+	 * Source of the starting index of each thread.
+	 */
+	private final AtomicInteger threads = new AtomicInteger();
+
+	/**
+	 * Generates the keys and inserts the first half of them into a new trie.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		Random random = new Random(411L);
+		keys = new String[numKeys];
+		for (int i = 0; i < numKeys; i++) {
+			keys[i] = TrieBenchmark.generateKey(random) + 'k';
+		}
+
+		trie = new ConcurrentMultiTrie();
+		for (int i = 0; i < numKeys/2; i++) {
+			trie.insert(keys[i], SENTINEL);
+		}
+	}
+
+	/**
+	 * This class represents the position of a single thread within
+	 * {@link ConcurrentTrieBenchmark#keys}. Threads begin at different
+	 * positions so that they do not look up the same keys in lockstep.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		/**
+		 * Index of the next key.
+		 */
+		int index;
+
+		/**
+		 * Chooses the starting index of this thread.
+		 *
+		 * @param benchmark shared benchmark state
+		 */
+		@Setup(Level.Iteration)
+		public void setUp(ConcurrentTrieBenchmark benchmark) {
+			index = benchmark.threads.getAndIncrement() * 7919 % benchmark.numKeys;
+		}
+
+		/**
+		 * Returns the next key.
+		 *
+		 * @param keys keys to cycle through
+		 * @return the next key
+		 */
+		String next(String[] keys) {
+			String key = keys[index];
+			index = index + 1 == keys.length ? 0 : index + 1;
+			return key;
+		}
+	}
+
+	/**
+	 * Looks up a single key.
+	 *
+	 * @param cursor position of this thread
+	 * @return whether the key was found
+	 */
+	@Benchmark
+	public boolean contains(Cursor cursor) {
+		return trie.contains(cursor.next(keys), SENTINEL);
+	}
+
+	/**
+	 * Inserts a single key, or returns its ID if it is already present.
+	 *
+	 * @param cursor position of this thread
+	 * @return the symbol ID of the key
+	 */
+	@Benchmark
+	public int insertOrGet(Cursor cursor) {
+		return trie.insertOrGet(cursor.next(keys), SENTINEL);
+	}
+}
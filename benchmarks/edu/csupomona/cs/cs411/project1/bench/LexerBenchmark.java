@@ -0,0 +1,200 @@
+package edu.csupomona.cs.cs411.project1.bench;
+
+import edu.csupomona.cs.cs411.project1.lexer.AbstractScanner;
+import edu.csupomona.cs.cs411.project1.lexer.DfaLexer;
+import edu.csupomona.cs.cs411.project1.lexer.Token;
+import edu.csupomona.cs.cs411.project1.lexer.ToyKeywords;
+import edu.csupomona.cs.cs411.project1.lexer.ToyLexer;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class represents benchmarks of lexing an entire Toy program generated
+ * by {@link ToyCorpus}. Each operation lexes the whole program, and the
+ * {@link Counters} report the number of tokens and bytes lexed per second.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexerBenchmark {
+	/**
+	 * Kind of program to lex.
+	 */
+	@Param({ "IDENTIFIER_HEAVY", "NUMERIC_HEAVY", "COMMENT_HEAVY", "STRING_HEAVY", "MIXED" })
+	public ToyCorpus.Kind kind;
+
+	/**
+	 * Number of characters within the program.
+	 */
+	@Param({ "65536" })
+	public int size;
+
+	/**
+	 * Program being lexed.
+	 */
+	private String program;
+
+	/**
+	 * Characters of {@link #program}.
+	 */
+	private char[] chars;
+
+	/**
+	 * UTF-8 encoding of {@link #program}.
+	 */
+	private ByteBuffer bytes;
+
+	/**
+	 * Lexer used by each benchmark. Identifiers are stored within its trie
+	 * during the first operation, so later operations measure lexing
+	 * identifiers which have already been seen.
+	 */
+	private ToyLexer lexer;
+
+	/**
+	 * Lexer used by {@link #dfa(Counters)}.
+	 */
+	private DfaLexer dfaLexer;
+
+	/**
+	 * This class represents the counters reported alongside the throughput
+	 * of each benchmark.
+	 */
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Counters {
+		/**
+		 * Number of tokens generated.
+		 */
+		public long tokens;
+
+		/**
+		 * Number of bytes (UTF-8) lexed.
+		 */
+		public long bytes;
+
+		/**
+		 * Resets the counters before each iteration.
+		 */
+		@Setup(Level.Iteration)
+		public void reset() {
+			tokens = 0;
+			bytes = 0;
+		}
+	}
+
+	/**
+	 * Generates the program and creates the lexers.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		program = ToyCorpus.generate(kind, size);
+		chars = program.toCharArray();
+		bytes = ByteBuffer.wrap(program.getBytes(StandardCharsets.UTF_8));
+		lexer = new ToyLexer();
+		dfaLexer = DfaLexer.forToyKeywords();
+	}
+
+	/**
+	 * Lexes the program one token at a time using
+	 * {@link ToyLexer#next(java.io.Reader)}.
+	 *
+	 * @param counters counters to update
+	 * @return the number of tokens generated
+	 */
+	@Benchmark
+	public int next(Counters counters) {
+		StringReader r = new StringReader(program);
+		int count = 0;
+		for (Token t = lexer.next(r); t != ToyKeywords._EOF; t = lexer.next(r)) {
+			count++;
+		}
+
+		return count(counters, count);
+	}
+
+	/**
+	 * Lexes the characters of the program using
+	 * {@link ToyLexer#scan(char[])}.
+	 *
+	 * @param counters counters to update
+	 * @return the number of tokens generated
+	 */
+	@Benchmark
+	public int scanChars(Counters counters) {
+		return count(counters, drain(lexer.scan(chars)));
+	}
+
+	/**
+	 * Lexes the UTF-8 encoding of the program using
+	 * {@link ToyLexer#scan(java.nio.ByteBuffer)}.
+	 *
+	 * @param counters counters to update
+	 * @return the number of tokens generated
+	 */
+	@Benchmark
+	public int scanBytes(Counters counters) {
+		return count(counters, drain(lexer.scan(bytes.duplicate())));
+	}
+
+	/**
+	 * Lexes the characters of the program using the table-driven
+	 * {@link DfaLexer}.
+	 *
+	 * @param counters counters to update
+	 * @return the number of tokens generated
+	 */
+	@Benchmark
+	public int dfa(Counters counters) {
+		return count(counters, drain(dfaLexer.scan(chars)));
+	}
+
+	/**
+	 * Generates every token of a scanner.
+	 *
+	 * @param scanner scanner to generate tokens with
+	 * @return the number of tokens generated, not including the end of file
+	 *	token
+	 */
+	private static int drain(AbstractScanner scanner) {
+		int count = 0;
+		while (scanner.next() != ToyKeywords._EOF) {
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Adds a lexed program to the specified counters.
+	 *
+	 * @param counters counters to update
+	 * @param count number of tokens generated from the program
+	 * @return the number of tokens generated
+	 */
+	private int count(Counters counters, int count) {
+		counters.tokens += count;
+		counters.bytes += bytes.capacity();
+		return count;
+	}
+}
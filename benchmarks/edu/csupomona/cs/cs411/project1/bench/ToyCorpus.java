@@ -0,0 +1,240 @@
+package edu.csupomona.cs.cs411.project1.bench;
+
+import java.util.Random;
+
+/**
+ * This class represents a generator of Toy programs used as input to the
+ * benchmarks. Programs are generated from a fixed seed, so the same
+ * {@link Kind} and size always generate the same program.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public final class ToyCorpus {
+	/**
+	 * Seed used to generate every program.
+	 */
+	private static final long SEED = 411L;
+
+	/**
+	 * Keywords which may begin a statement.
+	 */
+	private static final String[] TYPES = { "int", "double", "bool", "string" };
+
+	/**
+	 * Binary operators used within expressions.
+	 */
+	private static final String[] OPERATORS = { "+", "-", "*", "/", "<", "<=", ">", ">=", "==", "!=", "&&", "||" };
+
+	/**
+	 * Characters which identifiers may contain after their first character.
+	 */
+	private static final String IDENTIFIER_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+
+	/**
+	 * This enum represents the kinds of programs which can be generated, each
+	 * stressing a different part of the lexer.
+	 */
+	public enum Kind {
+		/**
+		 * Declarations and expressions over many distinct identifiers.
+		 */
+		IDENTIFIER_HEAVY,
+
+		/**
+		 * Expressions over decimal, hexadecimal and floating point literals.
+		 */
+		NUMERIC_HEAVY,
+
+		/**
+		 * Short statements between long line and block comments.
+		 */
+		COMMENT_HEAVY,
+
+		/**
+		 * Calls to {@code println} with long string literals.
+		 */
+		STRING_HEAVY,
+
+		/**
+		 * An even mix of each of the other kinds of statements.
+		 */
+		MIXED
+	}
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private ToyCorpus() {
+	}
+
+	/**
+	 * Returns a program of the specified kind containing at least the
+	 * specified number of characters.
+	 *
+	 * @param kind kind of program to generate
+	 * @param size minimum number of characters to generate
+	 * @return the program generated
+	 */
+	public static String generate(Kind kind, int size) {
+		Random random = new Random(SEED + kind.ordinal());
+		StringBuilder sb = new StringBuilder(size + 256);
+		while (sb.length() < size) {
+			switch (kind) {
+				case IDENTIFIER_HEAVY:
+					appendDeclaration(sb, random);
+					break;
+				case NUMERIC_HEAVY:
+					appendArithmetic(sb, random);
+					break;
+				case COMMENT_HEAVY:
+					appendComment(sb, random);
+					break;
+				case STRING_HEAVY:
+					appendPrintln(sb, random);
+					break;
+				case MIXED:
+					switch (random.nextInt(4)) {
+						case 0: appendDeclaration(sb, random); break;
+						case 1: appendArithmetic(sb, random); break;
+						case 2: appendComment(sb, random); break;
+						default: appendPrintln(sb, random);
+					}
+
+					break;
+				default:
+					throw new AssertionError(kind);
+			}
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Appends a declaration initialized using an expression over several
+	 * identifiers.
+	 *
+	 * @param sb builder to append to
+	 * @param random source of randomness
+	 */
+	private static void appendDeclaration(StringBuilder sb, Random random) {
+		sb.append(TYPES[random.nextInt(TYPES.length)]).append(' ');
+		appendIdentifier(sb, random);
+		sb.append(" = ");
+		int terms = 1 + random.nextInt(4);
+		for (int i = 0; i < terms; i++) {
+			if (0 < i) {
+				sb.append(' ').append(OPERATORS[random.nextInt(OPERATORS.length)]).append(' ');
+			}
+
+			appendIdentifier(sb, random);
+		}
+
+		sb.append(";\n");
+	}
+
+	/**
+	 * Appends an assignment of an expression over several numeric literals.
+	 *
+	 * @param sb builder to append to
+	 * @param random source of randomness
+	 */
+	private static void appendArithmetic(StringBuilder sb, Random random) {
+		sb.append("x = ");
+		int terms = 2 + random.nextInt(6);
+		for (int i = 0; i < terms; i++) {
+			if (0 < i) {
+				sb.append(' ').append(OPERATORS[random.nextInt(4)]).append(' ');
+			}
+
+			switch (random.nextInt(4)) {
+				case 0:
+					sb.append(random.nextInt(1000000));
+					break;
+				case 1:
+					sb.append("0x").append(Integer.toHexString(random.nextInt()).toUpperCase());
+					break;
+				case 2:
+					sb.append(random.nextInt(1000)).append('.').append(random.nextInt(1000));
+					break;
+				default:
+					sb.append(random.nextInt(100)).append(".").append(random.nextInt(100)).append("E+").append(random.nextInt(300));
+			}
+		}
+
+		sb.append(";\n");
+	}
+
+	/**
+	 * Appends a line or block comment followed by a short statement.
+	 *
+	 * @param sb builder to append to
+	 * @param random source of randomness
+	 */
+	private static void appendComment(StringBuilder sb, Random random) {
+		if (random.nextBoolean()) {
+			sb.append("// ");
+			appendWords(sb, random, 4 + random.nextInt(12));
+			sb.append('\n');
+		} else {
+			sb.append("/* ");
+			int lines = 1 + random.nextInt(5);
+			for (int i = 0; i < lines; i++) {
+				appendWords(sb, random, 4 + random.nextInt(12));
+				sb.append("\n * ");
+			}
+
+			sb.append("*/\n");
+		}
+
+		sb.append("break;\n");
+	}
+
+	/**
+	 * Appends a call to {@code println} with a string literal.
+	 *
+	 * @param sb builder to append to
+	 * @param random source of randomness
+	 */
+	private static void appendPrintln(StringBuilder sb, Random random) {
+		sb.append("println(\"");
+		appendWords(sb, random, 4 + random.nextInt(16));
+		sb.append("\");\n");
+	}
+
+	/**
+	 * Appends an identifier. Identifiers are chosen from a pool whose size
+	 * grows with the output, so that some identifiers repeat and others are
+	 * new.
+	 *
+	 * @param sb builder to append to
+	 * @param random source of randomness
+	 */
+	private static void appendIdentifier(StringBuilder sb, Random random) {
+		Random name = new Random(random.nextInt(1 + sb.length()/16));
+		sb.append((char)('a' + name.nextInt(26)));
+		int length = name.nextInt(12);
+		for (int i = 0; i < length; i++) {
+			sb.append(IDENTIFIER_CHARS.charAt(name.nextInt(IDENTIFIER_CHARS.length())));
+		}
+	}
+
+	/**
+	 * Appends the specified number of lowercase words separated by spaces.
+	 *
+	 * @param sb builder to append to
+	 * @param random source of randomness
+	 * @param count number of words to append
+	 */
+	private static void appendWords(StringBuilder sb, Random random, int count) {
+		for (int i = 0; i < count; i++) {
+			if (0 < i) {
+				sb.append(' ');
+			}
+
+			int length = 1 + random.nextInt(8);
+			for (int j = 0; j < length; j++) {
+				sb.append((char)('a' + random.nextInt(26)));
+			}
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package edu.csupomona.cs.cs411.project1.bench;
+
+import edu.csupomona.cs.cs411.project1.trie.AdaptiveRadixMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.ArrayMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.ConcurrentMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.DoubleArrayMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class represents benchmarks of the {@link MultiTrie} implementations.
+ * Each operation inserts or looks up every one of a set of identifiers, so the
+ * time reported is for the entire set.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrieBenchmark {
+	/**
+	 * Sentinel used to mark the keys.
+	 */
+	private static final char SENTINEL = '$';
+
+	/**
+	 * Characters which keys may contain after their first character.
+	 */
+	private static final String KEY_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+
+	/**
+	 * Simple name of the MultiTrie implementation to benchmark.
+	 */
+	@Param({ "ArrayMultiTrie", "DoubleArrayMultiTrie", "ConcurrentMultiTrie", "AdaptiveRadixMultiTrie" })
+	public String implementation;
+
+	/**
+	 * Number of keys inserted.
+	 */
+	@Param({ "1000", "10000", "100000" })
+	public int numKeys;
+
+	/**
+	 * Keys inserted into the trie.
+	 */
+	private String[] keys;
+
+	/**
+	 * Keys which are not inserted into the trie, used to look up misses.
+	 */
+	private String[] misses;
+
+	/**
+	 * Trie containing every one of the {@link #keys}.
+	 */
+	private MultiTrie<String> trie;
+
+	/**
+	 * Generates the keys and fills {@link #trie}.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(411L);
+		keys = new String[numKeys];
+		misses = new String[numKeys];
+		for (int i = 0; i < numKeys; i++) {
+			keys[i] = generateKey(random) + 'k';
+			misses[i] = generateKey(random) + 'm';
+		}
+
+		trie = newTrie();
+		for (String key : keys) {
+			trie.insert(key, SENTINEL);
+		}
+	}
+
+	/**
+	 * Inserts every key into an empty trie.
+	 *
+	 * @return the trie created
+	 */
+	@Benchmark
+	public MultiTrie<String> insert() {
+		MultiTrie<String> t = newTrie();
+		for (String key : keys) {
+			t.insert(key, SENTINEL);
+		}
+
+		return t;
+	}
+
+	/**
+	 * Looks up every key within a trie which contains them.
+	 *
+	 * @return the number of keys found
+	 */
+	@Benchmark
+	public int containsHit() {
+		int found = 0;
+		for (String key : keys) {
+			if (trie.contains(key, SENTINEL)) {
+				found++;
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * Looks up keys which are not within the trie.
+	 *
+	 * @return the number of keys found
+	 */
+	@Benchmark
+	public int containsMiss() {
+		int found = 0;
+		for (String key : misses) {
+			if (trie.contains(key, SENTINEL)) {
+				found++;
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * Returns an empty instance of the {@link #implementation}.
+	 *
+	 * @return the trie created
+	 */
+	private MultiTrie<String> newTrie() {
+		switch (implementation) {
+			case "ArrayMultiTrie":
+				return new ArrayMultiTrie();
+			case "DoubleArrayMultiTrie":
+				return new DoubleArrayMultiTrie();
+			case "ConcurrentMultiTrie":
+				return new ConcurrentMultiTrie();
+			case "AdaptiveRadixMultiTrie":
+				return new AdaptiveRadixMultiTrie();
+			default:
+				throw new IllegalArgumentException("Unknown implementation: " + implementation);
+		}
+	}
+
+	/**
+	 * Returns a random identifier.
+	 *
+	 * @param random source of randomness
+	 * @return the identifier generated
+	 */
+	static String generateKey(Random random) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(KEY_CHARS.charAt(random.nextInt(52)));
+		int length = random.nextInt(12);
+		for (int i = 0; i < length; i++) {
+			sb.append(KEY_CHARS.charAt(random.nextInt(KEY_CHARS.length())));
+		}
+
+		return sb.toString();
+	}
+}
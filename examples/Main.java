@@ -1,18 +1,15 @@
-import edu.csupomona.cs.cs411.project1.lexer.Lexer;
+import edu.csupomona.cs.cs411.project1.lexer.BatchLexer;
 import edu.csupomona.cs.cs411.project1.lexer.Token;
-import edu.csupomona.cs.cs411.project1.lexer.TokenStream;
-import edu.csupomona.cs.cs411.project1.lexer.ToyLexer;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import edu.csupomona.cs.cs411.project1.lexer.TokenBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Main {
 	public static void main(String[] args) {
-		Lexer<Token> l = new ToyLexer();
+		List<Path> files = new ArrayList<>();
 		for (String arg : args) {
 			Path p = Paths.get(arg);
 			if (!Files.isReadable(p)) {
@@ -20,16 +17,25 @@ public class Main {
 				continue;
 			}
 
-			try (		InputStream in = Files.newInputStream(p);
-					BufferedReader br = new BufferedReader(new InputStreamReader(in))) {
-				TokenStream stream = l.lex(br);
-				while (stream.hasMore()) {
-					Token t = stream.next();
-					//...
+			files.add(p);
+		}
+
+		try (BatchLexer l = new BatchLexer()) {
+			l.lex(files, new BatchLexer.Sink() {
+				@Override
+				public void accept(BatchLexer.Result result) {
+					if (result.getException() != null) {
+						result.getException().printStackTrace();
+						return;
+					}
+
+					TokenBuffer tokens = result.getTokens();
+					for (int i = 0; i < tokens.size(); i++) {
+						Token t = tokens.getToken(i);
+						//...
+					}
 				}
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+			});
 		}
 	}
 }
@@ -0,0 +1,158 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+
+/**
+ * This class represents an abstract scanner which lexes over a window of its
+ * input using an explicit cursor. Subclasses provide the window itself and how
+ * it is refilled, while lookahead is performed using index arithmetic relative
+ * to {@link #pos}.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public abstract class AbstractScanner {
+	/**
+	 * Offset of the first character of the window within the input.
+	 */
+	int origin;
+
+	/**
+	 * Index of the next character to scan within the window.
+	 */
+	int pos;
+
+	/**
+	 * Index of the first invalid character within the window.
+	 */
+	int limit;
+
+	/**
+	 * Index of the first character of the current token within the window.
+	 * Characters before this index may be discarded when the window is
+	 * refilled.
+	 */
+	int start;
+
+	/**
+	 * Whether or not {@link #fill(int)} has run out of characters before the
+	 * end of the input, because the rest of the input has not arrived yet.
+	 * The current token may then be incomplete, so scanning should continue
+	 * from where it stopped once more input has arrived. Scanners whose input
+	 * is always available never set this.
+	 *
+	 * @see PushLexer
+	 */
+	boolean starved;
+
+	/**
+	 * Exception which ended the input of this scanner early, or {@code null}
+	 * if there was none.
+	 */
+	IOException exception;
+
+	/**
+	 * Default constructor which is unused.
+	 */
+	AbstractScanner() {
+		//...
+	}
+
+	/**
+	 * Returns the next {@link Token} within the input of this scanner.
+	 *
+	 * @return the next Token, the end of file token if the end of the input
+	 *	has been reached, or {@code null} if the next token is invalid.
+	 */
+	public abstract Token next();
+
+	/**
+	 * Returns the offset of the first character of the current token within
+	 * the input of this scanner. For scanners over an array or buffer, this is
+	 * the index of that character within it.
+	 *
+	 * @return the offset of the current token
+	 */
+	public int getStart() {
+		return origin + start;
+	}
+
+	/**
+	 * Returns the number of characters (or bytes, for scanners over bytes)
+	 * within the current token. Whitespace and comments skipped before the
+	 * token are not included.
+	 *
+	 * @return the length of the current token
+	 */
+	public int getLength() {
+		return pos - start;
+	}
+
+	/**
+	 * Returns the text of the current token. The text is only created when
+	 * this method is called, and it will no longer be available once the next
+	 * token has been scanned.
+	 *
+	 * @return the text of the current token
+	 */
+	public String getText() {
+		return substring(start, pos);
+	}
+
+	/**
+	 * Returns the exception which ended the input of this scanner early. A
+	 * scanner treats an input which cannot be read any further as having
+	 * ended, so the end of file token is generated either way, and this
+	 * method tells whether the input really ended.
+	 *
+	 * @return the exception which ended the input, or {@code null} if the
+	 *	input has not ended or ended normally
+	 */
+	public IOException getException() {
+		return exception;
+	}
+
+	/**
+	 * Ensures that at least the specified number of characters are available
+	 * within the window after {@link #pos}, refilling it if necessary.
+	 * Refilling may move the contents of the window, so indexes into it should
+	 * only be computed relative to {@link #pos} after calling this method.
+	 *
+	 * @param n number of characters required
+	 * @return {@code true} if they are available, otherwise {@code false} if
+	 *	the end of the input was reached first
+	 */
+	final boolean ensure(int n) {
+		return n <= limit - pos || fill(n);
+	}
+
+	/**
+	 * Refills the window until the specified number of characters are
+	 * available after {@link #pos}. Characters before {@link #start} may be
+	 * discarded, in which case {@link #pos}, {@link #limit} and {@link #start}
+	 * are moved and {@link #origin} is advanced accordingly.
+	 *
+	 * @param n number of characters required
+	 * @return {@code true} if they are available, otherwise {@code false} if
+	 *	the end of the input was reached first
+	 */
+	abstract boolean fill(int n);
+
+	/**
+	 * Returns the character at the specified index within the window.
+	 *
+	 * @param index index of the character, which must be less than
+	 *	{@link #limit}
+	 * @return the character at that index
+	 */
+	abstract char at(int index);
+
+	/**
+	 * Returns the characters within the specified range of the window as a
+	 * String.
+	 *
+	 * @param from index of the first character
+	 * @param to index after the last character
+	 * @return the characters within the range
+	 */
+	abstract String substring(int from, int to);
+}
@@ -0,0 +1,924 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.math.BigInteger;
+
+/**
+ * This class represents an abstract scanner for the Toy language. Subclasses
+ * provide the window of input scanned and how it is refilled.
+ *
+ * The tokens generated are identical to those generated by
+ * {@link ToyLexer#next(java.io.Reader)} for a Reader which remains ready until
+ * the end of its input has been reached (e.g., a Reader over a file).
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public abstract class AbstractToyScanner extends AbstractScanner {
+	/**
+	 * Number of identifiers cached within {@link #identifiers}. Must be a
+	 * power of 2.
+	 */
+	private static final int IDENTIFIER_CACHE_SIZE = 1<<10;
+
+	/**
+	 * Largest explicit exponent accumulated for a double literal. Larger
+	 * exponents are left to {@link Double#parseDouble(java.lang.String)}.
+	 */
+	private static final int MAX_EXPONENT = 1<<24;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was not starved, or was
+	 * starved between tokens, or within a token which is scanned again from
+	 * its start.
+	 */
+	private static final int NONE = 0;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved after
+	 * skipping whitespace.
+	 */
+	private static final int SPACE = 1;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within a
+	 * line comment.
+	 */
+	private static final int LINE_COMMENT = 2;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within a
+	 * block comment.
+	 */
+	private static final int BLOCK_COMMENT = 3;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within a
+	 * block comment, just after a {@code '*'} which may begin its end.
+	 */
+	private static final int BLOCK_COMMENT_STAR = 4;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within an
+	 * identifier.
+	 */
+	private static final int IDENTIFIER = 5;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within a
+	 * string literal.
+	 */
+	private static final int STRING = 6;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within the
+	 * digits of a hexadecimal integer literal.
+	 */
+	private static final int HEX = 7;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within the
+	 * digits of a decimal integer literal.
+	 */
+	private static final int INTEGER = 8;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within the
+	 * fraction of a double literal, or at an exponent which may follow it.
+	 */
+	private static final int FRACTION = 9;
+
+	/**
+	 * Value of {@link #resume} when the previous scan was starved within the
+	 * digits of the exponent of a double literal.
+	 */
+	private static final int EXPONENT = 10;
+
+	/**
+	 * {@link MultiTrie} used to store keywords and identifiers.
+	 *
+	 * @see ToyLexer#getTrie()
+	 */
+	private final MultiTrie<String> TRIE;
+
+	/**
+	 * Direct-mapped cache of identifiers which have already been stored
+	 * within {@link #TRIE}, indexed by their hash codes. Identifiers found
+	 * within the cache are neither allocated nor stored again.
+	 */
+	private final String[] identifiers;
+
+	/**
+	 * Symbol IDs of the identifiers within {@link #identifiers}.
+	 */
+	private final int[] symbols;
+
+	/**
+	 * Set by {@link #TRIE} to whether storing the last identifier inserted it,
+	 * for {@link #listener}.
+	 *
+	 * @see MultiTrie#insertOrGet(java.lang.Object, char, boolean[])
+	 */
+	private final boolean[] inserted;
+
+	/**
+	 * The identifier represented by the current token, or {@code null} if the
+	 * current token is not an identifier.
+	 */
+	private String identifier;
+
+	/**
+	 * Symbol ID of {@link #identifier}, or {@code -1} if the current token is
+	 * not an identifier.
+	 */
+	private int symbol;
+
+	/**
+	 * Listener told about each token generated, or {@code null} if there is
+	 * none.
+	 */
+	private LexerListener listener;
+
+	/**
+	 * The number literal represented by the current token, or {@code null} if
+	 * the current token is not a number.
+	 */
+	private Token number;
+
+	/**
+	 * Value of the current integer literal, or the decimal significand of the
+	 * current double literal, accumulated while it is scanned.
+	 */
+	private long value;
+
+	/**
+	 * Decimal exponent of the current double literal.
+	 */
+	private int exponent;
+
+	/**
+	 * Whether or not the digits of the current number do not fit within
+	 * {@link #value}.
+	 */
+	private boolean overflow;
+
+	/**
+	 * Explicit exponent of the current double literal, accumulated while its
+	 * digits are scanned and added to {@link #exponent} once they end.
+	 */
+	private int explicitExponent;
+
+	/**
+	 * Whether or not {@link #explicitExponent} is negative.
+	 */
+	private boolean negativeExponent;
+
+	/**
+	 * Hash code of the characters of the current identifier scanned so far,
+	 * kept while the scan is {@link #starved} within it.
+	 */
+	private int identifierHash;
+
+	/**
+	 * Where the previous scan stopped when it was {@link #starved}, so that
+	 * the next scan continues from there instead of scanning the characters
+	 * before {@link #pos} again. One of {@link #NONE}, {@link #SPACE},
+	 * {@link #LINE_COMMENT}, {@link #BLOCK_COMMENT},
+	 * {@link #BLOCK_COMMENT_STAR}, {@link #IDENTIFIER}, {@link #STRING},
+	 * {@link #HEX}, {@link #INTEGER}, {@link #FRACTION} or {@link #EXPONENT}.
+	 */
+	private int resume;
+
+	/**
+	 * Offset within the input at which the scan which was {@link #starved}
+	 * began, so that characters skipped before it stopped are still counted
+	 * for {@link #listener}, or {@code -1} if the previous scan was not
+	 * starved.
+	 */
+	private int resumeFrom;
+
+	/**
+	 * Constructs an AbstractToyScanner which stores identifiers within the
+	 * specified {@link MultiTrie}.
+	 *
+	 * @param trie trie containing keywords and used to store identifiers
+	 */
+	AbstractToyScanner(MultiTrie<String> trie) {
+		if (trie == null) {
+			throw new NullPointerException();
+		}
+
+		this.TRIE = trie;
+		this.identifiers = new String[IDENTIFIER_CACHE_SIZE];
+		this.symbols = new int[IDENTIFIER_CACHE_SIZE];
+		this.inserted = new boolean[1];
+		this.symbol = -1;
+		this.resume = NONE;
+		this.resumeFrom = -1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Token next() {
+		if (listener == null) {
+			return scan();
+		}
+
+		int from = resumeFrom < 0 ? origin + pos : resumeFrom;
+		Token t = scan();
+		if (starved) {
+			resumeFrom = from;
+		} else {
+			resumeFrom = -1;
+			listener.tokenScanned(t, origin + pos - from);
+		}
+
+		return t;
+	}
+
+	/**
+	 * Sets the listener told about each token generated by this scanner.
+	 *
+	 * @param listener listener to tell, or {@code null} to stop telling one
+	 */
+	public void setListener(LexerListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Returns the listener told about each token generated by this scanner.
+	 *
+	 * @return the listener, or {@code null} if there is none
+	 */
+	public LexerListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Scans the next token, continuing from where the previous scan stopped
+	 * if it was {@link #starved}. A scan which is starved records where it
+	 * stopped within {@link #resume}, or moves {@link #pos} back to the start
+	 * of the token if it cannot continue from there (e.g., a {@code '<'} which
+	 * may be followed by {@code '='}).
+	 *
+	 * @return the next Token, {@link ToyKeywords#_EOF} if the end of the input
+	 *	has been reached, or {@code null} if the next token is invalid.
+	 */
+	private Token scan() {
+		identifier = null;
+		symbol = -1;
+		number = null;
+		int state = resume;
+		resume = NONE;
+		Token t;
+		switch (state) {
+			case IDENTIFIER:
+				t = scanIdentifier(identifierHash);
+				break;
+			case STRING:
+				t = scanString();
+				break;
+			case HEX:
+				t = number = scanHex();
+				break;
+			case INTEGER:
+				t = number = scanInteger();
+				break;
+			case FRACTION:
+				t = number = scanFraction();
+				break;
+			case EXPONENT:
+				t = number = scanExponent();
+				break;
+			default:
+				t = scanToken(state);
+		}
+
+		if (starved && resume == NONE) {
+			pos = start;
+		}
+
+		return t;
+	}
+
+	/**
+	 * Scans the next token from between tokens, after first finishing the
+	 * whitespace or comment which the previous scan was starved within.
+	 *
+	 * @param state {@link #NONE}, {@link #SPACE}, {@link #LINE_COMMENT},
+	 *	{@link #BLOCK_COMMENT} or {@link #BLOCK_COMMENT_STAR}
+	 * @return the next Token, {@link ToyKeywords#_EOF} if the end of the input
+	 *	has been reached, or {@code null} if the next token is invalid.
+	 */
+	private Token scanToken(int state) {
+		start = pos;
+		boolean consumed = state == SPACE;
+		if (state == LINE_COMMENT) {
+			skipLineComment();
+		} else if (state == BLOCK_COMMENT || state == BLOCK_COMMENT_STAR) {
+			skipBlockComment(state == BLOCK_COMMENT_STAR);
+		}
+
+		Scanner:
+		while (ensure(1)) {
+			start = pos;
+			char c = at(pos++);
+			consumed = true;
+			if (Character.isWhitespace(c)) {
+				pos = skipWhitespace(pos);
+				start = pos;
+				continue Scanner;
+			}
+
+			if (Character.isLetter(c)) {
+				return scanIdentifier(c);
+			} else if (Character.isDigit(c)) {
+				number = scanNumber(c);
+				return number;
+			}
+
+			switch (c) {
+				case '\"':
+					return scanString();
+				case '/':
+					if (!ensure(1)) {
+						return ToyKeywords._division;
+					}
+
+					switch (at(pos)) {
+						case '/':
+							pos++;
+							skipLineComment();
+							consumed = false;
+							continue Scanner;
+						case '*':
+							pos++;
+							skipBlockComment(false);
+							consumed = false;
+							continue Scanner;
+						default:
+							return ToyKeywords._division;
+					}
+				// ToyLexer returns _less when '>' is the last character
+				case '<': return select('=', ToyKeywords._lessequal, ToyKeywords._less, ToyKeywords._less);
+				case '>': return select('=', ToyKeywords._greaterequal, ToyKeywords._greater, ToyKeywords._less);
+				case '=': return select('=', ToyKeywords._equal, ToyKeywords._assignop, ToyKeywords._assignop);
+				case '!': return select('=', ToyKeywords._notequal, ToyKeywords._not, ToyKeywords._not);
+				case '&': return select('&', ToyKeywords._and, null, null);
+				case '|': return select('|', ToyKeywords._or, null, null);
+				case '+': return ToyKeywords._plus;
+				case '-': return ToyKeywords._minus;
+				case '*': return ToyKeywords._multiplication;
+				case ';': return ToyKeywords._semicolon;
+				case ',': return ToyKeywords._comma;
+				case '.': return ToyKeywords._period;
+				case '(': return ToyKeywords._leftparen;
+				case ')': return ToyKeywords._rightparen;
+				case '[': return ToyKeywords._leftbracket;
+				case ']': return ToyKeywords._rightbracket;
+				case '{': return ToyKeywords._leftbrace;
+				case '}': return ToyKeywords._rightbrace;
+			}
+		}
+
+		start = pos;
+		if (starved && resume == NONE && consumed) {
+			resume = SPACE;
+		}
+
+		return consumed ? null : ToyKeywords._EOF;
+	}
+
+	/**
+	 * Scans the remainder of an identifier (or keyword) whose first character
+	 * has already been consumed.
+	 *
+	 * @param hash hash code of the characters of the identifier consumed so
+	 *	far
+	 * @return the keyword, {@link ToyKeywords#_booleanliteral} or
+	 *	{@link ToyKeywords#_id}
+	 */
+	private Token scanIdentifier(int hash) {
+		while (ensure(1)) {
+			char c = at(pos);
+			if (!Character.isLetterOrDigit(c) && c != '_') {
+				break;
+			}
+
+			hash = 31*hash + c;
+			pos++;
+		}
+
+		if (starved) {
+			// The identifier may continue within input which has not arrived
+			identifierHash = hash;
+			resume = IDENTIFIER;
+			return ToyKeywords._id;
+		}
+
+		int keyword = ToyKeywordHash.slotOf(hash);
+		if (matches(ToyKeywordHash.wordAt(keyword))) {
+			return ToyKeywordHash.tokenAt(keyword);
+		}
+
+		int slot = hash & (IDENTIFIER_CACHE_SIZE-1);
+		String id = identifiers[slot];
+		if (id == null || id.hashCode() != hash || !matches(id)) {
+			id = substring(start, pos);
+			identifiers[slot] = id;
+			if (listener == null) {
+				symbols[slot] = TRIE.insertOrGet(id, ToyLexer.IDENTIFIER_SENTINEL);
+			} else {
+				symbols[slot] = TRIE.insertOrGet(id, ToyLexer.IDENTIFIER_SENTINEL, inserted);
+				listener.identifierScanned(inserted[0]);
+			}
+		} else if (listener != null) {
+			listener.identifierScanned(false);
+		}
+
+		identifier = id;
+		symbol = symbols[slot];
+		return ToyKeywords._id;
+	}
+
+	/**
+	 * Scans the remainder of an integer or double literal whose first digit
+	 * has already been consumed. The value of the number is accumulated
+	 * within {@link #value} and {@link #exponent} as it is scanned.
+	 *
+	 * @param c first digit of the number
+	 * @return {@link ToyKeywords#_integerliteral} or
+	 *	{@link ToyKeywords#_doubleliteral}
+	 */
+	private Token scanNumber(char c) {
+		value = 0;
+		exponent = 0;
+		overflow = false;
+		if (c == '0' && ensure(1) && (at(pos) == 'x' || at(pos) == 'X')) {
+			// "0x" is only hexadecimal if followed by a hex digit, else it is 0
+			if (ensure(2) && isHexDigit(at(pos+1))) {
+				pos++;
+				return scanHex();
+			}
+
+			return ToyKeywords._integerliteral;
+		}
+
+		if (starved) {
+			// A '0' may yet be followed by an 'x', so it is scanned again
+			return ToyKeywords._integerliteral;
+		}
+
+		accumulate(digitOf(c));
+		return scanInteger();
+	}
+
+	/**
+	 * Scans the remaining digits of a hexadecimal integer literal.
+	 *
+	 * @return {@link ToyKeywords#_integerliteral}
+	 */
+	private Token scanHex() {
+		char c;
+		while (ensure(1) && isHexDigit(c = at(pos))) {
+			// Another digit would shift bits past Long.MAX_VALUE
+			if ((value >>> 59) != 0) {
+				overflow = true;
+			}
+
+			value = (value << 4) | Character.digit(c, 16);
+			pos++;
+		}
+
+		if (starved) {
+			resume = HEX;
+		}
+
+		return ToyKeywords._integerliteral;
+	}
+
+	/**
+	 * Scans the remaining digits of a decimal integer literal, and the
+	 * fraction following them if there is one.
+	 *
+	 * @return {@link ToyKeywords#_integerliteral} or
+	 *	{@link ToyKeywords#_doubleliteral}
+	 */
+	private Token scanInteger() {
+		while (ensure(1)) {
+			char c = at(pos);
+			if (Character.isDigit(c)) {
+				accumulate(digitOf(c));
+				pos++;
+				continue;
+			} else if (c != '.') {
+				break;
+			}
+
+			pos++;
+			return scanFraction();
+		}
+
+		if (starved) {
+			resume = INTEGER;
+		}
+
+		return ToyKeywords._integerliteral;
+	}
+
+	/**
+	 * Scans the remaining digits of the fraction of a double literal, and the
+	 * exponent following them if there is one.
+	 *
+	 * @return {@link ToyKeywords#_doubleliteral}
+	 */
+	private Token scanFraction() {
+		while (ensure(1)) {
+			char c = at(pos);
+			if (Character.isDigit(c)) {
+				accumulate(digitOf(c));
+				exponent--;
+				pos++;
+				continue;
+			}
+
+			// An exponent requires at least one digit after 'e' and its sign
+			if ((c == 'e' || c == 'E') && ensure(2)) {
+				int digit = 1;
+				c = at(pos+digit);
+				boolean negative = c == '-';
+				if (c == '+' || c == '-') {
+					if (!ensure(3)) {
+						break;
+					}
+
+					c = at(pos+(++digit));
+				}
+
+				if (Character.isDigit(c)) {
+					pos += digit+1;
+					explicitExponent = digitOf(c);
+					negativeExponent = negative;
+					return scanExponent();
+				}
+			}
+
+			break;
+		}
+
+		if (starved) {
+			// The exponent, if any, is looked for again from its 'e'
+			resume = FRACTION;
+		}
+
+		return ToyKeywords._doubleliteral;
+	}
+
+	/**
+	 * Scans the remaining digits of the exponent of a double literal, and
+	 * adds it to {@link #exponent} once they end.
+	 *
+	 * @return {@link ToyKeywords#_doubleliteral}
+	 */
+	private Token scanExponent() {
+		char c;
+		while (ensure(1) && Character.isDigit(c = at(pos))) {
+			if (explicitExponent < MAX_EXPONENT) {
+				explicitExponent = 10*explicitExponent + digitOf(c);
+			} else {
+				overflow = true;
+			}
+
+			pos++;
+		}
+
+		if (starved) {
+			resume = EXPONENT;
+			return ToyKeywords._doubleliteral;
+		}
+
+		exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		return ToyKeywords._doubleliteral;
+	}
+
+	/**
+	 * Appends a decimal digit to {@link #value}, or marks it as having
+	 * overflowed if the result would exceed {@link Long#MAX_VALUE}.
+	 *
+	 * @param digit value of the digit
+	 */
+	private void accumulate(int digit) {
+		if (overflow) {
+			return;
+		}
+
+		if (value < Long.MAX_VALUE / 10 || (value == Long.MAX_VALUE / 10 && digit <= Long.MAX_VALUE % 10)) {
+			value = 10*value + digit;
+		} else {
+			overflow = true;
+		}
+	}
+
+	/**
+	 * Returns the value of the specified decimal digit, which may be any
+	 * character for which {@link Character#isDigit(char)} is {@code true}.
+	 *
+	 * @param c digit to return the value of
+	 * @return the value of the digit
+	 */
+	private static int digitOf(char c) {
+		return c < 0x80 ? c - '0' : Character.digit(c, 10);
+	}
+
+	/**
+	 * Scans the remainder of a string literal whose opening quote has already
+	 * been consumed.
+	 *
+	 * @return {@link ToyKeywords#_stringliteral} or {@code null} if the string
+	 *	is broken by a new line
+	 */
+	private Token scanString() {
+		while (ensure(1)) {
+			pos = indexOf('\"', '\n', pos);
+			if (pos < limit) {
+				return at(pos++) == '\"' ? ToyKeywords._stringliteral : null;
+			}
+		}
+
+		if (starved) {
+			resume = STRING;
+		}
+
+		return ToyKeywords._stringliteral;
+	}
+
+	/**
+	 * Skips the remainder of a line comment, including the terminating new
+	 * line. {@link #start} follows {@link #pos} while skipping, so that the
+	 * characters already skipped may be discarded when the window is
+	 * refilled.
+	 */
+	private void skipLineComment() {
+		for (start = pos; ensure(1); start = pos) {
+			pos = indexOf('\n', pos);
+			if (pos < limit) {
+				pos++;
+				return;
+			}
+		}
+
+		if (starved) {
+			resume = LINE_COMMENT;
+		}
+	}
+
+	/**
+	 * Skips the remainder of a block comment, including the terminating
+	 * {@code "*}{@code /"}. {@link #start} follows {@link #pos} while
+	 * skipping, so that the characters already skipped may be discarded when
+	 * the window is refilled.
+	 *
+	 * @param star whether or not the character before {@link #pos} is a
+	 *	{@code '*'} of the comment, which a {@code '/'} would end it after
+	 */
+	private void skipBlockComment(boolean star) {
+		for (start = pos; ensure(1); start = pos) {
+			if (star) {
+				char c = at(pos++);
+				if (c == '/') {
+					return;
+				}
+
+				star = c == '*';
+				continue;
+			}
+
+			pos = indexOf('*', pos);
+			if (pos < limit) {
+				pos++;
+				star = true;
+			}
+		}
+
+		if (starved) {
+			resume = star ? BLOCK_COMMENT_STAR : BLOCK_COMMENT;
+		}
+	}
+
+	/**
+	 * Returns the index of the first character within the window, at or after
+	 * the specified index, which is not whitespace. Subclasses may override
+	 * this to skip several characters at a time.
+	 *
+	 * @param from index to begin searching from
+	 * @return the index of the character, or {@link #limit} if the rest of the
+	 *	window is whitespace
+	 */
+	int skipWhitespace(int from) {
+		while (from < limit && Character.isWhitespace(at(from))) {
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified character
+	 * within the window, at or after the specified index. Subclasses may
+	 * override this to search several characters at a time.
+	 *
+	 * @param c character to search for, which must be ASCII
+	 * @param from index to begin searching from
+	 * @return the index of the character, or {@link #limit} if it does not
+	 *	occur within the rest of the window
+	 */
+	int indexOf(char c, int from) {
+		while (from < limit && at(from) != c) {
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of either of the specified
+	 * characters within the window, at or after the specified index.
+	 * Subclasses may override this to search several characters at a time.
+	 *
+	 * @param a first character to search for, which must be ASCII
+	 * @param b second character to search for, which must be ASCII
+	 * @param from index to begin searching from
+	 * @return the index of the character, or {@link #limit} if neither occurs
+	 *	within the rest of the window
+	 */
+	int indexOf(char a, char b, int from) {
+		while (from < limit) {
+			char c = at(from);
+			if (c == a || c == b) {
+				break;
+			}
+
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * Consumes the next character if it is the specified character and
+	 * returns the corresponding token.
+	 *
+	 * @param expected character completing the two character token
+	 * @param matched token to return if the next character is expected
+	 * @param unmatched token to return if the next character is not expected
+	 * @param end token to return if there are no more characters
+	 * @return the token selected
+	 */
+	private Token select(char expected, Token matched, Token unmatched, Token end) {
+		if (!ensure(1)) {
+			return end;
+		} else if (at(pos) == expected) {
+			pos++;
+			return matched;
+		}
+
+		return unmatched;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Identifiers which have been cached are not created again.
+	 */
+	@Override
+	public String getText() {
+		if (identifier != null) {
+			return identifier;
+		}
+
+		return super.getText();
+	}
+
+	/**
+	 * Returns the symbol ID of the current token if it is an identifier. IDs
+	 * are assigned by the {@link MultiTrie} of this scanner, so the same
+	 * identifier has the same ID within every scanner sharing that trie.
+	 *
+	 * @return the symbol ID of the current token, or {@code -1} if it is not
+	 *	an identifier
+	 *
+	 * @see MultiTrie#insertOrGet(java.lang.Object, char)
+	 */
+	public int getSymbol() {
+		return symbol;
+	}
+
+	/**
+	 * Returns the value of the current token if it is an integer literal. The
+	 * value is accumulated while the literal is scanned, so no text is
+	 * created.
+	 *
+	 * @return the value of the current integer literal
+	 * @throws IllegalStateException if the current token is not an integer
+	 *	literal
+	 * @throws ArithmeticException if the value exceeds {@link Long#MAX_VALUE}
+	 *
+	 * @see #isOverflow()
+	 */
+	public long getLongValue() {
+		if (number != ToyKeywords._integerliteral) {
+			throw new IllegalStateException("The current token is not an integer literal.");
+		}
+
+		if (overflow) {
+			throw new ArithmeticException("Integer literal exceeds the range of a long.");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns whether or not the current token is an integer literal whose
+	 * value exceeds {@link Long#MAX_VALUE}.
+	 *
+	 * @return {@code true} if it is, otherwise {@code false}
+	 */
+	public boolean isOverflow() {
+		return number == ToyKeywords._integerliteral && overflow;
+	}
+
+	/**
+	 * Returns the value of the current token, correctly rounded to the
+	 * nearest double, if it is an integer or double literal. The value is
+	 * converted from the significand and exponent accumulated while the
+	 * literal was scanned, and only literals whose significands exceed
+	 * {@link Long#MAX_VALUE} or which cannot otherwise be rounded quickly
+	 * are parsed from their text.
+	 *
+	 * @return the value of the current number
+	 * @throws IllegalStateException if the current token is not a number
+	 */
+	public double getDoubleValue() {
+		if (number == null) {
+			throw new IllegalStateException("The current token is not a number.");
+		}
+
+		if (!overflow) {
+			if (number == ToyKeywords._integerliteral) {
+				return value;
+			}
+
+			double d = DoubleConversion.toDouble(value, exponent);
+			if (!Double.isNaN(d)) {
+				return d;
+			}
+		}
+
+		// Digits other than ASCII are normalized for the parsers
+		char[] chars = new char[pos - start];
+		for (int i = 0; i < chars.length; i++) {
+			char c = at(start+i);
+			chars[i] = Character.isDigit(c) ? (char)('0' + digitOf(c)) : c;
+		}
+
+		if (number == ToyKeywords._integerliteral && 2 < chars.length && (chars[1] == 'x' || chars[1] == 'X')) {
+			return new BigInteger(new String(chars, 2, chars.length-2), 16).doubleValue();
+		}
+
+		return Double.parseDouble(new String(chars));
+	}
+
+	/**
+	 * Returns whether or not the current token consists of the same characters
+	 * as the specified String.
+	 *
+	 * @param s String to compare with
+	 * @return {@code true} if it does, otherwise {@code false}
+	 */
+	private boolean matches(String s) {
+		if (s.length() != pos - start) {
+			return false;
+		}
+
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) != at(start+i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns whether or not a specified character is a hex character.
+	 *
+	 * E.g. {@code 0-9, a-f, A-F} are all valid hexadecimal characters.
+	 *
+	 * @param c character to check
+	 * @return {@code true} if it is a hex character, otherwise {@code false}.
+	 */
+	private static boolean isHexDigit(char c) {
+		return Character.isDigit(c) || ('A' <= c && c <= 'F') || ('a' <= c && c <= 'f');
+	}
+}
@@ -0,0 +1,324 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.ConcurrentMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents a driver which lexes many files of the Toy language
+ * concurrently using a {@link ForkJoinPool}.
+ *
+ * Each worker thread lexes using a {@link ToyLexer} of its own, but every
+ * ToyLexer stores identifiers within the same {@link ConcurrentMultiTrie}, so
+ * symbol IDs are consistent across every file lexed by this BatchLexer. Files
+ * are decoded as UTF-8 before they are lexed, so the tokens, spans and symbol
+ * IDs of each {@link Result} are those {@link ToyLexer#scan(char[])} generates
+ * for the decoded file.
+ * Results are delivered to a {@link Sink} on the calling thread in the same
+ * order as the files were given, regardless of the order in which they finish.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class BatchLexer implements Closeable {
+	/**
+	 * Number of files which may be lexed ahead of the next result to deliver
+	 * for each worker thread. This bounds the number of results held in
+	 * memory when an early file takes a long time to lex.
+	 */
+	private static final int FILES_IN_FLIGHT_PER_THREAD = 4;
+
+	/**
+	 * {@link ForkJoinPool} used to lex files.
+	 */
+	private final ForkJoinPool POOL;
+
+	/**
+	 * {@link MultiTrie} shared by every {@link ToyLexer} within
+	 * {@link #LEXERS}.
+	 */
+	private final MultiTrie<String> TRIE;
+
+	/**
+	 * {@link ToyLexer} used by each worker thread of {@link #POOL}.
+	 */
+	private final ThreadLocal<ToyLexer> LEXERS;
+
+	/**
+	 * Listener told about each token generated, or {@code null} if there is
+	 * none.
+	 */
+	private volatile LexerListener listener;
+
+	/**
+	 * Constructs a BatchLexer which lexes using one thread for each available
+	 * processor.
+	 */
+	public BatchLexer() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a BatchLexer which lexes using the specified number of
+	 * threads.
+	 *
+	 * @param parallelism number of files to lex concurrently
+	 * @throws IllegalArgumentException if parallelism is not positive
+	 */
+	public BatchLexer(int parallelism) {
+		this.POOL = new ForkJoinPool(parallelism);
+		this.TRIE = new ConcurrentMultiTrie();
+		this.LEXERS = new ThreadLocal<ToyLexer>() {
+			@Override
+			protected ToyLexer initialValue() {
+				return new ToyLexer(TRIE);
+			}
+		};
+	}
+
+	/**
+	 * Lexes each of the specified files and delivers their results to the
+	 * specified {@link Sink} in the same order. This method returns once every
+	 * result has been delivered.
+	 *
+	 * @param files files to lex
+	 * @param sink sink to deliver results to
+	 */
+	public void lex(List<Path> files, Sink sink) {
+		if (files == null || sink == null) {
+			throw new NullPointerException();
+		}
+
+		int maxInFlight = FILES_IN_FLIGHT_PER_THREAD * POOL.getParallelism();
+		Queue<ForkJoinTask<Result>> inFlight = new ArrayDeque<ForkJoinTask<Result>>(maxInFlight);
+		for (Path file : files) {
+			if (inFlight.size() == maxInFlight) {
+				sink.accept(inFlight.remove().join());
+			}
+
+			inFlight.add(POOL.submit(new LexTask(file)));
+		}
+
+		while (!inFlight.isEmpty()) {
+			sink.accept(inFlight.remove().join());
+		}
+	}
+
+	/**
+	 * Lexes each regular file within the specified directory tree whose name
+	 * matches the specified glob pattern, in lexicographic order of their
+	 * paths, and delivers their results to the specified {@link Sink}.
+	 *
+	 * @param root root of the directory tree to lex
+	 * @param glob glob pattern which file names must match, e.g.
+	 *	{@code "*.toy"}
+	 * @param sink sink to deliver results to
+	 * @throws IOException if the directory tree cannot be walked
+	 *
+	 * @see java.nio.file.FileSystem#getPathMatcher(java.lang.String)
+	 */
+	public void lex(Path root, String glob, Sink sink) throws IOException {
+		final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+		final List<Path> files = new ArrayList<Path>();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (attrs.isRegularFile() && matcher.matches(file.getFileName())) {
+					files.add(file);
+				}
+
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		Collections.sort(files);
+		lex(files, sink);
+	}
+
+	/**
+	 * Returns the number of files this BatchLexer lexes concurrently.
+	 *
+	 * @return the parallelism of this BatchLexer
+	 */
+	public int getParallelism() {
+		return POOL.getParallelism();
+	}
+
+	/**
+	 * Returns the {@link MultiTrie} which identifiers within every file lexed
+	 * by this BatchLexer are stored within.
+	 *
+	 * @return the identifier table of this BatchLexer
+	 */
+	public MultiTrie<String> getTrie() {
+		return TRIE;
+	}
+
+	/**
+	 * Sets the listener told about each token generated from files which are
+	 * lexed from now on. The listener is called from every worker thread, so
+	 * it must be thread-safe.
+	 *
+	 * @param listener listener to tell, or {@code null} to stop telling one
+	 *
+	 * @see LexerMetrics
+	 */
+	public void setListener(LexerListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Shuts down the worker threads of this BatchLexer. Files which are
+	 * already being lexed are completed.
+	 */
+	@Override
+	public void close() {
+		POOL.shutdown();
+	}
+
+	/**
+	 * This interface represents a consumer of the {@link Result}s of a
+	 * {@link BatchLexer}.
+	 */
+	public interface Sink {
+		/**
+		 * Accepts the result of lexing a single file. Results are accepted
+		 * one at a time on the thread which called
+		 * {@link BatchLexer#lex(java.util.List, BatchLexer.Sink)}.
+		 *
+		 * @param result result to accept
+		 */
+		void accept(Result result);
+	}
+
+	/**
+	 * This class represents the tokens generated from a single file, along
+	 * with their spans and symbol IDs, or the exception thrown while reading
+	 * it.
+	 */
+	public static final class Result {
+		/**
+		 * File which was lexed.
+		 */
+		private final Path PATH;
+
+		/**
+		 * Tokens generated from {@link #PATH}, not including the end of file
+		 * token.
+		 */
+		private final TokenBuffer TOKENS;
+
+		/**
+		 * Exception thrown while reading {@link #PATH}, or {@code null}.
+		 */
+		private final IOException EXCEPTION;
+
+		/**
+		 * Constructs a Result.
+		 *
+		 * @param path file which was lexed
+		 * @param tokens tokens generated from the file
+		 * @param exception exception thrown while reading the file, or
+		 *	{@code null}
+		 */
+		Result(Path path, TokenBuffer tokens, IOException exception) {
+			this.PATH = path;
+			this.TOKENS = tokens;
+			this.EXCEPTION = exception;
+		}
+
+		/**
+		 * Returns the file which was lexed.
+		 *
+		 * @return the file which was lexed
+		 */
+		public Path getPath() {
+			return PATH;
+		}
+
+		/**
+		 * Returns the tokens generated from the file, not including the end of
+		 * file token. Invalid tokens are included as {@code null}. Spans are
+		 * offsets of characters within the decoded file, and symbol IDs are
+		 * those of {@link BatchLexer#getTrie()}.
+		 *
+		 * @return the tokens generated, or an empty buffer if the file could
+		 *	not be read
+		 */
+		public TokenBuffer getTokens() {
+			return TOKENS;
+		}
+
+		/**
+		 * Returns the exception thrown while reading the file.
+		 *
+		 * @return the exception thrown, or {@code null} if the file was read
+		 *	successfully
+		 */
+		public IOException getException() {
+			return EXCEPTION;
+		}
+	}
+
+	/**
+	 * This class represents the task of lexing a single file using the
+	 * {@link ToyLexer} of the worker thread which runs it.
+	 */
+	@SuppressWarnings("serial")
+	private final class LexTask extends RecursiveTask<Result> {
+		/**
+		 * File to lex.
+		 */
+		private final Path PATH;
+
+		/**
+		 * Constructs a LexTask which lexes the specified file.
+		 *
+		 * @param path file to lex
+		 */
+		LexTask(Path path) {
+			this.PATH = path;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected Result compute() {
+			char[] chars;
+			try {
+				ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(PATH));
+				chars = StandardCharsets.UTF_8.decode(bytes).toString().toCharArray();
+			} catch (IOException e) {
+				return new Result(PATH, new TokenBuffer(), e);
+			}
+
+			ToyLexer lexer = LEXERS.get();
+			lexer.setListener(listener);
+			AbstractToyScanner scanner = lexer.scan(chars);
+			TokenBuffer tokens = new TokenBuffer();
+			for (Token t = scanner.next(); t != ToyKeywords._EOF; t = scanner.next()) {
+				tokens.add(t, scanner.getStart(), scanner.getLength(), scanner.getSymbol());
+			}
+
+			return new Result(PATH, tokens, null);
+		}
+	}
+}
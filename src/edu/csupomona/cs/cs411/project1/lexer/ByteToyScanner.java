@@ -0,0 +1,222 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class represents a scanner for the Toy language which lexes directly
+ * over the UTF-8 encoded bytes of a {@link ByteBuffer}, such as a file which
+ * has been memory-mapped using {@link ToyLexer#lex(java.nio.file.Path)}.
+ *
+ * The Toy language only uses ASCII characters outside of string literals, so
+ * bytes are not decoded while scanning. Because multi-byte UTF-8 sequences
+ * never contain ASCII bytes, string literals can be delimited byte by byte and
+ * are only decoded when their text is requested. Non-ASCII bytes outside of
+ * string literals are treated as invalid characters.
+ *
+ * Whitespace, comments and the bodies of string literals are skipped eight
+ * bytes at a time by loading them as a single {@code long} and testing every
+ * byte at once using bitwise arithmetic (SWAR), falling back to one byte at a
+ * time for the final few bytes of the input.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ByteToyScanner extends AbstractToyScanner {
+	/**
+	 * Character returned by {@link #at(int)} for bytes which are not ASCII.
+	 * This character is neither whitespace, a letter nor a digit.
+	 */
+	private static final char NON_ASCII = '\uFFFF';
+
+	/**
+	 * {@code 0x01} within each byte of a {@code long}.
+	 */
+	private static final long ONES = 0x0101010101010101L;
+
+	/**
+	 * {@code 0x7F} within each byte of a {@code long}.
+	 */
+	private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+	/**
+	 * {@code 0x80} within each byte of a {@code long}.
+	 */
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	/**
+	 * {@link ByteBuffer} containing the bytes being scanned.
+	 */
+	private final ByteBuffer BUFFER;
+
+	/**
+	 * Whether or not the first byte of a {@code long} loaded from
+	 * {@link #BUFFER} is its most significant byte.
+	 */
+	private final boolean BIG_ENDIAN;
+
+	/**
+	 * Constructs a ByteToyScanner which scans the remaining bytes of the
+	 * specified {@link ByteBuffer}. The position of the buffer is not changed.
+	 *
+	 * @param buffer UTF-8 encoded bytes to generate tokens from
+	 * @param trie trie containing keywords and used to store identifiers
+	 */
+	ByteToyScanner(ByteBuffer buffer, MultiTrie<String> trie) {
+		super(trie);
+		if (buffer == null) {
+			throw new NullPointerException();
+		}
+
+		this.BUFFER = buffer;
+		this.BIG_ENDIAN = buffer.order() == ByteOrder.BIG_ENDIAN;
+		this.pos = buffer.position();
+		this.start = pos;
+		this.limit = buffer.limit();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The entire input is always contained within the window, so it can
+	 * never be refilled.
+	 */
+	@Override
+	boolean fill(int n) {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	char at(int index) {
+		byte b = BUFFER.get(index);
+		return b < 0 ? NON_ASCII : (char)b;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Spaces, tabs, new lines and carriage returns are skipped eight bytes at
+	 * a time, and any other whitespace one byte at a time.
+	 */
+	@Override
+	int skipWhitespace(int from) {
+		for (; from <= limit - 8; from += 8) {
+			long word = BUFFER.getLong(from);
+			long whitespace = zeros(word ^ (ONES * ' ')) | zeros(word ^ (ONES * '\t'))
+					| zeros(word ^ (ONES * '\n')) | zeros(word ^ (ONES * '\r'));
+			long other = ~whitespace & HIGH_BITS;
+			if (other != 0) {
+				from += firstByte(other);
+				break;
+			}
+		}
+
+		while (from < limit && Character.isWhitespace(at(from))) {
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Bytes are searched eight at a time.
+	 */
+	@Override
+	int indexOf(char c, int from) {
+		long pattern = ONES * c;
+		for (; from <= limit - 8; from += 8) {
+			long found = zeros(BUFFER.getLong(from) ^ pattern);
+			if (found != 0) {
+				return from + firstByte(found);
+			}
+		}
+
+		while (from < limit && BUFFER.get(from) != c) {
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Bytes are searched eight at a time.
+	 */
+	@Override
+	int indexOf(char a, char b, int from) {
+		long patternA = ONES * a;
+		long patternB = ONES * b;
+		for (; from <= limit - 8; from += 8) {
+			long word = BUFFER.getLong(from);
+			long found = zeros(word ^ patternA) | zeros(word ^ patternB);
+			if (found != 0) {
+				return from + firstByte(found);
+			}
+		}
+
+		while (from < limit) {
+			byte c = BUFFER.get(from);
+			if (c == a || c == b) {
+				break;
+			}
+
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * Returns the index within a {@code long} loaded from {@link #BUFFER} of
+	 * the first byte marked within the specified mask.
+	 *
+	 * @param mask {@code 0x80} within each byte marked, and zero elsewhere
+	 * @return the index of the first byte marked
+	 */
+	private int firstByte(long mask) {
+		return (BIG_ENDIAN ? Long.numberOfLeadingZeros(mask) : Long.numberOfTrailingZeros(mask)) >>> 3;
+	}
+
+	/**
+	 * Returns a mask with {@code 0x80} within each byte of the specified
+	 * {@code long} which is zero, and zero elsewhere. Unlike the usual
+	 * {@code (x - 0x01..) & ~x & 0x80..}, no borrow propagates between bytes,
+	 * so every byte is marked exactly.
+	 *
+	 * @param x bytes to test
+	 * @return the mask of zero bytes
+	 */
+	static long zeros(long x) {
+		return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * ASCII bytes are copied as-is, and anything else is decoded as UTF-8.
+	 */
+	@Override
+	String substring(int from, int to) {
+		char[] chars = new char[to - from];
+		for (int i = from; i < to; i++) {
+			byte b = BUFFER.get(i);
+			if (b < 0) {
+				ByteBuffer bytes = BUFFER.duplicate();
+				bytes.limit(to);
+				bytes.position(from);
+				return StandardCharsets.UTF_8.decode(bytes).toString();
+			}
+
+			chars[i - from] = (char)b;
+		}
+
+		return new String(chars);
+	}
+}
@@ -0,0 +1,169 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a minimized deterministic finite automaton whose
+ * states and transitions are stored within {@code int[]} tables. Characters
+ * are first mapped into character classes, and each state has a single row of
+ * transitions indexed by character class.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ * @see DfaCompiler
+ */
+public final class Dfa {
+	/**
+	 * Number of characters which have their character class stored within
+	 * {@link #ASCII_CLASSES}.
+	 */
+	private static final int ASCII_SIZE = 1<<7;
+
+	/**
+	 * Transition table indexed by {@code state * numClasses + class}. Entries
+	 * are the next state, or {@code -1} if there is no transition.
+	 */
+	final int[] TRANSITIONS;
+
+	/**
+	 * Stores the pattern accepted by each state, or {@code -1} if the state is
+	 * not accepting.
+	 */
+	final int[] ACCEPTS;
+
+	/**
+	 * Number of character classes, which is the width of each row of
+	 * {@link #TRANSITIONS}.
+	 */
+	final int NUM_CLASSES;
+
+	/**
+	 * Character class of each ASCII character.
+	 */
+	final int[] ASCII_CLASSES;
+
+	/**
+	 * Sorted first characters of each interval of the alphabet.
+	 */
+	final int[] LOWS;
+
+	/**
+	 * Character class of each interval within {@link #LOWS}.
+	 */
+	final int[] INTERVAL_CLASSES;
+
+	/**
+	 * Constructs a Dfa using the specified tables.
+	 *
+	 * @param transitions transition table
+	 * @param accepts pattern accepted by each state, or {@code -1}
+	 * @param numClasses number of character classes
+	 * @param lows sorted first characters of each interval of the alphabet
+	 * @param intervalClasses character class of each interval
+	 */
+	Dfa(int[] transitions, int[] accepts, int numClasses, int[] lows, int[] intervalClasses) {
+		this.TRANSITIONS = transitions;
+		this.ACCEPTS = accepts;
+		this.NUM_CLASSES = numClasses;
+		this.LOWS = lows;
+		this.INTERVAL_CLASSES = intervalClasses;
+		this.ASCII_CLASSES = new int[ASCII_SIZE];
+		for (int c = 0; c < ASCII_SIZE; c++) {
+			ASCII_CLASSES[c] = intervalClassOf(c);
+		}
+	}
+
+	/**
+	 * Compiles the specified patterns into a single minimized Dfa which
+	 * accepts the index of the pattern matched. When more than one pattern
+	 * matches the same input, the one with the lowest index is accepted.
+	 *
+	 * @param patterns patterns to compile
+	 * @param isRegex whether or not each pattern is a regular expression
+	 *	rather than a literal value
+	 * @return the Dfa compiled
+	 * @throws IllegalArgumentException if a regular expression is malformed
+	 *
+	 * @see DfaCompiler
+	 */
+	public static Dfa compile(String[] patterns, boolean[] isRegex) {
+		return DfaCompiler.compile(patterns, isRegex);
+	}
+
+	/**
+	 * Returns the character class of the specified character.
+	 *
+	 * @param c character to classify
+	 * @return the character class of the character
+	 */
+	public int classOf(char c) {
+		if (c < ASCII_SIZE) {
+			return ASCII_CLASSES[c];
+		}
+
+		return intervalClassOf(c);
+	}
+
+	/**
+	 * Returns the character class of the specified character by searching
+	 * the intervals of the alphabet.
+	 *
+	 * @param c character to classify
+	 * @return the character class of the character
+	 */
+	private int intervalClassOf(int c) {
+		int i = Arrays.binarySearch(LOWS, c);
+		return INTERVAL_CLASSES[i < 0 ? -i-2 : i];
+	}
+
+	/**
+	 * Returns the state transitioned to from the specified state using the
+	 * specified character.
+	 *
+	 * @param state state to transition from
+	 * @param c character to transition with
+	 * @return the next state, or {@code -1} if there is no transition
+	 */
+	public int next(int state, char c) {
+		return TRANSITIONS[state*NUM_CLASSES + classOf(c)];
+	}
+
+	/**
+	 * Returns the index of the pattern accepted by the specified state. If
+	 * more than one pattern is accepted, the one with the lowest index is
+	 * returned.
+	 *
+	 * @param state state to check
+	 * @return index of the pattern accepted, or {@code -1} if the state is not
+	 *	accepting
+	 */
+	public int accept(int state) {
+		return ACCEPTS[state];
+	}
+
+	/**
+	 * Returns the initial state of this Dfa.
+	 *
+	 * @return the initial state
+	 */
+	public int initialState() {
+		return 0;
+	}
+
+	/**
+	 * Returns the number of states within this Dfa.
+	 *
+	 * @return the number of states
+	 */
+	public int numStates() {
+		return ACCEPTS.length;
+	}
+
+	/**
+	 * Returns the number of character classes within this Dfa.
+	 *
+	 * @return the number of character classes
+	 */
+	public int numClasses() {
+		return NUM_CLASSES;
+	}
+}
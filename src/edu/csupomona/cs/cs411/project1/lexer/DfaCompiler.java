@@ -0,0 +1,628 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * This class compiles a list of patterns into a single minimized {@link Dfa}.
+ * Each pattern is first parsed into a nondeterministic finite automaton using
+ * Thompson's construction, these are combined and converted into a DFA using
+ * the subset construction, and finally equivalent states and equivalent
+ * character classes are merged.
+ *
+ * Regular expressions may use alternation ({@code |}), grouping
+ * ({@code ( )}), the quantifiers {@code *}, {@code +} and {@code ?},
+ * character classes such as {@code [a-zA-Z_]} and {@code [^\n]}, the
+ * wildcard {@code .} (which does not match line terminators), the class
+ * {@code \s} and the escapes {@code \t}, {@code \n}, {@code \r} and
+ * {@code \f}. Any other escaped character matches itself.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+class DfaCompiler {
+	/**
+	 * Number of characters within the alphabet.
+	 */
+	private static final int ALPHABET_SIZE = Character.MAX_VALUE + 1;
+
+	/**
+	 * Character ranges matched by {@code \s}.
+	 */
+	private static final int[] WHITESPACE = { ' ', ' ', '\t', '\n', 0x0B, 0x0B, '\f', '\r' };
+
+	/**
+	 * Character ranges matched by {@code .}.
+	 */
+	private static final int[] WILDCARD = complement(new int[] { '\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029 });
+
+	/**
+	 * Stores the character ranges ({@code lo}, {@code hi}, {@code target}) of
+	 * each state within the NFA being built.
+	 */
+	private final List<int[]> edges;
+
+	/**
+	 * Stores the epsilon transitions of each state within the NFA being built.
+	 */
+	private final List<int[]> epsilons;
+
+	/**
+	 * Stores the pattern accepted by each state within the NFA being built, or
+	 * {@code -1} if a state is not accepting.
+	 */
+	private int[] accepts;
+
+	/**
+	 * Pattern currently being parsed.
+	 */
+	private String pattern;
+
+	/**
+	 * Index of the next character to parse within {@link #pattern}.
+	 */
+	private int index;
+
+	/**
+	 * Constructs an empty DfaCompiler.
+	 */
+	private DfaCompiler() {
+		this.edges = new ArrayList<int[]>();
+		this.epsilons = new ArrayList<int[]>();
+		this.accepts = new int[0];
+	}
+
+	/**
+	 * Compiles the specified patterns into a minimized {@link Dfa} which
+	 * accepts the index of the pattern matched. When more than one pattern
+	 * matches the same input, the one with the lowest index is accepted.
+	 *
+	 * @param patterns patterns to compile
+	 * @param isRegex whether or not each pattern is a regular expression
+	 *	rather than a literal value
+	 * @return the DFA compiled
+	 * @throws IllegalArgumentException if a regular expression is malformed
+	 */
+	static Dfa compile(String[] patterns, boolean[] isRegex) {
+		if (patterns.length != isRegex.length) {
+			throw new IllegalArgumentException("Each pattern must specify whether or not it is a regex.");
+		}
+
+		DfaCompiler compiler = new DfaCompiler();
+		int start = compiler.newState();
+		for (int i = 0; i < patterns.length; i++) {
+			int[] fragment = isRegex[i] ? compiler.parse(patterns[i]) : compiler.literal(patterns[i]);
+			compiler.epsilon(start, fragment[0]);
+			compiler.accepts[fragment[1]] = i;
+		}
+
+		return compiler.determinize(start);
+	}
+
+	/**
+	 * Creates a new state within the NFA being built.
+	 *
+	 * @return the index of the state
+	 */
+	private int newState() {
+		int state = edges.size();
+		edges.add(new int[0]);
+		epsilons.add(new int[0]);
+		if (accepts.length <= state) {
+			accepts = Arrays.copyOf(accepts, Math.max(16, accepts.length<<1));
+			Arrays.fill(accepts, state, accepts.length, -1);
+		}
+
+		return state;
+	}
+
+	/**
+	 * Adds an epsilon transition between two states.
+	 *
+	 * @param from state to transition from
+	 * @param to state to transition to
+	 */
+	private void epsilon(int from, int to) {
+		int[] e = epsilons.get(from);
+		e = Arrays.copyOf(e, e.length+1);
+		e[e.length-1] = to;
+		epsilons.set(from, e);
+	}
+
+	/**
+	 * Creates a fragment which matches a single character within any of the
+	 * specified ranges.
+	 *
+	 * @param ranges pairs of inclusive character ranges
+	 * @return the start and end states of the fragment
+	 */
+	private int[] ranges(int[] ranges) {
+		int from = newState();
+		int to = newState();
+		int[] e = new int[ranges.length/2*3];
+		for (int i = 0, j = 0; i < ranges.length; i += 2) {
+			e[j++] = ranges[i];
+			e[j++] = ranges[i+1];
+			e[j++] = to;
+		}
+
+		edges.set(from, e);
+		return new int[] { from, to };
+	}
+
+	/**
+	 * Creates a fragment which matches the specified literal value.
+	 *
+	 * @param value literal value to match
+	 * @return the start and end states of the fragment
+	 */
+	private int[] literal(String value) {
+		if (value.isEmpty()) {
+			throw new IllegalArgumentException("Empty literals are not allowed.");
+		}
+
+		int[] fragment = null;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			fragment = concat(fragment, ranges(new int[] { c, c }));
+		}
+
+		return fragment;
+	}
+
+	/**
+	 * Creates a fragment which matches one fragment followed by another.
+	 *
+	 * @param first first fragment, or {@code null} if empty
+	 * @param second second fragment
+	 * @return the start and end states of the fragment
+	 */
+	private int[] concat(int[] first, int[] second) {
+		if (first == null) {
+			return second;
+		}
+
+		epsilon(first[1], second[0]);
+		return new int[] { first[0], second[1] };
+	}
+
+	/**
+	 * Parses the specified regular expression into a fragment.
+	 *
+	 * @param regex regular expression to parse
+	 * @return the start and end states of the fragment
+	 */
+	private int[] parse(String regex) {
+		this.pattern = regex;
+		this.index = 0;
+		int[] fragment = parseAlternation();
+		if (index < pattern.length()) {
+			throw error("Unexpected '" + pattern.charAt(index) + "'");
+		}
+
+		return fragment;
+	}
+
+	/**
+	 * Parses a sequence of alternatives separated by {@code |}.
+	 *
+	 * @return the start and end states of the fragment
+	 */
+	private int[] parseAlternation() {
+		int[] fragment = parseConcatenation();
+		if (index >= pattern.length() || pattern.charAt(index) != '|') {
+			return fragment;
+		}
+
+		int from = newState();
+		int to = newState();
+		epsilon(from, fragment[0]);
+		epsilon(fragment[1], to);
+		while (index < pattern.length() && pattern.charAt(index) == '|') {
+			index++;
+			fragment = parseConcatenation();
+			epsilon(from, fragment[0]);
+			epsilon(fragment[1], to);
+		}
+
+		return new int[] { from, to };
+	}
+
+	/**
+	 * Parses a sequence of quantified atoms.
+	 *
+	 * @return the start and end states of the fragment
+	 */
+	private int[] parseConcatenation() {
+		int[] fragment = null;
+		while (index < pattern.length()) {
+			char c = pattern.charAt(index);
+			if (c == '|' || c == ')') {
+				break;
+			}
+
+			fragment = concat(fragment, parseQuantified());
+		}
+
+		if (fragment == null) {
+			int state = newState();
+			fragment = new int[] { state, state };
+		}
+
+		return fragment;
+	}
+
+	/**
+	 * Parses an atom followed by any number of quantifiers.
+	 *
+	 * @return the start and end states of the fragment
+	 */
+	private int[] parseQuantified() {
+		int[] fragment = parseAtom();
+		while (index < pattern.length()) {
+			char c = pattern.charAt(index);
+			if (c != '*' && c != '+' && c != '?') {
+				break;
+			}
+
+			index++;
+			int from = newState();
+			int to = newState();
+			epsilon(from, fragment[0]);
+			epsilon(fragment[1], to);
+			if (c != '+') {
+				epsilon(from, to);
+			}
+
+			if (c != '?') {
+				epsilon(fragment[1], fragment[0]);
+			}
+
+			fragment = new int[] { from, to };
+		}
+
+		return fragment;
+	}
+
+	/**
+	 * Parses a group, character class, wildcard or single character.
+	 *
+	 * @return the start and end states of the fragment
+	 */
+	private int[] parseAtom() {
+		char c = pattern.charAt(index++);
+		switch (c) {
+			case '(':
+				int[] fragment = parseAlternation();
+				if (index >= pattern.length() || pattern.charAt(index) != ')') {
+					throw error("Unclosed group");
+				}
+
+				index++;
+				return fragment;
+			case '[':
+				return ranges(parseClass());
+			case '.':
+				return ranges(WILDCARD);
+			case '\\':
+				return ranges(parseEscape());
+			case '*':
+			case '+':
+			case '?':
+				throw error("Dangling quantifier '" + c + "'");
+			default:
+				return ranges(new int[] { c, c });
+		}
+	}
+
+	/**
+	 * Parses the remainder of a character class whose opening {@code [} has
+	 * already been consumed.
+	 *
+	 * @return the character ranges within the class
+	 */
+	private int[] parseClass() {
+		boolean negated = index < pattern.length() && pattern.charAt(index) == '^';
+		if (negated) {
+			index++;
+		}
+
+		int[] ranges = new int[0];
+		while (true) {
+			if (index >= pattern.length()) {
+				throw error("Unclosed character class");
+			}
+
+			char c = pattern.charAt(index++);
+			if (c == ']') {
+				break;
+			}
+
+			int[] range;
+			if (c == '\\') {
+				range = parseEscape();
+			} else if (index+1 < pattern.length() && pattern.charAt(index) == '-' && pattern.charAt(index+1) != ']') {
+				char hi = pattern.charAt(index+1);
+				index += 2;
+				if (hi < c) {
+					throw error("Illegal character range");
+				}
+
+				range = new int[] { c, hi };
+			} else {
+				range = new int[] { c, c };
+			}
+
+			int length = ranges.length;
+			ranges = Arrays.copyOf(ranges, length + range.length);
+			System.arraycopy(range, 0, ranges, length, range.length);
+		}
+
+		return negated ? complement(ranges) : ranges;
+	}
+
+	/**
+	 * Parses the remainder of an escape sequence whose {@code \} has already
+	 * been consumed.
+	 *
+	 * @return the character ranges matched by the escape sequence
+	 */
+	private int[] parseEscape() {
+		if (index >= pattern.length()) {
+			throw error("Incomplete escape sequence");
+		}
+
+		char c = pattern.charAt(index++);
+		switch (c) {
+			case 's': return WHITESPACE;
+			case 't': c = '\t'; break;
+			case 'n': c = '\n'; break;
+			case 'r': c = '\r'; break;
+			case 'f': c = '\f'; break;
+		}
+
+		return new int[] { c, c };
+	}
+
+	/**
+	 * Returns an exception describing a syntax error at the current index of
+	 * the pattern being parsed.
+	 *
+	 * @param message description of the error
+	 * @return the exception created
+	 */
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(String.format("%s at index %d of \"%s\"", message, index, pattern));
+	}
+
+	/**
+	 * Returns the pairs of character ranges which are not contained within
+	 * any of the specified ranges.
+	 *
+	 * @param ranges pairs of inclusive character ranges
+	 * @return the complement of the ranges
+	 */
+	private static int[] complement(int[] ranges) {
+		boolean[] contained = new boolean[ALPHABET_SIZE];
+		for (int i = 0; i < ranges.length; i += 2) {
+			Arrays.fill(contained, ranges[i], ranges[i+1]+1, true);
+		}
+
+		int[] complement = new int[0];
+		for (int c = 0; c < ALPHABET_SIZE; c++) {
+			if (contained[c]) {
+				continue;
+			}
+
+			int lo = c;
+			while (c+1 < ALPHABET_SIZE && !contained[c+1]) {
+				c++;
+			}
+
+			complement = Arrays.copyOf(complement, complement.length+2);
+			complement[complement.length-2] = lo;
+			complement[complement.length-1] = c;
+		}
+
+		return complement;
+	}
+
+	/**
+	 * Converts the NFA which has been built into a minimized {@link Dfa} using
+	 * the subset construction.
+	 *
+	 * @param start start state of the NFA
+	 * @return the minimized DFA
+	 */
+	private Dfa determinize(int start) {
+		// Partition the alphabet into intervals over which no edge differs
+		TreeSet<Integer> bounds = new TreeSet<Integer>();
+		bounds.add(0);
+		bounds.add(ALPHABET_SIZE);
+		for (int[] e : edges) {
+			for (int i = 0; i < e.length; i += 3) {
+				bounds.add(e[i]);
+				bounds.add(e[i+1]+1);
+			}
+		}
+
+		int[] lows = new int[bounds.size()-1];
+		int numIntervals = 0;
+		for (int bound : bounds) {
+			if (bound < ALPHABET_SIZE) {
+				lows[numIntervals++] = bound;
+			}
+		}
+
+		List<BitSet> sets = new ArrayList<BitSet>();
+		Map<BitSet, Integer> ids = new HashMap<BitSet, Integer>();
+		List<int[]> transitions = new ArrayList<int[]>();
+		BitSet initial = new BitSet();
+		initial.set(start);
+		closure(initial);
+		sets.add(initial);
+		ids.put(initial, 0);
+		for (int state = 0; state < sets.size(); state++) {
+			BitSet set = sets.get(state);
+			int[] row = new int[numIntervals];
+			for (int interval = 0; interval < numIntervals; interval++) {
+				int c = lows[interval];
+				BitSet target = new BitSet();
+				for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s+1)) {
+					int[] e = edges.get(s);
+					for (int i = 0; i < e.length; i += 3) {
+						if (e[i] <= c && c <= e[i+1]) {
+							target.set(e[i+2]);
+						}
+					}
+				}
+
+				if (target.isEmpty()) {
+					row[interval] = -1;
+					continue;
+				}
+
+				closure(target);
+				Integer id = ids.get(target);
+				if (id == null) {
+					id = sets.size();
+					sets.add(target);
+					ids.put(target, id);
+				}
+
+				row[interval] = id;
+			}
+
+			transitions.add(row);
+		}
+
+		int[] accepting = new int[sets.size()];
+		for (int state = 0; state < sets.size(); state++) {
+			accepting[state] = -1;
+			BitSet set = sets.get(state);
+			for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s+1)) {
+				if (0 <= accepts[s] && (accepting[state] == -1 || accepts[s] < accepting[state])) {
+					accepting[state] = accepts[s];
+				}
+			}
+		}
+
+		return minimize(transitions, accepting, lows);
+	}
+
+	/**
+	 * Adds all states reachable using epsilon transitions to a set of states.
+	 *
+	 * @param set set of states to close over
+	 */
+	private void closure(BitSet set) {
+		int[] stack = new int[edges.size()];
+		int size = 0;
+		for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s+1)) {
+			stack[size++] = s;
+		}
+
+		while (0 < size) {
+			for (int to : epsilons.get(stack[--size])) {
+				if (!set.get(to)) {
+					set.set(to);
+					stack[size++] = to;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Minimizes a DFA by repeatedly splitting groups of states which cannot
+	 * yet be distinguished until no more groups can be split, and then merges
+	 * intervals of the alphabet which transition to the same states.
+	 *
+	 * @param transitions transitions of each state for each interval
+	 * @param accepting pattern accepted by each state, or {@code -1}
+	 * @param lows first character of each interval
+	 * @return the minimized DFA
+	 */
+	private static Dfa minimize(List<int[]> transitions, int[] accepting, int[] lows) {
+		int numStates = accepting.length;
+		int numIntervals = lows.length;
+		int[] group = new int[numStates];
+		int numGroups = 0;
+		while (true) {
+			Map<List<Integer>, Integer> signatures = new HashMap<List<Integer>, Integer>();
+			int[] next = new int[numStates];
+			for (int state = 0; state < numStates; state++) {
+				List<Integer> signature = new ArrayList<Integer>(numIntervals+1);
+				signature.add(numGroups == 0 ? accepting[state] : group[state]);
+				for (int target : transitions.get(state)) {
+					signature.add(numGroups == 0 || target < 0 ? -1 : group[target]);
+				}
+
+				Integer id = signatures.get(signature);
+				if (id == null) {
+					id = signatures.size();
+					signatures.put(signature, id);
+				}
+
+				next[state] = id;
+			}
+
+			group = next;
+			if (signatures.size() == numGroups) {
+				break;
+			}
+
+			numGroups = signatures.size();
+		}
+
+		// The groups are numbered in order of their first state, so the
+		// initial state is always within group 0
+		int[][] rows = new int[numGroups][];
+		int[] accepts = new int[numGroups];
+		for (int state = 0; state < numStates; state++) {
+			if (rows[group[state]] != null) {
+				continue;
+			}
+
+			int[] row = transitions.get(state);
+			int[] minimized = new int[numIntervals];
+			for (int interval = 0; interval < numIntervals; interval++) {
+				minimized[interval] = row[interval] < 0 ? -1 : group[row[interval]];
+			}
+
+			rows[group[state]] = minimized;
+			accepts[group[state]] = accepting[state];
+		}
+
+		// Intervals whose columns are identical form one character class
+		Map<List<Integer>, Integer> columns = new HashMap<List<Integer>, Integer>();
+		int[] classOf = new int[numIntervals];
+		for (int interval = 0; interval < numIntervals; interval++) {
+			List<Integer> column = new ArrayList<Integer>(numGroups);
+			for (int[] row : rows) {
+				column.add(row[interval]);
+			}
+
+			Integer id = columns.get(column);
+			if (id == null) {
+				id = columns.size();
+				columns.put(column, id);
+			}
+
+			classOf[interval] = id;
+		}
+
+		int numClasses = columns.size();
+		int[] table = new int[numGroups*numClasses];
+		for (int state = 0; state < numGroups; state++) {
+			for (int interval = 0; interval < numIntervals; interval++) {
+				table[state*numClasses + classOf[interval]] = rows[state][interval];
+			}
+		}
+
+		return new Dfa(table, accepts, numClasses, lows, classOf);
+	}
+}
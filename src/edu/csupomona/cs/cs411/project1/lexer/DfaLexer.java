@@ -0,0 +1,185 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * This class represents a lexical analyzer which compiles the definitions of
+ * a set of {@link Token}s into a single minimized {@link Dfa}, and generates
+ * tokens using a table-driven {@link DfaScanner}.
+ *
+ * Each token generated is the longest prefix of the remaining input which
+ * matches any of the definitions. When more than one definition matches the
+ * same prefix, the token which comes first in iteration order is generated,
+ * so keywords should come before identifiers (as they do within
+ * {@link ToyKeywords}).
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class DfaLexer extends AbstractLexer {
+	/**
+	 * Patterns skipped between the tokens of the Toy language (whitespace,
+	 * line comments and block comments). A block comment which is never
+	 * terminated is skipped through the end of the input, as it is by
+	 * {@link ToyLexer}; a terminated one is always longer, so it is preferred.
+	 */
+	static final String[] TOY_SKIPPED = {
+		"\\s+",
+		"//[^\\n]*",
+		"/\\*([^*]|\\*+[^*/])*\\*+/",
+		"/\\*([^*]|\\*+[^*/])*\\**"
+	};
+
+	/**
+	 * {@link Dfa} compiled from the definitions of {@link #TOKENS}.
+	 */
+	private final Dfa DFA;
+
+	/**
+	 * {@link Token} represented by each pattern of {@link #DFA}.
+	 */
+	private final Token[] TOKENS;
+
+	/**
+	 * {@link Token} generated once the end of the input has been reached.
+	 */
+	private final Token EOF;
+
+	/**
+	 * {@link Reader} read from by {@link #scanner}.
+	 *
+	 * @see #next(java.io.Reader)
+	 */
+	private Reader reader;
+
+	/**
+	 * {@link DfaScanner} used by {@link #next(java.io.Reader)}.
+	 */
+	private DfaScanner scanner;
+
+	/**
+	 * Constructs a DfaLexer which generates the specified {@link Token}s.
+	 *
+	 * @param tokens tokens to generate, in order of priority
+	 * @param eof token generated once the end of the input has been reached
+	 * @param skipped regular expressions matching input to skip between
+	 *	tokens, such as whitespace and comments
+	 * @throws IllegalArgumentException if a definition is malformed
+	 */
+	public DfaLexer(Collection<? extends Token> tokens, Token eof, String... skipped) {
+		if (tokens == null || eof == null || skipped == null) {
+			throw new NullPointerException();
+		}
+
+		this.TOKENS = tokens.toArray(new Token[tokens.size()]);
+		this.EOF = eof;
+
+		String[] patterns = new String[TOKENS.length + skipped.length];
+		boolean[] isRegex = new boolean[patterns.length];
+		for (int i = 0; i < TOKENS.length; i++) {
+			patterns[i] = TOKENS[i].getRegex();
+			isRegex[i] = TOKENS[i].isRegex();
+		}
+
+		for (int i = 0; i < skipped.length; i++) {
+			patterns[TOKENS.length + i] = skipped[i];
+			isRegex[TOKENS.length + i] = true;
+		}
+
+		this.DFA = Dfa.compile(patterns, isRegex);
+	}
+
+	/**
+	 * Returns a DfaLexer which generates {@link ToyKeywords}, skipping
+	 * whitespace and comments.
+	 *
+	 * Unlike {@link ToyLexer}, a DfaLexer cannot tell where the end of the
+	 * input is while matching, so it differs in the following ways:
+	 * <ul>
+	 * <li>A string literal which is not terminated before the end of the input
+	 * (e.g., {@code "abc}) is generated as {@code null} for its opening quote
+	 * followed by the tokens within it ({@code null _id}), where ToyLexer
+	 * generates a single {@link ToyKeywords#_stringliteral}.</li>
+	 * <li>A string literal which is not terminated before the end of its line
+	 * is generated in the same way, where ToyLexer generates a single
+	 * {@code null} through the new line.</li>
+	 * <li>Each character which is not part of the language is generated as
+	 * its own {@code null}.</li>
+	 * <li>Whitespace at the end of the input (e.g., {@code "x "}) is skipped
+	 * before {@link ToyKeywords#_EOF}, where ToyLexer generates a
+	 * {@code null} for it first.</li>
+	 * </ul>
+	 * Block comments which are not terminated are skipped through the end of
+	 * the input, as they are by ToyLexer.
+	 *
+	 * @return the DfaLexer created
+	 */
+	public static DfaLexer forToyKeywords() {
+		List<ToyKeywords> tokens = new ArrayList<ToyKeywords>(EnumSet.allOf(ToyKeywords.class));
+		tokens.remove(ToyKeywords._EOF);
+		return new DfaLexer(tokens, ToyKeywords._EOF, TOY_SKIPPED);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The returned stream generates its tokens using a {@link DfaScanner},
+	 * which reads ahead of the tokens it has returned, so the Reader should
+	 * not be read from by anything else while the stream is in use.
+	 */
+	@Override
+	public TokenStream lex(Reader r) {
+		return new ScannerTokenStream(this, r, scan(r));
+	}
+
+	/**
+	 * Returns a {@link DfaScanner} which generates tokens from the specified
+	 * {@link Reader}.
+	 *
+	 * @param r the reader to generate tokens from
+	 * @return the DfaScanner created
+	 */
+	public DfaScanner scan(Reader r) {
+		return new DfaScanner(DFA, TOKENS, EOF, r);
+	}
+
+	/**
+	 * Returns a {@link DfaScanner} which generates tokens from the specified
+	 * characters.
+	 *
+	 * @param chars the characters to generate tokens from
+	 * @return the DfaScanner created
+	 */
+	public DfaScanner scan(char[] chars) {
+		return new DfaScanner(DFA, TOKENS, EOF, chars, 0, chars.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Characters are read ahead of the token returned and kept for the next
+	 * call with the same {@link Reader}, so a Reader should only be read by
+	 * this method until its end has been reached.
+	 */
+	@Override
+	public Token next(Reader r) {
+		if (r != reader) {
+			reader = r;
+			scanner = scan(r);
+		}
+
+		return scanner.next();
+	}
+
+	/**
+	 * Returns the {@link Dfa} compiled by this DfaLexer.
+	 *
+	 * @return the Dfa used by this DfaLexer
+	 */
+	public Dfa getDfa() {
+		return DFA;
+	}
+}
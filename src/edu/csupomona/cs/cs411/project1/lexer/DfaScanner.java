@@ -0,0 +1,230 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * This class represents a scanner which generates tokens by running a
+ * {@link Dfa} over its own window of characters. Each token is the longest
+ * prefix of the remaining input accepted by the Dfa.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ * @see DfaLexer
+ */
+public class DfaScanner extends AbstractScanner {
+	/**
+	 * Default number of characters allocated to the {@link #window}.
+	 */
+	private static final int DEFAULT_WINDOW_SIZE = 1<<13;
+
+	/**
+	 * Transition table of the {@link Dfa}.
+	 */
+	private final int[] TRANSITIONS;
+
+	/**
+	 * Pattern accepted by each state of the {@link Dfa}, or {@code -1}.
+	 */
+	private final int[] ACCEPTS;
+
+	/**
+	 * Character class of each ASCII character.
+	 */
+	private final int[] ASCII_CLASSES;
+
+	/**
+	 * {@link Dfa} being run, used to classify non-ASCII characters.
+	 */
+	private final Dfa DFA;
+
+	/**
+	 * {@link Token} represented by each pattern of the {@link Dfa}. Patterns
+	 * without a token are skipped.
+	 */
+	private final Token[] TOKENS;
+
+	/**
+	 * {@link Token} returned once the end of the input has been reached.
+	 */
+	private final Token EOF;
+
+	/**
+	 * {@link Reader} used to refill the {@link #window}, or {@code null} if
+	 * the window already contains the entire input.
+	 */
+	private final Reader READER;
+
+	/**
+	 * Stores the characters currently being scanned.
+	 */
+	private char[] window;
+
+	/**
+	 * Whether or not {@link #READER} has reached the end of its input.
+	 */
+	private boolean eof;
+
+	/**
+	 * Constructs a DfaScanner which reads its input from the specified
+	 * {@link Reader}.
+	 *
+	 * @param dfa DFA to run
+	 * @param tokens tokens represented by each pattern of the DFA
+	 * @param eof token returned at the end of the input
+	 * @param r reader to generate tokens from
+	 */
+	DfaScanner(Dfa dfa, Token[] tokens, Token eof, Reader r) {
+		this(dfa, tokens, eof, r, new char[DEFAULT_WINDOW_SIZE], 0, 0);
+	}
+
+	/**
+	 * Constructs a DfaScanner which scans the specified range of characters.
+	 * The characters are scanned in place and should not be modified while
+	 * this scanner is in use.
+	 *
+	 * @param dfa DFA to run
+	 * @param tokens tokens represented by each pattern of the DFA
+	 * @param eof token returned at the end of the input
+	 * @param chars characters to generate tokens from
+	 * @param off index of the first character to scan
+	 * @param len number of characters to scan
+	 */
+	DfaScanner(Dfa dfa, Token[] tokens, Token eof, char[] chars, int off, int len) {
+		this(dfa, tokens, eof, null, chars, off, len);
+		if (off < 0 || len < 0 || chars.length - len < off) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Constructs a DfaScanner over the specified window.
+	 *
+	 * @param dfa DFA to run
+	 * @param tokens tokens represented by each pattern of the DFA
+	 * @param eof token returned at the end of the input
+	 * @param r reader used to refill the window, or {@code null}
+	 * @param window initial window
+	 * @param off index of the first character to scan
+	 * @param len number of characters within the window to scan
+	 */
+	private DfaScanner(Dfa dfa, Token[] tokens, Token eof, Reader r, char[] window, int off, int len) {
+		if (dfa == null || tokens == null || window == null) {
+			throw new NullPointerException();
+		}
+
+		this.DFA = dfa;
+		this.TRANSITIONS = dfa.TRANSITIONS;
+		this.ACCEPTS = dfa.ACCEPTS;
+		this.ASCII_CLASSES = dfa.ASCII_CLASSES;
+		this.TOKENS = tokens;
+		this.EOF = eof;
+		this.READER = r;
+		this.window = window;
+		this.pos = off;
+		this.start = off;
+		this.limit = off + len;
+		this.eof = r == null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Characters which do not begin any token are returned one at a time as
+	 * {@code null}.
+	 */
+	@Override
+	public Token next() {
+		final int numClasses = DFA.NUM_CLASSES;
+		while (true) {
+			start = pos;
+			if (!ensure(1)) {
+				return EOF;
+			}
+
+			int state = 0;
+			int length = 0;
+			int accepted = -1;
+			int acceptedLength = 1;
+			while (ensure(length+1)) {
+				char c = at(pos+length);
+				int cls = c < ASCII_CLASSES.length ? ASCII_CLASSES[c] : DFA.classOf(c);
+				state = TRANSITIONS[state*numClasses + cls];
+				if (state < 0) {
+					break;
+				}
+
+				length++;
+				if (0 <= ACCEPTS[state]) {
+					accepted = ACCEPTS[state];
+					acceptedLength = length;
+				}
+			}
+
+			pos += acceptedLength;
+			if (accepted < 0) {
+				return null;
+			} else if (accepted < TOKENS.length) {
+				return TOKENS[accepted];
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The window is grown if the current token does not leave enough room
+	 * within it.
+	 */
+	@Override
+	boolean fill(int n) {
+		while (limit - pos < n) {
+			if (eof) {
+				return false;
+			}
+
+			if (limit == window.length) {
+				char[] dst = window;
+				if (start == 0) {
+					dst = new char[window.length<<1];
+				}
+
+				System.arraycopy(window, start, dst, 0, limit - start);
+				window = dst;
+				origin += start;
+				pos -= start;
+				limit -= start;
+				start = 0;
+			}
+
+			try {
+				int read = READER.read(window, limit, window.length - limit);
+				if (read == -1) {
+					eof = true;
+				} else {
+					limit += read;
+				}
+			} catch (IOException e) {
+				eof = true;
+				exception = e;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	char at(int index) {
+		return window[index];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	String substring(int from, int to) {
+		return new String(window, from, to - from);
+	}
+}
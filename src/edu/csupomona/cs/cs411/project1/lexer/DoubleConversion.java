@@ -0,0 +1,218 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.math.BigInteger;
+
+/**
+ * This class represents the conversion of a decimal significand and exponent,
+ * as accumulated while scanning a double literal, into the nearest double.
+ *
+ * Small significands and exponents are converted exactly using a single
+ * multiplication or division (Clinger's fast path). Otherwise the
+ * Eisel-Lemire algorithm multiplies the significand by a 128-bit truncation of
+ * the power of ten, which determines the correctly rounded result except in
+ * rare cases where the truncation leaves it ambiguous. Those cases, like
+ * significands with more than 19 digits, are left to
+ * {@link Double#parseDouble(java.lang.String)}.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+final class DoubleConversion {
+	/**
+	 * Smallest exponent whose power of five is stored within
+	 * {@link #POWERS_OF_FIVE}. Smaller exponents always round to zero.
+	 */
+	private static final int MIN_EXPONENT = -342;
+
+	/**
+	 * Largest exponent whose power of five is stored within
+	 * {@link #POWERS_OF_FIVE}. Larger exponents always round to infinity.
+	 */
+	private static final int MAX_EXPONENT = 308;
+
+	/**
+	 * Largest exponent of ten whose power is exactly representable.
+	 */
+	private static final int MAX_EXACT_EXPONENT = 22;
+
+	/**
+	 * Number of explicitly stored bits within the significand of a double.
+	 */
+	private static final int MANTISSA_BITS = 52;
+
+	/**
+	 * Biased exponent of infinity.
+	 */
+	private static final int INFINITE_POWER = 0x7FF;
+
+	/**
+	 * Exact powers of ten which are representable as doubles.
+	 */
+	private static final double[] EXACT_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * The most significant 128 bits of each power of five from
+	 * {@link #MIN_EXPONENT} to {@link #MAX_EXPONENT}, stored as its high and
+	 * then its low 64 bits. Negative powers are rounded up, and positive ones
+	 * truncated.
+	 */
+	private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+	/**
+	 * Default constructor which is unused.
+	 */
+	private DoubleConversion() {
+		//...
+	}
+
+	/**
+	 * Returns the double nearest to {@code significand * 10^exponent}, rounding
+	 * ties to even.
+	 *
+	 * @param significand decimal significand, treated as unsigned
+	 * @param exponent decimal exponent
+	 * @return the double nearest to the value, or {@link Double#NaN} if it
+	 *	cannot be determined without the digits of the value
+	 */
+	static double toDouble(long significand, int exponent) {
+		if (significand == 0 || exponent < MIN_EXPONENT) {
+			return 0.0;
+		} else if (MAX_EXPONENT < exponent) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		if (-MAX_EXACT_EXPONENT <= exponent && exponent <= MAX_EXACT_EXPONENT
+				&& 0 < significand && significand <= 1L << (MANTISSA_BITS+1)) {
+			// Both operands are exact, so the result is correctly rounded
+			return exponent < 0
+					? significand / EXACT_POWERS_OF_TEN[-exponent]
+					: significand * EXACT_POWERS_OF_TEN[exponent];
+		}
+
+		return eiselLemire(significand, exponent);
+	}
+
+	/**
+	 * Returns the double nearest to {@code significand * 10^exponent} using the
+	 * Eisel-Lemire algorithm.
+	 *
+	 * @param significand non-zero decimal significand, treated as unsigned
+	 * @param exponent decimal exponent within {@link #MIN_EXPONENT} and
+	 *	{@link #MAX_EXPONENT}
+	 * @return the double nearest to the value, or {@link Double#NaN} if it
+	 *	cannot be determined
+	 */
+	private static double eiselLemire(long significand, int exponent) {
+		int lz = Long.numberOfLeadingZeros(significand);
+		long w = significand << lz;
+		int index = (exponent - MIN_EXPONENT) << 1;
+
+		// Only the bits which form the result need to be exact
+		long high = multiplyHigh(w, POWERS_OF_FIVE[index]);
+		long low = w * POWERS_OF_FIVE[index];
+		long precisionMask = -1L >>> (MANTISSA_BITS+3);
+		if ((high & precisionMask) == precisionMask) {
+			long secondHigh = multiplyHigh(w, POWERS_OF_FIVE[index+1]);
+			long sum = low + secondHigh;
+			if ((sum ^ Long.MIN_VALUE) < (low ^ Long.MIN_VALUE)) {
+				high++;
+			}
+
+			low = sum;
+			if (low == -1L && (exponent < -27 || 55 < exponent)) {
+				return Double.NaN;
+			}
+		}
+
+		int upperBit = (int)(high >>> 63);
+		int shift = upperBit + 64 - MANTISSA_BITS - 3;
+		long mantissa = high >>> shift;
+		// floor(log2(10^exponent)) + 63, biased by the exponent of a double
+		int power2 = (((152170 + 65536) * exponent) >> 16) + 63 + upperBit - lz + 1023;
+		if (power2 <= 0) {
+			// Subnormal values have fewer bits of precision
+			if (64 <= -power2 + 1) {
+				return 0.0;
+			}
+
+			mantissa >>>= -power2 + 1;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			power2 = mantissa < 1L << MANTISSA_BITS ? 0 : 1;
+			return Double.longBitsToDouble(((long)power2 << MANTISSA_BITS) | (mantissa & ((1L << MANTISSA_BITS) - 1)));
+		}
+
+		// A product exactly halfway between two doubles rounds to even
+		if ((low == 0 || low == 1) && -4 <= exponent && exponent <= 23
+				&& (mantissa & 3) == 1 && (mantissa << shift) == high) {
+			mantissa &= ~1L;
+		}
+
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if (2L << MANTISSA_BITS <= mantissa) {
+			mantissa = 1L << MANTISSA_BITS;
+			power2++;
+		}
+
+		if (INFINITE_POWER <= power2) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		mantissa &= ~(1L << MANTISSA_BITS);
+		return Double.longBitsToDouble(((long)power2 << MANTISSA_BITS) | mantissa);
+	}
+
+	/**
+	 * Returns the high 64 bits of the unsigned 128-bit product of the
+	 * specified values.
+	 *
+	 * @param x first value, treated as unsigned
+	 * @param y second value, treated as unsigned
+	 * @return the high 64 bits of the product
+	 */
+	static long multiplyHigh(long x, long y) {
+		long x0 = x & 0xFFFFFFFFL;
+		long x1 = x >>> 32;
+		long y0 = y & 0xFFFFFFFFL;
+		long y1 = y >>> 32;
+		long t = x1*y0 + ((x0*y0) >>> 32);
+		long u = x0*y1 + (t & 0xFFFFFFFFL);
+		return x1*y1 + (t >>> 32) + (u >>> 32);
+	}
+
+	/**
+	 * Computes {@link #POWERS_OF_FIVE}.
+	 *
+	 * @return the most significant 128 bits of each power of five
+	 */
+	private static long[] powersOfFive() {
+		BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		BigInteger limit = BigInteger.ONE.shiftLeft(128);
+		long[] powers = new long[(MAX_EXPONENT - MIN_EXPONENT + 1) << 1];
+		for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+			BigInteger power;
+			if (q < 0) {
+				BigInteger five = BigInteger.valueOf(5).pow(-q);
+				int z = five.bitLength();
+				int b = -27 <= q ? z + 127 : 2*z + 128;
+				power = BigInteger.ONE.shiftLeft(b).divide(five).add(BigInteger.ONE);
+				while (limit.compareTo(power) <= 0) {
+					power = power.shiftRight(1);
+				}
+			} else {
+				power = BigInteger.valueOf(5).pow(q);
+				int excess = power.bitLength() - 128;
+				power = excess < 0 ? power.shiftLeft(-excess) : power.shiftRight(excess);
+			}
+
+			int index = (q - MIN_EXPONENT) << 1;
+			powers[index] = power.shiftRight(64).longValue();
+			powers[index+1] = power.and(mask).longValue();
+		}
+
+		return powers;
+	}
+}
@@ -0,0 +1,423 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * This class represents a lexical analyzer for a document of the Toy language
+ * which is edited over time. The tokens of the document are kept between
+ * edits, and only the tokens affected by an edit are lexed again.
+ *
+ * A {@link ToyScanner} carries no state between tokens, and looks at most
+ * {@link #LOOKAHEAD} characters past the end of a token to decide where it
+ * ends. After an edit, lexing restarts where the last token which could not
+ * have seen the edit ended, and continues until a new token ends where an old
+ * token which began after the edit was scanned from. Every token after that
+ * is the same as before, only moved by the change in length of the document.
+ *
+ * Both the characters and the tokens of the document are stored within gap
+ * buffers whose gaps are moved to each edit, and tokens after the gap store
+ * their offsets relative to the end of the document. The cost of an edit
+ * therefore depends on the number of tokens lexed again and the distance from
+ * the previous edit, rather than on the size of the document.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class IncrementalLexer {
+	/**
+	 * Maximum number of characters past the end of a token which may be looked
+	 * at while scanning it, e.g., {@code "e+1"} after {@code "1."}.
+	 */
+	static final int LOOKAHEAD = 3;
+
+	/**
+	 * Minimum number of characters or tokens allocated to a gap when it is
+	 * grown.
+	 */
+	private static final int DEFAULT_GAP_SIZE = 1<<8;
+
+	/**
+	 * Number of characters within the window of the scanners used to lex
+	 * edits again. Kept small since most edits only affect a few tokens.
+	 */
+	private static final int WINDOW_SIZE = 1<<8;
+
+	/**
+	 * {@link MultiTrie} used by the scanners of this IncrementalLexer to store
+	 * identifiers.
+	 */
+	private final MultiTrie<String> TRIE;
+
+	/**
+	 * Characters of the document, with a gap between {@link #gapStart} and
+	 * {@link #gapEnd}.
+	 */
+	private char[] text;
+
+	/**
+	 * Index of the first character of the gap within {@link #text}.
+	 */
+	private int gapStart;
+
+	/**
+	 * Index after the last character of the gap within {@link #text}.
+	 */
+	private int gapEnd;
+
+	/**
+	 * Tokens of the document, with a gap between {@link #tokenGapStart} and
+	 * {@link #tokenGapEnd}.
+	 */
+	private Token[] tokens;
+
+	/**
+	 * Offset of the first character of each token. Offsets of tokens after
+	 * the gap are stored relative to the end of the document, so they do not
+	 * change when the length of the document does.
+	 */
+	private int[] starts;
+
+	/**
+	 * Number of characters within each token.
+	 */
+	private int[] lengths;
+
+	/**
+	 * Index of the first token of the gap within {@link #tokens}.
+	 */
+	private int tokenGapStart;
+
+	/**
+	 * Index after the last token of the gap within {@link #tokens}.
+	 */
+	private int tokenGapEnd;
+
+	/**
+	 * Constructs an IncrementalLexer for a document containing the specified
+	 * characters, and lexes the entire document.
+	 *
+	 * @param document initial contents of the document
+	 */
+	public IncrementalLexer(CharSequence document) {
+		int length = document.length();
+		this.TRIE = new ToyLexer().getTrie();
+		this.text = new char[length + DEFAULT_GAP_SIZE];
+		for (int i = 0; i < length; i++) {
+			text[i] = document.charAt(i);
+		}
+
+		this.gapStart = length;
+		this.gapEnd = text.length;
+		this.tokens = new Token[DEFAULT_GAP_SIZE];
+		this.starts = new int[DEFAULT_GAP_SIZE];
+		this.lengths = new int[DEFAULT_GAP_SIZE];
+		this.tokenGapStart = 0;
+		this.tokenGapEnd = tokens.length;
+
+		AbstractToyScanner scanner = new ToyScanner(text, 0, length, TRIE);
+		Token t;
+		do {
+			t = scanner.next();
+			addToken(t, scanner.getStart(), scanner.getLength());
+		} while (t != ToyKeywords._EOF);
+	}
+
+	/**
+	 * Replaces the specified range of characters within the document with the
+	 * specified characters, and lexes the tokens affected again.
+	 *
+	 * @param offset offset of the first character to replace
+	 * @param removed number of characters to remove
+	 * @param inserted characters to insert in their place
+	 * @return the number of tokens which were lexed again
+	 * @throws IndexOutOfBoundsException if the range is not within the
+	 *	document
+	 */
+	public int edit(int offset, int removed, CharSequence inserted) {
+		if (inserted == null) {
+			throw new NullPointerException();
+		}
+
+		if (offset < 0 || removed < 0 || length() - removed < offset) {
+			throw new IndexOutOfBoundsException(String.format("Offset: %d, Removed: %d, Length: %d", offset, removed, length()));
+		}
+
+		// Tokens from the first one which may have looked at the edit onwards
+		// are placed after the gap, so that they move along with the end
+		int first = firstAffected(offset);
+		int restart = first == 0 ? 0 : getStart(first-1) + getLength(first-1);
+		moveTokenGap(first);
+
+		moveGap(offset);
+		gapEnd += removed;
+		ensureGap(inserted.length());
+		for (int i = 0; i < inserted.length(); i++) {
+			text[gapStart++] = inserted.charAt(i);
+		}
+
+		int editEnd = offset + inserted.length();
+		AbstractToyScanner scanner = new ToyScanner(new DocumentReader(restart), TRIE, WINDOW_SIZE);
+		int oldOffset = restart;
+		int relexed = 0;
+		while (true) {
+			Token t = scanner.next();
+			int start = restart + scanner.getStart();
+			int end = start + scanner.getLength();
+			addToken(t, start, scanner.getLength());
+			relexed++;
+			if (t == ToyKeywords._EOF) {
+				tokenGapEnd = tokens.length;
+				return relexed;
+			}
+
+			// Discard old tokens which were scanned from before this one ended
+			while (tokenGapEnd < tokens.length && oldOffset < end) {
+				oldOffset = starts[tokenGapEnd] + length() + lengths[tokenGapEnd];
+				tokenGapEnd++;
+			}
+
+			if (tokenGapEnd < tokens.length && oldOffset == end && editEnd <= end) {
+				return relexed;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of characters within the document.
+	 *
+	 * @return the length of the document
+	 */
+	public int length() {
+		return text.length - (gapEnd - gapStart);
+	}
+
+	/**
+	 * Returns the current contents of the document.
+	 *
+	 * @return the contents of the document
+	 */
+	public String getText() {
+		StringBuilder sb = new StringBuilder(length());
+		sb.append(text, 0, gapStart);
+		sb.append(text, gapEnd, text.length - gapEnd);
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the number of tokens within the document, including the end of
+	 * file token.
+	 *
+	 * @return the number of tokens
+	 */
+	public int size() {
+		return tokens.length - (tokenGapEnd - tokenGapStart);
+	}
+
+	/**
+	 * Returns the token at the specified index.
+	 *
+	 * @param i index of the token
+	 * @return the token at that index, or {@code null} if it is invalid
+	 */
+	public Token getToken(int i) {
+		return tokens[physicalIndex(i)];
+	}
+
+	/**
+	 * Returns the offset of the first character of the token at the specified
+	 * index.
+	 *
+	 * @param i index of the token
+	 * @return the offset of the token
+	 */
+	public int getStart(int i) {
+		int physical = physicalIndex(i);
+		return i < tokenGapStart ? starts[physical] : starts[physical] + length();
+	}
+
+	/**
+	 * Returns the number of characters within the token at the specified
+	 * index.
+	 *
+	 * @param i index of the token
+	 * @return the length of the token
+	 */
+	public int getLength(int i) {
+		return lengths[physicalIndex(i)];
+	}
+
+	/**
+	 * Returns the index of the first token which may have looked at the
+	 * character at the specified offset, or at whether there is one.
+	 *
+	 * @param offset offset of the character
+	 * @return index of the first affected token
+	 */
+	private int firstAffected(int offset) {
+		int low = 0;
+		int high = size()-1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (offset < getStart(mid) + getLength(mid) + LOOKAHEAD) {
+				high = mid;
+			} else {
+				low = mid+1;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Returns the index within the token arrays of the token at the specified
+	 * index.
+	 *
+	 * @param i index of the token
+	 * @return the index within the token arrays
+	 */
+	private int physicalIndex(int i) {
+		if (i < 0 || size() <= i) {
+			throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", i, size()));
+		}
+
+		return i < tokenGapStart ? i : i + (tokenGapEnd - tokenGapStart);
+	}
+
+	/**
+	 * Appends a token to the end of the tokens before the gap.
+	 *
+	 * @param t token to append
+	 * @param start offset of the first character of the token
+	 * @param length number of characters within the token
+	 */
+	private void addToken(Token t, int start, int length) {
+		if (tokenGapStart == tokenGapEnd) {
+			int size = tokens.length;
+			int newSize = size + Math.max(size, DEFAULT_GAP_SIZE);
+			int after = size - tokenGapEnd;
+			tokens = Arrays.copyOf(tokens, newSize);
+			starts = Arrays.copyOf(starts, newSize);
+			lengths = Arrays.copyOf(lengths, newSize);
+			System.arraycopy(tokens, tokenGapEnd, tokens, newSize - after, after);
+			System.arraycopy(starts, tokenGapEnd, starts, newSize - after, after);
+			System.arraycopy(lengths, tokenGapEnd, lengths, newSize - after, after);
+			tokenGapEnd = newSize - after;
+		}
+
+		tokens[tokenGapStart] = t;
+		starts[tokenGapStart] = start;
+		lengths[tokenGapStart] = length;
+		tokenGapStart++;
+	}
+
+	/**
+	 * Moves the gap within the token arrays so that it begins at the
+	 * specified index, converting the offsets of the tokens it moves past.
+	 *
+	 * @param index index of the token to move the gap to
+	 */
+	private void moveTokenGap(int index) {
+		int length = length();
+		while (index < tokenGapStart) {
+			tokenGapStart--;
+			tokenGapEnd--;
+			tokens[tokenGapEnd] = tokens[tokenGapStart];
+			starts[tokenGapEnd] = starts[tokenGapStart] - length;
+			lengths[tokenGapEnd] = lengths[tokenGapStart];
+		}
+
+		while (tokenGapStart < index) {
+			tokens[tokenGapStart] = tokens[tokenGapEnd];
+			starts[tokenGapStart] = starts[tokenGapEnd] + length;
+			lengths[tokenGapStart] = lengths[tokenGapEnd];
+			tokenGapStart++;
+			tokenGapEnd++;
+		}
+	}
+
+	/**
+	 * Moves the gap within {@link #text} so that it begins at the specified
+	 * offset.
+	 *
+	 * @param offset offset of the character to move the gap to
+	 */
+	private void moveGap(int offset) {
+		if (offset < gapStart) {
+			int count = gapStart - offset;
+			System.arraycopy(text, offset, text, gapEnd - count, count);
+			gapStart -= count;
+			gapEnd -= count;
+		} else if (gapStart < offset) {
+			int count = offset - gapStart;
+			System.arraycopy(text, gapEnd, text, gapStart, count);
+			gapStart += count;
+			gapEnd += count;
+		}
+	}
+
+	/**
+	 * Grows the gap within {@link #text} until it can hold at least the
+	 * specified number of characters.
+	 *
+	 * @param size number of characters required
+	 */
+	private void ensureGap(int size) {
+		if (size <= gapEnd - gapStart) {
+			return;
+		}
+
+		int after = text.length - gapEnd;
+		int newLength = Math.max(text.length << 1, length() + size + DEFAULT_GAP_SIZE);
+		char[] dst = Arrays.copyOf(text, newLength);
+		System.arraycopy(text, gapEnd, dst, newLength - after, after);
+		text = dst;
+		gapEnd = newLength - after;
+	}
+
+	/**
+	 * This class represents a {@link Reader} over the characters of the
+	 * document from a specified offset onwards, skipping over the gap.
+	 */
+	private final class DocumentReader extends Reader {
+		/**
+		 * Offset of the next character to read.
+		 */
+		private int offset;
+
+		/**
+		 * Constructs a DocumentReader which reads from the specified offset.
+		 *
+		 * @param offset offset of the first character to read
+		 */
+		DocumentReader(int offset) {
+			this.offset = offset;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			int remaining = length() - offset;
+			if (remaining <= 0) {
+				return -1;
+			}
+
+			int n = Math.min(len, remaining);
+			int before = Math.max(0, Math.min(n, gapStart - offset));
+			System.arraycopy(text, offset, cbuf, off, before);
+			System.arraycopy(text, gapEnd + offset + before - gapStart, cbuf, off + before, n - before);
+			offset += n;
+			return n;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void close() {
+			//...
+		}
+	}
+}
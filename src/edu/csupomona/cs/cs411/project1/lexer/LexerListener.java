@@ -0,0 +1,38 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+/**
+ * This interface represents a listener which is told about each token
+ * generated by an {@link AbstractToyScanner}, for measuring where lexing
+ * spends its time.
+ *
+ * Scanners only call their listener if one has been set, so scanning without
+ * one costs a single comparison per token. A listener shared by several
+ * scanners, such as those of a {@link BatchLexer}, is called from each of
+ * their threads.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ *
+ * @see ToyLexer#setListener(LexerListener)
+ * @see LexerMetrics
+ */
+public interface LexerListener {
+	/**
+	 * Called after each token is generated, including the end of file token.
+	 *
+	 * @param token token generated, or {@code null} if it is invalid
+	 * @param length number of characters consumed to generate the token,
+	 *	including any whitespace and comments skipped before it, or the
+	 *	number of bytes for scanners over UTF-8 encoded input
+	 */
+	void tokenScanned(Token token, int length);
+
+	/**
+	 * Called after each identifier is generated, before
+	 * {@link #tokenScanned(Token, int)} is called for it.
+	 *
+	 * @param inserted {@code true} if the identifier was stored within the
+	 *	{@link edu.csupomona.cs.cs411.project1.trie.MultiTrie} of the scanner
+	 *	for the first time, otherwise {@code false} if it was already there
+	 */
+	void identifierScanned(boolean inserted);
+}
@@ -0,0 +1,261 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.ProbeListener;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class represents a {@link LexerListener} which counts the characters,
+ * tokens and identifiers generated by the scanners it is given to, along with
+ * the number of probes each operation of a trie takes when it is given to one
+ * as a {@link ProbeListener}. {@link ToyLexer#setListener(LexerListener)} does
+ * both at once. The counts may be read directly, or through JMX once this
+ * LexerMetrics has been registered.
+ *
+ * Every count is updated atomically, so a single LexerMetrics may be shared by
+ * the scanners of several threads.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class LexerMetrics implements LexerListener, ProbeListener, LexerMetricsMXBean {
+	/**
+	 * Domain of the names which LexerMetrics are registered with.
+	 */
+	public static final String DOMAIN = "edu.csupomona.cs.cs411.project1.lexer";
+
+	/**
+	 * Number of buckets within the histogram of links followed.
+	 */
+	private static final int PROBE_BUCKETS = 17;
+
+	/**
+	 * Kinds of tokens, indexed by {@link Token#getId()}.
+	 */
+	private static final ToyKeywords[] KINDS = ToyKeywords.values();
+
+	/**
+	 * Number of characters consumed.
+	 */
+	private final AtomicLong CHARACTERS;
+
+	/**
+	 * Number of invalid tokens generated.
+	 */
+	private final AtomicLong INVALID;
+
+	/**
+	 * Number of tokens of each kind generated, indexed by {@link Token#getId()}.
+	 */
+	private final AtomicLongArray TOKENS;
+
+	/**
+	 * Number of identifiers stored for the first time.
+	 */
+	private final AtomicLong INSERTS;
+
+	/**
+	 * Number of identifiers which were already stored.
+	 */
+	private final AtomicLong HITS;
+
+	/**
+	 * Number of trie operations which followed each number of links.
+	 */
+	private final AtomicLongArray PROBES;
+
+	/**
+	 * Time the counts were last reset, in nanoseconds.
+	 */
+	private volatile long since;
+
+	/**
+	 * Default constructor which initializes every count to zero.
+	 */
+	public LexerMetrics() {
+		this.CHARACTERS = new AtomicLong();
+		this.INVALID = new AtomicLong();
+		this.TOKENS = new AtomicLongArray(KINDS.length);
+		this.INSERTS = new AtomicLong();
+		this.HITS = new AtomicLong();
+		this.PROBES = new AtomicLongArray(PROBE_BUCKETS);
+		this.since = System.nanoTime();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void tokenScanned(Token token, int length) {
+		CHARACTERS.addAndGet(length);
+		if (token == null) {
+			INVALID.incrementAndGet();
+		} else {
+			TOKENS.incrementAndGet(token.getId());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void identifierScanned(boolean inserted) {
+		(inserted ? INSERTS : HITS).incrementAndGet();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void probed(int probes) {
+		PROBES.incrementAndGet(Math.min(probes, PROBE_BUCKETS-1));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getCharactersLexed() {
+		return CHARACTERS.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getCharactersPerSecond() {
+		long elapsed = System.nanoTime() - since;
+		return elapsed <= 0 ? 0.0 : CHARACTERS.get() * 1e9 / elapsed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTokensLexed() {
+		long count = INVALID.get();
+		for (int i = 0; i < TOKENS.length(); i++) {
+			count += TOKENS.get(i);
+		}
+
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getInvalidTokens() {
+		return INVALID.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, Long> getTokenCounts() {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < TOKENS.length(); i++) {
+			long count = TOKENS.get(i);
+			if (count != 0) {
+				counts.put(KINDS[i].name(), count);
+			}
+		}
+
+		return counts;
+	}
+
+	/**
+	 * Returns the number of tokens of the specified kind generated since the
+	 * counts were last reset.
+	 *
+	 * @param kind kind of token
+	 * @return the number of tokens of that kind
+	 */
+	public long getTokenCount(ToyKeywords kind) {
+		return TOKENS.get(kind.getId());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getIdentifierInserts() {
+		return INSERTS.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getIdentifierHits() {
+		return HITS.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long[] getProbeHistogram() {
+		long[] histogram = new long[PROBE_BUCKETS];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = PROBES.get(i);
+		}
+
+		return histogram;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Counts updated while this method runs may or may not be reset.
+	 */
+	@Override
+	public void reset() {
+		CHARACTERS.set(0);
+		INVALID.set(0);
+		for (int i = 0; i < TOKENS.length(); i++) {
+			TOKENS.set(i, 0);
+		}
+
+		INSERTS.set(0);
+		HITS.set(0);
+		for (int i = 0; i < PROBES.length(); i++) {
+			PROBES.set(i, 0);
+		}
+
+		since = System.nanoTime();
+	}
+
+	/**
+	 * Registers this LexerMetrics with the platform {@link MBeanServer} using
+	 * the specified name, e.g. {@code "batch"} becomes
+	 * {@code edu.csupomona.cs.cs411.project1.lexer:type=LexerMetrics,name="batch"}.
+	 *
+	 * @param name name distinguishing this LexerMetrics from others
+	 * @return the name this LexerMetrics was registered with
+	 * @throws JMException if this LexerMetrics cannot be registered, e.g.
+	 *	because the name is already used
+	 */
+	public ObjectName register(String name) throws JMException {
+		ObjectName objectName = new ObjectName(DOMAIN + ":type=LexerMetrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		return objectName;
+	}
+
+	/**
+	 * Unregisters the LexerMetrics registered with the platform
+	 * {@link MBeanServer} using the specified name.
+	 *
+	 * @param objectName name returned by {@link #register(java.lang.String)}
+	 * @throws JMException if nothing is registered with the name
+	 */
+	public static void unregister(ObjectName objectName) throws JMException {
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+	}
+}
@@ -0,0 +1,84 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.Map;
+
+/**
+ * This interface represents the management interface of a
+ * {@link LexerMetrics}, through which its counts can be read using JMX.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public interface LexerMetricsMXBean {
+	/**
+	 * Returns the number of characters, or bytes for UTF-8 encoded input,
+	 * consumed since the counts were last reset.
+	 *
+	 * @return the number of characters consumed
+	 */
+	long getCharactersLexed();
+
+	/**
+	 * Returns the number of characters consumed per second since the counts
+	 * were last reset.
+	 *
+	 * @return the number of characters consumed per second
+	 */
+	double getCharactersPerSecond();
+
+	/**
+	 * Returns the number of tokens generated since the counts were last
+	 * reset, including invalid tokens.
+	 *
+	 * @return the number of tokens generated
+	 */
+	long getTokensLexed();
+
+	/**
+	 * Returns the number of invalid tokens generated since the counts were
+	 * last reset.
+	 *
+	 * @return the number of invalid tokens generated
+	 */
+	long getInvalidTokens();
+
+	/**
+	 * Returns the number of tokens of each {@link ToyKeywords} generated since
+	 * the counts were last reset, by name. Kinds which were not generated are
+	 * not included.
+	 *
+	 * @return the number of tokens of each kind
+	 */
+	Map<String, Long> getTokenCounts();
+
+	/**
+	 * Returns the number of identifiers stored for the first time since the
+	 * counts were last reset.
+	 *
+	 * @return the number of identifiers inserted
+	 */
+	long getIdentifierInserts();
+
+	/**
+	 * Returns the number of identifiers which were already stored since the
+	 * counts were last reset.
+	 *
+	 * @return the number of identifiers found
+	 */
+	long getIdentifierHits();
+
+	/**
+	 * Returns the number of trie operations which followed each number of
+	 * links since the counts were last reset. The last element counts every
+	 * operation which followed at least that many links.
+	 *
+	 * @return the number of operations following each number of links
+	 *
+	 * @see edu.csupomona.cs.cs411.project1.trie.ProbeListener
+	 */
+	long[] getProbeHistogram();
+
+	/**
+	 * Resets every count to zero.
+	 */
+	void reset();
+}
@@ -0,0 +1,386 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.ArrayMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.ConcurrentMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents a lexical analyzer which lexes a single large input of
+ * the Toy language on several threads by splitting it into chunks.
+ *
+ * Each chunk begins at a candidate boundary (the start of a line) and is
+ * lexed speculatively, as if a token began at that boundary. A
+ * {@link ToyScanner} carries no state between tokens, so once scanning begins
+ * at the same offset as the sequential scan would, every following token is
+ * the same. The chunks are then stitched together in order: if the previous
+ * chunk ended at an offset where the speculative scan of the next chunk also
+ * began a token, the rest of that chunk is used as it is. Otherwise the
+ * boundary fell within a token (e.g., a block comment, string or operator
+ * such as {@code <=}), and the input is lexed again sequentially from where
+ * the previous chunk ended until it meets one of the speculative tokens.
+ *
+ * The tokens generated are identical to those generated by
+ * {@link ToyLexer#scan(char[])}, including the end of file token. The
+ * identifiers of the tokens generated are stored within a single
+ * {@link ConcurrentMultiTrie} which is kept across inputs. Each speculative
+ * scan stores the identifiers it finds within a scratch trie of its own, since
+ * a scan beginning within a comment or string finds words which are not
+ * identifiers at all, and only the identifiers of the speculative tokens which
+ * are used are stored within the shared trie, concurrently with stitching the
+ * chunks which follow.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ParallelLexer implements Closeable {
+	/**
+	 * Default minimum number of characters within each chunk.
+	 */
+	private static final int DEFAULT_MIN_CHUNK_SIZE = 1<<16;
+
+	/**
+	 * Maximum number of characters searched past the nominal end of a chunk
+	 * for the start of a line before the nominal end is used instead.
+	 */
+	private static final int MAX_BOUNDARY_SEARCH = 1<<10;
+
+	/**
+	 * {@link ForkJoinPool} used to lex chunks.
+	 */
+	private final ForkJoinPool POOL;
+
+	/**
+	 * {@link MultiTrie} storing the identifiers of the tokens generated.
+	 */
+	private final MultiTrie<String> TRIE;
+
+	/**
+	 * Minimum number of characters within each chunk. Inputs smaller than
+	 * twice this are lexed sequentially.
+	 */
+	private final int MIN_CHUNK_SIZE;
+
+	/**
+	 * Constructs a ParallelLexer which lexes using one thread for each
+	 * available processor.
+	 */
+	public ParallelLexer() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a ParallelLexer which lexes using the specified number of
+	 * threads.
+	 *
+	 * @param parallelism number of chunks to lex concurrently
+	 * @throws IllegalArgumentException if parallelism is not positive
+	 */
+	public ParallelLexer(int parallelism) {
+		this(parallelism, DEFAULT_MIN_CHUNK_SIZE);
+	}
+
+	/**
+	 * Constructs a ParallelLexer which lexes using the specified number of
+	 * threads and splits its input into chunks of at least the specified
+	 * number of characters.
+	 *
+	 * @param parallelism number of chunks to lex concurrently
+	 * @param minChunkSize minimum number of characters within each chunk
+	 * @throws IllegalArgumentException if parallelism or minChunkSize is not
+	 *	positive
+	 */
+	ParallelLexer(int parallelism, int minChunkSize) {
+		if (minChunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive.");
+		}
+
+		this.POOL = new ForkJoinPool(parallelism);
+		this.TRIE = new ToyLexer(new ConcurrentMultiTrie()).getTrie();
+		this.MIN_CHUNK_SIZE = minChunkSize;
+	}
+
+	/**
+	 * Returns the tokens generated from the UTF-8 encoded file at the
+	 * specified {@link Path}. Spans are offsets of characters within the
+	 * decoded file.
+	 *
+	 * @param p path of the file to generate tokens from
+	 * @return the tokens generated
+	 * @throws IOException if the file cannot be read
+	 */
+	public TokenBuffer lex(Path p) throws IOException {
+		ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(p));
+		return lex(StandardCharsets.UTF_8.decode(bytes).toString().toCharArray());
+	}
+
+	/**
+	 * Returns the tokens generated from the specified characters. The
+	 * characters should not be modified until this method returns.
+	 *
+	 * @param chars characters to generate tokens from
+	 * @return the tokens generated, ending with {@link ToyKeywords#_EOF}
+	 */
+	public TokenBuffer lex(char[] chars) {
+		int[] boundaries = split(chars, Math.min(POOL.getParallelism(), chars.length/MIN_CHUNK_SIZE));
+		List<ForkJoinTask<TokenBuffer>> chunks = new ArrayList<ForkJoinTask<TokenBuffer>>(boundaries.length-1);
+		for (int i = 0; i < boundaries.length-1; i++) {
+			chunks.add(POOL.submit(new ChunkTask(chars, boundaries[i], boundaries[i+1])));
+		}
+
+		List<ForkJoinTask<?>> interns = new ArrayList<ForkJoinTask<?>>(chunks.size());
+		TokenBuffer tokens = new TokenBuffer();
+		for (int i = 0; i < chunks.size(); i++) {
+			int offset = tokens.size() == 0 ? 0 : tokens.getEnd(tokens.size()-1);
+			TokenBuffer chunk = chunks.get(i).join();
+			int used = stitch(tokens, offset, chars, TRIE, boundaries[i], boundaries[i+1], chunk);
+			if (used < chunk.size()) {
+				interns.add(POOL.submit(new InternTask(chars, chunk, used, TRIE)));
+			}
+
+			if (tokens.size() > 0 && tokens.getToken(tokens.size()-1) == ToyKeywords._EOF) {
+				// A comment ran to the end of the input, so later chunks are unused
+				for (int j = i+1; j < chunks.size(); j++) {
+					chunks.get(j).cancel(false);
+				}
+
+				break;
+			}
+		}
+
+		for (ForkJoinTask<?> intern : interns) {
+			intern.join();
+		}
+
+		return tokens;
+	}
+
+	/**
+	 * Returns the number of chunks this ParallelLexer lexes concurrently.
+	 *
+	 * @return the parallelism of this ParallelLexer
+	 */
+	public int getParallelism() {
+		return POOL.getParallelism();
+	}
+
+	/**
+	 * Returns the {@link MultiTrie} which stores the identifiers of the tokens
+	 * generated by this ParallelLexer.
+	 *
+	 * @return the trie storing identifiers
+	 */
+	MultiTrie<String> getTrie() {
+		return TRIE;
+	}
+
+	/**
+	 * Shuts down the worker threads of this ParallelLexer.
+	 */
+	@Override
+	public void close() {
+		POOL.shutdown();
+	}
+
+	/**
+	 * Returns the boundaries of the chunks which the specified characters are
+	 * split into. Each boundary other than the first and last is moved forward
+	 * to the start of the next line, if there is one nearby.
+	 *
+	 * @param chars characters to split
+	 * @param numChunks number of chunks to split into
+	 * @return the offset of the first character of each chunk, followed by
+	 *	the number of characters
+	 */
+	static int[] split(char[] chars, int numChunks) {
+		numChunks = Math.max(numChunks, 1);
+		int[] boundaries = new int[numChunks+1];
+		boundaries[numChunks] = chars.length;
+		for (int i = 1; i < numChunks; i++) {
+			int nominal = (int)((long)chars.length * i / numChunks);
+			int boundary = nominal;
+			int max = Math.min(chars.length, nominal + MAX_BOUNDARY_SEARCH);
+			while (boundary < max && chars[boundary-1] != '\n') {
+				boundary++;
+			}
+
+			boundaries[i] = boundary < max ? boundary : nominal;
+		}
+
+		return boundaries;
+	}
+
+	/**
+	 * Appends the tokens of a chunk to the specified buffer, lexing the
+	 * chunk again from the specified offset until it meets a token of the
+	 * speculative scan if the scan did not begin a token there. Identifiers
+	 * lexed again are stored within the specified trie, but those of the
+	 * speculative tokens used are not.
+	 *
+	 * @param tokens buffer to append tokens to
+	 * @param offset offset where the sequential scan of the chunk begins,
+	 *	which is the end of the last token within the buffer
+	 * @param chars characters being lexed
+	 * @param trie trie to store identifiers within
+	 * @param from offset where the speculative scan of the chunk began
+	 * @param to offset of the end of the chunk
+	 * @param chunk tokens generated by the speculative scan of the chunk
+	 * @return index of the first speculative token used, or the number of
+	 *	speculative tokens if none were used
+	 */
+	private static int stitch(TokenBuffer tokens, int offset, char[] chars, MultiTrie<String> trie, int from, int to, TokenBuffer chunk) {
+		int i = 0;
+		int chunkOffset = from;
+		AbstractToyScanner scanner = null;
+		while (true) {
+			// Skip speculative tokens which begin before the sequential scan
+			while (chunkOffset < offset && i < chunk.size()) {
+				chunkOffset = chunk.getEnd(i++);
+			}
+
+			// The end of the last chunk follows its end of file token
+			if (chunkOffset == offset && (i < chunk.size() || to < chars.length)) {
+				tokens.addAll(chunk, i, chunk.size());
+				return i;
+			}
+
+			if (to <= offset && to < chars.length) {
+				return chunk.size();
+			}
+
+			if (scanner == null) {
+				scanner = new ToyScanner(chars, offset, chars.length - offset, trie);
+			}
+
+			Token t = scanner.next();
+			tokens.add(t, scanner.getStart(), scanner.getLength());
+			offset = scanner.getStart() + scanner.getLength();
+			if (t == ToyKeywords._EOF) {
+				return chunk.size();
+			}
+		}
+	}
+
+	/**
+	 * This class represents the task of speculatively lexing a single chunk,
+	 * beginning a token at its first character. The tokens generated continue
+	 * until one begins at or after the end of the chunk, or until the end of
+	 * file token for the last chunk. Identifiers are stored within a scratch
+	 * trie which is discarded along with the task.
+	 */
+	@SuppressWarnings("serial")
+	private static final class ChunkTask extends RecursiveTask<TokenBuffer> {
+		/**
+		 * Characters being lexed.
+		 */
+		private final char[] CHARS;
+
+		/**
+		 * Offset of the first character of the chunk.
+		 */
+		private final int FROM;
+
+		/**
+		 * Offset of the end of the chunk.
+		 */
+		private final int TO;
+
+		/**
+		 * Constructs a ChunkTask which lexes the specified chunk.
+		 *
+		 * @param chars characters being lexed
+		 * @param from offset of the first character of the chunk
+		 * @param to offset of the end of the chunk
+		 */
+		ChunkTask(char[] chars, int from, int to) {
+			this.CHARS = chars;
+			this.FROM = from;
+			this.TO = to;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected TokenBuffer compute() {
+			TokenBuffer tokens = new TokenBuffer();
+			AbstractToyScanner scanner = new ToyScanner(CHARS, FROM, CHARS.length - FROM, new ArrayMultiTrie());
+			int offset = FROM;
+			while (offset < TO || TO == CHARS.length) {
+				Token t = scanner.next();
+				tokens.add(t, scanner.getStart(), scanner.getLength());
+				offset = scanner.getStart() + scanner.getLength();
+				if (t == ToyKeywords._EOF) {
+					break;
+				}
+			}
+
+			return tokens;
+		}
+	}
+
+	/**
+	 * This class represents the task of storing the identifiers of the
+	 * speculative tokens of a chunk which were used within the shared trie.
+	 */
+	@SuppressWarnings("serial")
+	private static final class InternTask extends RecursiveAction {
+		/**
+		 * Characters being lexed.
+		 */
+		private final char[] CHARS;
+
+		/**
+		 * Tokens generated by the speculative scan of the chunk.
+		 */
+		private final TokenBuffer CHUNK;
+
+		/**
+		 * Index of the first token used.
+		 */
+		private final int FROM;
+
+		/**
+		 * {@link MultiTrie} to store identifiers within.
+		 */
+		private final MultiTrie<String> TRIE;
+
+		/**
+		 * Constructs an InternTask which stores the identifiers of the
+		 * specified tokens.
+		 *
+		 * @param chars characters being lexed
+		 * @param chunk tokens generated by the speculative scan of the chunk
+		 * @param from index of the first token used
+		 * @param trie trie to store identifiers within
+		 */
+		InternTask(char[] chars, TokenBuffer chunk, int from, MultiTrie<String> trie) {
+			this.CHARS = chars;
+			this.CHUNK = chunk;
+			this.FROM = from;
+			this.TRIE = trie;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void compute() {
+			for (int i = FROM; i < CHUNK.size(); i++) {
+				if (CHUNK.getToken(i) == ToyKeywords._id) {
+					TRIE.insertOrGet(new String(CHARS, CHUNK.getStart(i), CHUNK.getLength(i)), ToyLexer.IDENTIFIER_SENTINEL);
+				}
+			}
+		}
+	}
+}
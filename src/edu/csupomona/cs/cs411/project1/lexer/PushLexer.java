@@ -0,0 +1,374 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class represents a lexer for the Toy language which is pushed its input
+ * in pieces, such as the buffers read from a non-blocking channel, instead of
+ * pulling it from a {@link java.io.Reader}. Each token is delivered to a
+ * {@link Sink} as soon as it is known to be complete, so a token split across
+ * pieces (e.g., {@code 0x1F} arriving as {@code 0} and {@code x1F}) is
+ * delivered whole once the piece completing it arrives.
+ *
+ * The characters which have not yet formed a complete token are held within
+ * a window which is scanned by the same rules as {@link ToyScanner}. When
+ * scanning runs out of characters before the end of the input, the scanner
+ * records where it stopped (e.g., within a block comment just after a
+ * {@code '*'}, or within the digits of a number) and continues from there
+ * once more input has arrived, so each character is only examined once no
+ * matter how many pieces a comment, string or number spans. Comments and
+ * whitespace which have been skipped are discarded from the window, so only
+ * the characters of an incomplete token are held.
+ *
+ * A PushLexer never blocks, but it is not thread-safe, so each piece of input
+ * should be pushed by one thread at a time, e.g. the event loop reading its
+ * channel.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class PushLexer {
+	/**
+	 * Default number of characters allocated to the window.
+	 */
+	private static final int DEFAULT_WINDOW_SIZE = 1<<13;
+
+	/**
+	 * Scanner over the characters which have arrived.
+	 */
+	private final WindowScanner SCANNER;
+
+	/**
+	 * {@link Sink} which each token is delivered to.
+	 */
+	private final Sink SINK;
+
+	/**
+	 * Decoder for input pushed as UTF-8 encoded bytes.
+	 */
+	private final CharsetDecoder DECODER;
+
+	/**
+	 * Bytes which have been pushed but not yet decoded, because they do not
+	 * yet form a complete character.
+	 */
+	private ByteBuffer bytes;
+
+	/**
+	 * Constructs a PushLexer which stores identifiers within the specified
+	 * {@link MultiTrie} and delivers tokens to the specified {@link Sink}.
+	 *
+	 * @param trie trie containing keywords and used to store identifiers
+	 * @param sink sink to deliver tokens to
+	 */
+	PushLexer(MultiTrie<String> trie, Sink sink) {
+		if (sink == null) {
+			throw new NullPointerException();
+		}
+
+		this.SCANNER = new WindowScanner(trie);
+		this.SINK = sink;
+		this.DECODER = StandardCharsets.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.bytes = ByteBuffer.allocate(0);
+	}
+
+	/**
+	 * Pushes the remaining characters of the specified {@link CharBuffer},
+	 * and delivers every token which they complete. The buffer is consumed.
+	 *
+	 * @param chars characters continuing the input
+	 * @throws IllegalStateException if the end of the input has already been
+	 *	pushed
+	 */
+	public void push(CharBuffer chars) {
+		checkOpen();
+		SCANNER.reserve(chars.remaining());
+		int length = chars.remaining();
+		chars.get(SCANNER.window, SCANNER.limit, length);
+		SCANNER.limit += length;
+		deliver();
+	}
+
+	/**
+	 * Pushes the remaining UTF-8 encoded bytes of the specified
+	 * {@link ByteBuffer}, and delivers every token which they complete. The
+	 * buffer is consumed, and a character split between this buffer and the
+	 * next is decoded once the next one is pushed.
+	 *
+	 * @param buffer bytes continuing the input
+	 * @throws IllegalStateException if the end of the input has already been
+	 *	pushed
+	 */
+	public void push(ByteBuffer buffer) {
+		checkOpen();
+		ByteBuffer in = buffer;
+		if (bytes.hasRemaining()) {
+			in = ByteBuffer.allocate(bytes.remaining() + buffer.remaining());
+			in.put(bytes).put(buffer).flip();
+		}
+
+		// UTF-8 never decodes to more characters than it has bytes
+		SCANNER.reserve(in.remaining());
+		CharBuffer out = CharBuffer.wrap(SCANNER.window, SCANNER.limit, SCANNER.window.length - SCANNER.limit);
+		DECODER.decode(in, out, false);
+		SCANNER.limit = out.position();
+		bytes = in.hasRemaining() ? ByteBuffer.allocate(in.remaining()).put(in) : ByteBuffer.allocate(0);
+		bytes.flip();
+		deliver();
+	}
+
+	/**
+	 * Marks the end of the input, and delivers the remaining tokens followed
+	 * by {@link ToyKeywords#_EOF}. Bytes which do not form a complete
+	 * character are decoded as a replacement character.
+	 *
+	 * @throws IllegalStateException if the end of the input has already been
+	 *	pushed
+	 */
+	public void end() {
+		checkOpen();
+		SCANNER.reserve(bytes.remaining() + 1);
+		CharBuffer out = CharBuffer.wrap(SCANNER.window, SCANNER.limit, SCANNER.window.length - SCANNER.limit);
+		DECODER.decode(bytes, out, true);
+		DECODER.flush(out);
+		SCANNER.limit = out.position();
+		SCANNER.eof = true;
+		deliver();
+	}
+
+	/**
+	 * Returns whether or not the end of the input has been pushed.
+	 *
+	 * @return {@code true} if it has, otherwise {@code false}
+	 */
+	public boolean isEnded() {
+		return SCANNER.eof;
+	}
+
+	/**
+	 * Returns the offset of the first character of the token being delivered
+	 * within the input.
+	 *
+	 * @return the offset of the token being delivered
+	 */
+	public int getStart() {
+		return SCANNER.getStart();
+	}
+
+	/**
+	 * Returns the number of characters within the token being delivered.
+	 *
+	 * @return the length of the token being delivered
+	 */
+	public int getLength() {
+		return SCANNER.getLength();
+	}
+
+	/**
+	 * Returns the text of the token being delivered, which is only available
+	 * until the {@link Sink} returns.
+	 *
+	 * @return the text of the token being delivered
+	 */
+	public String getText() {
+		return SCANNER.getText();
+	}
+
+	/**
+	 * Returns the symbol ID of the token being delivered if it is an
+	 * identifier.
+	 *
+	 * @return the symbol ID of the token, or {@code -1} if it is not an
+	 *	identifier
+	 *
+	 * @see AbstractToyScanner#getSymbol()
+	 */
+	public int getSymbol() {
+		return SCANNER.getSymbol();
+	}
+
+	/**
+	 * Returns the value of the token being delivered if it is an integer
+	 * literal.
+	 *
+	 * @return the value of the integer literal
+	 *
+	 * @see AbstractToyScanner#getLongValue()
+	 */
+	public long getLongValue() {
+		return SCANNER.getLongValue();
+	}
+
+	/**
+	 * Returns whether or not the token being delivered is an integer literal
+	 * whose value exceeds {@link Long#MAX_VALUE}.
+	 *
+	 * @return {@code true} if it is, otherwise {@code false}
+	 *
+	 * @see AbstractToyScanner#isOverflow()
+	 */
+	public boolean isOverflow() {
+		return SCANNER.isOverflow();
+	}
+
+	/**
+	 * Returns the value of the token being delivered if it is an integer or
+	 * double literal.
+	 *
+	 * @return the value of the number
+	 *
+	 * @see AbstractToyScanner#getDoubleValue()
+	 */
+	public double getDoubleValue() {
+		return SCANNER.getDoubleValue();
+	}
+
+	/**
+	 * Sets the listener told about each token delivered.
+	 *
+	 * @param listener listener to tell, or {@code null} to stop telling one
+	 */
+	public void setListener(LexerListener listener) {
+		SCANNER.setListener(listener);
+	}
+
+	/**
+	 * Scans and delivers every complete token within the window. Scanning
+	 * stops at the first token which runs out of characters, which is
+	 * continued from where it stopped once more input has arrived.
+	 */
+	private void deliver() {
+		while (true) {
+			SCANNER.starved = false;
+			Token t = SCANNER.next();
+			if (SCANNER.starved) {
+				SCANNER.starved = false;
+				return;
+			}
+
+			SINK.accept(t, this);
+			if (t == ToyKeywords._EOF) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Throws an exception if the end of the input has already been pushed.
+	 */
+	private void checkOpen() {
+		if (SCANNER.eof) {
+			throw new IllegalStateException("The end of the input has already been pushed.");
+		}
+	}
+
+	/**
+	 * This interface represents a consumer of the tokens delivered by a
+	 * {@link PushLexer}.
+	 */
+	public interface Sink {
+		/**
+		 * Accepts a complete token. Tokens are accepted in order on the thread
+		 * which pushed the input completing them, and the span, text and
+		 * symbol ID of the token may be read from the lexer until this method
+		 * returns.
+		 *
+		 * @param token token delivered, {@link ToyKeywords#_EOF} after the
+		 *	end of the input, or {@code null} if the token is invalid
+		 * @param lexer lexer delivering the token
+		 */
+		void accept(Token token, PushLexer lexer);
+	}
+
+	/**
+	 * This class represents a scanner over the window of characters which
+	 * have arrived, which runs out of characters instead of blocking until
+	 * more arrive.
+	 */
+	private static final class WindowScanner extends AbstractToyScanner {
+		/**
+		 * Stores the characters which have arrived but not yet been
+		 * delivered as part of a token.
+		 */
+		char[] window;
+
+		/**
+		 * Whether or not the end of the input has arrived.
+		 */
+		boolean eof;
+
+		/**
+		 * Constructs a WindowScanner.
+		 *
+		 * @param trie trie containing keywords and used to store identifiers
+		 */
+		WindowScanner(MultiTrie<String> trie) {
+			super(trie);
+			this.window = new char[DEFAULT_WINDOW_SIZE];
+			this.eof = false;
+		}
+
+		/**
+		 * Makes room for the specified number of characters after
+		 * {@link #limit}, discarding the characters before {@link #start}
+		 * which have already been delivered or skipped.
+		 *
+		 * @param n number of characters to make room for
+		 */
+		void reserve(int n) {
+			if (n <= window.length - limit) {
+				return;
+			}
+
+			char[] dst = window;
+			if (window.length < limit - start + n) {
+				dst = new char[Math.max(window.length << 1, limit - start + n)];
+			}
+
+			System.arraycopy(window, start, dst, 0, limit - start);
+			window = dst;
+			origin += start;
+			limit -= start;
+			pos -= start;
+			start = 0;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * The window only contains the characters which have arrived, so
+		 * running out of them before the end of the input marks this scanner
+		 * as starved.
+		 */
+		@Override
+		boolean fill(int n) {
+			if (!eof) {
+				starved = true;
+			}
+
+			return false;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		char at(int index) {
+			return window[index];
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		String substring(int from, int to) {
+			return new String(window, from, to - from);
+		}
+	}
+}
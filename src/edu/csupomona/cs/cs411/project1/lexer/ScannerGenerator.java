@@ -0,0 +1,518 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * This class represents a generator of Java source for a scanner specialized
+ * to a single enumeration of {@link Token}s. The definitions of the tokens are
+ * compiled into a minimized {@link Dfa} when the generator is run, and the
+ * Dfa is written out as constants of the generated scanner, so the scanner
+ * does not compile any patterns or reflect over its tokens when it is
+ * constructed, and returns the token accepted from a {@code switch} over the
+ * constants of the enumeration. This lets a short-lived process start
+ * scanning without first paying for the construction of a {@link DfaLexer},
+ * while scanning as fast as a {@link DfaScanner} once it has warmed up.
+ *
+ * The transitions are generated as a table rather than as a {@code switch}
+ * for each state, because code covering every transition of a Dfa of any
+ * size is too large for the JIT compiler to compile as a single method, and
+ * is slower to interpret than a table lookup when split into methods.
+ *
+ * The generator is run by the build before the sources are compiled (see the
+ * {@code -generate-scanners} target of {@code build.xml}), which generates
+ * {@code ToyKeywordsScanner} from {@link ToyKeywords}. The generated scanner
+ * generates the same tokens as {@link DfaLexer#forToyKeywords()}, and is used
+ * by {@link ToyKeywordsLexer}.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public final class ScannerGenerator {
+	/**
+	 * Number of characters which have their character class stored within
+	 * the ASCII class table of the generated scanner.
+	 */
+	private static final int ASCII_SIZE = 1<<7;
+
+	/**
+	 * Number of character classes written on each line of the ASCII class
+	 * table.
+	 */
+	private static final int CLASSES_PER_LINE = 16;
+
+	/**
+	 * Number of entries of a packed table written on each line.
+	 */
+	private static final int ENTRIES_PER_LINE = 16;
+
+	/**
+	 * Maximum number of bytes within the encoding of a String constant
+	 * within a class file.
+	 */
+	private static final int MAX_CONSTANT_SIZE = (1<<16) - 1;
+
+	/**
+	 * Simple name of the class generated.
+	 */
+	private final String CLASS_NAME;
+
+	/**
+	 * Name the generated class uses to refer to the enumeration of tokens.
+	 */
+	private final String TOKEN_TYPE;
+
+	/**
+	 * Names of the constants represented by each pattern of {@link #DFA}.
+	 */
+	private final String[] TOKENS;
+
+	/**
+	 * Name of the constant returned once the end of the input has been
+	 * reached.
+	 */
+	private final String EOF;
+
+	/**
+	 * {@link Dfa} compiled from the definitions of the tokens.
+	 */
+	private final Dfa DFA;
+
+	/**
+	 * Source being generated.
+	 */
+	private final StringBuilder OUT;
+
+	/**
+	 * Constructs a ScannerGenerator for the specified enumeration of tokens.
+	 *
+	 * @param className simple name of the class to generate
+	 * @param tokenType enumeration of the tokens to generate
+	 * @param eof name of the constant generated once the end of the input has
+	 *	been reached
+	 * @param skipped regular expressions matching input to skip between
+	 *	tokens, such as whitespace and comments
+	 * @throws IllegalArgumentException if the enumeration does not contain
+	 *	the end of file constant, or a definition is malformed
+	 */
+	ScannerGenerator(String className, Class<? extends Enum<?>> tokenType, String eof, String... skipped) {
+		if (className == null || tokenType == null || eof == null || skipped == null) {
+			throw new NullPointerException();
+		}
+
+		Enum<?>[] constants = tokenType.getEnumConstants();
+		if (!Token.class.isAssignableFrom(tokenType)) {
+			throw new IllegalArgumentException(tokenType.getName() + " does not implement " + Token.class.getName());
+		}
+
+		this.CLASS_NAME = className;
+		this.TOKEN_TYPE = tokenType.getPackage() == ScannerGenerator.class.getPackage()
+				? tokenType.getSimpleName()
+				: tokenType.getCanonicalName();
+		this.EOF = eof;
+		this.OUT = new StringBuilder();
+
+		String[] names = new String[constants.length];
+		String[] patterns = new String[constants.length + skipped.length];
+		boolean[] isRegex = new boolean[patterns.length];
+		int numTokens = 0;
+		for (Enum<?> constant : constants) {
+			if (constant.name().equals(eof)) {
+				continue;
+			}
+
+			names[numTokens] = constant.name();
+			patterns[numTokens] = ((Token)constant).getRegex();
+			isRegex[numTokens] = ((Token)constant).isRegex();
+			numTokens++;
+		}
+
+		if (numTokens == constants.length) {
+			throw new IllegalArgumentException(tokenType.getName() + " does not contain " + eof);
+		}
+
+		for (int i = 0; i < skipped.length; i++) {
+			patterns[numTokens + i] = skipped[i];
+			isRegex[numTokens + i] = true;
+		}
+
+		this.TOKENS = Arrays.copyOf(names, numTokens);
+		this.DFA = Dfa.compile(Arrays.copyOf(patterns, numTokens + skipped.length), Arrays.copyOf(isRegex, numTokens + skipped.length));
+	}
+
+	/**
+	 * Generates a scanner and writes its source into the specified source
+	 * directory, under the package of this class.
+	 *
+	 * Usage: {@code ScannerGenerator <dir> <class> <tokenType> <eof> [skipped...]}
+	 *
+	 * @param args source directory, simple name of the class to generate,
+	 *	binary name of the enumeration of tokens, name of the end of file
+	 *	constant, and regular expressions matching input to skip between
+	 *	tokens, which default to the whitespace and comments of the Toy
+	 *	language ({@link DfaLexer#TOY_SKIPPED}) if none are given
+	 * @throws IOException if the source cannot be written
+	 * @throws ClassNotFoundException if the enumeration cannot be found
+	 */
+	public static void main(String[] args) throws IOException, ClassNotFoundException {
+		if (args.length < 4) {
+			System.err.println("Usage: ScannerGenerator <dir> <class> <tokenType> <eof> [skipped...]");
+			System.exit(1);
+		}
+
+		Class<?> type = Class.forName(args[2]);
+		if (!type.isEnum()) {
+			throw new IllegalArgumentException(type.getName() + " is not an enum");
+		}
+
+		@SuppressWarnings("unchecked")
+		Class<? extends Enum<?>> tokenType = (Class<? extends Enum<?>>)type;
+		String[] skipped = args.length == 4
+				? DfaLexer.TOY_SKIPPED
+				: Arrays.copyOfRange(args, 4, args.length);
+		ScannerGenerator generator = new ScannerGenerator(args[1], tokenType, args[3], skipped);
+
+		Path dir = Paths.get(args[0], ScannerGenerator.class.getPackage().getName().split("\\."));
+		Files.createDirectories(dir);
+		Path file = dir.resolve(args[1] + ".java");
+		byte[] source = generator.generate().getBytes(StandardCharsets.UTF_8);
+		if (Files.exists(file) && Arrays.equals(source, Files.readAllBytes(file))) {
+			// Leaves the file untouched so that it is not needlessly recompiled
+			return;
+		}
+
+		Files.write(file, source);
+	}
+
+	/**
+	 * Returns the source of the scanner generated.
+	 *
+	 * @return the source of the scanner
+	 */
+	String generate() {
+		OUT.setLength(0);
+		line(0, "package " + ScannerGenerator.class.getPackage().getName() + ";");
+		line(0, "");
+		line(0, "import java.io.IOException;");
+		line(0, "import java.io.Reader;");
+		line(0, "");
+		line(0, "/**");
+		line(0, " * This class represents a scanner for {@link " + TOKEN_TYPE + "} which was");
+		line(0, " * generated by {@link ScannerGenerator} from a {@link Dfa} of " + DFA.numStates() + " states and");
+		line(0, " * " + DFA.numClasses() + " character classes. It generates the same tokens as a {@link DfaScanner}");
+		line(0, " * over the same definitions.");
+		line(0, " *");
+		line(0, " * This file is generated by the build and should not be edited.");
+		line(0, " */");
+		line(0, "public final class " + CLASS_NAME + " extends AbstractScanner {");
+		generateFields();
+		generateConstructors();
+		generateNext();
+		generateUnpack();
+		generateClassOf();
+		generateWindow();
+		line(0, "}");
+		return OUT.toString();
+	}
+
+	/**
+	 * Generates the constants and fields of the scanner.
+	 */
+	private void generateFields() {
+		line(1, "private static final int DEFAULT_WINDOW_SIZE = 1<<13;");
+		line(0, "");
+		line(1, "private static final int[] ASCII_CLASSES = {");
+		for (int c = 0; c < ASCII_SIZE; c += CLASSES_PER_LINE) {
+			StringBuilder classes = new StringBuilder();
+			for (int i = c; i < c + CLASSES_PER_LINE; i++) {
+				classes.append(DFA.ASCII_CLASSES[i]);
+				if (i < ASCII_SIZE - 1) {
+					classes.append(i < c + CLASSES_PER_LINE - 1 ? ", " : ",");
+				}
+			}
+
+			line(2, classes.toString());
+		}
+
+		line(1, "};");
+		line(0, "");
+		generateTables();
+		line(1, "private final Reader READER;");
+		line(0, "");
+		line(1, "private char[] window;");
+		line(0, "");
+		line(1, "private boolean eof;");
+		line(0, "");
+	}
+
+	/**
+	 * Generates the constructors of the scanner.
+	 */
+	private void generateConstructors() {
+		line(1, "public " + CLASS_NAME + "(Reader r) {");
+		line(2, "this(r, new char[DEFAULT_WINDOW_SIZE], 0, 0);");
+		line(2, "if (r == null) {");
+		line(3, "throw new NullPointerException();");
+		line(2, "}");
+		line(1, "}");
+		line(0, "");
+		line(1, "public " + CLASS_NAME + "(char[] chars, int off, int len) {");
+		line(2, "this(null, chars, off, len);");
+		line(2, "if (off < 0 || len < 0 || chars.length - len < off) {");
+		line(3, "throw new IndexOutOfBoundsException();");
+		line(2, "}");
+		line(1, "}");
+		line(0, "");
+		line(1, "private " + CLASS_NAME + "(Reader r, char[] window, int off, int len) {");
+		line(2, "if (window == null) {");
+		line(3, "throw new NullPointerException();");
+		line(2, "}");
+		line(0, "");
+		line(2, "this.READER = r;");
+		line(2, "this.window = window;");
+		line(2, "this.pos = off;");
+		line(2, "this.start = off;");
+		line(2, "this.limit = off + len;");
+		line(2, "this.eof = r == null;");
+		line(1, "}");
+		line(0, "");
+	}
+
+	/**
+	 * Generates {@link AbstractScanner#next()}, which runs the {@link Dfa}
+	 * over the constant tables generated by {@link #generateTables()}, and
+	 * returns the constant represented by the pattern accepted using a
+	 * {@code switch}.
+	 */
+	private void generateNext() {
+		line(1, "@Override");
+		line(1, "public Token next() {");
+		line(2, "while (true) {");
+		line(3, "start = pos;");
+		line(3, "if (!ensure(1)) {");
+		line(4, "return " + TOKEN_TYPE + "." + EOF + ";");
+		line(3, "}");
+		line(0, "");
+		line(3, "int state = 0;");
+		line(3, "int length = 0;");
+		line(3, "int accepted = -1;");
+		line(3, "int acceptedLength = 1;");
+		line(3, "while (ensure(length+1)) {");
+		line(4, "char c = window[pos+length];");
+		line(4, "int cls = c < ASCII_CLASSES.length ? ASCII_CLASSES[c] : classOf(c);");
+		line(4, "state = TRANSITIONS[state*NUM_CLASSES + cls];");
+		line(4, "if (state < 0) {");
+		line(5, "break;");
+		line(4, "}");
+		line(0, "");
+		line(4, "length++;");
+		line(4, "if (0 <= ACCEPTS[state]) {");
+		line(5, "accepted = ACCEPTS[state];");
+		line(5, "acceptedLength = length;");
+		line(4, "}");
+		line(3, "}");
+		line(0, "");
+		line(3, "pos += acceptedLength;");
+		line(3, "switch (accepted) {");
+		line(4, "case -1:");
+		line(5, "return null;");
+		for (int i = 0; i < TOKENS.length; i++) {
+			line(4, "case " + i + ":");
+			line(5, "return " + TOKEN_TYPE + "." + TOKENS[i] + ";");
+		}
+
+		line(4, "default:");
+		line(5, "// Skipped between tokens");
+		line(5, "break;");
+		line(3, "}");
+		line(2, "}");
+		line(1, "}");
+		line(0, "");
+	}
+
+	/**
+	 * Generates the transition and accepting tables of the {@link Dfa} as
+	 * String constants, which are unpacked when the scanner is initialized.
+	 * Unpacking a constant is a single pass over a few thousand characters,
+	 * unlike compiling the patterns, and initializing an {@code int[]}
+	 * literal of the same size would exceed the size limit of a method.
+	 */
+	private void generateTables() {
+		line(1, "private static final int NUM_CLASSES = " + DFA.numClasses() + ";");
+		line(0, "");
+		line(1, "private static final int[] TRANSITIONS = unpack(");
+		pack(DFA.TRANSITIONS);
+		line(1, "private static final int[] ACCEPTS = unpack(");
+		pack(DFA.ACCEPTS);
+	}
+
+	/**
+	 * Generates the method which unpacks the tables generated by
+	 * {@link #generateTables()}.
+	 */
+	private void generateUnpack() {
+		line(1, "private static int[] unpack(String packed) {");
+		line(2, "int[] table = new int[packed.length()];");
+		line(2, "for (int i = 0; i < table.length; i++) {");
+		line(3, "table[i] = packed.charAt(i) - 1;");
+		line(2, "}");
+		line(0, "");
+		line(2, "return table;");
+		line(1, "}");
+		line(0, "");
+	}
+
+	/**
+	 * Generates the specified table as the lines of a String constant, with
+	 * each entry stored as a character one greater than it.
+	 *
+	 * @param table table to generate
+	 * @throws IllegalStateException if the table is too large for a String
+	 *	constant within a class file
+	 */
+	private void pack(int[] table) {
+		int size = 0;
+		for (int entry : table) {
+			int c = entry + 1;
+			size += c == 0 ? 2 : c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+		}
+
+		if (MAX_CONSTANT_SIZE < size) {
+			throw new IllegalStateException("The Dfa is too large to be generated: " + DFA.numStates() + " states");
+		}
+
+		for (int i = 0; i < table.length; i += ENTRIES_PER_LINE) {
+			StringBuilder packed = new StringBuilder("\"");
+			for (int j = i; j < Math.min(i + ENTRIES_PER_LINE, table.length); j++) {
+				packed.append(escape(table[j] + 1));
+			}
+
+			packed.append(i + ENTRIES_PER_LINE < table.length ? "\" +" : "\");");
+			line(3, packed.toString());
+		}
+
+		line(0, "");
+	}
+
+	/**
+	 * Generates the method classifying characters outside of the ASCII class
+	 * table, which tests the intervals of the alphabet in order.
+	 */
+	private void generateClassOf() {
+		line(1, "private static int classOf(char c) {");
+		int[] lows = DFA.LOWS;
+		int[] classes = DFA.INTERVAL_CLASSES;
+		int i = Arrays.binarySearch(lows, ASCII_SIZE);
+		i = i < 0 ? -i-2 : i;
+		for (; i < lows.length - 1; i++) {
+			if (classes[i] != classes[i+1]) {
+				line(2, "if (c < " + hex(lows[i+1]) + ") {");
+				line(3, "return " + classes[i] + ";");
+				line(2, "}");
+				line(0, "");
+			}
+		}
+
+		line(2, "return " + classes[lows.length - 1] + ";");
+		line(1, "}");
+		line(0, "");
+	}
+
+	/**
+	 * Generates the methods which refill and read the window of the scanner,
+	 * which behave like those of {@link DfaScanner}.
+	 */
+	private void generateWindow() {
+		line(1, "@Override");
+		line(1, "boolean fill(int n) {");
+		line(2, "while (limit - pos < n) {");
+		line(3, "if (eof) {");
+		line(4, "return false;");
+		line(3, "}");
+		line(0, "");
+		line(3, "if (limit == window.length) {");
+		line(4, "char[] dst = window;");
+		line(4, "if (start == 0) {");
+		line(5, "dst = new char[window.length<<1];");
+		line(4, "}");
+		line(0, "");
+		line(4, "System.arraycopy(window, start, dst, 0, limit - start);");
+		line(4, "window = dst;");
+		line(4, "origin += start;");
+		line(4, "pos -= start;");
+		line(4, "limit -= start;");
+		line(4, "start = 0;");
+		line(3, "}");
+		line(0, "");
+		line(3, "try {");
+		line(4, "int read = READER.read(window, limit, window.length - limit);");
+		line(4, "if (read == -1) {");
+		line(5, "eof = true;");
+		line(4, "} else {");
+		line(5, "limit += read;");
+		line(4, "}");
+		line(3, "} catch (IOException e) {");
+		line(4, "exception = e;");
+		line(4, "eof = true;");
+		line(3, "}");
+		line(2, "}");
+		line(0, "");
+		line(2, "return true;");
+		line(1, "}");
+		line(0, "");
+		line(1, "@Override");
+		line(1, "char at(int index) {");
+		line(2, "return window[index];");
+		line(1, "}");
+		line(0, "");
+		line(1, "@Override");
+		line(1, "String substring(int from, int to) {");
+		line(2, "return new String(window, from, to - from);");
+		line(1, "}");
+	}
+
+	/**
+	 * Appends a line of source indented by the specified number of tabs.
+	 *
+	 * @param indent number of tabs to indent the line by
+	 * @param text text of the line
+	 */
+	private void line(int indent, String text) {
+		if (!text.isEmpty()) {
+			for (int i = 0; i < indent; i++) {
+				OUT.append('\t');
+			}
+		}
+
+		OUT.append(text).append('\n');
+	}
+
+	/**
+	 * Returns the specified character as an escape sequence within a String
+	 * literal. Octal escapes are used where possible, because Unicode escapes
+	 * of line terminators are translated before a literal is parsed.
+	 *
+	 * @param c character to escape
+	 * @return the escape sequence
+	 */
+	private static String escape(int c) {
+		if (c < 0x100) {
+			return String.format("\\%o", c);
+		}
+
+		return String.format("\\u%04X", c);
+	}
+
+	/**
+	 * Returns the specified character as a hexadecimal literal.
+	 *
+	 * @param c character to format
+	 * @return the literal
+	 */
+	private static String hex(int c) {
+		return String.format("0x%04X", c);
+	}
+}
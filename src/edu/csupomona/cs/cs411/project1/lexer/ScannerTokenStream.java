@@ -0,0 +1,69 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.Reader;
+
+/**
+ * This class represents a {@link TokenStream} which generates its tokens using
+ * an {@link AbstractScanner} rather than by calling
+ * {@link Lexer#next(java.io.Reader)}.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+class ScannerTokenStream extends TokenStream {
+	/**
+	 * This field represents the {@link AbstractScanner} associated with
+	 * this TokenStream.
+	 */
+	private final AbstractScanner SCANNER;
+
+	/**
+	 * This constructor creates a TokenStream which generates its tokens using
+	 * the specified {@link AbstractScanner}.
+	 *
+	 * @param l Lexer which created the scanner
+	 * @param r Reader the scanner reads from, or {@code null} if it does not
+	 *	read from a Reader
+	 * @param s scanner to use to generate Tokens
+	 */
+	ScannerTokenStream(Lexer<Token> l, Reader r, AbstractScanner s) {
+		super(l, r);
+		this.SCANNER = s;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Token generate() {
+		return SCANNER.next();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The span of each token is stored as given by the scanner.
+	 */
+	@Override
+	public int nextBatch(int[] kinds, int[] starts, int[] lengths, int offset, int count) {
+		checkBatch(kinds, starts, lengths, offset, count);
+		if (count == 0) {
+			return 0;
+		}
+
+		// A peeked token has already been scanned, so the scanner still
+		// holds its span
+		Token t = next();
+		int end = offset + count;
+		for (int i = offset; ; ) {
+			kinds[i] = kindOf(t);
+			starts[i] = SCANNER.getStart();
+			lengths[i] = SCANNER.getLength();
+			i++;
+			if (i == end || t == ToyKeywords._EOF) {
+				return i - offset;
+			}
+
+			t = SCANNER.next();
+		}
+	}
+}
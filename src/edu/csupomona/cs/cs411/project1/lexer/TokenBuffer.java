@@ -0,0 +1,205 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a growable sequence of {@link Token}s along with the
+ * span of each within their input, and the symbol ID of each identifier when
+ * it is known. Spans and symbol IDs are stored within parallel {@code int[]}
+ * arrays, so no object is allocated for each token.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public final class TokenBuffer {
+	/**
+	 * Default number of tokens allocated to each array.
+	 */
+	private static final int DEFAULT_SIZE = 1<<8;
+
+	/**
+	 * Stores each token.
+	 */
+	private Token[] tokens;
+
+	/**
+	 * Stores the offset of the first character of each token.
+	 */
+	private int[] starts;
+
+	/**
+	 * Stores the number of characters within each token.
+	 */
+	private int[] lengths;
+
+	/**
+	 * Stores the symbol ID of each token, or {@code -1}.
+	 */
+	private int[] symbols;
+
+	/**
+	 * Number of tokens within this TokenBuffer.
+	 */
+	private int size;
+
+	/**
+	 * Default constructor which initializes an empty {@link TokenBuffer}.
+	 */
+	public TokenBuffer() {
+		this.tokens = new Token[DEFAULT_SIZE];
+		this.starts = new int[DEFAULT_SIZE];
+		this.lengths = new int[DEFAULT_SIZE];
+		this.symbols = new int[DEFAULT_SIZE];
+		this.size = 0;
+	}
+
+	/**
+	 * Appends a token to this TokenBuffer.
+	 *
+	 * @param t token to append, or {@code null} if it is invalid
+	 * @param start offset of the first character of the token
+	 * @param length number of characters within the token
+	 */
+	public void add(Token t, int start, int length) {
+		add(t, start, length, -1);
+	}
+
+	/**
+	 * Appends a token to this TokenBuffer along with its symbol ID.
+	 *
+	 * @param t token to append, or {@code null} if it is invalid
+	 * @param start offset of the first character of the token
+	 * @param length number of characters within the token
+	 * @param symbol symbol ID of the token, or {@code -1} if it is not an
+	 *	identifier
+	 *
+	 * @see AbstractToyScanner#getSymbol()
+	 */
+	public void add(Token t, int start, int length, int symbol) {
+		ensureCapacity(size+1);
+		tokens[size] = t;
+		starts[size] = start;
+		lengths[size] = length;
+		symbols[size] = symbol;
+		size++;
+	}
+
+	/**
+	 * Appends the specified range of tokens within another TokenBuffer to
+	 * this one.
+	 *
+	 * @param src buffer to copy tokens from
+	 * @param from index of the first token to copy
+	 * @param to index after the last token to copy
+	 */
+	void addAll(TokenBuffer src, int from, int to) {
+		int count = to - from;
+		ensureCapacity(size+count);
+		System.arraycopy(src.tokens, from, tokens, size, count);
+		System.arraycopy(src.starts, from, starts, size, count);
+		System.arraycopy(src.lengths, from, lengths, size, count);
+		System.arraycopy(src.symbols, from, symbols, size, count);
+		size += count;
+	}
+
+	/**
+	 * Returns the number of tokens within this TokenBuffer.
+	 *
+	 * @return the number of tokens
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the token at the specified index.
+	 *
+	 * @param i index of the token
+	 * @return the token at that index, or {@code null} if it is invalid
+	 */
+	public Token getToken(int i) {
+		checkIndex(i);
+		return tokens[i];
+	}
+
+	/**
+	 * Returns the offset of the first character of the token at the specified
+	 * index.
+	 *
+	 * @param i index of the token
+	 * @return the offset of the token
+	 */
+	public int getStart(int i) {
+		checkIndex(i);
+		return starts[i];
+	}
+
+	/**
+	 * Returns the number of characters within the token at the specified
+	 * index.
+	 *
+	 * @param i index of the token
+	 * @return the length of the token
+	 */
+	public int getLength(int i) {
+		checkIndex(i);
+		return lengths[i];
+	}
+
+	/**
+	 * Returns the symbol ID of the token at the specified index.
+	 *
+	 * @param i index of the token
+	 * @return the symbol ID of the token, or {@code -1} if it is not an
+	 *	identifier or was appended without one
+	 */
+	public int getSymbol(int i) {
+		checkIndex(i);
+		return symbols[i];
+	}
+
+	/**
+	 * Returns the offset after the last character of the token at the
+	 * specified index, which is also where scanning of the following token
+	 * began.
+	 *
+	 * @param i index of the token
+	 * @return the offset after the token
+	 */
+	int getEnd(int i) {
+		return starts[i] + lengths[i];
+	}
+
+	/**
+	 * Throws an exception if the specified index is not within this
+	 * TokenBuffer.
+	 *
+	 * @param i index to check
+	 */
+	private void checkIndex(int i) {
+		if (i < 0 || size <= i) {
+			throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", i, size));
+		}
+	}
+
+	/**
+	 * Grows the arrays of this TokenBuffer geometrically until they can hold
+	 * at least the specified number of tokens.
+	 *
+	 * @param capacity number of tokens required
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity <= tokens.length) {
+			return;
+		}
+
+		int length = tokens.length;
+		while (length < capacity) {
+			length <<= 1;
+		}
+
+		tokens = Arrays.copyOf(tokens, length);
+		starts = Arrays.copyOf(starts, length);
+		lengths = Arrays.copyOf(lengths, length);
+		symbols = Arrays.copyOf(symbols, length);
+	}
+}
@@ -0,0 +1,294 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class represents an on-disk cache of the tokens generated from source
+ * files of the Toy language, stored as {@link TokenFile}s.
+ *
+ * Entries are addressed by the hash of the contents of a source file along
+ * with {@link TokenFile#TOKEN_SET_VERSION}, so a source file is only lexed
+ * again after it, the definition of {@link ToyKeywords} or the
+ * {@link TokenFile#SCANNER_VERSION} changes. Once the
+ * entries within the cache exceed its maximum size, those least recently used
+ * are evicted, using the last modified time of each entry as the time it was
+ * last used.
+ *
+ * A TokenCache lexes using a single {@link ToyLexer}, so it should not be
+ * used by more than one thread. Several TokenCaches may share a directory,
+ * since entries are written to a temporary file and then moved into place.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class TokenCache {
+	/**
+	 * Suffix of the name of each entry within the cache.
+	 */
+	private static final String SUFFIX = ".tok";
+
+	/**
+	 * Directory containing the entries of this TokenCache.
+	 */
+	private final Path DIRECTORY;
+
+	/**
+	 * Maximum number of bytes within the entries of this TokenCache.
+	 */
+	private final long MAX_SIZE;
+
+	/**
+	 * Version of the tokens within the entries of this TokenCache.
+	 */
+	private final int VERSION;
+
+	/**
+	 * {@link ToyLexer} used to lex source files which miss.
+	 */
+	private final ToyLexer LEXER;
+
+	/**
+	 * Number of bytes within the entries of this TokenCache, as of the last
+	 * time they were counted or written.
+	 */
+	private long size;
+
+	/**
+	 * Number of lookups which found an entry.
+	 */
+	private long hits;
+
+	/**
+	 * Number of lookups which lexed the source file.
+	 */
+	private long misses;
+
+	/**
+	 * Number of entries evicted.
+	 */
+	private long evictions;
+
+	/**
+	 * Constructs a TokenCache which stores up to the specified number of bytes
+	 * of entries within the specified directory, creating it if necessary.
+	 *
+	 * @param directory directory to store entries within
+	 * @param maxSize maximum number of bytes within the entries
+	 * @throws IOException if the directory cannot be created or read
+	 * @throws IllegalArgumentException if maxSize is not positive
+	 */
+	public TokenCache(Path directory, long maxSize) throws IOException {
+		this(directory, maxSize, TokenFile.TOKEN_SET_VERSION);
+	}
+
+	/**
+	 * Constructs a TokenCache which stores up to the specified number of bytes
+	 * of entries within the specified directory, addressing them using the
+	 * specified version of the tokens.
+	 *
+	 * @param directory directory to store entries within
+	 * @param maxSize maximum number of bytes within the entries
+	 * @param version version of the tokens within the entries
+	 * @throws IOException if the directory cannot be created or read
+	 * @throws IllegalArgumentException if maxSize is not positive
+	 */
+	TokenCache(Path directory, long maxSize, int version) throws IOException {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Maximum size must be positive.");
+		}
+
+		this.DIRECTORY = Files.createDirectories(directory);
+		this.MAX_SIZE = maxSize;
+		this.VERSION = version;
+		this.LEXER = new ToyLexer();
+		this.size = 0;
+		for (Entry e : listEntries()) {
+			size += e.SIZE;
+		}
+	}
+
+	/**
+	 * Returns the tokens generated from the UTF-8 encoded source file at the
+	 * specified {@link Path}, reading them from this TokenCache if it contains
+	 * an entry for the contents of the file, and otherwise lexing the file and
+	 * storing its tokens. The file is decoded before it is lexed, so the
+	 * tokens and their spans are those {@link ToyLexer#scan(char[])} generates
+	 * for the decoded characters.
+	 *
+	 * @param p path of the source file
+	 * @return a stream of the tokens generated from the source file
+	 * @throws IOException if the source file cannot be read, or its entry
+	 *	cannot be written
+	 */
+	public TokenStream lex(Path p) throws IOException {
+		byte[] source = Files.readAllBytes(p);
+		long hash = TokenFile.hash(source);
+		Path entry = DIRECTORY.resolve(String.format("%016x-%08x%s", hash, VERSION, SUFFIX));
+		if (Files.exists(entry)) {
+			try {
+				TokenFile file = TokenFile.open(entry);
+				if (file.getSourceHash() == hash) {
+					Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+					hits++;
+					return file.stream();
+				}
+			} catch (IOException e) {
+				// Entries which are truncated or not token files are written again
+			}
+		}
+
+		misses++;
+		Path tmp = Files.createTempFile(DIRECTORY, "entry", ".tmp");
+		try {
+			char[] chars = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(source)).toString().toCharArray();
+			TokenStream tokens = new ScannerTokenStream(LEXER, null, LEXER.scan(chars));
+			TokenFile.write(tokens, hash, tmp);
+			long previous = Files.exists(entry) ? Files.size(entry) : 0;
+			Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			size += Files.size(entry) - previous;
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+
+		TokenFile file = TokenFile.open(entry);
+		if (MAX_SIZE < size) {
+			evict(entry);
+		}
+
+		return file.stream();
+	}
+
+	/**
+	 * Returns the number of lookups which found an entry within this
+	 * TokenCache.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups which had to lex the source file.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of entries which have been evicted from this
+	 * TokenCache.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of bytes within the entries of this TokenCache.
+	 *
+	 * @return the size of this TokenCache
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Evicts the least recently used entries of this TokenCache until it no
+	 * longer exceeds its maximum size. The entries are counted again first, in
+	 * case other TokenCaches share the directory.
+	 *
+	 * @param keep entry which should not be evicted, since it was just written
+	 * @throws IOException if the directory cannot be read
+	 */
+	private void evict(Path keep) throws IOException {
+		List<Entry> entries = listEntries();
+		size = 0;
+		for (Entry e : entries) {
+			size += e.SIZE;
+		}
+
+		Collections.sort(entries, new Comparator<Entry>() {
+			@Override
+			public int compare(Entry a, Entry b) {
+				return Long.compare(a.LAST_USED, b.LAST_USED);
+			}
+		});
+
+		for (Entry e : entries) {
+			if (size <= MAX_SIZE) {
+				break;
+			}
+
+			if (!e.PATH.equals(keep) && Files.deleteIfExists(e.PATH)) {
+				size -= e.SIZE;
+				evictions++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the entries within the directory of this TokenCache.
+	 *
+	 * @return the entries within the directory
+	 * @throws IOException if the directory cannot be read
+	 */
+	private List<Entry> listEntries() throws IOException {
+		List<Entry> entries = new ArrayList<Entry>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(DIRECTORY, "*" + SUFFIX)) {
+			for (Path p : stream) {
+				BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+				entries.add(new Entry(p, attrs.size(), attrs.lastModifiedTime().toMillis()));
+			}
+		}
+
+		return entries;
+	}
+
+	/**
+	 * This class represents an entry within the directory of a TokenCache.
+	 */
+	private static final class Entry {
+		/**
+		 * Path of the entry.
+		 */
+		private final Path PATH;
+
+		/**
+		 * Number of bytes within the entry.
+		 */
+		private final long SIZE;
+
+		/**
+		 * Time the entry was last used, in milliseconds.
+		 */
+		private final long LAST_USED;
+
+		/**
+		 * Constructs an Entry.
+		 *
+		 * @param path path of the entry
+		 * @param size number of bytes within the entry
+		 * @param lastUsed time the entry was last used, in milliseconds
+		 */
+		Entry(Path path, long size, long lastUsed) {
+			this.PATH = path;
+			this.SIZE = size;
+			this.LAST_USED = lastUsed;
+		}
+	}
+}
@@ -0,0 +1,419 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class represents a file of serialized tokens, which allows the tokens
+ * generated from a source file to be read back by later stages without lexing
+ * the source again.
+ *
+ * A token file begins with a header of {@link #HEADER_SIZE} bytes containing
+ * {@link #MAGIC}, {@link #FORMAT_VERSION}, {@link #TOKEN_SET_VERSION}, the
+ * hash of the source file, the number of tokens and the number of bytes which
+ * follow the header, so that a truncated file is rejected. Each token then follows as
+ * three varints: its kind ({@link Token#getId()} plus one, so that invalid
+ * tokens are stored as zero), the distance from the end of the previous token
+ * to its start, and its length. The last two are zigzag encoded, since
+ * streams without spans store {@code -1} for both.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public final class TokenFile {
+	/**
+	 * Magic number which begins every token file, i.e., {@code "TOKS"}.
+	 */
+	public static final int MAGIC = 0x544F4B53;
+
+	/**
+	 * Version of the format of token files.
+	 */
+	public static final int FORMAT_VERSION = 2;
+
+	/**
+	 * Version of the rules by which {@link ToyLexer} generates tokens, which
+	 * should be incremented whenever the tokens generated from the same input
+	 * change without any change to the definitions of {@link ToyKeywords}.
+	 */
+	public static final int SCANNER_VERSION = 1;
+
+	/**
+	 * Version of the set of tokens which kinds refer to. This is derived from
+	 * the names and definitions of {@link ToyKeywords} and from
+	 * {@link #SCANNER_VERSION}, so that token files are rejected after tokens
+	 * are added, removed, reordered or redefined, or are scanned differently.
+	 */
+	public static final int TOKEN_SET_VERSION = tokenSetVersion(ToyKeywords.values(), SCANNER_VERSION);
+
+	/**
+	 * Number of bytes within the header of a token file.
+	 */
+	public static final int HEADER_SIZE = 28;
+
+	/**
+	 * Number of tokens written by each call to
+	 * {@link TokenStream#nextBatch(int[], int[], int[], int, int)}.
+	 */
+	private static final int BATCH_SIZE = 1<<12;
+
+	/**
+	 * Maximum number of bytes needed to encode a single token.
+	 */
+	private static final int MAX_TOKEN_SIZE = 15;
+
+	/**
+	 * Tokens referred to by each kind.
+	 */
+	private static final ToyKeywords[] TOKENS = ToyKeywords.values();
+
+	/**
+	 * Contents of this TokenFile, positioned after its header.
+	 */
+	private final ByteBuffer BUFFER;
+
+	/**
+	 * Hash of the source file which the tokens were generated from.
+	 */
+	private final long SOURCE_HASH;
+
+	/**
+	 * Number of tokens within this TokenFile.
+	 */
+	private final int SIZE;
+
+	/**
+	 * Constructs a TokenFile from the specified contents.
+	 *
+	 * @param buffer contents of the token file, positioned after its header
+	 * @param sourceHash hash of the source file
+	 * @param size number of tokens
+	 */
+	private TokenFile(ByteBuffer buffer, long sourceHash, int size) {
+		this.BUFFER = buffer;
+		this.SOURCE_HASH = sourceHash;
+		this.SIZE = size;
+	}
+
+	/**
+	 * Writes the tokens within the specified {@link TokenStream}, up to and
+	 * including the end of file token, to a token file at the specified
+	 * {@link Path}.
+	 *
+	 * @param tokens stream of tokens to write
+	 * @param sourceHash hash of the source file which the tokens were
+	 *	generated from
+	 * @param p path of the token file to write
+	 * @return the number of tokens written
+	 * @throws IOException if the token file cannot be written
+	 *
+	 * @see #hash(byte[])
+	 */
+	public static int write(TokenStream tokens, long sourceHash, Path p) throws IOException {
+		int[] kinds = new int[BATCH_SIZE];
+		int[] starts = new int[BATCH_SIZE];
+		int[] lengths = new int[BATCH_SIZE];
+		ByteBuffer buffer = ByteBuffer.allocate(BATCH_SIZE * MAX_TOKEN_SIZE);
+		try (FileChannel fc = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			fc.position(HEADER_SIZE);
+			int size = 0;
+			int end = 0;
+			int n;
+			do {
+				n = tokens.nextBatch(kinds, starts, lengths);
+				for (int i = 0; i < n; i++) {
+					putVarint(buffer, kinds[i] + 1);
+					putVarint(buffer, zigzag(starts[i] - end));
+					putVarint(buffer, zigzag(lengths[i]));
+					end = starts[i] + lengths[i];
+				}
+
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					fc.write(buffer);
+				}
+
+				buffer.clear();
+				size += n;
+			} while (kinds[n-1] != ToyKeywords._EOF.getId());
+
+			long bodySize = fc.position() - HEADER_SIZE;
+			if (Integer.MAX_VALUE < bodySize) {
+				throw new IOException(String.format("%s would exceed 2GB", p));
+			}
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(TOKEN_SET_VERSION);
+			header.putLong(sourceHash).putInt(size).putInt((int)bodySize);
+			header.flip();
+			while (header.hasRemaining()) {
+				fc.write(header, header.position());
+			}
+
+			return size;
+		}
+	}
+
+	/**
+	 * Maps the token file at the specified {@link Path} into memory.
+	 *
+	 * @param p path of the token file
+	 * @return the TokenFile mapped
+	 * @throws IOException if the token file cannot be read, its header is
+	 *	invalid or was written by an incompatible version, or its tokens are
+	 *	not all present
+	 */
+	public static TokenFile open(Path p) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel fc = FileChannel.open(p, StandardOpenOption.READ)) {
+			buffer = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+		}
+
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+			throw new IOException(String.format("%s is not a token file", p));
+		}
+
+		int formatVersion = buffer.getInt();
+		int tokenSetVersion = buffer.getInt();
+		if (formatVersion != FORMAT_VERSION || tokenSetVersion != TOKEN_SET_VERSION) {
+			throw new IOException(String.format("%s was written by an incompatible version (format %d, token set %08x)", p, formatVersion, tokenSetVersion));
+		}
+
+		long sourceHash = buffer.getLong();
+		int size = buffer.getInt();
+		int bodySize = buffer.getInt();
+		if (buffer.remaining() != bodySize) {
+			throw new IOException(String.format("%s is truncated (%d of %d bytes)", p, buffer.remaining(), bodySize));
+		}
+
+		return new TokenFile(buffer.slice(), sourceHash, size);
+	}
+
+	/**
+	 * Returns the hash of the specified source file, as stored within the
+	 * header of token files.
+	 *
+	 * @param source contents of the source file
+	 * @return the hash of the source file
+	 */
+	public static long hash(byte[] source) {
+		return Hashing.murmur3_128().hashBytes(source).asLong();
+	}
+
+	/**
+	 * Returns the hash of the source file at the specified {@link Path}, as
+	 * stored within the header of token files.
+	 *
+	 * @param p path of the source file
+	 * @return the hash of the source file
+	 * @throws IOException if the source file cannot be read
+	 */
+	public static long hash(Path p) throws IOException {
+		return hash(Files.readAllBytes(p));
+	}
+
+	/**
+	 * Returns the hash of the source file which the tokens within this
+	 * TokenFile were generated from.
+	 *
+	 * @return the hash of the source file
+	 */
+	public long getSourceHash() {
+		return SOURCE_HASH;
+	}
+
+	/**
+	 * Returns the number of tokens within this TokenFile, including the end of
+	 * file token.
+	 *
+	 * @return the number of tokens
+	 */
+	public int size() {
+		return SIZE;
+	}
+
+	/**
+	 * Returns a {@link TokenStream} over the tokens within this TokenFile.
+	 * Once every token has been read, the stream continues to generate the
+	 * end of file token.
+	 *
+	 * @return a stream of the tokens within this TokenFile
+	 */
+	public TokenStream stream() {
+		return new MappedTokenStream(BUFFER.duplicate(), SIZE);
+	}
+
+	/**
+	 * Returns the version of the specified set of tokens scanned using the
+	 * specified version of the scanner.
+	 *
+	 * @param tokens tokens which kinds refer to, in order
+	 * @param scannerVersion version of the rules by which tokens are generated
+	 * @return a hash of the scanner version and of the name and definition of
+	 *	each token in order
+	 */
+	static int tokenSetVersion(Token[] tokens, int scannerVersion) {
+		int hash = scannerVersion;
+		for (Token t : tokens) {
+			hash = 31*hash + t.toString().hashCode();
+			hash = 31*hash + t.getRegex().hashCode();
+			hash = 31*hash + (t.isRegex() ? 1 : 0);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Appends the specified value to the specified buffer as an unsigned
+	 * varint of seven bits per byte, least significant first.
+	 *
+	 * @param buffer buffer to append to
+	 * @param value value to append
+	 */
+	private static void putVarint(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		buffer.put((byte)value);
+	}
+
+	/**
+	 * Returns the next unsigned varint within the specified buffer.
+	 *
+	 * @param buffer buffer to read from
+	 * @return the value read
+	 */
+	private static int getVarint(ByteBuffer buffer) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while (b < 0);
+
+		return value;
+	}
+
+	/**
+	 * Maps signed values onto unsigned ones so that values of small magnitude
+	 * encode as short varints.
+	 *
+	 * @param value value to encode
+	 * @return the encoded value
+	 */
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	/**
+	 * Reverses {@link #zigzag(int)}.
+	 *
+	 * @param value value to decode
+	 * @return the decoded value
+	 */
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * This class represents a {@link TokenStream} which decodes its tokens
+	 * from the contents of a TokenFile.
+	 */
+	private static final class MappedTokenStream extends TokenStream {
+		/**
+		 * Contents of the TokenFile, positioned at the next token.
+		 */
+		private final ByteBuffer BUFFER;
+
+		/**
+		 * Number of tokens not yet decoded.
+		 */
+		private int remaining;
+
+		/**
+		 * Offset of the first character of the last token decoded.
+		 */
+		private int start;
+
+		/**
+		 * Number of characters within the last token decoded.
+		 */
+		private int length;
+
+		/**
+		 * Constructs a MappedTokenStream which decodes the specified number of
+		 * tokens from the specified buffer.
+		 *
+		 * @param buffer contents of the TokenFile, positioned at the first
+		 *	token
+		 * @param size number of tokens
+		 */
+		MappedTokenStream(ByteBuffer buffer, int size) {
+			super(null, null);
+			this.BUFFER = buffer;
+			this.remaining = size;
+			this.start = 0;
+			this.length = 0;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Token generate() {
+			if (remaining == 0) {
+				start += length;
+				length = 0;
+				return ToyKeywords._EOF;
+			}
+
+			remaining--;
+			Token t = decodeKind(getVarint(BUFFER));
+			start += length + unzigzag(getVarint(BUFFER));
+			length = unzigzag(getVarint(BUFFER));
+			return t;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * The span of each token is stored as it was written.
+		 */
+		@Override
+		public int nextBatch(int[] kinds, int[] starts, int[] lengths, int offset, int count) {
+			checkBatch(kinds, starts, lengths, offset, count);
+			for (int i = 0; i < count; i++) {
+				// A peeked token has already been decoded, so the span of the
+				// last token decoded is still its own
+				Token t = next();
+				kinds[offset+i] = kindOf(t);
+				starts[offset+i] = start;
+				lengths[offset+i] = length;
+				if (t == ToyKeywords._EOF) {
+					return i+1;
+				}
+			}
+
+			return count;
+		}
+
+		/**
+		 * Returns the token with the specified kind.
+		 *
+		 * @param kind kind stored within the TokenFile
+		 * @return the token, or {@code null} if it is invalid
+		 */
+		private static Token decodeKind(int kind) {
+			return kind == 0 ? null : TOKENS[kind-1];
+		}
+	}
+}
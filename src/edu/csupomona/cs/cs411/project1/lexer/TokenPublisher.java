@@ -0,0 +1,349 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class represents a publisher of the tokens generated by a scanner,
+ * which lexes only as many tokens as its {@link Subscriber} has requested.
+ *
+ * {@link Subscriber} and {@link Subscription} follow the same protocol as the
+ * Reactive Streams interfaces (and {@code java.util.concurrent.Flow} in Java 9
+ * and later), so a subscriber of either can be adapted by forwarding each
+ * method. Tokens are lexed and delivered on the {@link Executor} given to
+ * this TokenPublisher, never more than one at a time, and are never buffered:
+ * each token is lexed only once it has been requested, so a slow subscriber
+ * simply leaves the scanner idle. An {@link java.io.IOException} which ends
+ * the input early is delivered using {@link Subscriber#onError(Throwable)}
+ * rather than {@link Subscriber#onComplete()}.
+ *
+ * Since the input of a scanner can only be read once, a TokenPublisher only
+ * supports a single subscriber.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ *
+ * @see ToyLexer#publish(java.io.Reader, java.util.concurrent.Executor)
+ */
+public class TokenPublisher {
+	/**
+	 * Token delivered in place of invalid tokens, which scanners represent
+	 * using {@code null}, since subscribers may not be sent {@code null}.
+	 * Its ID is {@link TokenStream#INVALID}.
+	 */
+	public static final Token INVALID = new Token() {
+		@Override
+		public String getRegex() {
+			return "";
+		}
+
+		@Override
+		public boolean isRegex() {
+			return false;
+		}
+
+		@Override
+		public int getId() {
+			return TokenStream.INVALID;
+		}
+
+		@Override
+		public String toString() {
+			return "INVALID";
+		}
+	};
+
+	/**
+	 * Maximum number of tokens delivered before the executor is given back,
+	 * so that a subscriber requesting a large number of tokens does not keep
+	 * a thread from other tasks for the entire input.
+	 */
+	private static final int BATCH_SIZE = 1<<10;
+
+	/**
+	 * Scanner generating the tokens published.
+	 */
+	private final AbstractScanner SCANNER;
+
+	/**
+	 * Executor which tokens are lexed and delivered on.
+	 */
+	private final Executor EXECUTOR;
+
+	/**
+	 * Whether or not a subscriber has subscribed.
+	 */
+	private final AtomicBoolean SUBSCRIBED;
+
+	/**
+	 * Constructs a TokenPublisher which publishes the tokens generated by the
+	 * specified scanner using the specified {@link Executor}.
+	 *
+	 * @param scanner scanner to generate tokens using
+	 * @param executor executor to lex and deliver tokens on
+	 */
+	TokenPublisher(AbstractScanner scanner, Executor executor) {
+		if (scanner == null || executor == null) {
+			throw new NullPointerException();
+		}
+
+		this.SCANNER = scanner;
+		this.EXECUTOR = executor;
+		this.SUBSCRIBED = new AtomicBoolean();
+	}
+
+	/**
+	 * Subscribes the specified {@link Subscriber} to the tokens of this
+	 * TokenPublisher. No tokens are lexed until the subscriber requests them
+	 * using the {@link Subscription} it is given. A second subscriber is
+	 * given a subscription and then immediately sent an
+	 * {@link IllegalStateException}.
+	 *
+	 * @param subscriber subscriber to deliver tokens to
+	 */
+	public void subscribe(Subscriber subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException();
+		}
+
+		if (!SUBSCRIBED.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Subscription() {
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+			subscriber.onError(new IllegalStateException("TokenPublisher only supports a single subscriber."));
+			return;
+		}
+
+		subscriber.onSubscribe(new TokenSubscription(subscriber));
+	}
+
+	/**
+	 * This interface represents a receiver of the tokens of a
+	 * {@link TokenPublisher}. Methods are never called concurrently, and
+	 * {@link #onNext(Token)} is never called more times than requested.
+	 */
+	public interface Subscriber {
+		/**
+		 * Called once, before any other method, with the subscription used to
+		 * request tokens.
+		 *
+		 * @param subscription subscription used to request tokens
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Called with each token requested, in order.
+		 *
+		 * @param token token generated, or {@link TokenPublisher#INVALID} if
+		 *	it is invalid
+		 */
+		void onNext(Token token);
+
+		/**
+		 * Called once if lexing fails, after which no other method is called.
+		 *
+		 * @param t exception which lexing failed with
+		 */
+		void onError(Throwable t);
+
+		/**
+		 * Called once the end of the input has been reached, after which no
+		 * other method is called. The end is only noticed when lexing a
+		 * requested token, so a subscriber which requests exactly as many
+		 * tokens as the input contains must request another to be told. The
+		 * end of file token is not delivered.
+		 */
+		void onComplete();
+	}
+
+	/**
+	 * This interface represents the link between a {@link TokenPublisher} and
+	 * its {@link Subscriber}, used to request tokens.
+	 */
+	public interface Subscription {
+		/**
+		 * Requests that the specified number of additional tokens are
+		 * delivered. Requesting {@link Long#MAX_VALUE} tokens requests every
+		 * token.
+		 *
+		 * @param n number of tokens to request, which must be positive
+		 */
+		void request(long n);
+
+		/**
+		 * Requests that no more tokens are delivered. Tokens which are being
+		 * delivered may still arrive.
+		 */
+		void cancel();
+	}
+
+	/**
+	 * This class represents the subscription of the subscriber of a
+	 * TokenPublisher. Requests are counted, and whichever request finds the
+	 * subscription idle schedules a task which lexes and delivers tokens until
+	 * the count runs out.
+	 */
+	private final class TokenSubscription implements Subscription, Runnable {
+		/**
+		 * Subscriber to deliver tokens to.
+		 */
+		private final Subscriber SUBSCRIBER;
+
+		/**
+		 * Number of tokens requested but not yet delivered, or
+		 * {@link Long#MAX_VALUE} once every token has been requested.
+		 */
+		private final AtomicLong REQUESTED;
+
+		/**
+		 * Number of times the task has been asked to run but has not yet
+		 * noticed. The task is only scheduled by whoever raises this from
+		 * zero, so only one runs at a time.
+		 */
+		private final AtomicInteger PENDING;
+
+		/**
+		 * Whether or not no more tokens should be delivered.
+		 */
+		private volatile boolean cancelled;
+
+		/**
+		 * Exception to deliver instead of any more tokens, or {@code null}.
+		 */
+		private volatile Throwable error;
+
+		/**
+		 * Constructs a TokenSubscription.
+		 *
+		 * @param subscriber subscriber to deliver tokens to
+		 */
+		TokenSubscription(Subscriber subscriber) {
+			this.SUBSCRIBER = subscriber;
+			this.REQUESTED = new AtomicLong();
+			this.PENDING = new AtomicInteger();
+			this.cancelled = false;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * Requesting a non-positive number of tokens delivers an
+		 * {@link IllegalArgumentException}, as Reactive Streams requires.
+		 */
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				error = new IllegalArgumentException("Number of tokens requested must be positive.");
+			} else {
+				long current;
+				long next;
+				do {
+					current = REQUESTED.get();
+					next = Long.MAX_VALUE - current < n ? Long.MAX_VALUE : current + n;
+				} while (!REQUESTED.compareAndSet(current, next));
+			}
+
+			schedule();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		/**
+		 * Lexes and delivers tokens until none are requested, the input ends
+		 * or {@link #BATCH_SIZE} have been delivered, in which case it is
+		 * scheduled again.
+		 */
+		@Override
+		public void run() {
+			int missed = 1;
+			int delivered = 0;
+			while (true) {
+				long requested = REQUESTED.get();
+				long emitted = 0;
+				while (emitted != requested && !cancelled && error == null) {
+					if (delivered == BATCH_SIZE) {
+						if (requested != Long.MAX_VALUE) {
+							REQUESTED.addAndGet(-emitted);
+						}
+
+						execute();
+						return;
+					}
+
+					Token t;
+					try {
+						t = SCANNER.next();
+					} catch (RuntimeException e) {
+						error = e;
+						break;
+					}
+
+					if (t == ToyKeywords._EOF) {
+						cancelled = true;
+						if (SCANNER.getException() != null) {
+							SUBSCRIBER.onError(SCANNER.getException());
+						} else {
+							SUBSCRIBER.onComplete();
+						}
+
+						return;
+					}
+
+					SUBSCRIBER.onNext(t == null ? INVALID : t);
+					emitted++;
+					delivered++;
+				}
+
+				if (error != null && !cancelled) {
+					cancelled = true;
+					SUBSCRIBER.onError(error);
+					return;
+				}
+
+				if (emitted != 0 && requested != Long.MAX_VALUE) {
+					REQUESTED.addAndGet(-emitted);
+				}
+
+				missed = PENDING.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Schedules this task if it is not already scheduled or running.
+		 */
+		private void schedule() {
+			if (PENDING.getAndIncrement() == 0) {
+				execute();
+			}
+		}
+
+		/**
+		 * Submits this task to the executor, delivering the exception if the
+		 * executor rejects it.
+		 */
+		private void execute() {
+			try {
+				EXECUTOR.execute(this);
+			} catch (RuntimeException e) {
+				cancelled = true;
+				SUBSCRIBER.onError(e);
+			}
+		}
+	}
+}
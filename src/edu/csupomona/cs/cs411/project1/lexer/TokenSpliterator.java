@@ -0,0 +1,430 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents a source of the tokens generated from a range of
+ * characters which may be split into independent ranges and traversed on
+ * several threads, in the same way as a {@code java.util.Spliterator}.
+ *
+ * A range is only ever split at the start of a line which is a token boundary
+ * of the sequential scan, so each half generates exactly the tokens that
+ * {@link ToyLexer#scan(char[])} would within it. Unlike the speculative chunks
+ * of {@link ParallelLexer}, which are verified only after they are lexed, a
+ * split must be correct before either half is traversed. The first call to
+ * {@link #trySplit()} therefore makes a single pass over the remaining
+ * characters which only follows strings and comments, the only tokens which
+ * may contain a new line, and records a line start roughly every
+ * {@code minSplitSize/4} characters which is not within one of them. That pass
+ * is much cheaper than lexing, and its boundaries are shared by every range
+ * split from this one.
+ *
+ * {@link #trySplit()} returns the range preceding the one which remains, so
+ * traversing the ranges in the order they were split preserves the order of
+ * the tokens. Only the range ending at the end of the characters generates
+ * {@link ToyKeywords#_EOF}. Ranges traversed concurrently store identifiers
+ * within the same {@link MultiTrie}, which must then be thread-safe (e.g.,
+ * {@link edu.csupomona.cs.cs411.project1.trie.ConcurrentMultiTrie}), and the
+ * symbol IDs assigned depend on the order in which identifiers are first seen.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ *
+ * @see ToyLexer#spliterator(char[])
+ */
+public class TokenSpliterator {
+	/**
+	 * Default minimum number of characters within each range split.
+	 */
+	private static final int DEFAULT_MIN_SPLIT_SIZE = 1<<14;
+
+	/**
+	 * Characters being lexed.
+	 */
+	private final char[] CHARS;
+
+	/**
+	 * Offset of the end of the range of this TokenSpliterator.
+	 */
+	private final int TO;
+
+	/**
+	 * {@link MultiTrie} to store identifiers within.
+	 */
+	private final MultiTrie<String> TRIE;
+
+	/**
+	 * Listener told about each token generated, or {@code null}.
+	 */
+	private final LexerListener LISTENER;
+
+	/**
+	 * Minimum number of characters within each range split.
+	 */
+	private final int MIN_SPLIT_SIZE;
+
+	/**
+	 * Offset where the next token of this TokenSpliterator is scanned from.
+	 */
+	private int from;
+
+	/**
+	 * Scanner over the range of this TokenSpliterator, or {@code null} if no
+	 * token has been generated since it was last split.
+	 */
+	private AbstractToyScanner scanner;
+
+	/**
+	 * Sorted offsets of the line starts which are token boundaries, or
+	 * {@code null} if they have not yet been found.
+	 */
+	private int[] boundaries;
+
+	/**
+	 * Whether or not every token within the range has been generated.
+	 */
+	private boolean done;
+
+	/**
+	 * Constructs a TokenSpliterator over the specified range of characters.
+	 *
+	 * @param chars characters being lexed
+	 * @param from offset of the first character of the range
+	 * @param to offset of the end of the range
+	 * @param trie trie to store identifiers within
+	 * @param listener listener to tell about each token, or {@code null}
+	 * @param minSplitSize minimum number of characters within each range
+	 *	split
+	 * @throws IllegalArgumentException if minSplitSize is not positive
+	 */
+	TokenSpliterator(char[] chars, int from, int to, MultiTrie<String> trie, LexerListener listener, int minSplitSize) {
+		if (chars == null || trie == null) {
+			throw new NullPointerException();
+		}
+
+		if (minSplitSize < 1) {
+			throw new IllegalArgumentException("Split size must be positive.");
+		}
+
+		this.CHARS = chars;
+		this.TO = to;
+		this.TRIE = trie;
+		this.LISTENER = listener;
+		this.MIN_SPLIT_SIZE = minSplitSize;
+		this.from = from;
+		this.done = false;
+	}
+
+	/**
+	 * Constructs a TokenSpliterator over the specified characters.
+	 *
+	 * @param chars characters being lexed
+	 * @param trie trie to store identifiers within
+	 * @param listener listener to tell about each token, or {@code null}
+	 */
+	TokenSpliterator(char[] chars, MultiTrie<String> trie, LexerListener listener) {
+		this(chars, 0, chars.length, trie, listener, DEFAULT_MIN_SPLIT_SIZE);
+	}
+
+	/**
+	 * Generates the next token, if there is one, and passes it to the
+	 * specified {@link Visitor}.
+	 *
+	 * @param visitor visitor to pass the token to
+	 * @return {@code true} if a token was generated, otherwise {@code false}
+	 */
+	public boolean tryAdvance(Visitor visitor) {
+		if (visitor == null) {
+			throw new NullPointerException();
+		}
+
+		if (done) {
+			return false;
+		}
+
+		if (scanner == null) {
+			scanner = new ToyScanner(CHARS, from, TO - from, TRIE);
+			scanner.setListener(LISTENER);
+		}
+
+		Token t = scanner.next();
+		from = scanner.getStart() + scanner.getLength();
+		done = t == ToyKeywords._EOF;
+		if (TO < CHARS.length && (done || (t == null && scanner.getLength() == 0))) {
+			// Whitespace ending the input is an empty invalid token, but a
+			// range split from the rest of the input is followed by a token
+			done = true;
+			return false;
+		}
+
+		visitor.visit(t, scanner.getStart(), scanner.getLength());
+		return true;
+	}
+
+	/**
+	 * Generates each remaining token and passes it to the specified
+	 * {@link Visitor}, in order.
+	 *
+	 * @param visitor visitor to pass the tokens to
+	 */
+	public void forEachRemaining(Visitor visitor) {
+		while (tryAdvance(visitor)) {
+		}
+	}
+
+	/**
+	 * Splits off the tokens preceding a token boundary near the middle of the
+	 * remaining characters, which this TokenSpliterator no longer generates.
+	 *
+	 * @return a TokenSpliterator generating the tokens preceding those left
+	 *	within this one, or {@code null} if the remaining characters are too
+	 *	few or contain no token boundary to split at
+	 */
+	public TokenSpliterator trySplit() {
+		if (done || TO - from < MIN_SPLIT_SIZE << 1) {
+			return null;
+		}
+
+		if (boundaries == null) {
+			boundaries = findBoundaries(CHARS, from, TO, Math.max(MIN_SPLIT_SIZE >> 2, 1));
+		}
+
+		int middle = from + ((TO - from) >>> 1);
+		int i = Arrays.binarySearch(boundaries, middle);
+		if (i < 0) {
+			i = -i - 1;
+			if (i == boundaries.length || (0 < i && middle - boundaries[i-1] < boundaries[i] - middle)) {
+				i--;
+			}
+		}
+
+		if (i < 0) {
+			return null;
+		}
+
+		int boundary = boundaries[i];
+		if (boundary - from < MIN_SPLIT_SIZE || TO - boundary < MIN_SPLIT_SIZE) {
+			return null;
+		}
+
+		TokenSpliterator prefix = new TokenSpliterator(CHARS, from, boundary, TRIE, LISTENER, MIN_SPLIT_SIZE);
+		prefix.boundaries = boundaries;
+		from = boundary;
+		scanner = null;
+		return prefix;
+	}
+
+	/**
+	 * Returns an estimate of the number of tokens remaining. Tokens contain at
+	 * least one character, so the number of characters remaining is used.
+	 *
+	 * @return an estimate of the number of tokens remaining
+	 */
+	public long estimateSize() {
+		return done ? 0 : TO - from;
+	}
+
+	/**
+	 * Aggregates the remaining tokens on the specified {@link ForkJoinPool}
+	 * by recursively splitting this TokenSpliterator, accumulating the tokens
+	 * of each range into its own container, and then combining the
+	 * containers in the order of their ranges.
+	 *
+	 * @param <A> type of the container
+	 * @param pool pool to aggregate on
+	 * @param aggregator aggregator creating, accumulating and combining the
+	 *	containers
+	 * @return the container combining every remaining token
+	 */
+	public <A> A aggregate(ForkJoinPool pool, Aggregator<A> aggregator) {
+		if (pool == null || aggregator == null) {
+			throw new NullPointerException();
+		}
+
+		return pool.invoke(new AggregateTask<A>(this, aggregator));
+	}
+
+	/**
+	 * Returns the line starts within the specified range of characters which
+	 * are not within a string or comment, and so are token boundaries of the
+	 * sequential scan. The range must begin at a token boundary. Strings and
+	 * comments are followed by the same rules as {@link AbstractToyScanner}.
+	 *
+	 * @param chars characters being lexed
+	 * @param from offset of the first character of the range
+	 * @param to offset of the end of the range
+	 * @param grain minimum number of characters between boundaries returned
+	 * @return the sorted offsets of the boundaries found
+	 */
+	static int[] findBoundaries(char[] chars, int from, int to, int grain) {
+		int[] boundaries = new int[16];
+		int size = 0;
+		int next = from + grain;
+		int i = from;
+		while (i < to) {
+			switch (chars[i++]) {
+				case '\n':
+					break;
+				case '\"':
+					while (i < to) {
+						char c = chars[i++];
+						if (c == '\"' || c == '\n') {
+							break;
+						}
+					}
+
+					break;
+				case '/':
+					if (i == to) {
+						break;
+					} else if (chars[i] == '/') {
+						i++;
+						while (i < to && chars[i++] != '\n') {
+						}
+					} else if (chars[i] == '*') {
+						i++;
+						Comment:
+						while (i < to) {
+							char c = chars[i++];
+							while (c == '*') {
+								if (i == to) {
+									break Comment;
+								}
+
+								c = chars[i++];
+								if (c == '/') {
+									break Comment;
+								}
+							}
+						}
+
+						continue;
+					}
+
+					break;
+				default:
+					continue;
+			}
+
+			// Strings and line comments may also end with a new line
+			if (next <= i && i < to && chars[i-1] == '\n') {
+				if (size == boundaries.length) {
+					boundaries = Arrays.copyOf(boundaries, size << 1);
+				}
+
+				boundaries[size++] = i;
+				next = i + grain;
+			}
+		}
+
+		return Arrays.copyOf(boundaries, size);
+	}
+
+	/**
+	 * This interface represents a receiver of the tokens generated by a
+	 * {@link TokenSpliterator}, along with their spans.
+	 */
+	public interface Visitor {
+		/**
+		 * Visits a token.
+		 *
+		 * @param token token generated, {@link ToyKeywords#_EOF} after the
+		 *	last token, or {@code null} if it is invalid
+		 * @param start offset of the first character of the token
+		 * @param length number of characters within the token
+		 */
+		void visit(Token token, int start, int length);
+	}
+
+	/**
+	 * This interface represents an aggregation of tokens which is computed
+	 * on several threads, such as counts of each kind of token.
+	 *
+	 * @param <A> type of the container tokens are accumulated into
+	 */
+	public interface Aggregator<A> {
+		/**
+		 * Returns a new, empty container.
+		 *
+		 * @return the container created
+		 */
+		A create();
+
+		/**
+		 * Accumulates a token into the specified container.
+		 *
+		 * @param container container to accumulate into
+		 * @param token token generated, {@link ToyKeywords#_EOF} after the
+		 *	last token, or {@code null} if it is invalid
+		 * @param start offset of the first character of the token
+		 * @param length number of characters within the token
+		 */
+		void accumulate(A container, Token token, int start, int length);
+
+		/**
+		 * Combines two containers, the first of which accumulated the tokens
+		 * preceding those of the second.
+		 *
+		 * @param left container of the preceding tokens
+		 * @param right container of the following tokens
+		 * @return the container combining both
+		 */
+		A combine(A left, A right);
+	}
+
+	/**
+	 * This class represents the task of aggregating the tokens of a single
+	 * TokenSpliterator, which forks a task for each range split from it.
+	 *
+	 * @param <A> type of the container
+	 */
+	@SuppressWarnings("serial")
+	private static final class AggregateTask<A> extends RecursiveTask<A> {
+		/**
+		 * TokenSpliterator whose tokens are aggregated.
+		 */
+		private final TokenSpliterator SPLITERATOR;
+
+		/**
+		 * Aggregator creating, accumulating and combining the containers.
+		 */
+		private final Aggregator<A> AGGREGATOR;
+
+		/**
+		 * Constructs an AggregateTask.
+		 *
+		 * @param spliterator spliterator whose tokens to aggregate
+		 * @param aggregator aggregator to aggregate using
+		 */
+		AggregateTask(TokenSpliterator spliterator, Aggregator<A> aggregator) {
+			this.SPLITERATOR = spliterator;
+			this.AGGREGATOR = aggregator;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected A compute() {
+			TokenSpliterator prefix = SPLITERATOR.trySplit();
+			if (prefix == null) {
+				final A container = AGGREGATOR.create();
+				SPLITERATOR.forEachRemaining(new Visitor() {
+					@Override
+					public void visit(Token token, int start, int length) {
+						AGGREGATOR.accumulate(container, token, start, length);
+					}
+				});
+
+				return container;
+			}
+
+			AggregateTask<A> left = new AggregateTask<A>(prefix, AGGREGATOR);
+			left.fork();
+			A right = compute();
+			return AGGREGATOR.combine(left.join(), right);
+		}
+	}
+}
@@ -10,6 +10,12 @@ import java.io.Reader;
  * @author Collin Smith <collinsmith@csupomona.edu>
  */
 public class TokenStream {
+	/**
+	 * Kind written by {@link #nextBatch(int[], int[], int[], int, int)} for
+	 * tokens which are invalid.
+	 */
+	public static final int INVALID = -1;
+
 	/**
 	 * This field represents the {@link Lexer} associated with this
 	 * TokenStream.
@@ -63,7 +69,7 @@ public class TokenStream {
 			return nextToken;
 		}
 
-		nextToken = LEXER.next(READER);
+		nextToken = generate();
 		return nextToken;
 	}
 
@@ -80,6 +86,93 @@ public class TokenStream {
 			return t;
 		}
 
+		return generate();
+	}
+
+	/**
+	 * Fills the specified arrays with the kinds ({@link Token#getId()}), start
+	 * offsets and lengths of the next tokens within this TokenStream.
+	 *
+	 * @param kinds array to store the kind of each token in
+	 * @param starts array to store the offset of each token in
+	 * @param lengths array to store the length of each token in
+	 * @return the number of tokens stored
+	 *
+	 * @see #nextBatch(int[], int[], int[], int, int)
+	 */
+	public int nextBatch(int[] kinds, int[] starts, int[] lengths) {
+		return nextBatch(kinds, starts, lengths, 0, kinds.length);
+	}
+
+	/**
+	 * Fills the specified range of the specified arrays with the kinds
+	 * ({@link Token#getId()}), start offsets and lengths of the next tokens
+	 * within this TokenStream. Invalid tokens are stored as {@link #INVALID}.
+	 * A batch ends early after the end of file token, so the kind of the last
+	 * token stored should be checked to determine whether there are more.
+	 *
+	 * TokenStreams which do not know the spans of their tokens store
+	 * {@code -1} as the offset and length of each token.
+	 *
+	 * @param kinds array to store the kind of each token in
+	 * @param starts array to store the offset of each token in
+	 * @param lengths array to store the length of each token in
+	 * @param offset index within the arrays of the first token to store
+	 * @param count maximum number of tokens to store
+	 * @return the number of tokens stored
+	 * @throws IndexOutOfBoundsException if the range is not within each array
+	 */
+	public int nextBatch(int[] kinds, int[] starts, int[] lengths, int offset, int count) {
+		checkBatch(kinds, starts, lengths, offset, count);
+		for (int i = 0; i < count; i++) {
+			Token t = next();
+			kinds[offset+i] = kindOf(t);
+			starts[offset+i] = -1;
+			lengths[offset+i] = -1;
+			if (t == ToyKeywords._EOF) {
+				return i+1;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Throws an exception if the specified range is not within each of the
+	 * specified arrays.
+	 *
+	 * @param kinds array to store the kind of each token in
+	 * @param starts array to store the offset of each token in
+	 * @param lengths array to store the length of each token in
+	 * @param offset index within the arrays of the first token to store
+	 * @param count maximum number of tokens to store
+	 */
+	static void checkBatch(int[] kinds, int[] starts, int[] lengths, int offset, int count) {
+		int length = Math.min(kinds.length, Math.min(starts.length, lengths.length));
+		if (offset < 0 || count < 0 || length - count < offset) {
+			throw new IndexOutOfBoundsException(String.format("Offset: %d, Count: %d, Length: %d", offset, count, length));
+		}
+	}
+
+	/**
+	 * Returns the kind stored for the specified token by
+	 * {@link #nextBatch(int[], int[], int[], int, int)}.
+	 *
+	 * @param t token, or {@code null} if it is invalid
+	 * @return the ID of the token, or {@link #INVALID}
+	 */
+	static int kindOf(Token t) {
+		return t == null ? INVALID : t.getId();
+	}
+
+	/**
+	 * Generates the next token within this TokenStream using its
+	 * {@link Lexer}. Subclasses may override this method to generate tokens
+	 * from another source.
+	 *
+	 * @return the next token generated, or {@code null} if invalid
+	 */
+	Token generate() {
 		return LEXER.next(READER);
 	}
 }
@@ -0,0 +1,215 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class represents a minimal perfect hash of the words which are scanned
+ * as identifiers but represent other {@link Token}s, i.e.,
+ * {@link ToyKeywords#ACTUAL_KEYWORDS} along with {@code true} and
+ * {@code false}.
+ *
+ * Words are hashed using {@link String#hashCode()}, which scanners compute
+ * while consuming the characters of an identifier. A hash is first mapped into
+ * one of several buckets, and the displacement of that bucket is mixed into the
+ * hash to select one of exactly {@link #size()} slots. Each word has a slot of
+ * its own, so a word is recognized using two table lookups and a single
+ * comparison, without any allocation.
+ *
+ * The displacements are generated once when this class is initialized.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+final class ToyKeywordHash {
+	/**
+	 * Largest displacement tried for any bucket before giving up.
+	 */
+	private static final int MAX_DISPLACEMENT = 1<<16;
+
+	/**
+	 * Word stored within each slot.
+	 */
+	private static final String[] WORDS;
+
+	/**
+	 * {@link Token} represented by the word within each slot.
+	 */
+	private static final Token[] TOKENS;
+
+	/**
+	 * Displacement mixed into the hashes of the words within each bucket.
+	 */
+	private static final int[] DISPLACEMENTS;
+	static {
+		List<String> words = new ArrayList<String>();
+		List<Token> tokens = new ArrayList<Token>();
+		for (ToyKeywords k : ToyKeywords.ACTUAL_KEYWORDS) {
+			words.add(k.getRegex());
+			tokens.add(k);
+		}
+
+		words.add("true");
+		tokens.add(ToyKeywords._booleanliteral);
+		words.add("false");
+		tokens.add(ToyKeywords._booleanliteral);
+
+		int size = words.size();
+		WORDS = new String[size];
+		TOKENS = new Token[size];
+		DISPLACEMENTS = new int[(size+1)/2];
+
+		// Group the words by bucket, placing the largest buckets first
+		final List<List<String>> buckets = new ArrayList<List<String>>();
+		for (int i = 0; i < DISPLACEMENTS.length; i++) {
+			buckets.add(new ArrayList<String>());
+		}
+
+		for (String word : words) {
+			buckets.get(bucketOf(word.hashCode())).add(word);
+		}
+
+		Integer[] order = new Integer[DISPLACEMENTS.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return buckets.get(b).size() - buckets.get(a).size();
+			}
+		});
+
+		int[] slots = new int[size];
+		Buckets:
+		for (int bucket : order) {
+			List<String> bucketWords = buckets.get(bucket);
+			Displacements:
+			for (int d = 0; d < MAX_DISPLACEMENT; d++) {
+				for (int i = 0; i < bucketWords.size(); i++) {
+					int slot = slotOf(bucketWords.get(i).hashCode(), d);
+					if (WORDS[slot] != null) {
+						continue Displacements;
+					}
+
+					for (int j = 0; j < i; j++) {
+						if (slots[j] == slot) {
+							continue Displacements;
+						}
+					}
+
+					slots[i] = slot;
+				}
+
+				for (int i = 0; i < bucketWords.size(); i++) {
+					String word = bucketWords.get(i);
+					WORDS[slots[i]] = word;
+					TOKENS[slots[i]] = tokens.get(words.indexOf(word));
+				}
+
+				DISPLACEMENTS[bucket] = d;
+				continue Buckets;
+			}
+
+			throw new IllegalStateException("No displacement found for bucket " + bucket);
+		}
+	}
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private ToyKeywordHash() {
+	}
+
+	/**
+	 * Returns the slot which the word with the specified hash code would be
+	 * stored within if it were one of the words of this hash. The word within
+	 * the returned slot must still be compared to the word being looked up.
+	 *
+	 * @param hash hash code of the word, as computed by
+	 *	{@link String#hashCode()}
+	 * @return the slot of the word
+	 */
+	static int slotOf(int hash) {
+		return slotOf(hash, DISPLACEMENTS[bucketOf(hash)]);
+	}
+
+	/**
+	 * Returns the word stored within the specified slot.
+	 *
+	 * @param slot slot to return the word of
+	 * @return the word within the slot
+	 */
+	static String wordAt(int slot) {
+		return WORDS[slot];
+	}
+
+	/**
+	 * Returns the {@link Token} represented by the word stored within the
+	 * specified slot.
+	 *
+	 * @param slot slot to return the token of
+	 * @return the token of the word within the slot
+	 */
+	static Token tokenAt(int slot) {
+		return TOKENS[slot];
+	}
+
+	/**
+	 * Returns the {@link Token} represented by the specified word.
+	 *
+	 * @param word word to look up
+	 * @return the keyword or {@link ToyKeywords#_booleanliteral} represented
+	 *	by the word, or {@code null} if it is an identifier
+	 */
+	static Token lookup(String word) {
+		int slot = slotOf(word.hashCode());
+		return WORDS[slot].equals(word) ? TOKENS[slot] : null;
+	}
+
+	/**
+	 * Returns the number of words (and slots) within this hash.
+	 *
+	 * @return the number of words
+	 */
+	static int size() {
+		return WORDS.length;
+	}
+
+	/**
+	 * Returns the bucket of the specified hash code.
+	 *
+	 * @param hash hash code to find the bucket of
+	 * @return the bucket of the hash code
+	 */
+	private static int bucketOf(int hash) {
+		return reduce(hash * 0x85EBCA6B, DISPLACEMENTS.length);
+	}
+
+	/**
+	 * Returns the slot of the specified hash code using the specified
+	 * displacement.
+	 *
+	 * @param hash hash code to find the slot of
+	 * @param displacement displacement of the bucket of the hash code
+	 * @return the slot of the hash code
+	 */
+	private static int slotOf(int hash, int displacement) {
+		int h = (hash ^ displacement) * 0x9E3779B9;
+		return reduce(h ^ (h >>> 16), WORDS.length);
+	}
+
+	/**
+	 * Maps the specified hash code uniformly onto {@code [0, n)} using its
+	 * high bits.
+	 *
+	 * @param hash hash code to reduce
+	 * @param n number of values
+	 * @return the reduced hash code
+	 */
+	private static int reduce(int hash, int n) {
+		return (int)(((hash & 0xFFFFFFFFL) * n) >>> 32);
+	}
+}
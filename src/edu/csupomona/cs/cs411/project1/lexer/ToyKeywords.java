@@ -61,9 +61,9 @@ public enum ToyKeywords implements Token {
 
 	// Constants
 	_booleanliteral("(true|false)", true),
-	_integerliteral("[+-]?(([0-9]+)|(0(x|X)[a-fA-F0-9]+))", true),
+	_integerliteral("([0-9]+)|(0(x|X)[a-fA-F0-9]+)", true),
 	_doubleliteral("[0-9]+\\.[0-9]*((e|E)[+-]?[0-9]+)?", true),
-	_stringliteral("\".*\"", true),
+	_stringliteral("\"[^\"\\n]*\"", true),
 
 	// Other Identifiers
 	_id("([a-zA-Z][a-zA-Z0-9_]*)", true);
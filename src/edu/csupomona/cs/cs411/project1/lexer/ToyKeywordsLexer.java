@@ -0,0 +1,85 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.Reader;
+
+/**
+ * This class represents a lexical analyzer which generates {@link ToyKeywords}
+ * using the {@link ToyKeywordsScanner} generated by {@link ScannerGenerator}
+ * when the project is built. It generates the same tokens as
+ * {@link DfaLexer#forToyKeywords()}, but does not compile any patterns when it
+ * is constructed, so it is the cheaper of the two for short-lived processes.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ToyKeywordsLexer extends AbstractLexer {
+	/**
+	 * {@link Reader} read from by {@link #scanner}.
+	 *
+	 * @see #next(java.io.Reader)
+	 */
+	private Reader reader;
+
+	/**
+	 * {@link ToyKeywordsScanner} used by {@link #next(java.io.Reader)}.
+	 */
+	private ToyKeywordsScanner scanner;
+
+	/**
+	 * Default constructor which initializes a ToyKeywordsLexer.
+	 */
+	public ToyKeywordsLexer() {
+		//...
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The returned stream generates its tokens using a
+	 * {@link ToyKeywordsScanner}, which reads ahead of the tokens it has
+	 * returned, so the Reader should not be read from by anything else while
+	 * the stream is in use.
+	 */
+	@Override
+	public TokenStream lex(Reader r) {
+		return new ScannerTokenStream(this, r, scan(r));
+	}
+
+	/**
+	 * Returns a {@link ToyKeywordsScanner} which generates tokens from the
+	 * specified {@link Reader}.
+	 *
+	 * @param r the reader to generate tokens from
+	 * @return the ToyKeywordsScanner created
+	 */
+	public ToyKeywordsScanner scan(Reader r) {
+		return new ToyKeywordsScanner(r);
+	}
+
+	/**
+	 * Returns a {@link ToyKeywordsScanner} which generates tokens from the
+	 * specified characters.
+	 *
+	 * @param chars the characters to generate tokens from
+	 * @return the ToyKeywordsScanner created
+	 */
+	public ToyKeywordsScanner scan(char[] chars) {
+		return new ToyKeywordsScanner(chars, 0, chars.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Characters are read ahead of the token returned and kept for the next
+	 * call with the same {@link Reader}, so a Reader should only be read by
+	 * this method until its end has been reached.
+	 */
+	@Override
+	public Token next(Reader r) {
+		if (r != reader) {
+			reader = r;
+			scanner = scan(r);
+		}
+
+		return scanner.next();
+	}
+}
@@ -2,9 +2,20 @@ package edu.csupomona.cs.cs411.project1.lexer;
 
 import com.google.common.base.Preconditions;
 import edu.csupomona.cs.cs411.project1.trie.ArrayMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.ConcurrentMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.DoubleArrayMultiTrie;
 import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.PrefixCursor;
+import edu.csupomona.cs.cs411.project1.trie.ProbeListener;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executor;
 
 /**
  * This class represents a lexical analyzer that can be used for the Toy
@@ -16,7 +27,7 @@ public class ToyLexer extends AbstractLexer {
 	/**
 	 * Sentinel used to mark identifiers within {@link #trie}.
 	 */
-	private static final char IDENTIFIER_SENTINEL = '$';
+	static final char IDENTIFIER_SENTINEL = '$';
 
 	/**
 	 * {@link MultiTrie} used to store both {@link ToyKeywords#ACTUAL_KEYWORDS}
@@ -26,15 +37,205 @@ public class ToyLexer extends AbstractLexer {
 	private MultiTrie<String> trie;
 
 	/**
-	 * Constructs a {@link Lexer} for the Toy Programming Language.
+	 * Listener given to each scanner created by this ToyLexer, or
+	 * {@code null} if there is none.
+	 */
+	private LexerListener listener;
+
+	/**
+	 * Constructs a {@link Lexer} for the Toy Programming Language which stores
+	 * keywords and identifiers within a {@link DoubleArrayMultiTrie}.
 	 */
 	public ToyLexer() {
-		trie = new ArrayMultiTrie();
+		this(new DoubleArrayMultiTrie());
+	}
+
+	/**
+	 * Constructs a {@link Lexer} for the Toy Programming Language which stores
+	 * keywords and identifiers within the specified {@link MultiTrie}.
+	 *
+	 * @param trie the trie to store keywords and identifiers within
+	 */
+	public ToyLexer(MultiTrie<String> trie) {
+		this.trie = Preconditions.checkNotNull(trie);
 		for (ToyKeywords t : ToyKeywords.ACTUAL_KEYWORDS) {
 			trie.insert(t.getRegex());
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The returned stream generates its tokens using a {@link ToyScanner},
+	 * which reads ahead of the tokens it has returned, so the Reader should
+	 * not be read from by anything else while the stream is in use.
+	 */
+	@Override
+	public TokenStream lex(Reader r) {
+		return new ScannerTokenStream(this, r, scan(r));
+	}
+
+	/**
+	 * Returns a {@link ToyScanner} which generates tokens from the specified
+	 * {@link Reader} and stores identifiers within the {@link MultiTrie} of
+	 * this ToyLexer.
+	 *
+	 * @param r the reader to generate tokens from
+	 * @return the ToyScanner created
+	 */
+	public ToyScanner scan(Reader r) {
+		ToyScanner scanner = new ToyScanner(r, trie);
+		scanner.setListener(listener);
+		return scanner;
+	}
+
+	/**
+	 * Returns a {@link ToyScanner} which generates tokens from the specified
+	 * characters and stores identifiers within the {@link MultiTrie} of this
+	 * ToyLexer.
+	 *
+	 * @param chars the characters to generate tokens from
+	 * @return the ToyScanner created
+	 */
+	public ToyScanner scan(char[] chars) {
+		ToyScanner scanner = new ToyScanner(chars, 0, chars.length, trie);
+		scanner.setListener(listener);
+		return scanner;
+	}
+
+	/**
+	 * Returns a stream of tokens generated from the UTF-8 encoded file at the
+	 * specified {@link Path}. The file is memory-mapped and its bytes are
+	 * scanned directly using a {@link ByteToyScanner}.
+	 *
+	 * @param p path of the file to generate tokens from
+	 * @return stream of tokens generated
+	 * @throws IOException if the file cannot be opened or mapped
+	 */
+	public TokenStream lex(Path p) throws IOException {
+		return new ScannerTokenStream(this, null, scan(p));
+	}
+
+	/**
+	 * Returns a stream of tokens generated from the UTF-8 encoded contents of
+	 * the specified {@link FileChannel}, which is memory-mapped and scanned
+	 * directly using a {@link ByteToyScanner}.
+	 *
+	 * @param fc channel of the file to generate tokens from
+	 * @return stream of tokens generated
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public TokenStream lex(FileChannel fc) throws IOException {
+		return new ScannerTokenStream(this, null, scan(fc));
+	}
+
+	/**
+	 * Returns a {@link ByteToyScanner} which generates tokens from the UTF-8
+	 * encoded file at the specified {@link Path}. The file is memory-mapped,
+	 * and the mapping remains valid after the file has been closed.
+	 *
+	 * @param p path of the file to generate tokens from
+	 * @return the ByteToyScanner created
+	 * @throws IOException if the file cannot be opened or mapped
+	 */
+	public ByteToyScanner scan(Path p) throws IOException {
+		try (FileChannel fc = FileChannel.open(p, StandardOpenOption.READ)) {
+			return scan(fc);
+		}
+	}
+
+	/**
+	 * Returns a {@link ByteToyScanner} which generates tokens from the UTF-8
+	 * encoded contents of the specified {@link FileChannel}. The entire file
+	 * is memory-mapped, and the mapping remains valid after the channel has
+	 * been closed.
+	 *
+	 * @param fc channel of the file to generate tokens from
+	 * @return the ByteToyScanner created
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public ByteToyScanner scan(FileChannel fc) throws IOException {
+		long size = fc.size();
+		if (Integer.MAX_VALUE < size) {
+			throw new IllegalArgumentException("Files larger than 2GB cannot be mapped.");
+		}
+
+		return scan(fc.map(FileChannel.MapMode.READ_ONLY, 0, size));
+	}
+
+	/**
+	 * Returns a {@link ByteToyScanner} which generates tokens from the
+	 * remaining UTF-8 encoded bytes of the specified {@link ByteBuffer}.
+	 *
+	 * @param buffer the bytes to generate tokens from
+	 * @return the ByteToyScanner created
+	 */
+	public ByteToyScanner scan(ByteBuffer buffer) {
+		ByteToyScanner scanner = new ByteToyScanner(buffer, trie);
+		scanner.setListener(listener);
+		return scanner;
+	}
+
+	/**
+	 * Returns a {@link TokenPublisher} of the tokens generated from the
+	 * specified {@link Reader}, which lexes on the specified {@link Executor}
+	 * only as many tokens as its subscriber requests. Unlike
+	 * {@link #next(java.io.Reader)}, an {@link IOException} thrown by the
+	 * Reader is delivered to the subscriber rather than ending the input.
+	 *
+	 * @param r the reader to generate tokens from
+	 * @param executor executor to lex and deliver tokens on
+	 * @return the TokenPublisher created
+	 */
+	public TokenPublisher publish(Reader r, Executor executor) {
+		return new TokenPublisher(scan(r), executor);
+	}
+
+	/**
+	 * Returns a {@link TokenSpliterator} of the tokens generated from the
+	 * specified characters, which may be split and traversed on several
+	 * threads. The {@link MultiTrie} of this ToyLexer must be thread-safe for
+	 * the ranges split from it to be traversed concurrently.
+	 *
+	 * @param chars the characters to generate tokens from
+	 * @return the TokenSpliterator created
+	 */
+	public TokenSpliterator spliterator(char[] chars) {
+		return new TokenSpliterator(chars, trie, listener);
+	}
+
+	/**
+	 * Returns a {@link TokenSpliterator} of the tokens generated from the
+	 * UTF-8 encoded file at the specified {@link Path}. Spans are offsets of
+	 * characters within the decoded file.
+	 *
+	 * @param p path of the file to generate tokens from
+	 * @return the TokenSpliterator created
+	 * @throws IOException if the file cannot be read
+	 *
+	 * @see #spliterator(char[])
+	 */
+	public TokenSpliterator spliterator(Path p) throws IOException {
+		ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(p));
+		return spliterator(StandardCharsets.UTF_8.decode(bytes).toString().toCharArray());
+	}
+
+	/**
+	 * Returns a {@link PushLexer} which is pushed its input in pieces, stores
+	 * identifiers within the {@link MultiTrie} of this ToyLexer and delivers
+	 * its tokens to the specified {@link PushLexer.Sink}. Unlike
+	 * {@link #next(java.io.Reader)}, tokens are only delivered once they are
+	 * complete, regardless of how the input is split.
+	 *
+	 * @param sink sink to deliver tokens to
+	 * @return the PushLexer created
+	 */
+	public PushLexer push(PushLexer.Sink sink) {
+		PushLexer lexer = new PushLexer(trie, sink);
+		lexer.setListener(listener);
+		return lexer;
+	}
+
 	/**
 	 * Returns the next {@link Token} within this {@link ToyLexer}
 	 *
@@ -82,10 +283,9 @@ public class ToyLexer extends AbstractLexer {
 
 					// Check if the "id" is really a keyword or boolean literal
 					String id = idBuilder.toString();
-					if (trie.contains(id)) {
-						return ToyKeywords.valueOf('_' + id);
-					} else if (id.matches(ToyKeywords._booleanliteral.getRegex())) {
-						return ToyKeywords._booleanliteral;
+					Token keyword = ToyKeywordHash.lookup(id);
+					if (keyword != null) {
+						return keyword;
 					}
 
 					// What we have should be a valid identifier, so return it
@@ -283,7 +483,7 @@ public class ToyLexer extends AbstractLexer {
 						}
 
 						// We cannot perform any more read operations, but we have a string literal
-						assert stringBuilder.toString().matches(ToyKeywords._stringliteral.getRegex());
+						assert ("\"" + stringBuilder + "\"").matches(ToyKeywords._stringliteral.getRegex());
 						return ToyKeywords._stringliteral;
 					case '/':
 						if (!r.ready()) {
@@ -426,10 +626,77 @@ public class ToyLexer extends AbstractLexer {
 	 *
 	 * @return the MultiTrie used by this ToyLexer
 	 */
-	public MultiTrie getTrie() {
+	public MultiTrie<String> getTrie() {
 		return trie;
 	}
 
+	/**
+	 * Sets the listener told about each token generated by the scanners which
+	 * this ToyLexer creates from now on. Tokens generated by
+	 * {@link #next(java.io.Reader)} are not reported.
+	 *
+	 * If the listener is also a {@link ProbeListener}, as {@link LexerMetrics}
+	 * is, it is given to {@link #getTrie()} as well when that trie reports
+	 * probes, and removed from it again once this ToyLexer is given another
+	 * listener.
+	 *
+	 * @param listener listener to tell, or {@code null} to stop telling one
+	 *
+	 * @see LexerMetrics
+	 */
+	public void setListener(LexerListener listener) {
+		if (listener instanceof ProbeListener) {
+			setProbeListener(trie, (ProbeListener)listener);
+		} else if (this.listener instanceof ProbeListener) {
+			setProbeListener(trie, null);
+		}
+
+		this.listener = listener;
+	}
+
+	/**
+	 * Sets the {@link ProbeListener} of the specified trie, if it is one of the
+	 * implementations which reports probes.
+	 *
+	 * @param trie trie to set the listener of
+	 * @param listener listener to tell, or {@code null} to stop telling one
+	 */
+	private static void setProbeListener(MultiTrie<String> trie, ProbeListener listener) {
+		if (trie instanceof DoubleArrayMultiTrie) {
+			((DoubleArrayMultiTrie)trie).setProbeListener(listener);
+		} else if (trie instanceof ArrayMultiTrie) {
+			((ArrayMultiTrie)trie).setProbeListener(listener);
+		} else if (trie instanceof ConcurrentMultiTrie) {
+			((ConcurrentMultiTrie)trie).setProbeListener(listener);
+		}
+	}
+
+	/**
+	 * Returns the listener told about each token generated by the scanners
+	 * which this ToyLexer creates.
+	 *
+	 * @return the listener, or {@code null} if there is none
+	 */
+	public LexerListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Returns a {@link PrefixCursor} over the identifiers stored by this
+	 * ToyLexer which begin with the specified prefix, for completing a
+	 * partially typed identifier without copying every identifier out of
+	 * {@link #getTrie()}.
+	 *
+	 * @param prefix characters which each identifier begins with
+	 * @param limit maximum number of identifiers to return
+	 * @return a cursor over the matching identifiers
+	 *
+	 * @see MultiTrie#prefixCursor(java.lang.Object, char, int)
+	 */
+	public PrefixCursor completions(String prefix, int limit) {
+		return trie.prefixCursor(prefix, IDENTIFIER_SENTINEL, limit);
+	}
+
 	/**
 	 * Returns whether or not a specified character is a hex character.
 	 *
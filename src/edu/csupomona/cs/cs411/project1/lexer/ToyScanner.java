@@ -0,0 +1,210 @@
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * This class represents a scanner for the Toy language which lexes over its
+ * own window of characters instead of reading through a {@link Reader} one
+ * character at a time. The window is only refilled from the underlying Reader
+ * once it has been exhausted.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ToyScanner extends AbstractToyScanner {
+	/**
+	 * Default number of characters allocated to the {@link #window}.
+	 */
+	private static final int DEFAULT_WINDOW_SIZE = 1<<13;
+
+	/**
+	 * {@link Reader} used to refill the {@link #window}, or {@code null} if
+	 * the window already contains the entire input.
+	 */
+	private final Reader READER;
+
+	/**
+	 * Stores the characters currently being scanned.
+	 */
+	private char[] window;
+
+	/**
+	 * Whether or not {@link #READER} has reached the end of its input.
+	 */
+	private boolean eof;
+
+	/**
+	 * Constructs a ToyScanner which reads its input from the specified
+	 * {@link Reader}.
+	 *
+	 * @param r reader to generate tokens from
+	 * @param trie trie containing keywords and used to store identifiers
+	 */
+	ToyScanner(Reader r, MultiTrie<String> trie) {
+		this(r, trie, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructs a ToyScanner which reads its input from the specified
+	 * {@link Reader} using a window of the specified size.
+	 *
+	 * @param r reader to generate tokens from
+	 * @param trie trie containing keywords and used to store identifiers
+	 * @param windowSize initial number of characters within the window
+	 */
+	ToyScanner(Reader r, MultiTrie<String> trie, int windowSize) {
+		super(trie);
+		if (r == null) {
+			throw new NullPointerException();
+		}
+
+		if (windowSize < 1) {
+			throw new IllegalArgumentException("Window size must be positive.");
+		}
+
+		this.READER = r;
+		this.window = new char[windowSize];
+		this.eof = false;
+	}
+
+	/**
+	 * Constructs a ToyScanner which scans the specified range of characters.
+	 * The characters are scanned in place and should not be modified while
+	 * this scanner is in use.
+	 *
+	 * @param chars characters to generate tokens from
+	 * @param off index of the first character to scan
+	 * @param len number of characters to scan
+	 * @param trie trie containing keywords and used to store identifiers
+	 */
+	ToyScanner(char[] chars, int off, int len, MultiTrie<String> trie) {
+		super(trie);
+		if (chars == null) {
+			throw new NullPointerException();
+		}
+
+		if (off < 0 || len < 0 || chars.length - len < off) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		this.READER = null;
+		this.window = chars;
+		this.pos = off;
+		this.start = off;
+		this.limit = off + len;
+		this.eof = true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The window is grown if the current token does not leave enough room
+	 * within it.
+	 */
+	@Override
+	boolean fill(int n) {
+		while (limit - pos < n) {
+			if (eof) {
+				return false;
+			}
+
+			if (limit == window.length) {
+				char[] dst = window;
+				if (start == 0) {
+					dst = new char[window.length<<1];
+				}
+
+				System.arraycopy(window, start, dst, 0, limit - start);
+				window = dst;
+				origin += start;
+				pos -= start;
+				limit -= start;
+				start = 0;
+			}
+
+			try {
+				int read = READER.read(window, limit, window.length - limit);
+				if (read == -1) {
+					eof = true;
+				} else {
+					limit += read;
+				}
+			} catch (IOException e) {
+				eof = true;
+				exception = e;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	char at(int index) {
+		return window[index];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The window is searched directly rather than through {@link #at(int)}.
+	 */
+	@Override
+	int skipWhitespace(int from) {
+		char[] chars = window;
+		int end = limit;
+		while (from < end && Character.isWhitespace(chars[from])) {
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The window is searched directly rather than through {@link #at(int)}.
+	 */
+	@Override
+	int indexOf(char c, int from) {
+		char[] chars = window;
+		int end = limit;
+		while (from < end && chars[from] != c) {
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The window is searched directly rather than through {@link #at(int)}.
+	 */
+	@Override
+	int indexOf(char a, char b, int from) {
+		char[] chars = window;
+		int end = limit;
+		while (from < end) {
+			char c = chars[from];
+			if (c == a || c == b) {
+				break;
+			}
+
+			from++;
+		}
+
+		return from;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	String substring(int from, int to) {
+		return new String(window, from, to - from);
+	}
+}
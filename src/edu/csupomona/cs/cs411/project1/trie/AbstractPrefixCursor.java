@@ -0,0 +1,156 @@
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a skeletal {@link PrefixCursor} which manages the
+ * buffer holding the current key and the number of keys which may still be
+ * returned. Subclasses search their {@link MultiTrie} depth-first using an
+ * explicit stack, so a search can stop after any key and resume where it left
+ * off.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+abstract class AbstractPrefixCursor implements PrefixCursor {
+	/**
+	 * Sentinel representing the {@link Trie} which keys must belong to.
+	 */
+	final char SENTINEL;
+
+	/**
+	 * Characters of the current key, beginning with the prefix.
+	 */
+	private char[] chars;
+
+	/**
+	 * Number of characters within the current key.
+	 */
+	private int length;
+
+	/**
+	 * Symbol ID of the current key.
+	 */
+	private int symbol;
+
+	/**
+	 * Number of keys which may still be returned.
+	 */
+	private int remaining;
+
+	/**
+	 * Constructs an AbstractPrefixCursor.
+	 *
+	 * @param prefix characters which each key begins with
+	 * @param sentinel sentinel representing the Trie which keys belong to
+	 * @param limit maximum number of keys to return
+	 */
+	AbstractPrefixCursor(String prefix, char sentinel, int limit) {
+		this.SENTINEL = sentinel;
+		this.chars = new char[Math.max(16, prefix.length() << 1)];
+		prefix.getChars(0, prefix.length(), chars, 0);
+		this.length = 0;
+		this.symbol = -1;
+		this.remaining = limit;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final boolean next() {
+		if (remaining == 0) {
+			return false;
+		}
+
+		if (!advance()) {
+			remaining = 0;
+			length = 0;
+			symbol = -1;
+			return false;
+		}
+
+		remaining--;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final char[] chars() {
+		return chars;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final int length() {
+		return length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final int symbol() {
+		return symbol;
+	}
+
+	/**
+	 * Continues searching for the next key, and if one is found, stores it
+	 * using {@link #found(int, int)}.
+	 *
+	 * @return {@code true} if a key was found, otherwise {@code false}
+	 */
+	abstract boolean advance();
+
+	/**
+	 * Stores a character of the path currently being searched, growing the
+	 * buffer if necessary.
+	 *
+	 * @param index index of the character within the key
+	 * @param c character to store
+	 */
+	final void put(int index, char c) {
+		if (chars.length <= index) {
+			chars = Arrays.copyOf(chars, Math.max(chars.length << 1, index+1));
+		}
+
+		chars[index] = c;
+	}
+
+	/**
+	 * Records that the first characters of the path currently being searched
+	 * form the next key.
+	 *
+	 * @param length number of characters within the key
+	 * @param symbol symbol ID of the key
+	 */
+	final void found(int length, int symbol) {
+		this.length = length;
+		this.symbol = symbol;
+	}
+
+	/**
+	 * Throws an exception if the specified prefix, sentinel or limit cannot
+	 * be used to construct a cursor.
+	 *
+	 * @param prefix prefix to check
+	 * @param sentinel sentinel to check
+	 * @param limit limit to check
+	 */
+	static void checkArguments(String prefix, char sentinel, int limit) {
+		if (prefix == null) {
+			throw new NullPointerException();
+		}
+
+		if (Character.isLetterOrDigit(sentinel) || sentinel == '_') {
+			throw new IllegalArgumentException("Marker cannot be a letter, digit or underscore.");
+		}
+
+		if (limit < 0) {
+			throw new IllegalArgumentException("Limit cannot be negative.");
+		}
+	}
+}
@@ -0,0 +1,1111 @@
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a {@link MultiTrie} of Strings represented using an
+ * adaptive radix tree. Keys may contain any UTF-16 characters, including
+ * unpaired surrogates.
+ *
+ * Each character of a key, followed by its sentinel, is encoded as one to
+ * three bytes in the same way as UTF-8 encodes a code point, so the encoding
+ * is prefix-free and ASCII characters take a single byte. Each inner node
+ * branches on a single byte, and is one of four types sized for the number of
+ * children it has: {@code Node4} and {@code Node16} store sorted arrays of
+ * bytes and children, {@code Node48} stores an index of 256 bytes into 48
+ * children, and {@code Node256} stores a child for every byte. Nodes grow into
+ * the next type once they are full. Every node also stores the bytes which
+ * lead to it without branching, so chains of nodes with a single child are
+ * compressed into one, and leaves store the remaining bytes of their key.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class AdaptiveRadixMultiTrie implements MultiTrie<String> {
+	/**
+	 * Default sentinel character to use for {@link #insert(java.lang.String)}.
+	 */
+	private static final char DEFAULT_SENTINEL = '*';
+
+	/**
+	 * Symbol ID of a node which does not end a key.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * Empty prefix shared by nodes which do not compress any bytes.
+	 */
+	private static final byte[] EMPTY = new byte[0];
+
+	/**
+	 * Root node, which does not store any bytes.
+	 */
+	private Node root;
+
+	/**
+	 * Total number of keys within this {@link AdaptiveRadixMultiTrie}.
+	 */
+	private int numKeys;
+
+	/**
+	 * Default constructor which initializes an empty
+	 * {@link AdaptiveRadixMultiTrie}.
+	 */
+	public AdaptiveRadixMultiTrie() {
+		root = new Node4(EMPTY, NONE);
+		numKeys = 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void insert(String key) {
+		insert(key, DEFAULT_SENTINEL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void insert(String key, char sentinel) {
+		insertOrGet(key, sentinel);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel) {
+		return insertOrGet(key, sentinel, new boolean[1]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel, boolean[] inserted) {
+		inserted[0] = true;
+		byte[] bytes = encode(key, sentinel);
+		Node parent = null;
+		byte parentByte = 0;
+		Node node = root;
+		int depth = 0;
+		while (true) {
+			byte[] prefix = node.prefix;
+			int matched = 0;
+			while (matched < prefix.length && depth+matched < bytes.length && prefix[matched] == bytes[depth+matched]) {
+				matched++;
+			}
+
+			if (matched < prefix.length) {
+				// The key leaves the compressed path of the node part way along
+				Node4 split = new Node4(Arrays.copyOf(prefix, matched), NONE);
+				node.prefix = Arrays.copyOfRange(prefix, matched+1, prefix.length);
+				split.add(prefix[matched], node);
+				if (depth+matched == bytes.length) {
+					split.id = numKeys++;
+				} else {
+					split.add(bytes[depth+matched], new Leaf(Arrays.copyOfRange(bytes, depth+matched+1, bytes.length), numKeys++));
+				}
+
+				replace(parent, parentByte, split);
+				return numKeys-1;
+			}
+
+			depth += prefix.length;
+			if (depth == bytes.length) {
+				inserted[0] = node.id == NONE;
+				if (inserted[0]) {
+					node.id = numKeys++;
+				}
+
+				return node.id;
+			}
+
+			byte b = bytes[depth];
+			Node child = find(node, b);
+			if (child == null) {
+				if (node.isFull()) {
+					node = node.grow();
+					replace(parent, parentByte, node);
+				}
+
+				node.add(b, new Leaf(Arrays.copyOfRange(bytes, depth+1, bytes.length), numKeys++));
+				return numKeys-1;
+			}
+
+			parent = node;
+			parentByte = b;
+			node = child;
+			depth++;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(String key) {
+		return contains(key, DEFAULT_SENTINEL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(String key, char sentinel) {
+		byte[] bytes = encode(key, sentinel);
+		Node node = root;
+		int depth = 0;
+		while (node != null) {
+			byte[] prefix = node.prefix;
+			if (bytes.length - depth < prefix.length) {
+				return false;
+			}
+
+			for (int i = 0; i < prefix.length; i++) {
+				if (prefix[i] != bytes[depth+i]) {
+					return false;
+				}
+			}
+
+			depth += prefix.length;
+			if (depth == bytes.length) {
+				return node.id != NONE;
+			}
+
+			node = find(node, bytes[depth++]);
+		}
+
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int numKeys() {
+		return numKeys;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LoudsMultiTrie freeze() {
+		LoudsMultiTrie.Builder builder = new LoudsMultiTrie.Builder();
+		freeze(builder, new byte[16], 0, root);
+		return builder.build();
+	}
+
+	/**
+	 * Adds every key which continues from the specified node to the
+	 * specified builder.
+	 *
+	 * @param builder builder to add keys to
+	 * @param path bytes leading to the node
+	 * @param length number of bytes leading to the node
+	 * @param node node to continue from
+	 */
+	private static void freeze(LoudsMultiTrie.Builder builder, byte[] path, int length, Node node) {
+		if (path.length < length + node.prefix.length + 1) {
+			path = Arrays.copyOf(path, Math.max(path.length << 1, length + node.prefix.length + 1));
+		}
+
+		System.arraycopy(node.prefix, 0, path, length, node.prefix.length);
+		length += node.prefix.length;
+		if (node.id != NONE) {
+			builder.add(decode(path, length), node.id);
+		}
+
+		for (int b = node.nextByte(0); b < 256; b = node.nextByte(b+1)) {
+			path[length] = (byte)b;
+			freeze(builder, path, length+1, node.find((byte)b));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The children of each node are searched in the order of their bytes, so
+	 * keys are returned in order of their characters.
+	 */
+	@Override
+	public PrefixCursor prefixCursor(String prefix, char sentinel, int limit) {
+		AbstractPrefixCursor.checkArguments(prefix, sentinel, limit);
+
+		int size = 0;
+		for (int i = 0; i < prefix.length(); i++) {
+			size += sizeOf(prefix.charAt(i));
+		}
+
+		byte[] bytes = new byte[size];
+		int length = 0;
+		for (int i = 0; i < prefix.length(); i++) {
+			length = encode(prefix.charAt(i), bytes, length);
+		}
+
+		// The prefix may end part way along the compressed path of a node
+		Node node = root;
+		int depth = 0;
+		while (node != null) {
+			byte[] nodePrefix = node.prefix;
+			int n = Math.min(nodePrefix.length, bytes.length - depth);
+			for (int i = 0; i < n; i++) {
+				if (nodePrefix[i] != bytes[depth+i]) {
+					return new Cursor(prefix, sentinel, limit, bytes, depth, null);
+				}
+			}
+
+			if (bytes.length <= depth + nodePrefix.length) {
+				break;
+			}
+
+			depth += nodePrefix.length;
+			node = find(node, bytes[depth++]);
+		}
+
+		return new Cursor(prefix, sentinel, limit, bytes, depth, node);
+	}
+
+	/**
+	 * Returns the child of the specified node reached using the specified
+	 * byte. Each node type is final, so testing for each type in turn avoids
+	 * a virtual call which could reach any one of them.
+	 *
+	 * @param node node to transition from
+	 * @param b byte to transition with
+	 * @return the child, or {@code null} if there is none
+	 */
+	private static Node find(Node node, byte b) {
+		if (node instanceof Node4) {
+			return ((Node4)node).find(b);
+		} else if (node instanceof Node16) {
+			return ((Node16)node).find(b);
+		} else if (node instanceof Node48) {
+			return ((Node48)node).find(b);
+		} else if (node instanceof Node256) {
+			return ((Node256)node).find(b);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Replaces the child of the specified parent reached using the specified
+	 * byte, or the root if there is no parent.
+	 *
+	 * @param parent parent of the child, or {@code null} for the root
+	 * @param b byte which the child is reached using
+	 * @param child node to replace the child with
+	 */
+	private void replace(Node parent, byte b, Node child) {
+		if (parent == null) {
+			root = child;
+		} else {
+			parent.replace(b, child);
+		}
+	}
+
+	/**
+	 * Returns the bytes encoding the specified key followed by the specified
+	 * sentinel.
+	 *
+	 * @param key key to encode
+	 * @param sentinel sentinel to encode
+	 * @return the bytes of the key and sentinel
+	 */
+	static byte[] encode(String key, char sentinel) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+
+		if (key.isEmpty()) {
+			throw new IllegalArgumentException("Empty keys are not allowed.");
+		}
+
+		if (Character.isLetterOrDigit(sentinel) || sentinel == '_') {
+			throw new IllegalArgumentException("Marker cannot be a letter, digit or underscore.");
+		}
+
+		int size = sizeOf(sentinel);
+		for (int i = 0; i < key.length(); i++) {
+			size += sizeOf(key.charAt(i));
+		}
+
+		byte[] bytes = new byte[size];
+		int length = 0;
+		for (int i = 0; i < key.length(); i++) {
+			length = encode(key.charAt(i), bytes, length);
+		}
+
+		encode(sentinel, bytes, length);
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of bytes which encode the specified character.
+	 *
+	 * @param c character to encode
+	 * @return the number of bytes which encode the character
+	 */
+	private static int sizeOf(char c) {
+		return c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+	}
+
+	/**
+	 * Stores the bytes encoding the specified character.
+	 *
+	 * @param c character to encode
+	 * @param bytes bytes to store the encoding within
+	 * @param length index to store the encoding at
+	 * @return the index following the encoding
+	 */
+	private static int encode(char c, byte[] bytes, int length) {
+		if (c < 0x80) {
+			bytes[length++] = (byte)c;
+		} else if (c < 0x800) {
+			bytes[length++] = (byte)(0xC0 | (c >>> 6));
+			bytes[length++] = (byte)(0x80 | (c & 0x3F));
+		} else {
+			bytes[length++] = (byte)(0xE0 | (c >>> 12));
+			bytes[length++] = (byte)(0x80 | ((c >>> 6) & 0x3F));
+			bytes[length++] = (byte)(0x80 | (c & 0x3F));
+		}
+
+		return length;
+	}
+
+	/**
+	 * Returns the characters encoded by the specified bytes.
+	 *
+	 * @param bytes bytes to decode
+	 * @param length number of bytes to decode
+	 * @return the characters decoded
+	 *
+	 * @see #encode(java.lang.String, char)
+	 */
+	static String decode(byte[] bytes, int length) {
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; ) {
+			int b = bytes[i++] & 0xFF;
+			if (b < 0x80) {
+				sb.append((char)b);
+			} else if (b < 0xE0) {
+				sb.append((char)(((b & 0x1F) << 6) | (bytes[i++] & 0x3F)));
+			} else {
+				int c = ((b & 0x0F) << 12) | ((bytes[i++] & 0x3F) << 6);
+				sb.append((char)(c | (bytes[i++] & 0x3F)));
+			}
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * This class represents a node of an {@link AdaptiveRadixMultiTrie}. Leaves
+	 * have no children, and other nodes differ in how they store their
+	 * children.
+	 */
+	private static abstract class Node {
+		/**
+		 * Bytes leading to this node after the byte which its parent reaches
+		 * it using.
+		 */
+		byte[] prefix;
+
+		/**
+		 * Symbol ID of the key which ends at this node, or
+		 * {@link AdaptiveRadixMultiTrie#NONE}.
+		 */
+		int id;
+
+		/**
+		 * Constructs a Node.
+		 *
+		 * @param prefix bytes leading to the node
+		 * @param id symbol ID of the key which ends at the node
+		 */
+		Node(byte[] prefix, int id) {
+			this.prefix = prefix;
+			this.id = id;
+		}
+
+		/**
+		 * Returns the child of this node reached using the specified byte.
+		 *
+		 * @param b byte to transition with
+		 * @return the child, or {@code null} if there is none
+		 */
+		abstract Node find(byte b);
+
+		/**
+		 * Returns the first byte, in unsigned order, which reaches a child of
+		 * this node and is not less than the specified byte.
+		 *
+		 * @param from unsigned byte to start from
+		 * @return the unsigned byte of the child, or {@code 256} if there is
+		 *	none
+		 */
+		abstract int nextByte(int from);
+
+		/**
+		 * Returns whether or not this node cannot store another child.
+		 *
+		 * @return {@code true} if it is full, otherwise {@code false}
+		 */
+		abstract boolean isFull();
+
+		/**
+		 * Adds a child reached using a byte which no other child is reached
+		 * using. This node must not be full.
+		 *
+		 * @param b byte to transition with
+		 * @param child child to add
+		 */
+		abstract void add(byte b, Node child);
+
+		/**
+		 * Replaces the child reached using the specified byte.
+		 *
+		 * @param b byte which the child is reached using
+		 * @param child node to replace the child with
+		 */
+		abstract void replace(byte b, Node child);
+
+		/**
+		 * Returns a node of the next larger type containing the same bytes,
+		 * symbol ID and children as this node.
+		 *
+		 * @return the node created
+		 */
+		abstract Node grow();
+	}
+
+	/**
+	 * This class represents a node without children.
+	 */
+	private static final class Leaf extends Node {
+		/**
+		 * Constructs a Leaf.
+		 *
+		 * @param prefix bytes leading to the leaf
+		 * @param id symbol ID of the key which ends at the leaf
+		 */
+		Leaf(byte[] prefix, int id) {
+			super(prefix, id);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node find(byte b) {
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		int nextByte(int from) {
+			return 256;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean isFull() {
+			return true;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(byte b, Node child) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void replace(byte b, Node child) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node grow() {
+			return new Node4(prefix, id);
+		}
+	}
+
+	/**
+	 * This class represents a node with up to 4 children, whose bytes are
+	 * stored in sorted order.
+	 */
+	private static final class Node4 extends Node {
+		/**
+		 * Byte of each child, in unsigned order.
+		 */
+		final byte[] KEYS = new byte[4];
+
+		/**
+		 * Each child.
+		 */
+		final Node[] CHILDREN = new Node[4];
+
+		/**
+		 * Number of children.
+		 */
+		int size;
+
+		/**
+		 * Constructs an empty Node4.
+		 *
+		 * @param prefix bytes leading to the node
+		 * @param id symbol ID of the key which ends at the node
+		 */
+		Node4(byte[] prefix, int id) {
+			super(prefix, id);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node find(byte b) {
+			for (int i = 0; i < size; i++) {
+				if (KEYS[i] == b) {
+					return CHILDREN[i];
+				}
+			}
+
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		int nextByte(int from) {
+			for (int i = 0; i < size; i++) {
+				if (from <= (KEYS[i] & 0xFF)) {
+					return KEYS[i] & 0xFF;
+				}
+			}
+
+			return 256;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean isFull() {
+			return size == KEYS.length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(byte b, Node child) {
+			size = insertSorted(KEYS, CHILDREN, size, b, child);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void replace(byte b, Node child) {
+			for (int i = 0; i < size; i++) {
+				if (KEYS[i] == b) {
+					CHILDREN[i] = child;
+				}
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node grow() {
+			Node16 node = new Node16(prefix, id);
+			System.arraycopy(KEYS, 0, node.KEYS, 0, size);
+			System.arraycopy(CHILDREN, 0, node.CHILDREN, 0, size);
+			node.size = size;
+			return node;
+		}
+	}
+
+	/**
+	 * This class represents a node with up to 16 children, whose bytes are
+	 * stored in sorted order and searched using a binary search.
+	 */
+	private static final class Node16 extends Node {
+		/**
+		 * Byte of each child, in unsigned order.
+		 */
+		final byte[] KEYS = new byte[16];
+
+		/**
+		 * Each child.
+		 */
+		final Node[] CHILDREN = new Node[16];
+
+		/**
+		 * Number of children.
+		 */
+		int size;
+
+		/**
+		 * Constructs an empty Node16.
+		 *
+		 * @param prefix bytes leading to the node
+		 * @param id symbol ID of the key which ends at the node
+		 */
+		Node16(byte[] prefix, int id) {
+			super(prefix, id);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node find(byte b) {
+			int i = indexOf(b);
+			return i < 0 ? null : CHILDREN[i];
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		int nextByte(int from) {
+			for (int i = 0; i < size; i++) {
+				if (from <= (KEYS[i] & 0xFF)) {
+					return KEYS[i] & 0xFF;
+				}
+			}
+
+			return 256;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean isFull() {
+			return size == KEYS.length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(byte b, Node child) {
+			size = insertSorted(KEYS, CHILDREN, size, b, child);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void replace(byte b, Node child) {
+			CHILDREN[indexOf(b)] = child;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node grow() {
+			Node48 node = new Node48(prefix, id);
+			for (int i = 0; i < size; i++) {
+				node.add(KEYS[i], CHILDREN[i]);
+			}
+
+			return node;
+		}
+
+		/**
+		 * Returns the index of the child reached using the specified byte.
+		 *
+		 * @param b byte to search for
+		 * @return the index of the child, or {@code -1} if there is none
+		 */
+		private int indexOf(byte b) {
+			int key = b & 0xFF;
+			int low = 0;
+			int high = size-1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int midKey = KEYS[mid] & 0xFF;
+				if (midKey < key) {
+					low = mid+1;
+				} else if (key < midKey) {
+					high = mid-1;
+				} else {
+					return mid;
+				}
+			}
+
+			return -1;
+		}
+	}
+
+	/**
+	 * This class represents a node with up to 48 children, stored in the
+	 * order they were added along with an index from each byte to its child.
+	 */
+	private static final class Node48 extends Node {
+		/**
+		 * One more than the index within {@link #CHILDREN} of the child of
+		 * each byte, or {@code 0} if there is none.
+		 */
+		final byte[] INDEX = new byte[256];
+
+		/**
+		 * Each child.
+		 */
+		final Node[] CHILDREN = new Node[48];
+
+		/**
+		 * Number of children.
+		 */
+		int size;
+
+		/**
+		 * Constructs an empty Node48.
+		 *
+		 * @param prefix bytes leading to the node
+		 * @param id symbol ID of the key which ends at the node
+		 */
+		Node48(byte[] prefix, int id) {
+			super(prefix, id);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node find(byte b) {
+			int i = INDEX[b & 0xFF];
+			return i == 0 ? null : CHILDREN[i-1];
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		int nextByte(int from) {
+			while (from < INDEX.length && INDEX[from] == 0) {
+				from++;
+			}
+
+			return from;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean isFull() {
+			return size == CHILDREN.length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(byte b, Node child) {
+			CHILDREN[size++] = child;
+			INDEX[b & 0xFF] = (byte)size;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void replace(byte b, Node child) {
+			CHILDREN[INDEX[b & 0xFF]-1] = child;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node grow() {
+			Node256 node = new Node256(prefix, id);
+			for (int b = 0; b < INDEX.length; b++) {
+				if (INDEX[b] != 0) {
+					node.add((byte)b, CHILDREN[INDEX[b]-1]);
+				}
+			}
+
+			return node;
+		}
+	}
+
+	/**
+	 * This class represents a node with a child for every byte.
+	 */
+	private static final class Node256 extends Node {
+		/**
+		 * Child of each byte, or {@code null}.
+		 */
+		final Node[] CHILDREN = new Node[256];
+
+		/**
+		 * Constructs an empty Node256.
+		 *
+		 * @param prefix bytes leading to the node
+		 * @param id symbol ID of the key which ends at the node
+		 */
+		Node256(byte[] prefix, int id) {
+			super(prefix, id);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node find(byte b) {
+			return CHILDREN[b & 0xFF];
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		int nextByte(int from) {
+			while (from < CHILDREN.length && CHILDREN[from] == null) {
+				from++;
+			}
+
+			return from;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean isFull() {
+			return false;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(byte b, Node child) {
+			CHILDREN[b & 0xFF] = child;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void replace(byte b, Node child) {
+			CHILDREN[b & 0xFF] = child;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Node grow() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * This class represents a {@link PrefixCursor} over the keys of an
+	 * {@link AdaptiveRadixMultiTrie}, which follows the children of each node
+	 * along the path being searched, and decodes the bytes of each key found.
+	 */
+	private static final class Cursor extends AbstractPrefixCursor {
+		/**
+		 * Number of characters within the prefix.
+		 */
+		private final int START;
+
+		/**
+		 * Number of bytes encoding the prefix.
+		 */
+		private final int START_BYTES;
+
+		/**
+		 * Bytes of the path being searched.
+		 */
+		private byte[] path;
+
+		/**
+		 * Node at each depth of the path.
+		 */
+		private Node[] nodes;
+
+		/**
+		 * Number of bytes leading to the end of the compressed path of the
+		 * node at each depth of the path.
+		 */
+		private int[] lengths;
+
+		/**
+		 * Next unsigned byte to search from the node at each depth of the
+		 * path, or {@code -1} if the node has not been checked for a key.
+		 */
+		private int[] next;
+
+		/**
+		 * Depth of the top of {@link #nodes}, or {@code -1} if it is empty.
+		 */
+		private int depth;
+
+		/**
+		 * Constructs a Cursor.
+		 *
+		 * @param prefix characters which each key begins with
+		 * @param sentinel sentinel representing the Trie which keys belong to
+		 * @param limit maximum number of keys to return
+		 * @param bytes bytes encoding the prefix
+		 * @param length number of bytes leading to the node
+		 * @param node node whose path the prefix ends along, or {@code null}
+		 *	if there is none
+		 */
+		Cursor(String prefix, char sentinel, int limit, byte[] bytes, int length, Node node) {
+			super(prefix, sentinel, limit);
+			this.START = prefix.length();
+			this.START_BYTES = bytes.length;
+			this.path = Arrays.copyOf(bytes, Math.max(16, bytes.length << 1));
+			this.nodes = new Node[16];
+			this.lengths = new int[16];
+			this.next = new int[16];
+			this.depth = node == null ? -1 : 0;
+			if (node != null) {
+				push(node, length);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean advance() {
+			while (0 <= depth) {
+				Node node = nodes[depth];
+				int b = next[depth];
+				if (b < 0) {
+					next[depth] = 0;
+					if (node.id != NONE && decode(lengths[depth], node.id)) {
+						return true;
+					}
+
+					continue;
+				}
+
+				b = node.nextByte(b);
+				if (b == 256) {
+					nodes[depth--] = null;
+					continue;
+				}
+
+				next[depth] = b+1;
+				int length = lengths[depth];
+				path[length] = (byte)b;
+				if (++depth == nodes.length) {
+					nodes = Arrays.copyOf(nodes, depth << 1);
+					lengths = Arrays.copyOf(lengths, depth << 1);
+					next = Arrays.copyOf(next, depth << 1);
+				}
+
+				push(find(node, (byte)b), length+1);
+			}
+
+			return false;
+		}
+
+		/**
+		 * Stores the specified node at the top of the stack, and appends its
+		 * compressed path to the path being searched.
+		 *
+		 * @param node node to search
+		 * @param length number of bytes leading to the node
+		 */
+		private void push(Node node, int length) {
+			byte[] prefix = node.prefix;
+			if (path.length <= length + prefix.length) {
+				path = Arrays.copyOf(path, Math.max(path.length << 1, length + prefix.length + 1));
+			}
+
+			System.arraycopy(prefix, 0, path, length, prefix.length);
+			nodes[depth] = node;
+			lengths[depth] = length + prefix.length;
+			next[depth] = -1;
+		}
+
+		/**
+		 * Decodes the characters of the path being searched which follow the
+		 * prefix, and records them as the next key if the last one is the
+		 * sentinel.
+		 *
+		 * @param length number of bytes of the path which end a key
+		 * @param id symbol ID of the key
+		 * @return {@code true} if the key belongs to the sentinel, otherwise
+		 *	{@code false}
+		 */
+		private boolean decode(int length, int id) {
+			int count = START;
+			char c = 0;
+			for (int i = START_BYTES; i < length; ) {
+				int b = path[i++] & 0xFF;
+				if (b < 0x80) {
+					c = (char)b;
+				} else if (b < 0xE0) {
+					c = (char)(((b & 0x1F) << 6) | (path[i++] & 0x3F));
+				} else {
+					c = (char)(((b & 0x0F) << 12) | ((path[i++] & 0x3F) << 6));
+					c |= path[i++] & 0x3F;
+				}
+
+				put(count++, c);
+			}
+
+			if (START < count && c == SENTINEL) {
+				found(count-1, id);
+				return true;
+			}
+
+			return false;
+		}
+	}
+
+	/**
+	 * Inserts a child into the specified sorted arrays of bytes and children.
+	 *
+	 * @param keys byte of each child, in unsigned order
+	 * @param children each child
+	 * @param size number of children
+	 * @param b byte to transition with
+	 * @param child child to add
+	 * @return the number of children after inserting
+	 */
+	private static int insertSorted(byte[] keys, Node[] children, int size, byte b, Node child) {
+		int i = size;
+		while (0 < i && (b & 0xFF) < (keys[i-1] & 0xFF)) {
+			keys[i] = keys[i-1];
+			children[i] = children[i-1];
+			i--;
+		}
+
+		keys[i] = b;
+		children[i] = child;
+		return size+1;
+	}
+}
@@ -50,6 +50,15 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 	 */
 	private int[] next;
 
+	/**
+	 * Stores the symbol ID of each key at the index of its sentinel within
+	 * {@link #data}, or {@link #DEFAULT_INT} at the index of every other
+	 * character.
+	 *
+	 * @see #insertOrGet(java.lang.String, char)
+	 */
+	private int[] ids;
+
 	/**
 	 * Index of the first empty position within {@link #data}.
 	 */
@@ -60,6 +69,12 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 	 */
 	private int numKeys;
 
+	/**
+	 * Listener told how many {@link #next} links each operation follows, or
+	 * {@code null} if there is none.
+	 */
+	private ProbeListener probeListener;
+
 	/**
 	 * Default constructor which initializes an empty {@link ArrayMultiTrie}.
 	 */
@@ -70,6 +85,8 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 		data = new char[DEFAULT_DATA_SIZE];
 		next = new int[data.length];
 		Arrays.fill(next, DEFAULT_INT);
+		ids = new int[data.length];
+		Arrays.fill(ids, DEFAULT_INT);
 
 		tail = 0;
 		numKeys = 0;
@@ -88,6 +105,27 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 	 */
 	@Override
 	public void insert(String key, char sentinel) {
+		insertOrGet(key, sentinel);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Keys which do not begin with a letter cannot be stored.
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel) {
+		return insertOrGet(key, sentinel, new boolean[1]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Keys which do not begin with a letter cannot be stored.
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel, boolean[] inserted) {
+		inserted[0] = false;
 		if (key == null) {
 			throw new NullPointerException();
 		}
@@ -104,16 +142,17 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 
 		int baseId = getBaseIndexForChar(chars[0]);
 		if (baseId < 0 || base.length <= baseId) {
-			return;
+			return DEFAULT_INT;
 		}
 
 		int dataId = base[baseId];
 		if (dataId == DEFAULT_INT) {
 			base[baseId] = tail;
-			create(chars, 1, sentinel);
-			return;
+			inserted[0] = true;
+			return probed(0, create(chars, 1, sentinel));
 		}
 
+		int probes = 0;
 		int i;
 		keyComparator: for (i = 1; i < chars.length; i++) {
 			nextComparator: while (true) {
@@ -122,30 +161,34 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 					break nextComparator;
 				} else if (0 <= next[dataId]) {
 					dataId = next[dataId];
+					probes++;
 					continue nextComparator;
 				} else {
 					next[dataId] = tail;
-					create(chars, i, sentinel);
-					return;
+					inserted[0] = true;
+					return probed(probes, create(chars, i, sentinel));
 				}
 			}
 		}
 
 		if (data[dataId] == sentinel) {
-			return;
+			return probed(probes, ids[dataId]);
 		} else {
 			while (0 <= next[dataId]) {
 				dataId = next[dataId];
+				probes++;
 				if (data[dataId] == sentinel) {
-					return;
+					return probed(probes, ids[dataId]);
 				}
 			}
 		}
 
 		checkAndGrow(1);
 		next[dataId] = tail;
+		ids[tail] = numKeys;
 		data[tail++] = sentinel;
-		numKeys++;
+		inserted[0] = true;
+		return probed(probes, numKeys++);
 	}
 
 	private void checkAndGrow(int size) {
@@ -162,6 +205,9 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 		System.arraycopy(next, 0, newNext, 0, tail);
 		next = newNext;
 
+		ids = Arrays.copyOf(ids, data.length);
+		Arrays.fill(ids, tail, ids.length, DEFAULT_INT);
+
 		checkAndGrow(size);
 	}
 
@@ -173,8 +219,9 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 	 * @param chars string to insert
 	 * @param start index of string to start inserting at
 	 * @param sentinel symbol used to mark end of string
+	 * @return the symbol ID of the string
 	 */
-	private void create(char[] chars, int start, char sentinel) {
+	private int create(char[] chars, int start, char sentinel) {
 		assert chars != null;
 		assert 0 <= start;
 		checkAndGrow(chars.length-start+1);
@@ -182,8 +229,9 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 			data[tail++] = chars[i];
 		}
 
+		ids[tail] = numKeys;
 		data[tail++] = sentinel;
-		numKeys++;
+		return numKeys++;
 	}
 
 	/**
@@ -220,9 +268,10 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 
 		int dataId = base[baseId];
 		if (dataId == DEFAULT_INT) {
-			return false;
+			return probed(0, false);
 		}
 
+		int probes = 0;
 		int i;
 		keyComparator: for (i = 1; i < chars.length; i++) {
 			nextComparator: while (true) {
@@ -231,25 +280,27 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 					break nextComparator;
 				} else if (0 <= next[dataId]) {
 					dataId = next[dataId];
+					probes++;
 					continue nextComparator;
 				} else {
-					return false;
+					return probed(probes, false);
 				}
 			}
 		}
 
 		if (data[dataId] == sentinel) {
-			return true;
+			return probed(probes, true);
 		} else {
 			while (0 <= next[dataId]) {
 				dataId = next[dataId];
+				probes++;
 				if (data[dataId] == sentinel) {
-					return true;
+					return probed(probes, true);
 				}
 			}
 		}
 
-		return false;
+		return probed(probes, false);
 	}
 
 	/**
@@ -260,6 +311,121 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 		return numKeys;
 	}
 
+	/**
+	 * Sets the listener told how many {@link #next} links each insertion and
+	 * lookup follows. Long chains of links are followed when many keys share
+	 * a prefix but differ in the character which follows it, which is the
+	 * input this representation handles worst.
+	 *
+	 * @param listener listener to tell, or {@code null} to stop telling one
+	 */
+	public void setProbeListener(ProbeListener listener) {
+		this.probeListener = listener;
+	}
+
+	/**
+	 * Tells {@link #probeListener} the number of links an operation followed,
+	 * if there is one, and returns the result of the operation.
+	 *
+	 * @param probes number of links followed
+	 * @param result result of the operation
+	 * @return the result
+	 */
+	private int probed(int probes, int result) {
+		if (probeListener != null) {
+			probeListener.probed(probes);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Tells {@link #probeListener} the number of links an operation followed,
+	 * if there is one, and returns the result of the operation.
+	 *
+	 * @param probes number of links followed
+	 * @param result result of the operation
+	 * @return the result
+	 */
+	private boolean probed(int probes, boolean result) {
+		if (probeListener != null) {
+			probeListener.probed(probes);
+		}
+
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LoudsMultiTrie freeze() {
+		LoudsMultiTrie.Builder builder = new LoudsMultiTrie.Builder();
+		StringBuilder path = new StringBuilder();
+		for (char c = 'A'; c <= 'z'; c++) {
+			if (Character.isLetter(c) && base[getBaseIndexForChar(c)] != DEFAULT_INT) {
+				path.append(c);
+				freeze(builder, path, base[getBaseIndexForChar(c)]);
+				path.setLength(0);
+			}
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Adds every key which continues from the specified prefix to the
+	 * specified builder.
+	 *
+	 * @param builder builder to add keys to
+	 * @param path characters of the prefix
+	 * @param dataId index within {@link #data} of the first variation of the
+	 *	character following the prefix
+	 */
+	private void freeze(LoudsMultiTrie.Builder builder, StringBuilder path, int dataId) {
+		for (int i = dataId; i != DEFAULT_INT; i = next[i]) {
+			path.append(data[i]);
+			if (ids[i] != DEFAULT_INT) {
+				builder.add(path, ids[i]);
+			} else {
+				freeze(builder, path, i+1);
+			}
+
+			path.setLength(path.length()-1);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Keys are returned in the order their characters were inserted.
+	 */
+	@Override
+	public PrefixCursor prefixCursor(String prefix, char sentinel, int limit) {
+		AbstractPrefixCursor.checkArguments(prefix, sentinel, limit);
+		if (prefix.isEmpty()) {
+			return new Cursor(prefix, sentinel, limit, DEFAULT_INT);
+		}
+
+		char c = prefix.charAt(0);
+		if (!('A' <= c && c <= 'Z') && !('a' <= c && c <= 'z')) {
+			return new Cursor(prefix, sentinel, limit, DEFAULT_INT);
+		}
+
+		int dataId = base[getBaseIndexForChar(c)];
+		for (int i = 1; i < prefix.length() && dataId != DEFAULT_INT; i++) {
+			while (dataId != DEFAULT_INT && (ids[dataId] != DEFAULT_INT || data[dataId] != prefix.charAt(i))) {
+				dataId = next[dataId];
+			}
+
+			if (dataId != DEFAULT_INT) {
+				dataId++;
+			}
+		}
+
+		return new Cursor(prefix, sentinel, limit, dataId);
+	}
+
 	/**
 	 * Returns the index associated with a specified character. This index
 	 * is determined using the characters ASCII value with A-Z represented
@@ -273,4 +439,95 @@ public class ArrayMultiTrie implements MultiTrie<String> {
 		assert ('A' <= c && c <= 'Z') || ('a' <= c && c <= 'z');
 		return (c < 'a') ? (c-'A') : 26 + (c-'a');
 	}
+
+	/**
+	 * This class represents a {@link PrefixCursor} over the keys of an
+	 * {@link ArrayMultiTrie}, which follows the variations of each character
+	 * of the path being searched.
+	 */
+	private final class Cursor extends AbstractPrefixCursor {
+		/**
+		 * Index within the key of the characters at the bottom of
+		 * {@link #cells}.
+		 */
+		private final int START;
+
+		/**
+		 * Index within {@link ArrayMultiTrie#base} of the next letter to
+		 * search once {@link #cells} is empty, which is only used when the
+		 * prefix is empty.
+		 */
+		private int letter;
+
+		/**
+		 * Index within {@link ArrayMultiTrie#data} of the next variation to
+		 * search at each depth of the path.
+		 */
+		private int[] cells;
+
+		/**
+		 * Depth of the top of {@link #cells}, or {@code -1} if it is empty.
+		 */
+		private int depth;
+
+		/**
+		 * Constructs a Cursor.
+		 *
+		 * @param prefix characters which each key begins with
+		 * @param sentinel sentinel representing the Trie which keys belong to
+		 * @param limit maximum number of keys to return
+		 * @param dataId index within {@link ArrayMultiTrie#data} of the first
+		 *	variation of the character following a non-empty prefix, or
+		 *	{@link ArrayMultiTrie#DEFAULT_INT} if there is none
+		 */
+		Cursor(String prefix, char sentinel, int limit, int dataId) {
+			super(prefix, sentinel, limit);
+			this.START = prefix.isEmpty() ? 1 : prefix.length();
+			this.letter = prefix.isEmpty() ? 0 : ALPHABET_SIZE;
+			this.cells = new int[16];
+			this.cells[0] = dataId;
+			this.depth = dataId == DEFAULT_INT ? -1 : 0;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean advance() {
+			while (true) {
+				if (depth < 0) {
+					while (letter < ALPHABET_SIZE && base[letter] == DEFAULT_INT) {
+						letter++;
+					}
+
+					if (letter == ALPHABET_SIZE) {
+						return false;
+					}
+
+					put(0, letter < 26 ? (char)('A' + letter) : (char)('a' + letter - 26));
+					cells[0] = base[letter++];
+					depth = 0;
+				}
+
+				int i = cells[depth];
+				if (i == DEFAULT_INT) {
+					depth--;
+					continue;
+				}
+
+				cells[depth] = next[i];
+				if (ids[i] == DEFAULT_INT) {
+					put(START + depth, data[i]);
+					if (++depth == cells.length) {
+						cells = Arrays.copyOf(cells, depth << 1);
+					}
+
+					cells[depth] = i+1;
+				} else if (data[i] == SENTINEL) {
+					found(START + depth, ids[i]);
+					return true;
+				}
+			}
+		}
+	}
 }
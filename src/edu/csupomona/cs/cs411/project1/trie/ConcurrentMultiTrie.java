@@ -0,0 +1,456 @@
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * This class represents a {@link MultiTrie} of Strings which may be shared by
+ * several threads. Lookups never block or lock, and insertions never lock,
+ * but an insertion may wait for another thread to finish inserting the same
+ * key.
+ *
+ * Each node stores its children as a linked list of siblings, similar to the
+ * next links of {@link ArrayMultiTrie}. New children are prepended to the list
+ * by compare-and-setting the first child of their parent, and links between
+ * siblings never change once published, so a reader always sees a consistent
+ * list. A key is marked by the child of its last character using its sentinel,
+ * which stores the symbol ID of the key. An insertion claims a key by
+ * compare-and-setting that ID from absent to pending, and only then takes the
+ * next ID from the key count, so IDs remain dense even when several threads
+ * race to insert the same key. Threads which lose that race spin, yielding,
+ * until the winner publishes the ID, so they stall for as long as the winner
+ * is descheduled in between. Lookups treat a pending key as contained.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ConcurrentMultiTrie implements MultiTrie<String> {
+	/**
+	 * Default sentinel character to use for {@link #insert(java.lang.String)}.
+	 */
+	private static final char DEFAULT_SENTINEL = '*';
+
+	/**
+	 * Symbol ID of a node which does not mark a key.
+	 */
+	private static final int ABSENT = -1;
+
+	/**
+	 * Symbol ID of a node which has been claimed by an insertion, but not yet
+	 * given its symbol ID.
+	 */
+	private static final int PENDING = -2;
+
+	/**
+	 * Root node, which has no character of its own.
+	 */
+	private final Node ROOT;
+
+	/**
+	 * Total number of keys within this {@link ConcurrentMultiTrie}.
+	 */
+	private final AtomicInteger NUM_KEYS;
+
+	/**
+	 * Listener told how many sibling links each operation follows, or
+	 * {@code null} if there is none.
+	 */
+	private volatile ProbeListener probeListener;
+
+	/**
+	 * Default constructor which initializes an empty
+	 * {@link ConcurrentMultiTrie}.
+	 */
+	public ConcurrentMultiTrie() {
+		this.ROOT = new Node('\0', null);
+		this.NUM_KEYS = new AtomicInteger();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void insert(String key) {
+		insert(key, DEFAULT_SENTINEL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void insert(String key, char sentinel) {
+		insertOrGet(key, sentinel);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * If another thread is inserting the same key, this method waits until
+	 * that thread has given it a symbol ID.
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel) {
+		return insertOrGet(key, sentinel, new boolean[1]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Only the thread which gives the key its symbol ID is told that it
+	 * inserted it, however many threads were inserting the key at once.
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel, boolean[] inserted) {
+		checkArguments(key, sentinel);
+		inserted[0] = false;
+
+		ProbeListener listener = probeListener;
+		Probes probes = listener == null ? null : new Probes();
+		Node node = ROOT;
+		for (int i = 0; i < key.length(); i++) {
+			node = node.childOrCreate(key.charAt(i), probes);
+		}
+
+		node = node.childOrCreate(sentinel, probes);
+		if (listener != null) {
+			listener.probed(probes.count);
+		}
+
+		while (true) {
+			int id = node.id;
+			if (0 <= id) {
+				return id;
+			}
+
+			if (id == ABSENT && Node.ID.compareAndSet(node, ABSENT, PENDING)) {
+				id = NUM_KEYS.getAndIncrement();
+				node.id = id;
+				inserted[0] = true;
+				return id;
+			}
+
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(String key) {
+		return contains(key, DEFAULT_SENTINEL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(String key, char sentinel) {
+		checkArguments(key, sentinel);
+
+		ProbeListener listener = probeListener;
+		Probes probes = listener == null ? null : new Probes();
+		Node node = ROOT;
+		for (int i = 0; i < key.length() && node != null; i++) {
+			node = node.child(key.charAt(i), probes);
+		}
+
+		if (node != null) {
+			node = node.child(sentinel, probes);
+		}
+
+		if (listener != null) {
+			listener.probed(probes.count);
+		}
+
+		return node != null && node.id != ABSENT;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int numKeys() {
+		return NUM_KEYS.get();
+	}
+
+	/**
+	 * Sets the listener told how many sibling links each insertion and lookup
+	 * follows. Long lists of siblings are searched when many keys share a
+	 * prefix but differ in the character which follows it, since each node
+	 * stores its children as a list rather than a table.
+	 *
+	 * Operations which have already started when the listener is changed may
+	 * still tell the previous one.
+	 *
+	 * @param listener listener to tell, or {@code null} to stop telling one
+	 */
+	public void setProbeListener(ProbeListener listener) {
+		this.probeListener = listener;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Keys inserted by other threads while this method runs may or may not
+	 * be contained within the copy.
+	 */
+	@Override
+	public LoudsMultiTrie freeze() {
+		LoudsMultiTrie.Builder builder = new LoudsMultiTrie.Builder();
+		freeze(builder, new StringBuilder(), ROOT);
+		return builder.build();
+	}
+
+	/**
+	 * Adds every key which continues from the specified node to the
+	 * specified builder.
+	 *
+	 * @param builder builder to add keys to
+	 * @param path characters transitioned with to reach the node
+	 * @param node node to continue from
+	 */
+	private static void freeze(LoudsMultiTrie.Builder builder, StringBuilder path, Node node) {
+		int id = node.id;
+		if (0 <= id) {
+			builder.add(path, id);
+		}
+
+		for (Node n = node.child; n != null; n = n.SIBLING) {
+			path.append(n.C);
+			freeze(builder, path, n);
+			path.setLength(path.length()-1);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Unlike the other implementations, a cursor may be used while other
+	 * threads insert keys, although keys inserted after the cursor was
+	 * created may or may not be returned.
+	 */
+	@Override
+	public PrefixCursor prefixCursor(String prefix, char sentinel, int limit) {
+		AbstractPrefixCursor.checkArguments(prefix, sentinel, limit);
+
+		Node node = ROOT;
+		for (int i = 0; i < prefix.length() && node != null; i++) {
+			node = node.child(prefix.charAt(i), null);
+		}
+
+		return new Cursor(prefix, sentinel, limit, node);
+	}
+
+	/**
+	 * Throws an exception if the specified key or sentinel cannot be used.
+	 *
+	 * @param key key to check
+	 * @param sentinel sentinel to check
+	 */
+	private static void checkArguments(String key, char sentinel) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+
+		if (key.isEmpty()) {
+			throw new IllegalArgumentException("Empty keys are not allowed.");
+		}
+
+		if (Character.isLetterOrDigit(sentinel) || sentinel == '_') {
+			throw new IllegalArgumentException("Marker cannot be a letter, digit or underscore.");
+		}
+	}
+
+	/**
+	 * This class represents a {@link PrefixCursor} over the keys of a
+	 * {@link ConcurrentMultiTrie}, which follows the list of children of each
+	 * node along the path being searched.
+	 */
+	private static final class Cursor extends AbstractPrefixCursor {
+		/**
+		 * Index within the key of the characters at the bottom of
+		 * {@link #nodes}.
+		 */
+		private final int START;
+
+		/**
+		 * Next child to search at each depth of the path, or {@code null} if
+		 * there are none left.
+		 */
+		private Node[] nodes;
+
+		/**
+		 * Depth of the top of {@link #nodes}, or {@code -1} if it is empty.
+		 */
+		private int depth;
+
+		/**
+		 * Constructs a Cursor.
+		 *
+		 * @param prefix characters which each key begins with
+		 * @param sentinel sentinel representing the Trie which keys belong to
+		 * @param limit maximum number of keys to return
+		 * @param node node reached using the prefix, or {@code null} if there
+		 *	is none
+		 */
+		Cursor(String prefix, char sentinel, int limit, Node node) {
+			super(prefix, sentinel, limit);
+			this.START = prefix.length();
+			this.nodes = new Node[16];
+			this.depth = node == null ? -1 : 0;
+			if (node != null) {
+				nodes[0] = node.child;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean advance() {
+			while (0 <= depth) {
+				Node node = nodes[depth];
+				if (node == null) {
+					depth--;
+					continue;
+				}
+
+				nodes[depth] = node.SIBLING;
+				put(START + depth, node.C);
+				if (++depth == nodes.length) {
+					nodes = Arrays.copyOf(nodes, depth << 1);
+				}
+
+				nodes[depth] = node.child;
+				int id = node.id;
+				if (node.C == SENTINEL && 0 <= id) {
+					found(START + depth - 1, id);
+					return true;
+				}
+			}
+
+			return false;
+		}
+	}
+
+	/**
+	 * This class represents the number of sibling links followed by a single
+	 * operation of a {@link ConcurrentMultiTrie}, which is only counted while
+	 * a {@link ProbeListener} is set.
+	 */
+	private static final class Probes {
+		/**
+		 * Number of sibling links followed.
+		 */
+		int count;
+	}
+
+	/**
+	 * This class represents a single node of a {@link ConcurrentMultiTrie},
+	 * reached from its parent using its character.
+	 */
+	private static final class Node {
+		/**
+		 * Updates {@link #child} atomically.
+		 */
+		static final AtomicReferenceFieldUpdater<Node, Node> CHILD
+				= AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "child");
+
+		/**
+		 * Updates {@link #id} atomically.
+		 */
+		static final AtomicIntegerFieldUpdater<Node> ID
+				= AtomicIntegerFieldUpdater.newUpdater(Node.class, "id");
+
+		/**
+		 * Character which this node is reached from its parent using.
+		 */
+		final char C;
+
+		/**
+		 * Next child of the parent of this node, or {@code null}.
+		 */
+		final Node SIBLING;
+
+		/**
+		 * First child of this node, or {@code null} if it has none.
+		 */
+		volatile Node child;
+
+		/**
+		 * Symbol ID of the key which this node marks,
+		 * {@link ConcurrentMultiTrie#PENDING} or
+		 * {@link ConcurrentMultiTrie#ABSENT}.
+		 */
+		volatile int id;
+
+		/**
+		 * Constructs a Node.
+		 *
+		 * @param c character which the node is reached using
+		 * @param sibling next child of the parent of the node
+		 */
+		Node(char c, Node sibling) {
+			this.C = c;
+			this.SIBLING = sibling;
+			this.id = ABSENT;
+		}
+
+		/**
+		 * Returns the child of this node reached using the specified
+		 * character.
+		 *
+		 * @param c character to transition with
+		 * @param probes count of sibling links to add to, or {@code null}
+		 * @return the child, or {@code null} if there is none
+		 */
+		Node child(char c, Probes probes) {
+			for (Node n = child; n != null; n = n.SIBLING) {
+				if (n.C == c) {
+					return n;
+				}
+
+				if (probes != null) {
+					probes.count++;
+				}
+			}
+
+			return null;
+		}
+
+		/**
+		 * Returns the child of this node reached using the specified
+		 * character, creating it if there is none.
+		 *
+		 * @param c character to transition with
+		 * @param probes count of sibling links to add to, or {@code null}
+		 * @return the child
+		 */
+		Node childOrCreate(char c, Probes probes) {
+			Node head = child;
+			Node searched = null;
+			while (true) {
+				// Only children prepended since the last search need checking
+				for (Node n = head; n != searched; n = n.SIBLING) {
+					if (n.C == c) {
+						return n;
+					}
+
+					if (probes != null) {
+						probes.count++;
+					}
+				}
+
+				Node created = new Node(c, head);
+				if (CHILD.compareAndSet(this, head, created)) {
+					return created;
+				}
+
+				searched = head;
+				head = child;
+			}
+		}
+	}
+}
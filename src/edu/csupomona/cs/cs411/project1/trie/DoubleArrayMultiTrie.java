@@ -0,0 +1,643 @@
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a {@link MultiTrie} of Strings represented using a
+ * double-array. Each state {@code s} stores a {@link #base} offset, and the
+ * transition from {@code s} using a character with code {@code c} leads to
+ * state {@code t = base[s] + c} if and only if {@code check[t] == s}. Each
+ * transition therefore costs a constant number of array accesses, regardless
+ * of how many transitions leave a state.
+ *
+ * Characters are assigned codes in the order they are first inserted, and the
+ * sentinel of a key is stored as the transition following its last character.
+ * Unlike {@link ArrayMultiTrie}, keys may begin with any character.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class DoubleArrayMultiTrie implements MultiTrie<String> {
+	/**
+	 * Default number of states allocated to the {@link #base} and
+	 * {@link #check} arrays.
+	 */
+	private static final int DEFAULT_SIZE = 1<<10;
+
+	/**
+	 * Default sentinel character to use for {@link #insert(java.lang.String)}.
+	 */
+	private static final char DEFAULT_SENTINEL = '*';
+
+	/**
+	 * Index of the root state.
+	 */
+	private static final int ROOT = 0;
+
+	/**
+	 * Number of characters within each page of {@link #codes}.
+	 */
+	private static final int PAGE_SIZE = 1<<8;
+
+	/**
+	 * Stores the offset added to character codes to find the transitions of
+	 * each state, or {@code 0} if a state has no transitions. Cells which are
+	 * not used by any state store the negated index of the previous free cell.
+	 */
+	private int[] base;
+
+	/**
+	 * Stores the state which transitions to each state. Cells which are not
+	 * used by any state store the negated index of the next free cell, so the
+	 * free cells form a circular doubly-linked list.
+	 */
+	private int[] check;
+
+	/**
+	 * Stores the code of the first transition of each state, or {@code 0} if
+	 * a state has no transitions.
+	 *
+	 * @see #sibling
+	 */
+	private char[] child;
+
+	/**
+	 * Stores the code of the next transition leaving the same state as the
+	 * transition to each state, or {@code 0} if it is the last one. Along with
+	 * {@link #child}, this allows the transitions of a state to be listed
+	 * without trying every code.
+	 */
+	private char[] sibling;
+
+	/**
+	 * Stores the symbol ID of each key at the state transitioned to using its
+	 * sentinel, or {@code -1} for states which do not end a key.
+	 *
+	 * @see #insertOrGet(java.lang.String, char)
+	 */
+	private int[] ids;
+
+	/**
+	 * Pages of character codes, indexed by the high and then low byte of each
+	 * character. Pages are only allocated once one of their characters has
+	 * been inserted, and a code of {@code 0} means the character has not been
+	 * inserted.
+	 */
+	private final char[][] codes;
+
+	/**
+	 * Character of each assigned code, indexed by code.
+	 */
+	private char[] chars;
+
+	/**
+	 * Number of character codes which have been assigned.
+	 */
+	private int numCodes;
+
+	/**
+	 * Index of the first free cell, or {@link #ROOT} if there are none.
+	 */
+	private int firstFree;
+
+	/**
+	 * Number of free cells.
+	 */
+	private int numFree;
+
+	/**
+	 * Total number of states within this {@link DoubleArrayMultiTrie},
+	 * including the root.
+	 */
+	private int numStates;
+
+	/**
+	 * Total number of keys within this {@link DoubleArrayMultiTrie}.
+	 */
+	private int numKeys;
+
+	/**
+	 * Number of free cells tried by {@link #findBase(int[])} during the
+	 * current insertion.
+	 */
+	private int probes;
+
+	/**
+	 * Listener told how many free cells each operation tries, or {@code null}
+	 * if there is none.
+	 */
+	private ProbeListener probeListener;
+
+	/**
+	 * Default constructor which initializes an empty
+	 * {@link DoubleArrayMultiTrie}.
+	 */
+	public DoubleArrayMultiTrie() {
+		base = new int[DEFAULT_SIZE];
+		check = new int[DEFAULT_SIZE];
+		child = new char[DEFAULT_SIZE];
+		sibling = new char[DEFAULT_SIZE];
+		ids = new int[DEFAULT_SIZE];
+		Arrays.fill(ids, -1);
+		firstFree = ROOT;
+		numFree = 0;
+		for (int cell = ROOT+1; cell < DEFAULT_SIZE; cell++) {
+			release(cell);
+		}
+
+		codes = new char[(Character.MAX_VALUE+1)/PAGE_SIZE][];
+		chars = new char[PAGE_SIZE];
+		numCodes = 0;
+		numStates = 1;
+		numKeys = 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void insert(String key) {
+		insert(key, DEFAULT_SENTINEL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void insert(String key, char sentinel) {
+		insertOrGet(key, sentinel);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel) {
+		return insertOrGet(key, sentinel, new boolean[1]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel, boolean[] inserted) {
+		checkArguments(key, sentinel);
+
+		probes = 0;
+		int state = ROOT;
+		for (int i = 0; i < key.length(); i++) {
+			state = transitionOrCreate(state, key.charAt(i));
+		}
+
+		state = transitionOrCreate(state, sentinel);
+		inserted[0] = ids[state] < 0;
+		if (inserted[0]) {
+			ids[state] = numKeys++;
+		}
+
+		if (probeListener != null) {
+			probeListener.probed(probes);
+		}
+
+		return ids[state];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(String key) {
+		return contains(key, DEFAULT_SENTINEL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(String key, char sentinel) {
+		checkArguments(key, sentinel);
+
+		int state = ROOT;
+		for (int i = 0; i < key.length() && 0 <= state; i++) {
+			state = transition(state, key.charAt(i));
+		}
+
+		if (0 <= state) {
+			state = transition(state, sentinel);
+		}
+
+		// A key containing the sentinel passes through it without ending
+		return 0 <= state && 0 <= ids[state];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int numKeys() {
+		return numKeys;
+	}
+
+	/**
+	 * Sets the listener told how many free cells each insertion tries while
+	 * searching for a base which its transitions fit at. Lookups never search,
+	 * since each character is a single transition, and so are not reported.
+	 * Long searches happen once the free cells
+	 * near the front of the list are too fragmented to hold the transitions of
+	 * a state, which is the input this representation handles worst.
+	 *
+	 * @param listener listener to tell, or {@code null} to stop telling one
+	 */
+	public void setProbeListener(ProbeListener listener) {
+		this.probeListener = listener;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LoudsMultiTrie freeze() {
+		LoudsMultiTrie.Builder builder = new LoudsMultiTrie.Builder();
+		freeze(builder, new StringBuilder(), ROOT);
+		return builder.build();
+	}
+
+	/**
+	 * Adds every key which continues from the specified state to the
+	 * specified builder.
+	 *
+	 * @param builder builder to add keys to
+	 * @param path characters transitioned with to reach the state
+	 * @param state state to continue from
+	 */
+	private void freeze(LoudsMultiTrie.Builder builder, StringBuilder path, int state) {
+		if (0 <= ids[state]) {
+			builder.add(path, ids[state]);
+		}
+
+		for (int c = child[state]; c != 0; c = sibling[base[state]+c]) {
+			path.append(chars[c]);
+			freeze(builder, path, base[state]+c);
+			path.setLength(path.length()-1);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Transitions are listed most recently inserted first, so keys sharing a
+	 * prefix are returned in roughly the reverse order they were inserted.
+	 */
+	@Override
+	public PrefixCursor prefixCursor(String prefix, char sentinel, int limit) {
+		AbstractPrefixCursor.checkArguments(prefix, sentinel, limit);
+
+		int state = ROOT;
+		for (int i = 0; i < prefix.length() && 0 <= state; i++) {
+			state = transition(state, prefix.charAt(i));
+		}
+
+		return new Cursor(prefix, sentinel, limit, state);
+	}
+
+	/**
+	 * Throws an exception if the specified key or sentinel cannot be used.
+	 *
+	 * @param key key to check
+	 * @param sentinel sentinel to check
+	 */
+	private static void checkArguments(String key, char sentinel) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+
+		if (key.isEmpty()) {
+			throw new IllegalArgumentException("Empty keys are not allowed.");
+		}
+
+		if (Character.isLetterOrDigit(sentinel) || sentinel == '_') {
+			throw new IllegalArgumentException("Marker cannot be a letter, digit or underscore.");
+		}
+	}
+
+	/**
+	 * Returns the state transitioned to from the specified state using the
+	 * specified character.
+	 *
+	 * @param state state to transition from
+	 * @param c character to transition with
+	 * @return the state transitioned to, or {@code -1} if there is none
+	 */
+	private int transition(int state, char c) {
+		char[] page = codes[c/PAGE_SIZE];
+		if (page == null || page[c%PAGE_SIZE] == 0 || base[state] == 0) {
+			return -1;
+		}
+
+		int next = base[state] + page[c%PAGE_SIZE];
+		if (next < check.length && check[next] == state) {
+			return next;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns the state transitioned to from the specified state using the
+	 * specified character, creating it if it does not exist yet.
+	 *
+	 * @param state state to transition from
+	 * @param c character to transition with
+	 * @return the state transitioned to
+	 */
+	private int transitionOrCreate(int state, char c) {
+		int code = codeOf(c);
+		if (base[state] == 0) {
+			base[state] = findBase(new int[] { code });
+		}
+
+		int next = base[state] + code;
+		ensureCapacity(next+1);
+		if (check[next] == state) {
+			return next;
+		} else if (0 <= check[next]) {
+			relocate(state, code);
+			next = base[state] + code;
+		}
+
+		allocate(next);
+		check[next] = state;
+		base[next] = 0;
+		child[next] = 0;
+		sibling[next] = child[state];
+		child[state] = (char)code;
+		numStates++;
+		return next;
+	}
+
+	/**
+	 * Moves the transitions of the specified state to a new base where they,
+	 * along with a transition using the specified code, all fit.
+	 *
+	 * @param state state whose transitions to move
+	 * @param code code of the transition which needs to fit
+	 */
+	private void relocate(int state, int code) {
+		int oldBase = base[state];
+		int numChildren = 1;
+		for (int c = child[state]; c != 0; c = sibling[oldBase+c]) {
+			numChildren++;
+		}
+
+		int[] children = new int[numChildren];
+		int i = 0;
+		for (int c = child[state]; c != 0; c = sibling[oldBase+c]) {
+			children[i++] = c;
+		}
+
+		children[i] = code;
+		int newBase = findBase(children);
+		base[state] = newBase;
+		for (i = 0; i < numChildren-1; i++) {
+			int from = oldBase + children[i];
+			int to = newBase + children[i];
+			allocate(to);
+			check[to] = state;
+			base[to] = base[from];
+			child[to] = child[from];
+			sibling[to] = sibling[from];
+			ids[to] = ids[from];
+			ids[from] = -1;
+
+			// Point the transitions of the moved state at its new index
+			for (int c = child[from]; c != 0; c = sibling[base[from]+c]) {
+				check[base[from]+c] = to;
+			}
+
+			release(from);
+		}
+	}
+
+	/**
+	 * Returns a base at which every one of the specified codes leads to a free
+	 * cell, searching the free cells in order and growing the arrays if none
+	 * of them fit. Free cells which cannot hold more than one transition are
+	 * moved to the end of the list, so that later searches try them last.
+	 *
+	 * @param children codes which must fit
+	 * @return base at which the codes fit
+	 */
+	private int findBase(int[] children) {
+		if (firstFree == ROOT) {
+			ensureCapacity(check.length+1);
+		}
+
+		int free = firstFree;
+		int remaining = numFree;
+		Search:
+		while (true) {
+			if (remaining == 0) {
+				free = check.length;
+				ensureCapacity(free+1);
+				remaining = check.length - free;
+			}
+
+			remaining--;
+			probes++;
+			int next = -check[free];
+			int b = free - children[0];
+			if (1 <= b) {
+				for (int code : children) {
+					ensureCapacity(b+code+1);
+					if (0 <= check[b+code]) {
+						allocate(free);
+						release(free);
+						free = next;
+						continue Search;
+					}
+				}
+
+				return b;
+			}
+
+			free = next;
+		}
+	}
+
+	/**
+	 * Removes the specified cell from the list of free cells so that it can
+	 * be used by a state.
+	 *
+	 * @param cell free cell to use
+	 */
+	private void allocate(int cell) {
+		int next = -check[cell];
+		int prev = -base[cell];
+		numFree--;
+		if (next == cell) {
+			firstFree = ROOT;
+		} else {
+			check[prev] = -next;
+			base[next] = -prev;
+			if (firstFree == cell) {
+				firstFree = next;
+			}
+		}
+
+		base[cell] = 0;
+	}
+
+	/**
+	 * Adds the specified cell to the end of the list of free cells.
+	 *
+	 * @param cell cell which is no longer used by any state
+	 */
+	private void release(int cell) {
+		numFree++;
+		if (firstFree == ROOT) {
+			firstFree = cell;
+			check[cell] = -cell;
+			base[cell] = -cell;
+			return;
+		}
+
+		int last = -base[firstFree];
+		check[last] = -cell;
+		base[cell] = -last;
+		check[cell] = -firstFree;
+		base[firstFree] = -cell;
+	}
+
+	/**
+	 * Returns the code of the specified character, assigning it a new code if
+	 * it does not have one yet.
+	 *
+	 * @param c character to find the code of
+	 * @return the code of the character
+	 */
+	private int codeOf(char c) {
+		char[] page = codes[c/PAGE_SIZE];
+		if (page == null) {
+			page = codes[c/PAGE_SIZE] = new char[PAGE_SIZE];
+		}
+
+		if (page[c%PAGE_SIZE] == 0) {
+			page[c%PAGE_SIZE] = (char)++numCodes;
+			if (numCodes == chars.length) {
+				chars = Arrays.copyOf(chars, chars.length << 1);
+			}
+
+			chars[numCodes] = c;
+		}
+
+		return page[c%PAGE_SIZE];
+	}
+
+	/**
+	 * Grows {@link #base} and {@link #check} geometrically until they contain
+	 * at least the specified number of cells.
+	 *
+	 * @param size number of cells required
+	 */
+	private void ensureCapacity(int size) {
+		if (size <= check.length) {
+			return;
+		}
+
+		int length = check.length;
+		while (length < size) {
+			length <<= 1;
+		}
+
+		int oldLength = check.length;
+		base = Arrays.copyOf(base, length);
+		check = Arrays.copyOf(check, length);
+		child = Arrays.copyOf(child, length);
+		sibling = Arrays.copyOf(sibling, length);
+		ids = Arrays.copyOf(ids, length);
+		Arrays.fill(ids, oldLength, length, -1);
+		for (int cell = oldLength; cell < length; cell++) {
+			release(cell);
+		}
+	}
+
+	/**
+	 * This class represents a {@link PrefixCursor} over the keys of a
+	 * {@link DoubleArrayMultiTrie}, which follows the list of transitions of
+	 * each state along the path being searched.
+	 */
+	private final class Cursor extends AbstractPrefixCursor {
+		/**
+		 * Index within the key of the character transitioned with from the
+		 * state at the bottom of {@link #states}.
+		 */
+		private final int START;
+
+		/**
+		 * State at each depth of the path.
+		 */
+		private int[] states;
+
+		/**
+		 * Code of the next transition to search from the state at each depth
+		 * of the path, or {@code 0} if there are none left.
+		 */
+		private char[] next;
+
+		/**
+		 * Depth of the top of {@link #states}, or {@code -1} if it is empty.
+		 */
+		private int depth;
+
+		/**
+		 * Constructs a Cursor.
+		 *
+		 * @param prefix characters which each key begins with
+		 * @param sentinel sentinel representing the Trie which keys belong to
+		 * @param limit maximum number of keys to return
+		 * @param state state reached using the prefix, or {@code -1} if there
+		 *	is none
+		 */
+		Cursor(String prefix, char sentinel, int limit, int state) {
+			super(prefix, sentinel, limit);
+			this.START = prefix.length();
+			this.states = new int[16];
+			this.next = new char[16];
+			this.depth = state < 0 ? -1 : 0;
+			if (0 <= state) {
+				states[0] = state;
+				next[0] = child[state];
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean advance() {
+			while (0 <= depth) {
+				int c = next[depth];
+				if (c == 0) {
+					depth--;
+					continue;
+				}
+
+				int state = base[states[depth]] + c;
+				next[depth] = sibling[state];
+				put(START + depth, chars[c]);
+				if (++depth == states.length) {
+					states = Arrays.copyOf(states, depth << 1);
+					next = Arrays.copyOf(next, depth << 1);
+				}
+
+				states[depth] = state;
+				next[depth] = child[state];
+				if (chars[c] == SENTINEL && 0 <= ids[state]) {
+					found(START + depth - 1, ids[state]);
+					return true;
+				}
+			}
+
+			return false;
+		}
+	}
+}
@@ -0,0 +1,449 @@
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * This class represents an immutable {@link MultiTrie} of Strings represented
+ * using a level-order unary degree sequence (LOUDS), as created by
+ * {@link MultiTrie#freeze()}.
+ *
+ * Nodes are numbered in breadth-first order, with the sentinel of a key
+ * stored as the transition following its last character. The shape of the
+ * trie is stored as a single sequence of bits, {@code 10} followed by a one
+ * for each child of each node and then a zero, so node {@code x} is the
+ * {@code x}th one, and its children follow the {@code x}th zero. The label of
+ * each node is stored at its number, so the labels of the children of a node
+ * are contiguous and sorted. Along with a bit marking the nodes which end
+ * keys, and the symbol ID of each of those, each node costs little more than
+ * the 16 bits of its label.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public final class LoudsMultiTrie implements MultiTrie<String> {
+	/**
+	 * Default sentinel character to use for {@link #insert(java.lang.String)}.
+	 */
+	private static final char DEFAULT_SENTINEL = '*';
+
+	/**
+	 * Index of the root node.
+	 */
+	private static final int ROOT = 0;
+
+	/**
+	 * Shape of the trie, as described above.
+	 */
+	private final SuccinctBitVector LOUDS;
+
+	/**
+	 * Label of the transition to each node.
+	 */
+	private final char[] LABELS;
+
+	/**
+	 * Marks the nodes which end keys.
+	 */
+	private final SuccinctBitVector TERMINALS;
+
+	/**
+	 * Symbol ID of the key ended by each terminal node, in node order.
+	 */
+	private final int[] IDS;
+
+	/**
+	 * Constructs a LoudsMultiTrie.
+	 *
+	 * @param louds shape of the trie
+	 * @param labels label of the transition to each node
+	 * @param terminals marks the nodes which end keys
+	 * @param ids symbol ID of the key ended by each terminal node
+	 */
+	private LoudsMultiTrie(SuccinctBitVector louds, char[] labels, SuccinctBitVector terminals, int[] ids) {
+		this.LOUDS = louds;
+		this.LABELS = labels;
+		this.TERMINALS = terminals;
+		this.IDS = ids;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UnsupportedOperationException if the key is not already
+	 *	contained, since a LoudsMultiTrie cannot be modified
+	 */
+	@Override
+	public void insert(String key) {
+		insertOrGet(key, DEFAULT_SENTINEL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UnsupportedOperationException if the key is not already
+	 *	contained, since a LoudsMultiTrie cannot be modified
+	 */
+	@Override
+	public void insert(String key, char sentinel) {
+		insertOrGet(key, sentinel);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UnsupportedOperationException if the key is not already
+	 *	contained, since a LoudsMultiTrie cannot be modified
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel) {
+		return insertOrGet(key, sentinel, new boolean[1]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UnsupportedOperationException if the key is not already
+	 *	contained, since a LoudsMultiTrie cannot be modified
+	 */
+	@Override
+	public int insertOrGet(String key, char sentinel, boolean[] inserted) {
+		inserted[0] = false;
+		int node = find(key, sentinel);
+		if (node < 0) {
+			throw new UnsupportedOperationException("Frozen tries cannot be modified.");
+		}
+
+		return IDS[TERMINALS.rank1(node)];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(String key) {
+		return contains(key, DEFAULT_SENTINEL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(String key, char sentinel) {
+		return 0 <= find(key, sentinel);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int numKeys() {
+		return IDS.length;
+	}
+
+	/**
+	 * Returns this LoudsMultiTrie, which is already immutable.
+	 *
+	 * @return this LoudsMultiTrie
+	 */
+	@Override
+	public LoudsMultiTrie freeze() {
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The labels of the children of each node are sorted, so keys are
+	 * returned in order.
+	 */
+	@Override
+	public PrefixCursor prefixCursor(String prefix, char sentinel, int limit) {
+		AbstractPrefixCursor.checkArguments(prefix, sentinel, limit);
+
+		int node = ROOT;
+		for (int i = 0; i < prefix.length() && 0 <= node; i++) {
+			node = child(node, prefix.charAt(i));
+		}
+
+		return new Cursor(prefix, sentinel, limit, node);
+	}
+
+	/**
+	 * Returns the terminal node of the specified key and sentinel.
+	 *
+	 * @param key key to find
+	 * @param sentinel character representing the Trie the key belongs to
+	 * @return the terminal node, or {@code -1} if the key is not contained
+	 */
+	private int find(String key, char sentinel) {
+		checkArguments(key, sentinel);
+
+		int node = ROOT;
+		for (int i = 0; i < key.length() && 0 <= node; i++) {
+			node = child(node, key.charAt(i));
+		}
+
+		if (node < 0) {
+			return -1;
+		}
+
+		node = child(node, sentinel);
+		return 0 <= node && TERMINALS.get(node) ? node : -1;
+	}
+
+	/**
+	 * Returns the child of the specified node with the specified label.
+	 *
+	 * @param node node to transition from
+	 * @param c label to transition with
+	 * @return the child, or {@code -1} if there is none
+	 */
+	private int child(int node, char c) {
+		// The children of node x follow its zero, which has x+1 ones before it
+		int position = LOUDS.select0(node) + 1;
+		for (int child = position - node - 1; LOUDS.get(position); position++, child++) {
+			char label = LABELS[child];
+			if (label == c) {
+				return child;
+			} else if (c < label) {
+				break;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns the first child of the specified node. The children of a node
+	 * are numbered contiguously, so the child following the last one is the
+	 * first child of the next node.
+	 *
+	 * @param node node to find the first child of
+	 * @return the first child, or the number of the child following the
+	 *	last child of the previous node if the node has none
+	 */
+	private int firstChild(int node) {
+		return LOUDS.select0(node) - node;
+	}
+
+	/**
+	 * Throws an exception if the specified key or sentinel cannot be used.
+	 *
+	 * @param key key to check
+	 * @param sentinel sentinel to check
+	 */
+	private static void checkArguments(String key, char sentinel) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+
+		if (key.isEmpty()) {
+			throw new IllegalArgumentException("Empty keys are not allowed.");
+		}
+
+		if (Character.isLetterOrDigit(sentinel) || sentinel == '_') {
+			throw new IllegalArgumentException("Marker cannot be a letter, digit or underscore.");
+		}
+	}
+
+	/**
+	 * This class represents a {@link PrefixCursor} over the keys of a
+	 * {@link LoudsMultiTrie}, which follows the range of children of each
+	 * node along the path being searched.
+	 */
+	private final class Cursor extends AbstractPrefixCursor {
+		/**
+		 * Index within the key of the labels of the children at the bottom
+		 * of {@link #next}.
+		 */
+		private final int START;
+
+		/**
+		 * Next child to search at each depth of the path.
+		 */
+		private int[] next;
+
+		/**
+		 * Child following the last child to search at each depth of the path.
+		 */
+		private int[] end;
+
+		/**
+		 * Depth of the top of {@link #next}, or {@code -1} if it is empty.
+		 */
+		private int depth;
+
+		/**
+		 * Constructs a Cursor.
+		 *
+		 * @param prefix characters which each key begins with
+		 * @param sentinel sentinel representing the Trie which keys belong to
+		 * @param limit maximum number of keys to return
+		 * @param node node reached using the prefix, or {@code -1} if there is
+		 *	none
+		 */
+		Cursor(String prefix, char sentinel, int limit, int node) {
+			super(prefix, sentinel, limit);
+			this.START = prefix.length();
+			this.next = new int[16];
+			this.end = new int[16];
+			this.depth = node < 0 ? -1 : 0;
+			if (0 <= node) {
+				push(node);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		boolean advance() {
+			while (0 <= depth) {
+				int node = next[depth];
+				if (node == end[depth]) {
+					depth--;
+					continue;
+				}
+
+				next[depth]++;
+				char c = LABELS[node];
+				put(START + depth, c);
+				if (++depth == next.length) {
+					next = Arrays.copyOf(next, depth << 1);
+					end = Arrays.copyOf(end, depth << 1);
+				}
+
+				push(node);
+				if (c == SENTINEL && TERMINALS.get(node)) {
+					found(START + depth - 1, IDS[TERMINALS.rank1(node)]);
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		/**
+		 * Stores the range of children of the specified node at the top of
+		 * the stack.
+		 *
+		 * @param node node whose children to search
+		 */
+		private void push(int node) {
+			next[depth] = firstChild(node);
+			end[depth] = firstChild(node+1);
+		}
+	}
+
+	/**
+	 * This class represents a collector of the keys of a {@link MultiTrie}
+	 * which builds a {@link LoudsMultiTrie} containing them.
+	 */
+	static final class Builder {
+		/**
+		 * Each key followed by its sentinel.
+		 */
+		private final List<String> PATHS;
+
+		/**
+		 * Symbol ID of each key.
+		 */
+		private int[] ids;
+
+		/**
+		 * Constructs an empty Builder.
+		 */
+		Builder() {
+			this.PATHS = new ArrayList<String>();
+			this.ids = new int[16];
+		}
+
+		/**
+		 * Adds a key to the trie being built.
+		 *
+		 * @param path key followed by its sentinel
+		 * @param id symbol ID of the key
+		 */
+		void add(CharSequence path, int id) {
+			if (ids.length == PATHS.size()) {
+				ids = Arrays.copyOf(ids, ids.length << 1);
+			}
+
+			ids[PATHS.size()] = id;
+			PATHS.add(path.toString());
+		}
+
+		/**
+		 * Returns a LoudsMultiTrie containing every key added.
+		 *
+		 * @return the trie built
+		 */
+		LoudsMultiTrie build() {
+			int numKeys = PATHS.size();
+			Integer[] order = new Integer[numKeys];
+			for (int i = 0; i < numKeys; i++) {
+				order[i] = i;
+			}
+
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer a, Integer b) {
+					return PATHS.get(a).compareTo(PATHS.get(b));
+				}
+			});
+
+			List<String> paths = new ArrayList<String>(numKeys);
+			int[] sortedIds = new int[numKeys];
+			for (int i = 0; i < numKeys; i++) {
+				paths.add(PATHS.get(order[i]));
+				sortedIds[i] = ids[order[i]];
+			}
+
+			// Each node is a range of paths sharing a prefix of some depth
+			SuccinctBitVector louds = new SuccinctBitVector();
+			SuccinctBitVector terminals = new SuccinctBitVector();
+			StringBuilder labels = new StringBuilder();
+			int[] terminalIds = new int[numKeys];
+			int numTerminals = 0;
+			louds.add(true);
+			louds.add(false);
+			labels.append('\0');
+			Queue<int[]> queue = new ArrayDeque<int[]>();
+			queue.add(new int[] { 0, numKeys, 0 });
+			while (!queue.isEmpty()) {
+				int[] node = queue.remove();
+				int from = node[0];
+				int to = node[1];
+				int depth = node[2];
+				boolean terminal = from < to && paths.get(from).length() == depth;
+				terminals.add(terminal);
+				if (terminal) {
+					terminalIds[numTerminals++] = sortedIds[from++];
+				}
+
+				while (from < to) {
+					char c = paths.get(from).charAt(depth);
+					int end = from+1;
+					while (end < to && paths.get(end).charAt(depth) == c) {
+						end++;
+					}
+
+					louds.add(true);
+					labels.append(c);
+					queue.add(new int[] { from, end, depth+1 });
+					from = end;
+				}
+
+				louds.add(false);
+			}
+
+			louds.seal();
+			terminals.seal();
+			return new LoudsMultiTrie(louds, labels.toString().toCharArray(), terminals, Arrays.copyOf(terminalIds, numTerminals));
+		}
+	}
+}
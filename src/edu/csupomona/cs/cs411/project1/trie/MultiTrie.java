@@ -19,6 +19,47 @@ public interface MultiTrie<K> extends Trie<K> {
 	 */
 	void insert(K key, char sentinel);
 
+	/**
+	 * Inserts a specified key into this {@link MultiTrie} using the specified
+	 * sentinel if it is not already there, and returns the symbol ID of that
+	 * key and sentinel.
+	 *
+	 * Symbol IDs are dense: each distinct key and sentinel is given the
+	 * number of keys which were contained within this MultiTrie before it
+	 * was inserted, so IDs are always less than {@link #numKeys()} and may be
+	 * used to index into arrays.
+	 *
+	 * @param key key to insert into this MultiTrie
+	 * @param sentinel character representing the Trie this key belongs to
+	 *
+	 * @return the symbol ID of the key within the Trie of the sentinel, or
+	 *	{@code -1} if this MultiTrie is unable to store the key.
+	 *
+	 * @see #insert(java.lang.Object, char)
+	 */
+	int insertOrGet(K key, char sentinel);
+
+	/**
+	 * Inserts a specified key into this {@link MultiTrie} using the specified
+	 * sentinel if it is not already there, and returns the symbol ID of that
+	 * key and sentinel, telling the caller whether this call inserted it.
+	 *
+	 * Callers which share a MultiTrie between threads cannot tell this by
+	 * comparing {@link #numKeys()} with the symbol ID, since another thread
+	 * may insert the same key between the two.
+	 *
+	 * @param key key to insert into this MultiTrie
+	 * @param sentinel character representing the Trie this key belongs to
+	 * @param inserted array whose first element is set to {@code true} if
+	 *	this call inserted the key, otherwise {@code false}
+	 *
+	 * @return the symbol ID of the key within the Trie of the sentinel, or
+	 *	{@code -1} if this MultiTrie is unable to store the key.
+	 *
+	 * @see #insertOrGet(java.lang.Object, char)
+	 */
+	int insertOrGet(K key, char sentinel, boolean[] inserted);
+
 	/**
 	 * Returns whether or not a specified key is contained within this
 	 * {@link MultiTrie} using the specified sentinel to check a specific
@@ -32,4 +73,33 @@ public interface MultiTrie<K> extends Trie<K> {
 	 * @see Trie#contains(java.lang.Object)
 	 */
 	boolean contains(K key, char sentinel);
+
+	/**
+	 * Returns a {@link PrefixCursor} over the keys within this
+	 * {@link MultiTrie} which begin with the specified prefix and belong to
+	 * the {@link Trie} of the specified sentinel. The prefix is only descended
+	 * to once, and each call to {@link PrefixCursor#next()} only searches as
+	 * far as the next key, so the cost of a query depends on how many keys
+	 * are returned rather than how many keys this MultiTrie contains.
+	 *
+	 * @param prefix characters which each key begins with, which may be
+	 *	empty to return every key of the sentinel
+	 * @param sentinel character representing the Trie the keys belong to
+	 * @param limit maximum number of keys to return
+	 *
+	 * @return a cursor over the matching keys
+	 */
+	PrefixCursor prefixCursor(K prefix, char sentinel, int limit);
+
+	/**
+	 * Returns an immutable copy of this {@link MultiTrie} which contains the
+	 * same keys with the same symbol IDs, but uses far less memory. Inserting
+	 * a key which the copy does not already contain throws an
+	 * {@link UnsupportedOperationException}.
+	 *
+	 * @return an immutable copy of this MultiTrie
+	 *
+	 * @see LoudsMultiTrie
+	 */
+	MultiTrie<K> freeze();
 }
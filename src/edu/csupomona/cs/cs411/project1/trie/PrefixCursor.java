@@ -0,0 +1,53 @@
+package edu.csupomona.cs.cs411.project1.trie;
+
+/**
+ * This interface represents a lazy iteration over the keys of a
+ * {@link MultiTrie} which begin with some prefix and belong to the
+ * {@link Trie} of some sentinel, as returned by
+ * {@link MultiTrie#prefixCursor(java.lang.Object, char, int)}.
+ *
+ * Each key is copied into a buffer which is reused for every key, so
+ * iterating does not allocate once the buffer is large enough to hold the
+ * longest key. A cursor only finds its next key when {@link #next()} is
+ * called, so a caller may stop at any time without paying for the keys it did
+ * not need. The order of the keys is unspecified, and the behavior of a cursor
+ * is undefined if its MultiTrie is modified while it is in use.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public interface PrefixCursor {
+	/**
+	 * Advances this {@link PrefixCursor} to its next key.
+	 *
+	 * @return {@code true} if there is another key, otherwise {@code false}
+	 *	once every key has been returned or the limit has been reached.
+	 */
+	boolean next();
+
+	/**
+	 * Returns the buffer holding the characters of the current key. The same
+	 * buffer may be returned for every key, so its contents are only valid
+	 * until the next call to {@link #next()}.
+	 *
+	 * @return the buffer holding the current key
+	 *
+	 * @see #length()
+	 */
+	char[] chars();
+
+	/**
+	 * Returns the number of characters within the current key.
+	 *
+	 * @return the length of the current key
+	 */
+	int length();
+
+	/**
+	 * Returns the symbol ID of the current key.
+	 *
+	 * @return the symbol ID of the current key
+	 *
+	 * @see MultiTrie#insertOrGet(java.lang.Object, char)
+	 */
+	int symbol();
+}
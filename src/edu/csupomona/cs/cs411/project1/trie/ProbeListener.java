@@ -0,0 +1,23 @@
+package edu.csupomona.cs.cs411.project1.trie;
+
+/**
+ * This interface represents a listener which is told how much searching each
+ * operation of a {@link MultiTrie} took, for finding inputs which make a
+ * MultiTrie degrade.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ *
+ * @see ArrayMultiTrie#setProbeListener(ProbeListener)
+ * @see ConcurrentMultiTrie#setProbeListener(ProbeListener)
+ * @see DoubleArrayMultiTrie#setProbeListener(ProbeListener)
+ */
+public interface ProbeListener {
+	/**
+	 * Called once each time a key is inserted or looked up by an operation
+	 * which searches, with the number of links followed between variations
+	 * of a character, or of places tried for them, while doing so.
+	 *
+	 * @param probes number of links followed
+	 */
+	void probed(int probes);
+}
@@ -0,0 +1,159 @@
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.Arrays;
+
+/**
+ * This class represents an immutable sequence of bits which supports rank
+ * and select queries. The number of ones before every block of
+ * {@link #BLOCK_SIZE} bits is stored, which costs 1/16th of the size of the
+ * bits themselves.
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+final class SuccinctBitVector {
+	/**
+	 * Number of bits within each block of {@link #ranks}, as a power of two.
+	 */
+	private static final int LOG_BLOCK_SIZE = 9;
+
+	/**
+	 * Number of bits within each block of {@link #ranks}.
+	 */
+	private static final int BLOCK_SIZE = 1<<LOG_BLOCK_SIZE;
+
+	/**
+	 * Number of words within each block of {@link #ranks}.
+	 */
+	private static final int WORDS_PER_BLOCK = BLOCK_SIZE/Long.SIZE;
+
+	/**
+	 * Bits of this SuccinctBitVector, least significant first.
+	 */
+	private long[] words;
+
+	/**
+	 * Number of ones before each block.
+	 */
+	private int[] ranks;
+
+	/**
+	 * Number of bits within this SuccinctBitVector.
+	 */
+	private int length;
+
+	/**
+	 * Constructs an empty SuccinctBitVector, which can be appended to until
+	 * {@link #seal()} is called.
+	 */
+	SuccinctBitVector() {
+		this.words = new long[WORDS_PER_BLOCK];
+		this.length = 0;
+	}
+
+	/**
+	 * Appends a bit to this SuccinctBitVector.
+	 *
+	 * @param bit bit to append
+	 */
+	void add(boolean bit) {
+		assert ranks == null;
+		if (length == words.length*Long.SIZE) {
+			words = Arrays.copyOf(words, words.length << 1);
+		}
+
+		if (bit) {
+			words[length >>> 6] |= 1L << length;
+		}
+
+		length++;
+	}
+
+	/**
+	 * Trims this SuccinctBitVector and counts the ones before each block,
+	 * after which no more bits may be appended.
+	 */
+	void seal() {
+		int numBlocks = (length + BLOCK_SIZE - 1) >>> LOG_BLOCK_SIZE;
+		words = Arrays.copyOf(words, numBlocks*WORDS_PER_BLOCK + 1);
+		ranks = new int[numBlocks + 1];
+		int rank = 0;
+		for (int block = 0; block < numBlocks; block++) {
+			ranks[block] = rank;
+			for (int i = block*WORDS_PER_BLOCK; i < (block+1)*WORDS_PER_BLOCK; i++) {
+				rank += Long.bitCount(words[i]);
+			}
+		}
+
+		ranks[numBlocks] = rank;
+	}
+
+	/**
+	 * Returns the number of bits within this SuccinctBitVector.
+	 *
+	 * @return the length of this SuccinctBitVector
+	 */
+	int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the bit at the specified position.
+	 *
+	 * @param i position of the bit
+	 * @return the bit at that position
+	 */
+	boolean get(int i) {
+		return (words[i >>> 6] & (1L << i)) != 0;
+	}
+
+	/**
+	 * Returns the number of ones before the specified position.
+	 *
+	 * @param i position to count up to
+	 * @return the number of ones within {@code [0, i)}
+	 */
+	int rank1(int i) {
+		int block = i >>> LOG_BLOCK_SIZE;
+		int rank = ranks[block];
+		for (int w = block*WORDS_PER_BLOCK; w < i >>> 6; w++) {
+			rank += Long.bitCount(words[w]);
+		}
+
+		return rank + Long.bitCount(words[i >>> 6] & ((1L << i) - 1));
+	}
+
+	/**
+	 * Returns the position of the zero which has the specified number of
+	 * zeros before it.
+	 *
+	 * @param k number of zeros before the zero to find
+	 * @return the position of the zero
+	 */
+	int select0(int k) {
+		int low = 0;
+		int high = ranks.length-1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if ((mid << LOG_BLOCK_SIZE) - ranks[mid] <= k) {
+				low = mid;
+			} else {
+				high = mid-1;
+			}
+		}
+
+		k -= (low << LOG_BLOCK_SIZE) - ranks[low];
+		int w = low*WORDS_PER_BLOCK;
+		int zeros = Long.SIZE - Long.bitCount(words[w]);
+		while (zeros <= k) {
+			k -= zeros;
+			zeros = Long.SIZE - Long.bitCount(words[++w]);
+		}
+
+		long word = ~words[w];
+		for (int i = 0; i < k; i++) {
+			word &= word-1;
+		}
+
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class BatchLexerTest {
+
+	public BatchLexerTest() {
+	}
+
+	/**
+	 * Test of lex method, of class BatchLexer.
+	 */
+	@Test
+	public void testLex() throws IOException {
+		System.out.println("lex");
+		Path root = Files.createTempDirectory("batch");
+		Path sub = Files.createDirectory(root.resolve("sub"));
+		root.toFile().deleteOnExit();
+		sub.toFile().deleteOnExit();
+		Random random = new Random(411);
+		List<Path> files = new ArrayList<Path>();
+		List<String> inputs = new ArrayList<String>();
+		for (int i = 0; i < 40; i++) {
+			StringBuilder input = new StringBuilder();
+			int length = random.nextInt(i*i + 1);
+			for (int j = 0; j < length; j++) {
+				input.append(ToyScannerTest.INPUTS[random.nextInt(ToyScannerTest.INPUTS.length)]).append('\n');
+			}
+
+			Path file = (i%2 == 0 ? root : sub).resolve(String.format("f%02d.toy", i));
+			Files.write(file, input.toString().getBytes(StandardCharsets.UTF_8));
+			file.toFile().deleteOnExit();
+			files.add(file);
+			inputs.add(input.toString());
+		}
+
+		// Non-ASCII letters are part of identifiers, and spans are in chars
+		Path file = root.resolve("f40.toy");
+		Files.write(file, "int \u00e9if = \u00e91; \"\u4e2d\" x".getBytes(StandardCharsets.UTF_8));
+		file.toFile().deleteOnExit();
+		files.add(file);
+		inputs.add("int \u00e9if = \u00e91; \"\u4e2d\" x");
+
+		Files.write(root.resolve("ignored.txt"), "int".getBytes(StandardCharsets.UTF_8));
+		root.resolve("ignored.txt").toFile().deleteOnExit();
+		files.add(root.resolve("missing.toy"));
+
+		final List<BatchLexer.Result> results = new ArrayList<BatchLexer.Result>();
+		BatchLexer.Sink sink = new BatchLexer.Sink() {
+			@Override
+			public void accept(BatchLexer.Result result) {
+				results.add(result);
+			}
+		};
+
+		try (BatchLexer lexer = new BatchLexer(4)) {
+			Assert.assertEquals(4, lexer.getParallelism());
+			lexer.lex(files, sink);
+			Assert.assertEquals(files.size(), results.size());
+			for (int i = 0; i < inputs.size(); i++) {
+				String input = inputs.get(i);
+				Assert.assertEquals(files.get(i), results.get(i).getPath());
+				Assert.assertNull(results.get(i).getException());
+				TokenBuffer tokens = results.get(i).getTokens();
+				AbstractToyScanner scanner = new ToyLexer().scan(input.toCharArray());
+				for (int j = 0; j < tokens.size(); j++) {
+					Assert.assertEquals(input, scanner.next(), tokens.getToken(j));
+					Assert.assertEquals(input, scanner.getStart(), tokens.getStart(j));
+					Assert.assertEquals(input, scanner.getLength(), tokens.getLength(j));
+					if (tokens.getToken(j) == ToyKeywords._id) {
+						String id = input.substring(tokens.getStart(j), tokens.getStart(j) + tokens.getLength(j));
+						Assert.assertEquals(input, lexer.getTrie().insertOrGet(id, ToyLexer.IDENTIFIER_SENTINEL), tokens.getSymbol(j));
+					} else {
+						Assert.assertEquals(input, -1, tokens.getSymbol(j));
+					}
+				}
+
+				Assert.assertEquals(input, ToyKeywords._EOF, scanner.next());
+			}
+
+			TokenBuffer tokens = results.get(inputs.size()-1).getTokens();
+			Assert.assertEquals(ToyKeywords._id, tokens.getToken(1));
+			Assert.assertEquals(3, tokens.getLength(1));
+			Assert.assertEquals(ToyKeywords._id, tokens.getToken(3));
+
+			Assert.assertNotNull(results.get(inputs.size()).getException());
+			Assert.assertEquals(0, results.get(inputs.size()).getTokens().size());
+
+			results.clear();
+			lexer.lex(root, "*.toy", sink);
+			Assert.assertEquals(inputs.size(), results.size());
+			for (int i = 1; i < results.size(); i++) {
+				Assert.assertTrue(results.get(i-1).getPath().compareTo(results.get(i).getPath()) < 0);
+			}
+		}
+	}
+}
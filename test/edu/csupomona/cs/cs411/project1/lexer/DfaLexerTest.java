@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class DfaLexerTest {
+
+	public DfaLexerTest() {
+	}
+
+	/**
+	 * Test of compile method, of class Dfa.
+	 */
+	@Test
+	public void testCompile() {
+		System.out.println("compile");
+		Dfa dfa = Dfa.compile(new String[] { "if", "[a-z]+", "(a|b)*abb" }, new boolean[] { false, true, true });
+		Assert.assertEquals(0, accept(dfa, "if"));
+		Assert.assertEquals(1, accept(dfa, "iff"));
+		Assert.assertEquals(1, accept(dfa, "abb"));
+		Assert.assertEquals(-1, accept(dfa, "IF"));
+
+		// (a|b)*abb and [ab]*abb are the same language, so minimize equally
+		Dfa a = Dfa.compile(new String[] { "(a|b)*abb" }, new boolean[] { true });
+		Dfa b = Dfa.compile(new String[] { "[ab]*abb" }, new boolean[] { true });
+		Assert.assertEquals(4, a.numStates());
+		Assert.assertEquals(a.numStates(), b.numStates());
+		Assert.assertEquals(3, a.numClasses());
+
+		try {
+			Dfa.compile(new String[] { "(a" }, new boolean[] { true });
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Test of next method, of class DfaLexer.
+	 */
+	@Test
+	public void testNext() {
+		System.out.println("next");
+		DfaLexer lexer = DfaLexer.forToyKeywords();
+		String[] inputs = {
+			"int x = 0x1F + 012 - 3.14e+10 * 2.E5 / 7.;",
+			"0x 0xg 0X 1.2E 1.2e- 1.2e+ 1.e5 0 0x",
+			"class Foo extends Bar implements Baz { bool b = true || false && !b; }",
+			"a<=b>=c==d!=e<f>g=h!i&&l||m",
+			"println(\"hello, world\", \"again\"); readln(\"\");",
+			"// line comment\nx /* block */ y /*/ still comment */ z /** also */ w",
+			"if (x) { return; } else { while (y) break; for (;;) void; } trueish",
+			"double d = 12.2E+2 + 0.12 + 12.E2; string s = \"\"; interface",
+		};
+
+		for (String input : inputs) {
+			List<Token> expected = ToyScannerTest.referenceTokens(input);
+			Assert.assertEquals(input, expected, tokens(lexer.scan(input.toCharArray()), expected.size()));
+			Assert.assertEquals(input, expected, tokens(lexer.scan(new StringReader(input)), expected.size()));
+		}
+
+		DfaScanner scanner = lexer.scan("\"a\" + \"b\" @".toCharArray());
+		Assert.assertEquals(ToyKeywords._stringliteral, scanner.next());
+		Assert.assertEquals("\"a\"", scanner.getText());
+		Assert.assertEquals(ToyKeywords._plus, scanner.next());
+		Assert.assertEquals(ToyKeywords._stringliteral, scanner.next());
+		Assert.assertEquals(6, scanner.getStart());
+		Assert.assertEquals(null, scanner.next());
+		Assert.assertEquals(ToyKeywords._EOF, scanner.next());
+
+		// Unterminated block comments are skipped like ToyLexer
+		scanner = lexer.scan("a /* foo ** b *".toCharArray());
+		Assert.assertEquals(ToyKeywords._id, scanner.next());
+		Assert.assertEquals(ToyKeywords._EOF, scanner.next());
+
+		// Unterminated string literals are not
+		scanner = lexer.scan("\"abc".toCharArray());
+		Assert.assertEquals(null, scanner.next());
+		Assert.assertEquals(1, scanner.getLength());
+		Assert.assertEquals(ToyKeywords._id, scanner.next());
+		Assert.assertEquals(ToyKeywords._EOF, scanner.next());
+
+		// Trailing whitespace is skipped, where ToyLexer generates null
+		scanner = lexer.scan("x ".toCharArray());
+		Assert.assertEquals(ToyKeywords._id, scanner.next());
+		Assert.assertEquals(ToyKeywords._EOF, scanner.next());
+		Assert.assertNull(scanner.getException());
+
+		// An input which fails to be read ends early, and records why
+		Reader failing = new Reader() {
+			private boolean read;
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				if (read) {
+					throw new IOException("connection reset");
+				}
+
+				read = true;
+				"int x;".getChars(0, 6, cbuf, off);
+				return 6;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		scanner = lexer.scan(failing);
+		Assert.assertEquals(ToyKeywords._int, scanner.next());
+		Assert.assertEquals(ToyKeywords._id, scanner.next());
+		Assert.assertEquals(ToyKeywords._semicolon, scanner.next());
+		Assert.assertEquals(ToyKeywords._EOF, scanner.next());
+		Assert.assertEquals("connection reset", scanner.getException().getMessage());
+	}
+
+	/**
+	 * Returns the index of the pattern accepted by a Dfa after consuming the
+	 * entire specified input.
+	 *
+	 * @param dfa DFA to run
+	 * @param input input to consume
+	 * @return the index of the pattern accepted, or {@code -1}
+	 */
+	private static int accept(Dfa dfa, String input) {
+		int state = dfa.initialState();
+		for (char c : input.toCharArray()) {
+			state = dfa.next(state, c);
+			if (state < 0) {
+				return -1;
+			}
+		}
+
+		return dfa.accept(state);
+	}
+
+	/**
+	 * Returns the specified number of tokens generated by a scanner.
+	 *
+	 * @param scanner scanner to generate tokens with
+	 * @param count number of tokens to generate
+	 * @return the tokens generated
+	 */
+	private static List<Token> tokens(AbstractScanner scanner, int count) {
+		Token[] tokens = new Token[count];
+		for (int i = 0; i < count; i++) {
+			tokens[i] = scanner.next();
+		}
+
+		return Arrays.asList(tokens);
+	}
+}
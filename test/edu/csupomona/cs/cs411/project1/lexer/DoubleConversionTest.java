@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.math.BigInteger;
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class DoubleConversionTest {
+
+	public DoubleConversionTest() {
+	}
+
+	/**
+	 * Test of toDouble method, of class DoubleConversion.
+	 */
+	@Test
+	public void testToDouble() {
+		System.out.println("toDouble");
+		String[][] cases = {
+			{ "0", "0" }, { "0", "400" }, { "1", "-400" }, { "1", "400" },
+			{ "22250738585072012", "-324" }, { "22250738585072011", "-324" },
+			{ "49406564584124654", "-340" }, { "24703282292062327", "-340" },
+			{ "24703282292062328", "-340" }, { "17976931348623157", "292" },
+			{ "17976931348623158", "292" }, { "17976931348623159", "292" },
+			{ "1", "23" }, { "8", "-1" }, { "9007199254740993", "0" },
+			{ "9007199254740995", "0" }, { "9223372036854775807", "-19" },
+			{ "1000000000000000000", "-343" }, { "7", "-342" },
+		};
+
+		for (String[] c : cases) {
+			assertToDouble(Long.parseLong(c[0]), Integer.parseInt(c[1]));
+		}
+
+		Random random = new Random(411);
+		for (int i = 0; i < 200000; i++) {
+			long significand = (random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63);
+			assertToDouble(significand, random.nextInt(700) - 350);
+			assertToDouble(significand, random.nextInt(60) - 30);
+		}
+	}
+
+	/**
+	 * Test of multiplyHigh method, of class DoubleConversion.
+	 */
+	@Test
+	public void testMultiplyHigh() {
+		System.out.println("multiplyHigh");
+		BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		Random random = new Random(411);
+		for (int i = 0; i < 10000; i++) {
+			long x = i == 0 ? -1L : random.nextLong();
+			long y = i == 0 ? -1L : random.nextLong();
+			long expected = toUnsigned(x, mask).multiply(toUnsigned(y, mask)).shiftRight(64).longValue();
+			Assert.assertEquals(expected, DoubleConversion.multiplyHigh(x, y));
+		}
+	}
+
+	/**
+	 * Asserts that the specified value is converted to the same double as
+	 * {@link Double#parseDouble(java.lang.String)}, unless it cannot be
+	 * converted without its digits.
+	 *
+	 * @param significand decimal significand
+	 * @param exponent decimal exponent
+	 */
+	private static void assertToDouble(long significand, int exponent) {
+		String literal = significand + "e" + exponent;
+		double d = DoubleConversion.toDouble(significand, exponent);
+		if (!Double.isNaN(d)) {
+			Assert.assertEquals(literal, Double.parseDouble(literal), d);
+		}
+	}
+
+	/**
+	 * Returns the specified value treated as unsigned.
+	 *
+	 * @param x value to convert
+	 * @param mask mask of the low 64 bits
+	 * @return the unsigned value
+	 */
+	private static BigInteger toUnsigned(long x, BigInteger mask) {
+		return BigInteger.valueOf(x).and(mask);
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class IncrementalLexerTest {
+
+	/**
+	 * Fragments which are likely to change the tokens around an edit.
+	 */
+	private static final String[] FRAGMENTS = {
+		"/*", "*/", "//", "\n", "\"", " ", "0x", "e+", ".", "1", "a", "<", "=",
+		"/* a\n block */", "\"a // string\"", "0x1F 12.5e+3 1.e", "a<=b>=c",
+	};
+
+	public IncrementalLexerTest() {
+	}
+
+	/**
+	 * Test of edit method, of class IncrementalLexer.
+	 */
+	@Test
+	public void testEdit() {
+		System.out.println("edit");
+		Random random = new Random(411);
+		for (int n = 0; n < 100; n++) {
+			StringBuilder input = new StringBuilder();
+			int length = random.nextInt(n + 1);
+			for (int i = 0; i < length; i++) {
+				input.append(ToyScannerTest.INPUTS[random.nextInt(ToyScannerTest.INPUTS.length)]);
+			}
+
+			IncrementalLexer lexer = new IncrementalLexer(input);
+			assertSameTokens(lexer);
+			for (int i = 0; i < 20; i++) {
+				int offset = random.nextInt(lexer.length() + 1);
+				int removed = random.nextInt(Math.min(8, lexer.length() - offset) + 1);
+				String inserted = random.nextInt(4) == 0 ? "" : FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+				lexer.edit(offset, removed, inserted);
+				assertSameTokens(lexer);
+			}
+		}
+
+		StringBuilder large = new StringBuilder();
+		while (large.length() < (1<<20)) {
+			large.append("int a = b + 0x1F; // comment\n");
+		}
+
+		IncrementalLexer lexer = new IncrementalLexer(large);
+		int middle = large.length()/2;
+		Assert.assertTrue(lexer.edit(middle, 0, "c") < 10);
+		Assert.assertTrue(lexer.edit(middle, 1, "") < 10);
+		Assert.assertEquals(large.toString(), lexer.getText());
+		int size = lexer.size();
+		lexer.edit(middle, 0, "/*");
+		Assert.assertTrue(lexer.size() < size);
+		assertSameTokens(lexer);
+
+		try {
+			lexer.edit(lexer.length(), 1, "");
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+		}
+	}
+
+	/**
+	 * Asserts that the tokens of the specified {@link IncrementalLexer} are the
+	 * same as those generated by {@link ToyLexer#scan(char[])} from its text.
+	 *
+	 * @param lexer lexer to check
+	 */
+	private static void assertSameTokens(IncrementalLexer lexer) {
+		TokenBuffer tokens = new TokenBuffer();
+		for (int i = 0; i < lexer.size(); i++) {
+			tokens.add(lexer.getToken(i), lexer.getStart(i), lexer.getLength(i));
+		}
+
+		ToyScannerTest.assertSameTokens(lexer.getText(), tokens);
+	}
+}
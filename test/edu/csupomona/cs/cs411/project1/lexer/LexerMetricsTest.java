@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.ArrayMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.ConcurrentMultiTrie;
+import edu.csupomona.cs.cs411.project1.trie.MultiTrie;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class LexerMetricsTest {
+
+	public LexerMetricsTest() {
+	}
+
+	/**
+	 * Test of tokenScanned method, of class LexerMetrics.
+	 */
+	@Test
+	public void testTokenScanned() {
+		System.out.println("tokenScanned");
+		String input = "int abc; abc = abd + abe; \"broken\n abc /* note */ while";
+		ArrayMultiTrie trie = new ArrayMultiTrie();
+		ToyLexer lexer = new ToyLexer(trie);
+		LexerMetrics metrics = new LexerMetrics();
+		lexer.setListener(metrics);
+
+		AbstractToyScanner scanner = lexer.scan(input.toCharArray());
+		int tokens = 0;
+		Token t;
+		do {
+			t = scanner.next();
+			tokens++;
+		} while (t != ToyKeywords._EOF);
+
+		Assert.assertEquals(input.length(), metrics.getCharactersLexed());
+		Assert.assertEquals(tokens, metrics.getTokensLexed());
+		Assert.assertEquals(1, metrics.getInvalidTokens());
+		Assert.assertEquals(5, metrics.getTokenCount(ToyKeywords._id));
+		Assert.assertEquals(1, metrics.getTokenCount(ToyKeywords._while));
+		Assert.assertEquals(1, metrics.getTokenCount(ToyKeywords._EOF));
+		Assert.assertEquals(3, metrics.getIdentifierInserts());
+		Assert.assertEquals(2, metrics.getIdentifierHits());
+
+		long probes = 0;
+		for (long count : metrics.getProbeHistogram()) {
+			probes += count;
+		}
+
+		Assert.assertEquals(3, probes);
+
+		Map<String, Long> counts = metrics.getTokenCounts();
+		Assert.assertEquals(Long.valueOf(5), counts.get("_id"));
+		Assert.assertFalse(counts.containsKey("_for"));
+
+		metrics.reset();
+		Assert.assertEquals(0, metrics.getTokensLexed());
+		Assert.assertEquals(0, metrics.getCharactersLexed());
+
+		lexer.setListener(null);
+		scanner = lexer.scan(input.toCharArray());
+		while (scanner.next() != ToyKeywords._EOF) {
+		}
+
+		Assert.assertEquals(0, metrics.getTokensLexed());
+	}
+
+	/**
+	 * Test of probed method, of class LexerMetrics, given to the tries of
+	 * {@link ToyLexer#setListener(LexerListener)}.
+	 */
+	@Test
+	public void testProbed() {
+		System.out.println("probed");
+		String input = "int abc; abc = abd + abe; abc = abf * 2;";
+		MultiTrie<?>[] tries = {
+			new ToyLexer().getTrie(),
+			new ConcurrentMultiTrie(),
+			new ArrayMultiTrie()
+		};
+
+		for (MultiTrie<?> t : tries) {
+			@SuppressWarnings("unchecked")
+			ToyLexer lexer = new ToyLexer((MultiTrie<String>)t);
+			LexerMetrics metrics = new LexerMetrics();
+			lexer.setListener(metrics);
+			AbstractToyScanner scanner = lexer.scan(input.toCharArray());
+			while (scanner.next() != ToyKeywords._EOF) {
+			}
+
+			long probes = 0;
+			for (long count : metrics.getProbeHistogram()) {
+				probes += count;
+			}
+
+			Assert.assertEquals(4, probes);
+
+			metrics.reset();
+			lexer.setListener(null);
+			scanner = lexer.scan("xyz".toCharArray());
+			while (scanner.next() != ToyKeywords._EOF) {
+			}
+
+			for (long count : metrics.getProbeHistogram()) {
+				Assert.assertEquals(0, count);
+			}
+		}
+	}
+
+	/**
+	 * Test of register method, of class LexerMetrics.
+	 */
+	@Test
+	public void testRegister() throws Exception {
+		System.out.println("register");
+		LexerMetrics metrics = new LexerMetrics();
+		ToyLexer lexer = new ToyLexer();
+		lexer.setListener(metrics);
+		AbstractToyScanner scanner = lexer.scan("x = 1;".toCharArray());
+		while (scanner.next() != ToyKeywords._EOF) {
+		}
+
+		ObjectName name = metrics.register("test");
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			Assert.assertEquals(5L, server.getAttribute(name, "TokensLexed"));
+			Assert.assertEquals(6L, server.getAttribute(name, "CharactersLexed"));
+			server.invoke(name, "reset", null, null);
+			Assert.assertEquals(0L, metrics.getTokensLexed());
+		} finally {
+			LexerMetrics.unregister(name);
+		}
+
+		Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ParallelLexerTest {
+
+	/**
+	 * Fragments which are likely to span chunk boundaries.
+	 */
+	static final String[] FRAGMENTS = {
+		"/* a\n long\n\n block // comment */",
+		"\"a string // /* with\"",
+		"a<=b>=c==d!=e&&f||g",
+		"// line /* comment\n",
+		"0x1F 12.5e+3 1.e",
+		"identifier_with_a_long_name1",
+		"\n", " ", "\t", "@", "/", "*", "\"", "&", "|", "<", ">", "=",
+	};
+
+	public ParallelLexerTest() {
+	}
+
+	/**
+	 * Test of lex method, of class ParallelLexer.
+	 */
+	@Test
+	public void testLex() {
+		System.out.println("lex");
+		Random random = new Random(411);
+		try (ParallelLexer lexer = new ParallelLexer(4, 8)) {
+			for (int n = 0; n < 300; n++) {
+				StringBuilder input = new StringBuilder();
+				int length = random.nextInt(n + 1);
+				for (int i = 0; i < length; i++) {
+					if (random.nextBoolean()) {
+						input.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+					} else {
+						input.append(ToyScannerTest.INPUTS[random.nextInt(ToyScannerTest.INPUTS.length)]);
+					}
+				}
+
+				ToyScannerTest.assertSameTokens(input.toString(), lexer.lex(input.toString().toCharArray()));
+			}
+		}
+
+		try (ParallelLexer lexer = new ParallelLexer(3)) {
+			String input = "a /* \n*/ b\n";
+			StringBuilder large = new StringBuilder();
+			while (large.length() < (1<<18)) {
+				large.append(input);
+			}
+
+			ToyScannerTest.assertSameTokens(large.toString(), lexer.lex(large.toString().toCharArray()));
+		}
+
+		try (ParallelLexer lexer = new ParallelLexer(4, 8)) {
+			// Chunks begin within the comment, but only real identifiers are kept
+			String input = "real /*\nghost\nghost\nghost\n*/ other\n";
+			StringBuilder large = new StringBuilder();
+			while (large.length() < (1<<12)) {
+				large.append(input);
+			}
+
+			ToyScannerTest.assertSameTokens(large.toString(), lexer.lex(large.toString().toCharArray()));
+			Assert.assertTrue(lexer.getTrie().contains("real", ToyLexer.IDENTIFIER_SENTINEL));
+			Assert.assertTrue(lexer.getTrie().contains("other", ToyLexer.IDENTIFIER_SENTINEL));
+			Assert.assertFalse(lexer.getTrie().contains("ghost", ToyLexer.IDENTIFIER_SENTINEL));
+		}
+	}
+
+	/**
+	 * Test of split method, of class ParallelLexer.
+	 */
+	@Test
+	public void testSplit() {
+		System.out.println("split");
+		char[] chars = "ab\ncd\nef".toCharArray();
+		Assert.assertTrue(java.util.Arrays.equals(new int[] { 0, 8 }, ParallelLexer.split(chars, 1)));
+		Assert.assertTrue(java.util.Arrays.equals(new int[] { 0, 6, 8 }, ParallelLexer.split(chars, 2)));
+		Assert.assertTrue(java.util.Arrays.equals(new int[] { 0, 3, 6, 8 }, ParallelLexer.split(chars, 3)));
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class PushLexerTest {
+
+	public PushLexerTest() {
+	}
+
+	/**
+	 * Test of push method, of class PushLexer.
+	 */
+	@Test
+	public void testPush() {
+		System.out.println("push");
+		StringBuilder sb = new StringBuilder();
+		for (String input : ToyScannerTest.INPUTS) {
+			sb.append(input).append('\n');
+		}
+
+		sb.append("s = \"caf\u00e9 \u4e2d\"; 0x1F");
+		String input = sb.toString();
+		List<String> expected = scan(input);
+		for (int size = 1; size <= 7; size++) {
+			ToyLexer lexer = new ToyLexer();
+			List<String> actual = new ArrayList<String>();
+			PushLexer push = lexer.push(new Collector(actual));
+			for (int i = 0; i < input.length(); i += size) {
+				push.push(CharBuffer.wrap(input, i, Math.min(input.length(), i + size)));
+			}
+
+			push.end();
+			Assert.assertTrue(push.isEnded());
+			Assert.assertEquals("chars of " + size, expected, actual);
+
+			byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+			actual.clear();
+			push = lexer.push(new Collector(actual));
+			for (int i = 0; i < bytes.length; i += size) {
+				push.push(ByteBuffer.wrap(bytes, i, Math.min(bytes.length - i, size)));
+			}
+
+			push.end();
+			Assert.assertEquals("bytes of " + size, expected, actual);
+		}
+	}
+
+	/**
+	 * Test of push method, of class PushLexer, with tokens split across
+	 * pieces.
+	 */
+	@Test
+	public void testPush_Split() {
+		System.out.println("push (split)");
+		List<String> actual = new ArrayList<String>();
+		PushLexer push = new ToyLexer().push(new Collector(actual));
+		push.push(CharBuffer.wrap("x = 0"));
+		Assert.assertEquals(2, actual.size());
+		push.push(CharBuffer.wrap("x1F + abc"));
+		Assert.assertEquals(4, actual.size());
+		Assert.assertEquals("_integerliteral 4 4 0x1F 31.0", actual.get(2));
+		push.push(CharBuffer.wrap("def;"));
+		Assert.assertEquals("_id 11 6 abcdef", actual.get(4));
+		Assert.assertEquals(6, actual.size());
+		push.end();
+		Assert.assertEquals("_EOF 18 0 ", actual.get(6));
+
+		try {
+			push.end();
+			Assert.fail();
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	/**
+	 * Test of push method, of class PushLexer, using randomly generated
+	 * inputs split into pieces of random sizes, so that pieces end within
+	 * every part of every kind of token.
+	 */
+	@Test
+	public void testPush_Random() {
+		System.out.println("push (random)");
+		String alphabet = "abxXeE019_ \n\t\"/*+-.<>=!&|;(){}@";
+		String[] words = { "int", "true", "0x1f", "3.5e-2", "1.e+7", "//", "/*", "*/", "**/", "while" };
+		Random random = new Random(411);
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int length = random.nextInt(60);
+			for (int j = 0; j < length; j++) {
+				if (random.nextInt(4) == 0) {
+					sb.append(words[random.nextInt(words.length)]);
+				} else {
+					sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+				}
+			}
+
+			String input = sb.toString();
+			List<String> actual = new ArrayList<String>();
+			PushLexer push = new ToyLexer().push(new Collector(actual));
+			LexerMetrics metrics = new LexerMetrics();
+			push.setListener(metrics);
+			for (int from = 0; from < input.length(); ) {
+				int to = Math.min(input.length(), from + 1 + random.nextInt(4));
+				push.push(CharBuffer.wrap(input, from, to));
+				from = to;
+			}
+
+			push.end();
+			Assert.assertEquals(input, scan(input), actual);
+			Assert.assertEquals(input, input.length(), metrics.getCharactersLexed());
+		}
+	}
+
+	/**
+	 * Test of push method, of class PushLexer, with a comment, string and
+	 * number each spanning many pieces.
+	 */
+	@Test
+	public void testPush_Long() {
+		System.out.println("push (long)");
+		StringBuilder sb = new StringBuilder("a /*");
+		for (int i = 0; i < 1<<16; i++) {
+			sb.append(i % 7 == 0 ? '*' : 'c');
+		}
+
+		sb.append("*/ b \"");
+		for (int i = 0; i < 1<<16; i++) {
+			sb.append('s');
+		}
+
+		sb.append("\" 1.");
+		for (int i = 0; i < 1<<10; i++) {
+			sb.append('5');
+		}
+
+		sb.append("e-");
+		for (int i = 0; i < 1<<10; i++) {
+			sb.append('0');
+		}
+
+		sb.append("2 c");
+		String input = sb.toString();
+		List<String> actual = new ArrayList<String>();
+		PushLexer push = new ToyLexer().push(new Collector(actual));
+		for (int i = 0; i < input.length(); i += 3) {
+			push.push(CharBuffer.wrap(input, i, Math.min(input.length(), i + 3)));
+		}
+
+		push.end();
+		Assert.assertEquals(scan(input), actual);
+		Assert.assertEquals(6, actual.size());
+	}
+
+	/**
+	 * Returns a description of each token scanned from the specified input
+	 * all at once.
+	 *
+	 * @param input input to scan
+	 * @return the description of each token
+	 */
+	private static List<String> scan(String input) {
+		List<String> tokens = new ArrayList<String>();
+		AbstractToyScanner scanner = new ToyLexer().scan(input.toCharArray());
+		Token t;
+		do {
+			t = scanner.next();
+			String description = t + " " + scanner.getStart() + " " + scanner.getLength() + " " + scanner.getText();
+			if (t == ToyKeywords._integerliteral || t == ToyKeywords._doubleliteral) {
+				description += " " + scanner.getDoubleValue();
+			}
+
+			tokens.add(description);
+		} while (t != ToyKeywords._EOF);
+
+		return tokens;
+	}
+
+	/**
+	 * This class represents a sink which collects a description of each token
+	 * delivered.
+	 */
+	private static final class Collector implements PushLexer.Sink {
+		/**
+		 * Description of each token delivered.
+		 */
+		private final List<String> TOKENS;
+
+		/**
+		 * Constructs a Collector.
+		 *
+		 * @param tokens list to add descriptions to
+		 */
+		Collector(List<String> tokens) {
+			this.TOKENS = tokens;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void accept(Token token, PushLexer lexer) {
+			String description = token + " " + lexer.getStart() + " " + lexer.getLength() + " " + lexer.getText();
+			if (token == ToyKeywords._integerliteral || token == ToyKeywords._doubleliteral) {
+				description += " " + lexer.getDoubleValue();
+			}
+
+			TOKENS.add(description);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.StringReader;
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ScannerGeneratorTest {
+
+	public ScannerGeneratorTest() {
+	}
+
+	/**
+	 * Test of generate method, of class ScannerGenerator.
+	 */
+	@Test
+	public void testGenerate() {
+		System.out.println("generate");
+		String source = new ScannerGenerator("ToyKeywordsScanner", ToyKeywords.class, "_EOF", DfaLexer.TOY_SKIPPED).generate();
+		Assert.assertTrue(source.contains("public final class ToyKeywordsScanner extends AbstractScanner {"));
+		Assert.assertTrue(source.contains("return ToyKeywords._EOF;"));
+		Assert.assertFalse(source.contains("java.util.regex"));
+
+		try {
+			new ScannerGenerator("ToyKeywordsScanner", ToyKeywords.class, "EOF");
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Test of next method, of class ToyKeywordsScanner, which is generated
+	 * by ScannerGenerator when the project is built.
+	 */
+	@Test
+	public void testNext() {
+		System.out.println("next");
+		DfaLexer lexer = DfaLexer.forToyKeywords();
+		Random random = new Random(411);
+		StringBuilder large = new StringBuilder();
+		for (String input : ToyScannerTest.INPUTS) {
+			char[] chars = input.toCharArray();
+			assertSameTokens(input, lexer.scan(chars), new ToyKeywordsScanner(chars, 0, chars.length));
+			assertSameTokens(input, lexer.scan(new StringReader(input)), new ToyKeywordsScanner(new StringReader(input)));
+		}
+
+		while (large.length() < (1<<15)) {
+			if (random.nextBoolean()) {
+				large.append(ParallelLexerTest.FRAGMENTS[random.nextInt(ParallelLexerTest.FRAGMENTS.length)]);
+			} else {
+				large.append(ToyScannerTest.INPUTS[random.nextInt(ToyScannerTest.INPUTS.length)]);
+			}
+		}
+
+		String input = large.append(" \u00E9 \u2028x").toString();
+		assertSameTokens(input, lexer.scan(new StringReader(input)), new ToyKeywordsScanner(new StringReader(input)));
+
+		char[] chars = "x = 1;".toCharArray();
+		try {
+			new ToyKeywordsScanner(chars, 4, 3);
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+		}
+	}
+
+	/**
+	 * Asserts that the specified scanners generate the same tokens.
+	 *
+	 * @param input input which is scanned
+	 * @param expected scanner generating the expected tokens
+	 * @param actual scanner generating the actual tokens
+	 */
+	private static void assertSameTokens(String input, AbstractScanner expected, AbstractScanner actual) {
+		Token t;
+		do {
+			t = expected.next();
+			Assert.assertEquals(input, t, actual.next());
+			Assert.assertEquals(input, expected.getStart(), actual.getStart());
+			Assert.assertEquals(input, expected.getLength(), actual.getLength());
+		} while (t != ToyKeywords._EOF);
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class TokenCacheTest {
+
+	public TokenCacheTest() {
+	}
+
+	/**
+	 * Test of lex method, of class TokenCache.
+	 */
+	@Test
+	public void testLex() throws IOException {
+		System.out.println("lex");
+		Path root = Files.createTempDirectory("cache");
+		Path cache = root.resolve("tokens");
+		Path source = root.resolve("source.toy");
+		root.toFile().deleteOnExit();
+		source.toFile().deleteOnExit();
+
+		TokenCache tokens = new TokenCache(cache, 1<<20);
+		for (int i = 0; i < ToyScannerTest.INPUTS.length; i++) {
+			String input = ToyScannerTest.INPUTS[i];
+			Files.write(source, input.getBytes(StandardCharsets.UTF_8));
+			assertSameTokens(input, tokens.lex(source));
+			assertSameTokens(input, tokens.lex(source));
+			Assert.assertEquals(i+1, tokens.getMisses());
+			Assert.assertEquals(i+1, tokens.getHits());
+		}
+
+		TokenCache reopened = new TokenCache(cache, 1<<20);
+		Assert.assertEquals(tokens.size(), reopened.size());
+		Files.write(source, ToyScannerTest.INPUTS[2].getBytes(StandardCharsets.UTF_8));
+		assertSameTokens(ToyScannerTest.INPUTS[2], reopened.lex(source));
+		Assert.assertEquals(1, reopened.getHits());
+		Assert.assertEquals(0, reopened.getEvictions());
+
+		TokenCache small = new TokenCache(cache, TokenFile.HEADER_SIZE);
+		Files.write(source, "int evicted;".getBytes(StandardCharsets.UTF_8));
+		assertSameTokens("int evicted;", small.lex(source));
+		Assert.assertEquals(1, small.getMisses());
+		Assert.assertEquals(ToyScannerTest.INPUTS.length, small.getEvictions());
+		for (Path p : Files.newDirectoryStream(cache)) {
+			p.toFile().deleteOnExit();
+		}
+
+		cache.toFile().deleteOnExit();
+	}
+
+	/**
+	 * Test of lex method, of class TokenCache, with entries of another version
+	 * of the tokens.
+	 */
+	@Test
+	public void testLex_Version() throws IOException {
+		System.out.println("lex (version)");
+		Path root = Files.createTempDirectory("cache");
+		Path cache = root.resolve("tokens");
+		Path source = root.resolve("source.toy");
+		root.toFile().deleteOnExit();
+		source.toFile().deleteOnExit();
+
+		String input = ToyScannerTest.INPUTS[0];
+		Files.write(source, input.getBytes(StandardCharsets.UTF_8));
+		TokenCache tokens = new TokenCache(cache, 1<<20);
+		assertSameTokens(input, tokens.lex(source));
+		assertSameTokens(input, tokens.lex(source));
+		Assert.assertEquals(1, tokens.getMisses());
+		Assert.assertEquals(1, tokens.getHits());
+
+		TokenCache changed = new TokenCache(cache, 1<<20, TokenFile.TOKEN_SET_VERSION+1);
+		assertSameTokens(input, changed.lex(source));
+		Assert.assertEquals(1, changed.getMisses());
+		Assert.assertEquals(0, changed.getHits());
+		for (Path p : Files.newDirectoryStream(cache)) {
+			p.toFile().deleteOnExit();
+		}
+
+		cache.toFile().deleteOnExit();
+	}
+
+	/**
+	 * Test of lex method, of class TokenCache, with a source file which is
+	 * not ASCII and an entry which has been truncated.
+	 */
+	@Test
+	public void testLex_Truncated() throws IOException {
+		System.out.println("lex (truncated)");
+		Path root = Files.createTempDirectory("cache");
+		Path cache = root.resolve("tokens");
+		Path source = root.resolve("source.toy");
+		root.toFile().deleteOnExit();
+		source.toFile().deleteOnExit();
+
+		String input = "int \u00e9if = \u00e91; s = \"\u4e2d\"; x";
+		Files.write(source, input.getBytes(StandardCharsets.UTF_8));
+		TokenCache tokens = new TokenCache(cache, 1<<20);
+		assertSameSpans(input, tokens.lex(source));
+		assertSameSpans(input, tokens.lex(source));
+		Assert.assertEquals(1, tokens.getMisses());
+		Assert.assertEquals(1, tokens.getHits());
+
+		for (Path p : Files.newDirectoryStream(cache)) {
+			byte[] entry = Files.readAllBytes(p);
+			Files.write(p, Arrays.copyOf(entry, entry.length-3));
+			p.toFile().deleteOnExit();
+		}
+
+		assertSameSpans(input, tokens.lex(source));
+		Assert.assertEquals(2, tokens.getMisses());
+		assertSameSpans(input, tokens.lex(source));
+		Assert.assertEquals(2, tokens.getHits());
+		cache.toFile().deleteOnExit();
+	}
+
+	/**
+	 * Asserts that the specified tokens and their spans are the same as those
+	 * generated by {@link ToyLexer#scan(char[])} from the specified input.
+	 *
+	 * @param input input which was lexed
+	 * @param stream tokens generated from the input
+	 */
+	private static void assertSameSpans(String input, TokenStream stream) {
+		AbstractToyScanner scanner = new ToyLexer().scan(input.toCharArray());
+		int[] kinds = new int[1];
+		int[] starts = new int[1];
+		int[] lengths = new int[1];
+		do {
+			stream.nextBatch(kinds, starts, lengths);
+			Assert.assertEquals(input, TokenStream.kindOf(scanner.next()), kinds[0]);
+			Assert.assertEquals(input, scanner.getStart(), starts[0]);
+			Assert.assertEquals(input, scanner.getLength(), lengths[0]);
+		} while (kinds[0] != ToyKeywords._EOF.getId());
+	}
+
+	/**
+	 * Asserts that the specified tokens are the same as those generated from
+	 * the specified input.
+	 *
+	 * @param input input which was lexed
+	 * @param stream tokens generated from the input
+	 */
+	private static void assertSameTokens(String input, TokenStream stream) {
+		List<Token> expected = ToyScannerTest.referenceTokens(input);
+		for (Token t : expected) {
+			Assert.assertEquals(input, t, stream.next());
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class TokenFileTest {
+
+	public TokenFileTest() {
+	}
+
+	/**
+	 * Test of write and open methods, of class TokenFile.
+	 */
+	@Test
+	public void testWriteAndOpen() throws IOException {
+		System.out.println("write and open");
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			sb.append(ToyScannerTest.INPUTS[i % ToyScannerTest.INPUTS.length]).append('\n');
+		}
+
+		byte[] source = sb.toString().getBytes(StandardCharsets.UTF_8);
+		Path sourceFile = Files.createTempFile("source", ".toy");
+		Path tokenFile = Files.createTempFile("source", ".tok");
+		sourceFile.toFile().deleteOnExit();
+		tokenFile.toFile().deleteOnExit();
+		Files.write(sourceFile, source);
+
+		ToyLexer lexer = new ToyLexer();
+		int size = TokenFile.write(lexer.lex(sourceFile), TokenFile.hash(sourceFile), tokenFile);
+		TokenFile file = TokenFile.open(tokenFile);
+		Assert.assertEquals(size, file.size());
+		Assert.assertEquals(TokenFile.hash(source), file.getSourceHash());
+
+		AbstractToyScanner scanner = lexer.scan(sourceFile);
+		TokenStream stream = file.stream();
+		int[] kinds = new int[7];
+		int[] starts = new int[7];
+		int[] lengths = new int[7];
+		int count = 0;
+		int n;
+		do {
+			n = stream.nextBatch(kinds, starts, lengths);
+			for (int i = 0; i < n; i++) {
+				Assert.assertEquals(TokenStream.kindOf(scanner.next()), kinds[i]);
+				Assert.assertEquals(scanner.getStart(), starts[i]);
+				Assert.assertEquals(scanner.getLength(), lengths[i]);
+			}
+
+			count += n;
+		} while (kinds[n-1] != ToyKeywords._EOF.getId());
+
+		Assert.assertEquals(size, count);
+		Assert.assertEquals(ToyKeywords._EOF, stream.next());
+
+		stream = file.stream();
+		for (Token t : ToyScannerTest.referenceTokens(sb.toString())) {
+			Assert.assertEquals(t, stream.next());
+		}
+
+		byte[] written = Files.readAllBytes(tokenFile);
+		Files.write(tokenFile, Arrays.copyOf(written, written.length-3));
+		try {
+			TokenFile.open(tokenFile);
+			Assert.fail();
+		} catch (IOException e) {
+		}
+
+		Files.write(tokenFile, source);
+		try {
+			TokenFile.open(tokenFile);
+			Assert.fail();
+		} catch (IOException e) {
+		}
+	}
+
+	/**
+	 * Test of tokenSetVersion method, of class TokenFile.
+	 */
+	@Test
+	public void testTokenSetVersion() {
+		System.out.println("tokenSetVersion");
+		Token[] tokens = ToyKeywords.values();
+		Assert.assertEquals(TokenFile.TOKEN_SET_VERSION, TokenFile.tokenSetVersion(tokens, TokenFile.SCANNER_VERSION));
+		Assert.assertFalse(TokenFile.TOKEN_SET_VERSION == TokenFile.tokenSetVersion(tokens, TokenFile.SCANNER_VERSION+1));
+
+		// Redefining a token without renaming it changes the version
+		Token[] redefined = new Token[tokens.length];
+		System.arraycopy(tokens, 0, redefined, 0, tokens.length);
+		redefined[ToyKeywords._stringliteral.getId()] = new Token() {
+			@Override
+			public String getRegex() {
+				return "\"[^\"]*\"";
+			}
+
+			@Override
+			public boolean isRegex() {
+				return true;
+			}
+
+			@Override
+			public int getId() {
+				return ToyKeywords._stringliteral.getId();
+			}
+
+			@Override
+			public String toString() {
+				return ToyKeywords._stringliteral.toString();
+			}
+		};
+
+		Assert.assertFalse(TokenFile.TOKEN_SET_VERSION == TokenFile.tokenSetVersion(redefined, TokenFile.SCANNER_VERSION));
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class TokenPublisherTest {
+
+	public TokenPublisherTest() {
+	}
+
+	/**
+	 * Test of subscribe method, of class TokenPublisher.
+	 */
+	@Test
+	public void testSubscribe() throws Exception {
+		System.out.println("subscribe");
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append("x").append(i).append(" = 0x1F + y; @ ");
+		}
+
+		String input = sb.toString();
+		List<Token> expected = new ArrayList<Token>();
+		AbstractToyScanner scanner = new ToyLexer().scan(input.toCharArray());
+		for (Token t = scanner.next(); t != ToyKeywords._EOF; t = scanner.next()) {
+			expected.add(t == null ? TokenPublisher.INVALID : t);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			ToyLexer lexer = new ToyLexer();
+			LexerMetrics metrics = new LexerMetrics();
+			lexer.setListener(metrics);
+			TokenPublisher publisher = lexer.publish(new StringReader(input), executor);
+			Recorder recorder = new Recorder();
+			publisher.subscribe(recorder);
+			Assert.assertNotNull(recorder.subscription);
+
+			recorder.request(5);
+			Assert.assertEquals(5, recorder.tokens.size());
+			Assert.assertEquals(5, metrics.getTokensLexed());
+
+			recorder.request(expected.size() - 5);
+			Assert.assertEquals(expected, recorder.tokens);
+			Assert.assertFalse(recorder.completed);
+
+			recorder.subscription.request(Long.MAX_VALUE);
+			Assert.assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+			Assert.assertTrue(recorder.completed);
+			Assert.assertNull(recorder.error);
+			Assert.assertEquals(expected, recorder.tokens);
+
+			Recorder second = new Recorder();
+			publisher.subscribe(second);
+			Assert.assertTrue(second.error instanceof IllegalStateException);
+
+			publisher = lexer.publish(new StringReader(input), executor);
+			Recorder invalid = new Recorder();
+			publisher.subscribe(invalid);
+			invalid.subscription.request(0);
+			Assert.assertTrue(invalid.done.await(10, TimeUnit.SECONDS));
+			Assert.assertTrue(invalid.error instanceof IllegalArgumentException);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Test of subscribe method, of class TokenPublisher, with a Reader which
+	 * fails.
+	 */
+	@Test
+	public void testSubscribe_Error() throws Exception {
+		System.out.println("subscribe (error)");
+		Reader failing = new Reader() {
+			private boolean read;
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				if (read) {
+					throw new IOException("connection reset");
+				}
+
+				read = true;
+				"int x;".getChars(0, 6, cbuf, off);
+				return 6;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Recorder recorder = new Recorder();
+			new ToyLexer().publish(failing, executor).subscribe(recorder);
+			recorder.subscription.request(Long.MAX_VALUE);
+			Assert.assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+			Assert.assertEquals(3, recorder.tokens.size());
+			Assert.assertFalse(recorder.completed);
+			Assert.assertEquals("connection reset", recorder.error.getMessage());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * This class represents a subscriber which records what it is sent.
+	 */
+	private static final class Recorder implements TokenPublisher.Subscriber {
+		/**
+		 * Tokens received.
+		 */
+		final List<Token> tokens = new ArrayList<Token>();
+
+		/**
+		 * Counted down once the subscriber is completed or fails.
+		 */
+		final CountDownLatch done = new CountDownLatch(1);
+
+		/**
+		 * Subscription received.
+		 */
+		volatile TokenPublisher.Subscription subscription;
+
+		/**
+		 * Exception received, or {@code null}.
+		 */
+		volatile Throwable error;
+
+		/**
+		 * Whether or not the subscriber was completed.
+		 */
+		volatile boolean completed;
+
+		/**
+		 * Requests the specified number of tokens and waits until they have
+		 * all arrived.
+		 *
+		 * @param n number of tokens to request
+		 */
+		void request(int n) throws InterruptedException {
+			int expected;
+			synchronized (tokens) {
+				expected = tokens.size() + n;
+			}
+
+			subscription.request(n);
+			synchronized (tokens) {
+				while (tokens.size() < expected) {
+					tokens.wait();
+				}
+			}
+
+			// Give the publisher a chance to deliver more than requested
+			Thread.sleep(20);
+			synchronized (tokens) {
+				Assert.assertEquals(expected, tokens.size());
+			}
+		}
+
+		@Override
+		public void onSubscribe(TokenPublisher.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(Token token) {
+			synchronized (tokens) {
+				tokens.add(token);
+				tokens.notifyAll();
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			error = t;
+			done.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+			done.countDown();
+		}
+	}
+}
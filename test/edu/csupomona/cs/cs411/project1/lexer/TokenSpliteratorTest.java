@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import edu.csupomona.cs.cs411.project1.trie.ConcurrentMultiTrie;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class TokenSpliteratorTest {
+
+	public TokenSpliteratorTest() {
+	}
+
+	/**
+	 * Test of trySplit method, of class TokenSpliterator.
+	 */
+	@Test
+	public void testTrySplit() {
+		System.out.println("trySplit");
+		Random random = new Random(411);
+		ToyLexer lexer = new ToyLexer();
+		for (int n = 0; n < 300; n++) {
+			String input = randomInput(random, n);
+			char[] chars = input.toCharArray();
+			TokenSpliterator spliterator = new TokenSpliterator(chars, 0, chars.length, lexer.getTrie(), null, 4);
+			List<TokenSpliterator> ranges = new ArrayList<TokenSpliterator>();
+			split(spliterator, ranges);
+			TokenBuffer tokens = new TokenBuffer();
+			for (TokenSpliterator range : ranges) {
+				range.forEachRemaining(collector(tokens));
+			}
+
+			ToyScannerTest.assertSameTokens(input, tokens);
+		}
+
+		char[] chars = "abc def".toCharArray();
+		TokenSpliterator spliterator = new TokenSpliterator(chars, new ToyLexer().getTrie(), null);
+		Assert.assertNull(spliterator.trySplit());
+		Assert.assertEquals(chars.length, spliterator.estimateSize());
+		TokenBuffer tokens = new TokenBuffer();
+		Assert.assertTrue(spliterator.tryAdvance(collector(tokens)));
+		Assert.assertEquals(ToyKeywords._id, tokens.getToken(0));
+		spliterator.forEachRemaining(collector(tokens));
+		Assert.assertFalse(spliterator.tryAdvance(collector(tokens)));
+		Assert.assertEquals(0, spliterator.estimateSize());
+		Assert.assertEquals(ToyKeywords._EOF, tokens.getToken(tokens.size()-1));
+	}
+
+	/**
+	 * Test of aggregate method, of class TokenSpliterator.
+	 */
+	@Test
+	public void testAggregate() {
+		System.out.println("aggregate");
+		Random random = new Random(411);
+		StringBuilder large = new StringBuilder();
+		while (large.length() < (1<<18)) {
+			large.append(randomInput(random, 20));
+			large.append('\n');
+		}
+
+		String input = large.toString();
+		ToyLexer lexer = new ToyLexer(new ConcurrentMultiTrie());
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			TokenSpliterator spliterator = new TokenSpliterator(input.toCharArray(), 0, input.length(), lexer.getTrie(), null, 1<<10);
+			TokenBuffer tokens = spliterator.aggregate(pool, new TokenSpliterator.Aggregator<TokenBuffer>() {
+				@Override
+				public TokenBuffer create() {
+					return new TokenBuffer();
+				}
+
+				@Override
+				public void accumulate(TokenBuffer container, Token token, int start, int length) {
+					container.add(token, start, length);
+				}
+
+				@Override
+				public TokenBuffer combine(TokenBuffer left, TokenBuffer right) {
+					left.addAll(right, 0, right.size());
+					return left;
+				}
+			});
+
+			ToyScannerTest.assertSameTokens(input, tokens);
+
+			int[] counts = lexer.spliterator(input.toCharArray()).aggregate(pool, new TokenSpliterator.Aggregator<int[]>() {
+				@Override
+				public int[] create() {
+					return new int[ToyKeywords.values().length];
+				}
+
+				@Override
+				public void accumulate(int[] container, Token token, int start, int length) {
+					if (token != null) {
+						container[token.getId()]++;
+					}
+				}
+
+				@Override
+				public int[] combine(int[] left, int[] right) {
+					for (int i = 0; i < left.length; i++) {
+						left[i] += right[i];
+					}
+
+					return left;
+				}
+			});
+
+			int[] expected = new int[ToyKeywords.values().length];
+			for (int i = 0; i < tokens.size(); i++) {
+				if (tokens.getToken(i) != null) {
+					expected[tokens.getToken(i).getId()]++;
+				}
+			}
+
+			Assert.assertTrue(Arrays.equals(expected, counts));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test of findBoundaries method, of class TokenSpliterator.
+	 */
+	@Test
+	public void testFindBoundaries() {
+		System.out.println("findBoundaries");
+		char[] chars = "a\n/* \n */\n\"s\nb // \"\nc".toCharArray();
+		Assert.assertTrue(Arrays.equals(new int[] { 2, 10, 13, 20 }, TokenSpliterator.findBoundaries(chars, 0, chars.length, 1)));
+		Assert.assertTrue(Arrays.equals(new int[] { 10, 20 }, TokenSpliterator.findBoundaries(chars, 0, chars.length, 8)));
+		Assert.assertTrue(Arrays.equals(new int[] { 20 }, TokenSpliterator.findBoundaries(chars, 10, chars.length, 8)));
+
+		chars = "a /* \n */\n/*\n".toCharArray();
+		Assert.assertTrue(Arrays.equals(new int[] { 10 }, TokenSpliterator.findBoundaries(chars, 0, chars.length, 1)));
+	}
+
+	/**
+	 * Returns an input built from random tokens and fragments which are
+	 * likely to span boundaries.
+	 *
+	 * @param random source of randomness
+	 * @param n maximum number of pieces within the input
+	 * @return the input built
+	 */
+	private static String randomInput(Random random, int n) {
+		StringBuilder input = new StringBuilder();
+		int length = random.nextInt(n + 1);
+		for (int i = 0; i < length; i++) {
+			if (random.nextBoolean()) {
+				input.append(ParallelLexerTest.FRAGMENTS[random.nextInt(ParallelLexerTest.FRAGMENTS.length)]);
+			} else {
+				input.append(ToyScannerTest.INPUTS[random.nextInt(ToyScannerTest.INPUTS.length)]);
+			}
+		}
+
+		return input.toString();
+	}
+
+	/**
+	 * Splits the specified spliterator as far as possible, adding the ranges
+	 * which cannot be split in order.
+	 *
+	 * @param spliterator spliterator to split
+	 * @param ranges list to add the ranges to
+	 */
+	private static void split(TokenSpliterator spliterator, List<TokenSpliterator> ranges) {
+		TokenSpliterator prefix = spliterator.trySplit();
+		if (prefix == null) {
+			ranges.add(spliterator);
+			return;
+		}
+
+		split(prefix, ranges);
+		split(spliterator, ranges);
+	}
+
+	/**
+	 * Returns a visitor which appends each token to the specified buffer.
+	 *
+	 * @param tokens buffer to append tokens to
+	 * @return the visitor created
+	 */
+	private static TokenSpliterator.Visitor collector(final TokenBuffer tokens) {
+		return new TokenSpliterator.Visitor() {
+			@Override
+			public void visit(Token token, int start, int length) {
+				tokens.add(token, start, length);
+			}
+		};
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.StringReader;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class TokenStreamTest {
+
+	public TokenStreamTest() {
+	}
+
+	/**
+	 * Test of nextBatch method, of class TokenStream.
+	 */
+	@Test
+	public void testNextBatch() {
+		System.out.println("nextBatch");
+		StringBuilder sb = new StringBuilder();
+		for (String input : ToyScannerTest.INPUTS) {
+			sb.append(input).append(' ');
+		}
+
+		String input = sb.toString();
+		ToyLexer lexer = new ToyLexer();
+		AbstractToyScanner scanner = lexer.scan(input.toCharArray());
+		TokenStream stream = lexer.lex(new StringReader(input));
+		Token peeked = stream.peek();
+		int[] kinds = new int[8];
+		int[] starts = new int[8];
+		int[] lengths = new int[8];
+		int n;
+		boolean first = true;
+		do {
+			n = stream.nextBatch(kinds, starts, lengths, 1, 7);
+			Assert.assertTrue(0 < n && n <= 7);
+			for (int i = 1; i <= n; i++) {
+				Token t = scanner.next();
+				if (first) {
+					Assert.assertEquals(peeked, t);
+					first = false;
+				}
+
+				Assert.assertEquals(TokenStream.kindOf(t), kinds[i]);
+				Assert.assertEquals(scanner.getStart(), starts[i]);
+				Assert.assertEquals(scanner.getLength(), lengths[i]);
+			}
+		} while (kinds[n] != ToyKeywords._EOF.getId());
+
+		Assert.assertEquals(0, stream.nextBatch(kinds, starts, lengths, 8, 0));
+		try {
+			stream.nextBatch(kinds, starts, lengths, 2, 7);
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.util.HashSet;
+import java.util.Set;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ToyKeywordHashTest {
+
+	public ToyKeywordHashTest() {
+	}
+
+	/**
+	 * Test of lookup method, of class ToyKeywordHash.
+	 */
+	@Test
+	public void testLookup() {
+		System.out.println("lookup");
+		Assert.assertEquals(ToyKeywords.ACTUAL_KEYWORDS.size()+2, ToyKeywordHash.size());
+
+		Set<Integer> slots = new HashSet<Integer>();
+		for (ToyKeywords k : ToyKeywords.ACTUAL_KEYWORDS) {
+			Assert.assertEquals(k, ToyKeywordHash.lookup(k.getRegex()));
+			Assert.assertTrue(slots.add(ToyKeywordHash.slotOf(k.getRegex().hashCode())));
+		}
+
+		Assert.assertEquals(ToyKeywords._booleanliteral, ToyKeywordHash.lookup("true"));
+		Assert.assertEquals(ToyKeywords._booleanliteral, ToyKeywordHash.lookup("false"));
+
+		String[] identifiers = { "x", "iff", "If", "Int", "truex", "fals", "_while", "bool_", "newarray1" };
+		for (String id : identifiers) {
+			Assert.assertNull(id, ToyKeywordHash.lookup(id));
+		}
+	}
+}
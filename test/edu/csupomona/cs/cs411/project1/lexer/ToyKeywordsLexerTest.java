@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.StringReader;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ToyKeywordsLexerTest {
+
+	public ToyKeywordsLexerTest() {
+	}
+
+	/**
+	 * Test of lex method, of class ToyKeywordsLexer.
+	 */
+	@Test
+	public void testLex() {
+		System.out.println("lex");
+		DfaLexer expected = DfaLexer.forToyKeywords();
+		ToyKeywordsLexer instance = new ToyKeywordsLexer();
+		for (String input : ToyScannerTest.INPUTS) {
+			TokenStream tokens = expected.lex(new StringReader(input));
+			TokenStream actual = instance.lex(new StringReader(input));
+			Token t;
+			do {
+				t = tokens.next();
+				Assert.assertEquals(input, t, actual.next());
+			} while (t != ToyKeywords._EOF);
+		}
+	}
+
+	/**
+	 * Test of next method, of class ToyKeywordsLexer.
+	 */
+	@Test
+	public void testNext() {
+		System.out.println("next");
+		ToyKeywordsLexer instance = new ToyKeywordsLexer();
+		StringReader r = new StringReader("int x; // note\nx = 0x1F;");
+		Assert.assertEquals(ToyKeywords._int, instance.next(r));
+		Assert.assertEquals(ToyKeywords._id, instance.next(r));
+		Assert.assertEquals(ToyKeywords._semicolon, instance.next(r));
+		Assert.assertEquals(ToyKeywords._id, instance.next(r));
+		Assert.assertEquals(ToyKeywords._assignop, instance.next(r));
+		Assert.assertEquals(ToyKeywords._integerliteral, instance.next(r));
+		Assert.assertEquals(ToyKeywords._semicolon, instance.next(r));
+		Assert.assertEquals(ToyKeywords._EOF, instance.next(r));
+
+		char[] chars = "while".toCharArray();
+		Assert.assertEquals(ToyKeywords._while, instance.scan(chars).next());
+	}
+}
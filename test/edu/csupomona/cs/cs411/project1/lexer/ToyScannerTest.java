@@ -0,0 +1,459 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.lexer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ToyScannerTest {
+	/**
+	 * Inputs covering each branch of {@link ToyLexer#next(java.io.Reader)}.
+	 */
+	static final String[] INPUTS = {
+		"",
+		"   \n\t ",
+		"int x = 0x1F + 012 - 3.14e+10 * 2.E5 / 7.;",
+		"0x 0xg 0X 1.2E 1.2e- 1.2e+ 1.e5 0 0x",
+		"class Foo extends Bar implements Baz { bool b = true || false && !b; }",
+		"a<=b>=c==d!=e<f>g=h!i&j|k&&l||m",
+		"println(\"hello, world\"); readln(\"broken\n\"); \"unterminated",
+		"// line comment\nx // trailing",
+		"/* block */ y /*/ still comment */ z /** also */ w /* unterminated",
+		"newarray(int, 10)[i]; _bad @ # $ ` x_1 y2 Z3_",
+		"<", ">", "=", "!", "&", "|", "/", "\"", "0", "7", "1.", "a",
+		"if (x) { return; } else { while (y) break; for (;;) void; }",
+		"double d = 12.2E+2 + 0.12 + 12.E2; string s = \"\"; interface",
+		"string s = \"h\u00e9llo w\u00f6rld \u2603\"; s",
+	};
+
+	public ToyScannerTest() {
+	}
+
+	/**
+	 * Test of next method, of class ToyScanner.
+	 */
+	@Test
+	public void testNext() {
+		System.out.println("next");
+		for (String input : INPUTS) {
+			assertSameTokens(input);
+		}
+	}
+
+	/**
+	 * Test of next method, of class ToyScanner, using randomly generated
+	 * inputs.
+	 */
+	@Test
+	public void testNext_Random() {
+		System.out.println("next (random)");
+		String alphabet = "abxXeE019_ \n\t\"/*+-.<>=!&|;(){}@";
+		String[] words = { "int", "true", "false", "0x1f", "3.5e-2", "//", "/*", "*/", "while" };
+		Random random = new Random(411);
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int length = random.nextInt(40);
+			for (int j = 0; j < length; j++) {
+				if (random.nextInt(4) == 0) {
+					sb.append(words[random.nextInt(words.length)]);
+				} else {
+					sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+				}
+			}
+
+			assertSameTokens(sb.toString());
+		}
+	}
+
+	/**
+	 * Test of next method, of class ToyScanner, using whitespace, comments and
+	 * strings long enough to be skipped several characters at a time, starting
+	 * at every offset within a word.
+	 */
+	@Test
+	public void testNext_Bulk() {
+		System.out.println("next (bulk)");
+		String[] bodies = {
+			"          \t\t  \r\n    \f  \u000B  \u001C  x",
+			"// a long line comment with * and \" and / within it\ny",
+			"/* a long block comment ** / * with \" and \n new lines **/z",
+			"/* an unterminated block comment which ends with a star *",
+			"\"a long string literal with // and /* and \\ within it\" w",
+			"\"a long string literal broken by a new line\nv",
+			"// a line comment which ends at the end of the input",
+		};
+
+		for (String body : bodies) {
+			for (int offset = 0; offset < 16; offset++) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < offset; i++) {
+					sb.append(i % 2 == 0 ? 'a' : ' ');
+				}
+
+				sb.append(' ').append(body);
+				assertSameTokens(sb.toString());
+			}
+		}
+
+		String input = "a    /* comment ***/ b // comment\n \"string\"   c";
+		ByteBuffer bytes = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+		List<Token> expected = referenceTokens(input);
+		Assert.assertEquals(expected, tokens(new ByteToyScanner(bytes, new ToyLexer().getTrie()), expected.size()));
+
+		Assert.assertEquals(0x8000000000000080L, ByteToyScanner.zeros(0x0001020304050600L));
+		Assert.assertEquals(0x0000800000000000L, ByteToyScanner.zeros(0x8080008080808080L));
+		Assert.assertEquals(0L, ByteToyScanner.zeros(0x0101010101010101L));
+	}
+
+	/**
+	 * Test of next method, of class ToyScanner, with whitespace and comments
+	 * much longer than the window, which must be discarded as they are
+	 * skipped instead of growing the window.
+	 */
+	@Test
+	public void testNext_LongComment() throws IOException {
+		System.out.println("next (long comment)");
+		StringBuilder sb = new StringBuilder("a /*");
+		for (int i = 0; i < 1<<16; i++) {
+			sb.append(i % 5 == 0 ? '*' : 'c');
+		}
+
+		sb.append("*/ b //");
+		for (int i = 0; i < 1<<16; i++) {
+			sb.append('d');
+		}
+
+		sb.append('\n');
+		for (int i = 0; i < 1<<16; i++) {
+			sb.append(' ');
+		}
+
+		sb.append('c');
+		final int[] maxRead = new int[1];
+		Reader r = new StringReader(sb.toString()) {
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				maxRead[0] = Math.max(maxRead[0], len);
+				return super.read(cbuf, off, len);
+			}
+		};
+
+		ToyScanner scanner = new ToyScanner(r, new ToyLexer().getTrie(), 16);
+		Assert.assertEquals(ToyKeywords._id, scanner.next());
+		Assert.assertEquals(ToyKeywords._id, scanner.next());
+		Assert.assertEquals("b", scanner.getText());
+		Assert.assertEquals(ToyKeywords._id, scanner.next());
+		Assert.assertEquals("c", scanner.getText());
+		Assert.assertEquals(sb.length()-1, scanner.getStart());
+		Assert.assertEquals(ToyKeywords._EOF, scanner.next());
+		Assert.assertTrue(maxRead[0] <= 16);
+	}
+
+	/**
+	 * Test of getStart, getLength and getText methods, of class ToyScanner.
+	 */
+	@Test
+	public void testGetText() {
+		System.out.println("getText");
+		String input = "int  foo = 0x1F; /* c */ \"str\" foo\n";
+		String[] texts = { "int", "foo", "=", "0x1F", ";", "\"str\"", "foo", "" };
+		List<AbstractToyScanner> scanners = new ArrayList<AbstractToyScanner>();
+		scanners.add(new ToyLexer().scan(input.toCharArray()));
+		scanners.add(new ToyScanner(new StringReader(input), new ToyLexer().getTrie(), 2));
+		scanners.add(new ToyLexer().scan(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8))));
+		for (AbstractToyScanner scanner : scanners) {
+			for (String text : texts) {
+				scanner.next();
+				Assert.assertEquals(text, scanner.getText());
+				Assert.assertEquals(text.length(), scanner.getLength());
+				Assert.assertEquals(text, input.substring(scanner.getStart(), scanner.getStart() + scanner.getLength()));
+			}
+		}
+
+		// Keywords are inserted first, so identifiers are numbered after them
+		int foo = ToyKeywords.ACTUAL_KEYWORDS.size();
+		int[] symbols = { -1, foo, -1, -1, -1, -1, foo, -1 };
+		ToyLexer lexer = new ToyLexer();
+		AbstractToyScanner symbolScanner = lexer.scan(input.toCharArray());
+		for (int symbol : symbols) {
+			symbolScanner.next();
+			Assert.assertEquals(symbol, symbolScanner.getSymbol());
+		}
+
+		symbolScanner = lexer.scan(new StringReader("bar foo"));
+		Assert.assertEquals(ToyKeywords._id, symbolScanner.next());
+		Assert.assertEquals(foo+1, symbolScanner.getSymbol());
+		Assert.assertEquals(ToyKeywords._id, symbolScanner.next());
+		Assert.assertEquals(foo, symbolScanner.getSymbol());
+
+		byte[] bytes = "\"h\u00e9\" x".getBytes(StandardCharsets.UTF_8);
+		AbstractToyScanner scanner = new ToyLexer().scan(ByteBuffer.wrap(bytes));
+		Assert.assertEquals(ToyKeywords._stringliteral, scanner.next());
+		Assert.assertEquals("\"h\u00e9\"", scanner.getText());
+		Assert.assertEquals(5, scanner.getLength());
+		Assert.assertEquals(ToyKeywords._id, scanner.next());
+		Assert.assertEquals(6, scanner.getStart());
+	}
+
+	/**
+	 * Test of getLongValue and isOverflow methods, of class ToyScanner.
+	 */
+	@Test
+	public void testGetLongValue() {
+		System.out.println("getLongValue");
+		String input = "0 42 007 0x1F 0XfF 9223372036854775807 9223372036854775808 0x7FFFFFFFFFFFFFFF 0x8000000000000000 0x 1.5 \u0663\u0664";
+		long[] values = { 0, 42, 7, 0x1F, 0xFF, Long.MAX_VALUE, -1, Long.MAX_VALUE, -1, 0 };
+		List<AbstractToyScanner> scanners = new ArrayList<AbstractToyScanner>();
+		scanners.add(new ToyLexer().scan(input.toCharArray()));
+		scanners.add(new ToyScanner(new StringReader(input), new ToyLexer().getTrie(), 2));
+		for (AbstractToyScanner scanner : scanners) {
+			for (long value : values) {
+				Assert.assertEquals(ToyKeywords._integerliteral, scanner.next());
+				Assert.assertEquals(value == -1, scanner.isOverflow());
+				if (value == -1) {
+					try {
+						scanner.getLongValue();
+						Assert.fail();
+					} catch (ArithmeticException e) {
+					}
+				} else {
+					Assert.assertEquals(value, scanner.getLongValue());
+				}
+			}
+
+			// "0x" is lexed as 0 followed by the identifier x
+			Assert.assertEquals(ToyKeywords._id, scanner.next());
+			Assert.assertFalse(scanner.isOverflow());
+			try {
+				scanner.getLongValue();
+				Assert.fail();
+			} catch (IllegalStateException e) {
+			}
+
+			Assert.assertEquals(ToyKeywords._doubleliteral, scanner.next());
+			Assert.assertFalse(scanner.isOverflow());
+			Assert.assertEquals(ToyKeywords._integerliteral, scanner.next());
+			Assert.assertEquals(34, scanner.getLongValue());
+		}
+	}
+
+	/**
+	 * Test of getDoubleValue method, of class ToyScanner.
+	 */
+	@Test
+	public void testGetDoubleValue() {
+		System.out.println("getDoubleValue");
+		String[] literals = {
+			"1.5", "0.1", "12.e2", "12.2E+2", "0.12", "1.e", "3.14159265358979323846",
+			"2.2250738585072012e-308", "4.9e-324", "2.4e-324", "1.7976931348623157e308",
+			"1.8e308", "123456789012345678901234567890.0", "0.000000000000000000000000001",
+			"1.0e99999999999", "1.0e-99999999999", "17", "9223372036854775808", "0x10",
+			"0x10000000000000000",
+		};
+
+		double[] values = {
+			1.5, 0.1, 12e2, 12.2e2, 0.12, 1.0, Math.PI,
+			2.2250738585072012e-308, 4.9e-324, 0.0, Double.MAX_VALUE,
+			Double.POSITIVE_INFINITY, 123456789012345678901234567890.0, 1e-27,
+			Double.POSITIVE_INFINITY, 0.0, 17, 9223372036854775808.0, 16,
+			18446744073709551616.0,
+		};
+
+		StringBuilder input = new StringBuilder();
+		for (String literal : literals) {
+			input.append(literal).append(' ');
+		}
+
+		List<AbstractToyScanner> scanners = new ArrayList<AbstractToyScanner>();
+		scanners.add(new ToyLexer().scan(input.toString().toCharArray()));
+		scanners.add(new ToyScanner(new StringReader(input.toString()), new ToyLexer().getTrie(), 3));
+		scanners.add(new ToyLexer().scan(ByteBuffer.wrap(input.toString().getBytes(StandardCharsets.UTF_8))));
+		for (AbstractToyScanner scanner : scanners) {
+			for (int i = 0; i < literals.length; i++) {
+				scanner.next();
+				Assert.assertEquals(literals[i], values[i], scanner.getDoubleValue());
+				if (literals[i].equals("1.e")) {
+					Assert.assertEquals(ToyKeywords._id, scanner.next());
+				}
+			}
+		}
+
+		AbstractToyScanner scanner = new ToyLexer().scan("x".toCharArray());
+		scanner.next();
+		try {
+			scanner.getDoubleValue();
+			Assert.fail();
+		} catch (IllegalStateException e) {
+		}
+
+		Random random = new Random(411);
+		input.setLength(0);
+		List<String> randomLiterals = new ArrayList<String>();
+		for (int i = 0; i < 10000; i++) {
+			String literal = ((random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63)) + "." + ((random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63)) + "e" + (random.nextInt(700) - 350);
+			randomLiterals.add(literal);
+			input.append(literal).append(' ');
+		}
+
+		scanner = new ToyLexer().scan(input.toString().toCharArray());
+		for (String literal : randomLiterals) {
+			Assert.assertEquals(ToyKeywords._doubleliteral, scanner.next());
+			Assert.assertEquals(literal, Double.parseDouble(literal), scanner.getDoubleValue());
+		}
+	}
+
+	/**
+	 * Asserts that {@link ToyScanner} and {@link ByteToyScanner} generate the
+	 * same tokens as {@link ToyLexer#next(java.io.Reader)} for the specified
+	 * input, using windows small enough to require refilling.
+	 *
+	 * @param input input to lex
+	 */
+	static void assertSameTokens(String input) {
+		List<Token> expected = referenceTokens(input);
+		Assert.assertEquals(input, expected, tokens(new ToyScanner(input.toCharArray(), 0, input.length(), new ToyLexer().getTrie()), expected.size()));
+		for (int windowSize = 1; windowSize <= 4; windowSize++) {
+			ToyScanner scanner = new ToyScanner(new StringReader(input), new ToyLexer().getTrie(), windowSize);
+			Assert.assertEquals(input, expected, tokens(scanner, expected.size()));
+		}
+
+		ByteBuffer bytes = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+		Assert.assertEquals(input, expected, tokens(new ByteToyScanner(bytes, new ToyLexer().getTrie()), expected.size()));
+	}
+
+	/**
+	 * Returns the tokens generated by {@link ToyLexer#next(java.io.Reader)}
+	 * up to and including the first {@link ToyKeywords#_EOF}.
+	 *
+	 * @param input input to lex
+	 * @return the tokens generated
+	 */
+	static List<Token> referenceTokens(String input) {
+		ToyLexer lexer = new ToyLexer();
+		Reader r = new ReadyReader(input);
+		List<Token> tokens = new ArrayList<Token>();
+		Token t;
+		do {
+			t = lexer.next(r);
+			tokens.add(t);
+		} while (t != ToyKeywords._EOF);
+
+		return tokens;
+	}
+
+	/**
+	 * Asserts that the specified tokens are the same as those generated by
+	 * {@link ToyLexer#scan(char[])}.
+	 *
+	 * @param input input which was lexed
+	 * @param tokens tokens generated from the input
+	 */
+	static void assertSameTokens(String input, TokenBuffer tokens) {
+		AbstractToyScanner scanner = new ToyLexer().scan(input.toCharArray());
+		int i = 0;
+		Token t;
+		do {
+			t = scanner.next();
+			Assert.assertTrue(input, i < tokens.size());
+			Assert.assertEquals(input, t, tokens.getToken(i));
+			Assert.assertEquals(input, scanner.getStart(), tokens.getStart(i));
+			Assert.assertEquals(input, scanner.getLength(), tokens.getLength(i));
+			i++;
+		} while (t != ToyKeywords._EOF);
+
+		Assert.assertEquals(input, i, tokens.size());
+	}
+
+	/**
+	 * Returns the specified number of tokens generated by a scanner.
+	 *
+	 * @param scanner scanner to generate tokens with
+	 * @param count number of tokens to generate
+	 * @return the tokens generated
+	 */
+	static List<Token> tokens(AbstractToyScanner scanner, int count) {
+		List<Token> tokens = new ArrayList<Token>();
+		for (int i = 0; i < count; i++) {
+			tokens.add(scanner.next());
+		}
+
+		return tokens;
+	}
+
+	/**
+	 * {@link Reader} over a String which is only ever not ready once all of
+	 * its characters have been read, like a Reader over a file.
+	 */
+	static class ReadyReader extends Reader {
+		private final String S;
+		private int pos;
+		private int mark;
+
+		ReadyReader(String s) {
+			this.S = s;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			if (S.length() <= pos) {
+				return -1;
+			}
+
+			int n = Math.min(len, S.length() - pos);
+			S.getChars(pos, pos + n, cbuf, off);
+			pos += n;
+			return n;
+		}
+
+		@Override
+		public boolean ready() {
+			return pos < S.length();
+		}
+
+		@Override
+		public boolean markSupported() {
+			return true;
+		}
+
+		@Override
+		public void mark(int readAheadLimit) {
+			mark = pos;
+		}
+
+		@Override
+		public void reset() {
+			pos = mark;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class AdaptiveRadixMultiTrieTest {
+
+	public AdaptiveRadixMultiTrieTest() {
+	}
+
+	/**
+	 * Test of contains method, of class AdaptiveRadixMultiTrie.
+	 */
+	@Test
+	public void testContains_String() {
+		System.out.println("contains");
+		AdaptiveRadixMultiTrie instance = new AdaptiveRadixMultiTrie();
+		instance.insert("notequal");
+		instance.insert("not");
+		instance.insert("_private");
+		instance.insert("\u00fcber");
+		instance.insert("\u540d\u524d");
+		instance.insert("\ud83d\ude00");
+		instance.insert("\ud800");
+		Assert.assertEquals(7, instance.numKeys());
+
+		Assert.assertTrue(instance.contains("notequal"));
+		Assert.assertTrue(instance.contains("not"));
+		Assert.assertFalse(instance.contains("note"));
+		Assert.assertFalse(instance.contains("no"));
+		Assert.assertTrue(instance.contains("_private"));
+		Assert.assertTrue(instance.contains("\u00fcber"));
+		Assert.assertFalse(instance.contains("\u00fc"));
+		Assert.assertTrue(instance.contains("\u540d\u524d"));
+		Assert.assertTrue(instance.contains("\ud83d\ude00"));
+		Assert.assertFalse(instance.contains("\ud83d"));
+		Assert.assertTrue(instance.contains("\ud800"));
+		Assert.assertFalse(instance.contains("not", '$'));
+	}
+
+	/**
+	 * Test of insertOrGet method, of class AdaptiveRadixMultiTrie, using
+	 * enough keys to grow nodes into every type.
+	 */
+	@Test
+	public void testInsertOrGet() {
+		System.out.println("insertOrGet");
+		AdaptiveRadixMultiTrie instance = new AdaptiveRadixMultiTrie();
+		Map<String, Integer> expected = new HashMap<String, Integer>();
+		Random random = new Random(411);
+		char[] alphabet = "ab\u00e9\u4e00\ud83d\ude00_0$".toCharArray();
+		for (int i = 0; i < 20000; i++) {
+			StringBuilder sb = new StringBuilder();
+			if (random.nextBoolean()) {
+				sb.append((char)random.nextInt(0x10000));
+			}
+
+			int length = 1 + random.nextInt(5);
+			for (int j = 0; j < length; j++) {
+				sb.append(alphabet[random.nextInt(alphabet.length)]);
+			}
+
+			String key = sb.toString();
+			char sentinel = random.nextBoolean() ? '$' : '#';
+			Integer id = expected.get(key + sentinel);
+			if (id == null) {
+				id = expected.size();
+				expected.put(key + sentinel, id);
+			}
+
+			Assert.assertEquals(key, id.intValue(), instance.insertOrGet(key, sentinel));
+		}
+
+		Assert.assertEquals(expected.size(), instance.numKeys());
+		for (Map.Entry<String, Integer> e : expected.entrySet()) {
+			String key = e.getKey().substring(0, e.getKey().length()-1);
+			char sentinel = e.getKey().charAt(key.length());
+			Assert.assertTrue(instance.contains(key, sentinel));
+			Assert.assertEquals(e.getValue().intValue(), instance.insertOrGet(key, sentinel));
+		}
+
+		Assert.assertEquals(expected.size(), instance.numKeys());
+		MultiTrie<String> frozen = instance.freeze();
+		for (Map.Entry<String, Integer> e : expected.entrySet()) {
+			String key = e.getKey().substring(0, e.getKey().length()-1);
+			char sentinel = e.getKey().charAt(key.length());
+			Assert.assertEquals(e.getValue().intValue(), frozen.insertOrGet(key, sentinel));
+		}
+	}
+}
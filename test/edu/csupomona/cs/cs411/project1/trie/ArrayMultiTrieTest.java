@@ -74,6 +74,24 @@ public class ArrayMultiTrieTest {
 	public void testContains_String_char() {
 	}
 
+	/**
+	 * Test of insertOrGet method, of class ArrayMultiTrie.
+	 */
+	@Test
+	public void testInsertOrGet() {
+		System.out.println("insertOrGet");
+		ArrayMultiTrie instance = new ArrayMultiTrie();
+		Assert.assertEquals(0, instance.insertOrGet("not", '*'));
+		Assert.assertEquals(1, instance.insertOrGet("notequal", '*'));
+		Assert.assertEquals(2, instance.insertOrGet("not", '$'));
+		Assert.assertEquals(0, instance.insertOrGet("not", '*'));
+		instance.insert("note");
+		Assert.assertEquals(3, instance.insertOrGet("note", '*'));
+		Assert.assertEquals(4, instance.insertOrGet("no", '$'));
+		Assert.assertEquals(2, instance.insertOrGet("not", '$'));
+		Assert.assertEquals(5, instance.numKeys());
+	}
+
 	@Test
 	public void testNumKeys() {
 	}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class ConcurrentMultiTrieTest {
+
+	public ConcurrentMultiTrieTest() {
+	}
+
+	/**
+	 * Test of contains method, of class ConcurrentMultiTrie.
+	 */
+	@Test
+	public void testContains_String_char() {
+		System.out.println("contains (sentinel)");
+		ConcurrentMultiTrie instance = new ConcurrentMultiTrie();
+		Assert.assertEquals(0, instance.insertOrGet("not", '$'));
+		Assert.assertEquals(1, instance.insertOrGet("a$b", '$'));
+		Assert.assertEquals(2, instance.insertOrGet("not", '#'));
+		Assert.assertEquals(0, instance.insertOrGet("not", '$'));
+		Assert.assertEquals(3, instance.numKeys());
+
+		Assert.assertTrue(instance.contains("not", '$'));
+		Assert.assertTrue(instance.contains("not", '#'));
+		Assert.assertTrue(instance.contains("a$b", '$'));
+		Assert.assertFalse(instance.contains("a", '$'));
+		Assert.assertFalse(instance.contains("no", '$'));
+		Assert.assertFalse(instance.contains("note", '$'));
+	}
+
+	/**
+	 * Test of setProbeListener method, of class ConcurrentMultiTrie.
+	 */
+	@Test
+	public void testSetProbeListener() {
+		System.out.println("setProbeListener");
+		ConcurrentMultiTrie instance = new ConcurrentMultiTrie();
+		final List<Integer> probes = new ArrayList<Integer>();
+		instance.setProbeListener(new ProbeListener() {
+			@Override
+			public void probed(int count) {
+				probes.add(count);
+			}
+		});
+
+		instance.insertOrGet("a", '$');
+		instance.insertOrGet("b", '$');
+		instance.insertOrGet("c", '$');
+		Assert.assertTrue(instance.contains("a", '$'));
+		Assert.assertFalse(instance.contains("d", '$'));
+		Assert.assertEquals(Arrays.asList(0, 1, 2, 2, 3), probes);
+
+		instance.setProbeListener(null);
+		instance.insertOrGet("d", '$');
+		Assert.assertEquals(5, probes.size());
+	}
+
+	/**
+	 * Stress test of insertOrGet and contains methods, of class
+	 * ConcurrentMultiTrie, inserting the same keys from several threads in
+	 * different orders.
+	 */
+	@Test
+	public void testInsertOrGet_Concurrent() throws InterruptedException, ExecutionException {
+		System.out.println("insertOrGet (concurrent)");
+		final int numThreads = 8;
+		Random random = new Random(411);
+		final List<String> keys = new ArrayList<String>();
+		for (int i = 0; i < 5000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int length = 1 + random.nextInt(6);
+			for (int j = 0; j < length; j++) {
+				sb.append((char)('a' + random.nextInt(4)));
+			}
+
+			keys.add(sb.toString());
+		}
+
+		final List<String> distinct = new ArrayList<String>(new LinkedHashSet<String>(keys));
+		final ConcurrentMultiTrie instance = new ConcurrentMultiTrie();
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger inserts = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+		for (int t = 0; t < numThreads; t++) {
+			final long seed = t;
+			results.add(executor.submit(new Callable<int[]>() {
+				@Override
+				public int[] call() throws InterruptedException {
+					List<Integer> order = new ArrayList<Integer>();
+					for (int i = 0; i < distinct.size(); i++) {
+						order.add(i);
+					}
+
+					Collections.shuffle(order, new Random(seed));
+					int[] ids = new int[distinct.size()];
+					boolean[] inserted = new boolean[1];
+					start.await();
+					for (int i : order) {
+						String key = distinct.get(i);
+						ids[i] = instance.insertOrGet(key, '$', inserted);
+						if (inserted[0]) {
+							inserts.incrementAndGet();
+						}
+
+						Assert.assertTrue(instance.contains(key, '$'));
+						Assert.assertFalse(instance.contains(key, '#'));
+					}
+
+					return ids;
+				}
+			}));
+		}
+
+		start.countDown();
+		int[] expected = results.get(0).get();
+		for (Future<int[]> result : results) {
+			Assert.assertTrue(Arrays.equals(expected, result.get()));
+		}
+
+		executor.shutdown();
+		Assert.assertEquals(distinct.size(), instance.numKeys());
+		Assert.assertEquals(distinct.size(), inserts.get());
+		boolean[] seen = new boolean[distinct.size()];
+		for (int id : expected) {
+			Assert.assertFalse(seen[id]);
+			seen[id] = true;
+		}
+
+		for (String key : keys) {
+			Assert.assertTrue(instance.contains(key, '$'));
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class DoubleArrayMultiTrieTest {
+
+	public DoubleArrayMultiTrieTest() {
+	}
+
+	/**
+	 * Test of insert method, of class DoubleArrayMultiTrie.
+	 */
+	@Test
+	public void testInsert_String() {
+		System.out.println("insert");
+		DoubleArrayMultiTrie instance = new DoubleArrayMultiTrie();
+		instance.insert("notequal");
+		instance.insert("not");
+		instance.insert("note");
+		instance.insert("notequals");
+		Assert.assertEquals(4, instance.numKeys());
+	}
+
+	@Test
+	public void testInsert_String_char() {
+	}
+
+	@Test
+	public void testContains_String() {
+		System.out.println("contains");
+		DoubleArrayMultiTrie instance = new DoubleArrayMultiTrie();
+		instance.insert("notequal");
+		instance.insert("not");
+		instance.insert("int");
+		instance.insert("interface");
+		instance.insert("i");
+		instance.insert("a");
+		instance.insert("asdf");
+
+		Assert.assertEquals(true, instance.contains("notequal"));
+		Assert.assertEquals(true, instance.contains("not"));
+		Assert.assertEquals(false, instance.contains("note"));
+		Assert.assertEquals(false, instance.contains("notequals"));
+		Assert.assertEquals(true, instance.contains("int"));
+		Assert.assertEquals(true, instance.contains("interface"));
+		Assert.assertEquals(true, instance.contains("i"));
+		Assert.assertEquals(true, instance.contains("a"));
+		Assert.assertEquals(true, instance.contains("asdf"));
+	}
+
+	@Test
+	public void testContains_String_char() {
+		System.out.println("contains (sentinel)");
+		DoubleArrayMultiTrie instance = new DoubleArrayMultiTrie();
+		Set<String> expected = new HashSet<String>();
+		char[] sentinels = { '*', '$', '#' };
+		String alphabet = "abcdefgxyzABZ019_-\u00e9\u4e2d";
+		Random random = new Random(411);
+		for (int i = 0; i < 20000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int length = 1 + random.nextInt(8);
+			for (int j = 0; j < length; j++) {
+				sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+
+			char sentinel = sentinels[random.nextInt(sentinels.length)];
+			if (random.nextBoolean()) {
+				instance.insert(sb.toString(), sentinel);
+				expected.add(sb.toString() + sentinel);
+			}
+
+			Assert.assertEquals(expected.contains(sb.toString() + sentinel), instance.contains(sb.toString(), sentinel));
+		}
+
+		Assert.assertEquals(expected.size(), instance.numKeys());
+		for (String key : expected) {
+			Assert.assertTrue(instance.contains(key.substring(0, key.length()-1), key.charAt(key.length()-1)));
+		}
+
+		instance = new DoubleArrayMultiTrie();
+		instance.insert("a*", '$');
+		Assert.assertTrue(instance.contains("a*", '$'));
+		Assert.assertFalse(instance.contains("a", '*'));
+		Assert.assertFalse(instance.contains("a", '$'));
+	}
+
+	/**
+	 * Test of insertOrGet method, of class DoubleArrayMultiTrie.
+	 */
+	@Test
+	public void testInsertOrGet() {
+		System.out.println("insertOrGet");
+		DoubleArrayMultiTrie instance = new DoubleArrayMultiTrie();
+		Assert.assertEquals(0, instance.insertOrGet("not", '*'));
+		Assert.assertEquals(1, instance.insertOrGet("notequal", '*'));
+		Assert.assertEquals(2, instance.insertOrGet("not", '$'));
+		Assert.assertEquals(0, instance.insertOrGet("not", '*'));
+		instance.insert("note");
+		Assert.assertEquals(3, instance.insertOrGet("note", '*'));
+		Assert.assertEquals(4, instance.insertOrGet("no", '$'));
+		Assert.assertEquals(2, instance.insertOrGet("not", '$'));
+		Assert.assertEquals(5, instance.numKeys());
+
+		boolean[] inserted = new boolean[1];
+		Assert.assertEquals(5, instance.insertOrGet("nod", '$', inserted));
+		Assert.assertTrue(inserted[0]);
+		Assert.assertEquals(5, instance.insertOrGet("nod", '$', inserted));
+		Assert.assertFalse(inserted[0]);
+	}
+
+	/**
+	 * Test of setProbeListener method, of class DoubleArrayMultiTrie.
+	 */
+	@Test
+	public void testSetProbeListener() {
+		System.out.println("setProbeListener");
+		DoubleArrayMultiTrie instance = new DoubleArrayMultiTrie();
+		final int[] reports = new int[1];
+		instance.setProbeListener(new ProbeListener() {
+			@Override
+			public void probed(int probes) {
+				reports[0]++;
+			}
+		});
+
+		instance.insertOrGet("a", '$');
+		instance.insertOrGet("b", '$');
+		Assert.assertEquals(2, reports[0]);
+		Assert.assertTrue(instance.contains("a", '$'));
+		Assert.assertFalse(instance.contains("c", '$'));
+		Assert.assertEquals(2, reports[0]);
+	}
+
+	@Test
+	public void testNumKeys() {
+	}
+
+}
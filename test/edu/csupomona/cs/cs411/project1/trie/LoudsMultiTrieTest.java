@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class LoudsMultiTrieTest {
+
+	public LoudsMultiTrieTest() {
+	}
+
+	/**
+	 * Test of freeze method, of each MultiTrie.
+	 */
+	@Test
+	public void testFreeze() {
+		System.out.println("freeze");
+		List<MultiTrie<String>> tries = new ArrayList<MultiTrie<String>>();
+		tries.add(new ArrayMultiTrie());
+		tries.add(new DoubleArrayMultiTrie());
+		tries.add(new ConcurrentMultiTrie());
+
+		Random random = new Random(411);
+		String[] keys = new String[6000];
+		char[] sentinels = { '$', '#', '*' };
+		for (int i = 0; i < keys.length; i++) {
+			StringBuilder sb = new StringBuilder();
+			sb.append((char)('a' + random.nextInt(26)));
+			int length = random.nextInt(8);
+			for (int j = 0; j < length; j++) {
+				sb.append("abcdefXYZ019_".charAt(random.nextInt(13)));
+			}
+
+			keys[i] = sb.toString();
+		}
+
+		for (MultiTrie<String> trie : tries) {
+			for (int i = 0; i < keys.length/2; i++) {
+				trie.insert(keys[i], sentinels[i % sentinels.length]);
+			}
+
+			MultiTrie<String> frozen = trie.freeze();
+			Assert.assertEquals(trie.numKeys(), frozen.numKeys());
+			Assert.assertSame(frozen, frozen.freeze());
+			for (String key : keys) {
+				for (char sentinel : sentinels) {
+					boolean contained = trie.contains(key, sentinel);
+					Assert.assertEquals(key + sentinel, contained, frozen.contains(key, sentinel));
+					if (contained) {
+						Assert.assertEquals(trie.insertOrGet(key, sentinel), frozen.insertOrGet(key, sentinel));
+					}
+				}
+			}
+
+			try {
+				frozen.insert("missing", '$');
+				Assert.fail();
+			} catch (UnsupportedOperationException e) {
+			}
+		}
+
+		MultiTrie<String> empty = new DoubleArrayMultiTrie().freeze();
+		Assert.assertEquals(0, empty.numKeys());
+		Assert.assertFalse(empty.contains("a"));
+	}
+}
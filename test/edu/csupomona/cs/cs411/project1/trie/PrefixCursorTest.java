@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2014 Collin Smith <collinsmith@csupomona.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package edu.csupomona.cs.cs411.project1.trie;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Collin Smith <collinsmith@csupomona.edu>
+ */
+public class PrefixCursorTest {
+
+	public PrefixCursorTest() {
+	}
+
+	/**
+	 * Test of prefixCursor method, of each MultiTrie.
+	 */
+	@Test
+	public void testPrefixCursor() {
+		System.out.println("prefixCursor");
+		List<MultiTrie<String>> tries = new ArrayList<MultiTrie<String>>();
+		tries.add(new ArrayMultiTrie());
+		tries.add(new DoubleArrayMultiTrie());
+		tries.add(new ConcurrentMultiTrie());
+		tries.add(new AdaptiveRadixMultiTrie());
+
+		Random random = new Random(411);
+		String[] keys = new String[3000];
+		char[] sentinels = { '$', '#', '*' };
+		for (int i = 0; i < keys.length; i++) {
+			StringBuilder sb = new StringBuilder();
+			sb.append((char)('a' + random.nextInt(3)));
+			int length = random.nextInt(6);
+			for (int j = 0; j < length; j++) {
+				sb.append("abcXY_9\u00e9\u4e2d".charAt(random.nextInt(9)));
+			}
+
+			keys[i] = sb.toString();
+		}
+
+		String[] prefixes = { "", "a", "b", "ab", "abc", "c\u00e9", "a\u4e2d", "d", "Z", "abcabc" };
+		int size = tries.size();
+		for (int t = 0; t < size; t++) {
+			for (int i = 0; i < keys.length; i++) {
+				tries.get(t).insert(keys[i], sentinels[i % sentinels.length]);
+			}
+
+			tries.add(tries.get(t).freeze());
+		}
+
+		for (MultiTrie<String> trie : tries) {
+			Map<String, Integer> expected = new HashMap<String, Integer>();
+			for (int i = 0; i < keys.length; i += sentinels.length) {
+				expected.put(keys[i], trie.insertOrGet(keys[i], '$'));
+			}
+
+			for (String prefix : prefixes) {
+				Map<String, Integer> matching = new HashMap<String, Integer>();
+				for (Map.Entry<String, Integer> e : expected.entrySet()) {
+					if (e.getKey().startsWith(prefix)) {
+						matching.put(e.getKey(), e.getValue());
+					}
+				}
+
+				Map<String, Integer> actual = new HashMap<String, Integer>();
+				PrefixCursor cursor = trie.prefixCursor(prefix, '$', Integer.MAX_VALUE);
+				while (cursor.next()) {
+					String key = new String(cursor.chars(), 0, cursor.length());
+					Assert.assertNull(key, actual.put(key, cursor.symbol()));
+				}
+
+				Assert.assertFalse(cursor.next());
+				Assert.assertEquals(prefix, matching, actual);
+
+				cursor = trie.prefixCursor(prefix, '$', 5);
+				int count = 0;
+				while (cursor.next()) {
+					String key = new String(cursor.chars(), 0, cursor.length());
+					Assert.assertEquals(matching.get(key), Integer.valueOf(cursor.symbol()));
+					count++;
+				}
+
+				Assert.assertEquals(Math.min(5, matching.size()), count);
+			}
+		}
+
+		try {
+			new DoubleArrayMultiTrie().prefixCursor("a", 'a', 1);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new DoubleArrayMultiTrie().prefixCursor("a", '$', -1);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		Assert.assertFalse(new AdaptiveRadixMultiTrie().prefixCursor("", '$', 10).next());
+	}
+
+	/**
+	 * Test of prefixCursor method, of class LoudsMultiTrie.
+	 */
+	@Test
+	public void testPrefixCursorOrder() {
+		System.out.println("prefixCursorOrder");
+		MultiTrie<String> trie = new DoubleArrayMultiTrie();
+		String[] keys = { "beta", "alpha", "alphabet", "al", "alp", "gamma" };
+		for (String key : keys) {
+			trie.insert(key, '$');
+		}
+
+		trie.insert("alps", '#');
+		String[] expected = { "al", "alp", "alpha", "alphabet" };
+		PrefixCursor cursor = trie.freeze().prefixCursor("al", '$', expected.length);
+		char[] chars = null;
+		for (String key : expected) {
+			Assert.assertTrue(cursor.next());
+			Assert.assertEquals(key, new String(cursor.chars(), 0, cursor.length()));
+			if (chars != null) {
+				Assert.assertSame(chars, cursor.chars());
+			}
+
+			chars = cursor.chars();
+		}
+
+		Assert.assertFalse(cursor.next());
+	}
+}